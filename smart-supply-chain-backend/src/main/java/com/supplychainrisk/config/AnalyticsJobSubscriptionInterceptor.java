@@ -0,0 +1,75 @@
+package com.supplychainrisk.config;
+
+import com.supplychainrisk.entity.User;
+import com.supplychainrisk.service.AnalyticsJobService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Applies the analytics job visibility rule to STOMP subscriptions.
+ *
+ * Job progress is published to {@code /topic/analytics/jobs/{jobId}}. A client may
+ * subscribe to a job's topic only if the REST API would show it the job: it
+ * submitted the job or is an admin. The simple broker matches subscriptions as
+ * Ant patterns, so pattern destinations are refused outright, since one could
+ * match every job's topic.
+ */
+public class AnalyticsJobSubscriptionInterceptor implements ChannelInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsJobSubscriptionInterceptor.class);
+
+    private final AnalyticsJobService analyticsJobService;
+
+    public AnalyticsJobSubscriptionInterceptor(AnalyticsJobService analyticsJobService) {
+        this.analyticsJobService = analyticsJobService;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() != StompCommand.SUBSCRIBE) {
+            return message;
+        }
+        String destination = accessor.getDestination();
+        if (destination == null) {
+            return message;
+        }
+
+        if (isPattern(destination)) {
+            logger.warn("Refused pattern subscription to {}", destination);
+            throw new AccessDeniedException("Pattern subscriptions are not allowed");
+        }
+        if (destination.startsWith(AnalyticsJobService.TOPIC_PREFIX)) {
+            String jobId = destination.substring(AnalyticsJobService.TOPIC_PREFIX.length());
+            Authentication authentication = accessor.getUser() instanceof Authentication
+                ? (Authentication) accessor.getUser() : null;
+            if (!analyticsJobService.isVisible(jobId, userId(authentication), isAdmin(authentication))) {
+                logger.warn("Refused subscription to analytics job {}", jobId);
+                throw new AccessDeniedException("Not allowed to follow analytics job " + jobId);
+            }
+        }
+        return message;
+    }
+
+    private static boolean isPattern(String destination) {
+        return destination.indexOf('*') >= 0 || destination.indexOf('?') >= 0 || destination.indexOf('{') >= 0;
+    }
+
+    private static Long userId(Authentication authentication) {
+        return authentication != null && authentication.getPrincipal() instanceof User
+            ? ((User) authentication.getPrincipal()).getId() : null;
+    }
+
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication != null && authentication.getAuthorities().stream()
+            .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+}
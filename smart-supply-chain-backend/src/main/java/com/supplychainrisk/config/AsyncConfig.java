@@ -1,11 +1,17 @@
 package com.supplychainrisk.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Configuration
 @EnableAsync
@@ -21,4 +27,70 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+
+    /**
+     * Single-slot executor for bulk risk recalculation; only one run at a time
+     */
+    @Bean(name = "riskRecalculationExecutor")
+    public Executor riskRecalculationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("risk-recalc-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Single-slot executor coordinating the nightly batch scoring job
+     */
+    @Bean(name = "nightlyScoringExecutor")
+    public Executor nightlyScoringExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("nightly-scoring-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Fixed pool for submitted analytics jobs, off the request threads. The queue orders
+     * jobs by priority, so only Comparable tasks may be passed to execute(); queue depth
+     * is limited by AnalyticsJobService at submission.
+     */
+    @Bean(name = "analyticsJobExecutor", destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor analyticsJobExecutor(@Value("${analytics.jobs.workers:4}") int workers) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new PriorityBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "analytics-job-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    /**
+     * Low-priority pool for shadow scoring by a candidate model. The queue is bounded and
+     * a full queue rejects the task, so shadow work is shed under load instead of queuing
+     * behind or slowing down primary predictions.
+     */
+    @Bean(name = "shadowEvaluationExecutor", destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor shadowEvaluationExecutor(@Value("${ml.candidate.shadow-workers:2}") int workers,
+                                                       @Value("${ml.candidate.shadow-queue-capacity:100}")
+                                                       int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "ml-shadow-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -0,0 +1,133 @@
+package com.supplychainrisk.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.supplychainrisk.service.CircuitBreaker;
+import com.supplychainrisk.service.MLServiceClient;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+
+@Configuration
+public class MLClientConfig {
+
+    /**
+     * Pooled HTTP client for the ML service. Retries are off: a failed call
+     * goes to the fallback path, and hedging covers slow responses.
+     */
+    @Bean(name = "mlHttpClient", destroyMethod = "close")
+    public CloseableHttpClient mlHttpClient(MeterRegistry meterRegistry,
+                                            @Value("${ml.client.max-connections:32}") int maxConnections,
+                                            @Value("${ml.client.connect-timeout-ms:1000}") long connectTimeoutMs) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(maxConnections)
+            .setMaxConnPerRoute(maxConnections)
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                .setTimeToLive(TimeValue.ofMinutes(5))
+                .build())
+            .build();
+
+        Gauge.builder("ml.client.pool.leased", connectionManager, pool -> pool.getTotalStats().getLeased())
+            .register(meterRegistry);
+        Gauge.builder("ml.client.pool.available", connectionManager, pool -> pool.getTotalStats().getAvailable())
+            .register(meterRegistry);
+        Gauge.builder("ml.client.pool.pending", connectionManager, pool -> pool.getTotalStats().getPending())
+            .register(meterRegistry);
+
+        return HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .evictIdleConnections(TimeValue.ofSeconds(30))
+            .disableAutomaticRetries()
+            .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    @Primary
+    public MLServiceClient mlServiceClient(@Qualifier("mlHttpClient") CloseableHttpClient mlHttpClient,
+                                           ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                           @Value("${ml.service.url:http://localhost:5000}") String mlServiceUrl,
+                                           @Value("${ml.client.deadline-ms:3000}") long deadlineMs,
+                                           @Value("${ml.client.max-concurrent-calls:16}") int maxConcurrentCalls,
+                                           @Value("${ml.client.bulkhead-wait-ms:50}") long bulkheadWaitMs,
+                                           @Value("${ml.client.hedge-delay-ms:0}") long hedgeDelayMs,
+                                           @Value("${ml.client.circuit.window-size:20}") int windowSize,
+                                           @Value("${ml.client.circuit.minimum-calls:10}") int minimumCalls,
+                                           @Value("${ml.client.circuit.failure-rate-threshold:0.5}")
+                                           double failureRateThreshold,
+                                           @Value("${ml.client.circuit.open-duration-ms:30000}") long openDurationMs,
+                                           @Value("${ml.client.circuit.half-open-calls:3}") int halfOpenCalls) {
+        return MLServiceClient.builder()
+            .baseUrl(mlServiceUrl)
+            .httpClient(mlHttpClient)
+            .objectMapper(objectMapper)
+            .meterRegistry(meterRegistry)
+            .deadline(Duration.ofMillis(deadlineMs))
+            .maxConcurrentCalls(maxConcurrentCalls)
+            .bulkheadWait(Duration.ofMillis(bulkheadWaitMs))
+            .hedgeDelay(Duration.ofMillis(hedgeDelayMs))
+            .circuitBreaker(new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold,
+                Duration.ofMillis(openDurationMs), halfOpenCalls))
+            .build();
+    }
+
+    /**
+     * Client for shadow scoring by a candidate model. It shares the connection pool but has
+     * its own small bulkhead that never waits and its own circuit breaker, so shadow calls
+     * can neither take the primary client's slots nor open its breaker.
+     */
+    @Bean(destroyMethod = "close")
+    public MLServiceClient mlShadowClient(@Qualifier("mlHttpClient") CloseableHttpClient mlHttpClient,
+                                          ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                          @Value("${ml.service.url:http://localhost:5000}") String mlServiceUrl,
+                                          @Value("${ml.client.deadline-ms:3000}") long deadlineMs,
+                                          @Value("${ml.candidate.shadow-workers:2}") int shadowWorkers) {
+        return MLServiceClient.builder()
+            .name("shadow")
+            .baseUrl(mlServiceUrl)
+            .httpClient(mlHttpClient)
+            .objectMapper(objectMapper)
+            .meterRegistry(meterRegistry)
+            .deadline(Duration.ofMillis(deadlineMs))
+            .maxConcurrentCalls(shadowWorkers)
+            .bulkheadWait(Duration.ZERO)
+            .build();
+    }
+
+    /**
+     * Client for bulk scoring jobs such as the nightly re-prediction. Its bulkhead is sized
+     * to the job's workers and it has its own circuit breaker, so a night of bulk calls
+     * neither queues behind served requests nor opens the breaker they depend on.
+     */
+    @Bean(destroyMethod = "close")
+    public MLServiceClient mlBatchClient(@Qualifier("mlHttpClient") CloseableHttpClient mlHttpClient,
+                                         ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                         @Value("${ml.service.url:http://localhost:5000}") String mlServiceUrl,
+                                         @Value("${ml.client.deadline-ms:3000}") long deadlineMs,
+                                         @Value("${risk.nightly-scoring.workers:2}") int batchWorkers,
+                                         @Value("${ml.client.bulkhead-wait-ms:50}") long bulkheadWaitMs) {
+        return MLServiceClient.builder()
+            .name("batch")
+            .baseUrl(mlServiceUrl)
+            .httpClient(mlHttpClient)
+            .objectMapper(objectMapper)
+            .meterRegistry(meterRegistry)
+            .deadline(Duration.ofMillis(deadlineMs))
+            .maxConcurrentCalls(batchWorkers)
+            .bulkheadWait(Duration.ofMillis(bulkheadWaitMs))
+            .build();
+    }
+}
@@ -3,12 +3,23 @@ package com.supplychainrisk.controller;
 import com.supplychainrisk.dto.*;
 import com.supplychainrisk.entity.AnalyticsResult;
 import com.supplychainrisk.entity.RiskPrediction;
+import com.supplychainrisk.entity.User;
+import com.supplychainrisk.exception.BusinessException;
 import com.supplychainrisk.service.AdvancedAnalyticsService;
+import com.supplychainrisk.service.CandidateModelEvaluator;
+import com.supplychainrisk.service.CorrelationAnalysisService;
+import com.supplychainrisk.service.FallbackModelService;
 import com.supplychainrisk.service.MLPredictionService;
+import com.supplychainrisk.service.ModelDriftMonitor;
+import com.supplychainrisk.service.NightlyRiskScoringJobService;
+import com.supplychainrisk.service.OnlineDelayModelService;
+import com.supplychainrisk.service.ScenarioAnalysisService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
@@ -28,6 +39,27 @@ public class AdvancedAnalyticsController {
     @Autowired
     private MLPredictionService mlPredictionService;
     
+    @Autowired
+    private CorrelationAnalysisService correlationAnalysisService;
+    
+    @Autowired
+    private ScenarioAnalysisService scenarioAnalysisService;
+    
+    @Autowired
+    private FallbackModelService fallbackModelService;
+    
+    @Autowired
+    private ModelDriftMonitor modelDriftMonitor;
+    
+    @Autowired
+    private CandidateModelEvaluator candidateModelEvaluator;
+    
+    @Autowired
+    private NightlyRiskScoringJobService nightlyRiskScoringJobService;
+    
+    @Autowired
+    private OnlineDelayModelService onlineDelayModelService;
+    
     /**
      * Generate comprehensive analytics analysis
      */
@@ -117,6 +149,129 @@ public class AdvancedAnalyticsController {
         }
     }
     
+    /**
+     * Get the in-process fallback model version and shape
+     */
+    @GetMapping("/fallback-model")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPPLY_MANAGER')")
+    public ResponseEntity<Map<String, Object>> getFallbackModelStatus() {
+        return ResponseEntity.ok(fallbackModelService.getStatus());
+    }
+    
+    /**
+     * Reload the fallback model file
+     */
+    @PostMapping("/fallback-model/reload")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> reloadFallbackModel() {
+        try {
+            return ResponseEntity.ok(fallbackModelService.reload());
+        } catch (BusinessException e) {
+            return ResponseEntity.status(e.getStatus()).body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Get drift references and the latest PSI/KS comparison per prediction model
+     */
+    @GetMapping("/model-drift")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPPLY_MANAGER')")
+    public ResponseEntity<Map<String, Object>> getModelDrift() {
+        return ResponseEntity.ok(modelDriftMonitor.getStatus());
+    }
+    
+    /**
+     * Discard drift references, e.g. after an accepted shift in the supplier base
+     */
+    @PostMapping("/model-drift/rebaseline")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> rebaselineModelDrift() {
+        return ResponseEntity.ok(modelDriftMonitor.rebaseline());
+    }
+    
+    /**
+     * Get the current and candidate model versions and the open shadow/canary comparison window
+     */
+    @GetMapping("/candidate-model")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPPLY_MANAGER')")
+    public ResponseEntity<Map<String, Object>> getCandidateModel() {
+        return ResponseEntity.ok(candidateModelEvaluator.getStatus());
+    }
+    
+    /**
+     * Start the nightly batch scoring job now, optionally resuming the last unfinished run
+     */
+    @PostMapping("/nightly-scoring")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> startNightlyScoring(
+            @RequestParam(defaultValue = "false") boolean resume,
+            Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(nightlyRiskScoringJobService.startScoring(resume, user.getId()));
+        } catch (BusinessException e) {
+            return ResponseEntity.status(e.getStatus()).body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Get progress, throughput and ETA of the nightly batch scoring job
+     */
+    @GetMapping("/nightly-scoring")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPPLY_MANAGER')")
+    public ResponseEntity<Map<String, Object>> getNightlyScoringProgress() {
+        return ResponseEntity.ok(nightlyRiskScoringJobService.getProgress());
+    }
+    
+    /**
+     * Stop the nightly batch scoring job after the current chunk
+     */
+    @PostMapping("/nightly-scoring/stop")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> stopNightlyScoring() {
+        try {
+            return ResponseEntity.ok(nightlyRiskScoringJobService.requestStop());
+        } catch (BusinessException e) {
+            return ResponseEntity.status(e.getStatus()).body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Get the online delay model's training progress and snapshot state
+     */
+    @GetMapping("/online-delay-model")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPPLY_MANAGER')")
+    public ResponseEntity<Map<String, Object>> getOnlineDelayModel() {
+        return ResponseEntity.ok(onlineDelayModelService.getStatus());
+    }
+    
+    /**
+     * Snapshot the online delay model to disk now
+     */
+    @PostMapping("/online-delay-model/snapshot")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> snapshotOnlineDelayModel() {
+        try {
+            return ResponseEntity.ok(onlineDelayModelService.snapshot());
+        } catch (BusinessException e) {
+            return ResponseEntity.status(e.getStatus()).body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Predict the probability that a shipment is delivered late from its lane and carrier
+     */
+    @GetMapping("/shipment-delay/{shipmentId}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPPLY_MANAGER') or hasRole('VIEWER')")
+    public ResponseEntity<Map<String, Object>> predictShipmentDelay(@PathVariable Long shipmentId) {
+        try {
+            return ResponseEntity.ok(onlineDelayModelService.predict(shipmentId));
+        } catch (BusinessException e) {
+            return ResponseEntity.status(e.getStatus()).body(Map.of("error", e.getMessage()));
+        }
+    }
+    
     /**
      * Get analytics summary with key metrics
      */
@@ -141,13 +296,15 @@ public class AdvancedAnalyticsController {
     @PostMapping("/scenario-analysis")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPPLY_MANAGER')")
     public ResponseEntity<Map<String, Object>> performScenarioAnalysis(
-            @RequestBody Map<String, Object> scenarioRequest) {
+            @RequestBody ScenarioAnalysisRequest scenarioRequest) {
         try {
-            logger.info("Performing scenario analysis: {}", scenarioRequest.get("scenarioName"));
-            Map<String, Object> result = generateScenarioAnalysis(scenarioRequest);
+            logger.info("Performing scenario analysis: {}", scenarioRequest.getScenarioName());
+            Map<String, Object> result = scenarioAnalysisService.analyze(scenarioRequest);
             
             return ResponseEntity.ok(result);
             
+        } catch (BusinessException e) {
+            return ResponseEntity.status(e.getStatus()).body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             logger.error("Scenario analysis failed", e);
             return ResponseEntity.internalServerError().body(null);
@@ -160,13 +317,15 @@ public class AdvancedAnalyticsController {
     @GetMapping("/correlation-analysis")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPPLY_MANAGER')")
     public ResponseEntity<Map<String, Object>> getCorrelationAnalysis(
-            @RequestParam List<String> variables,
+            @RequestParam(required = false) List<String> variables,
             @RequestParam(defaultValue = "LAST_90_DAYS") String timeRange) {
         try {
-            Map<String, Object> analysis = generateCorrelationAnalysis(variables, timeRange);
+            Map<String, Object> analysis = correlationAnalysisService.getCorrelationAnalysis(variables, timeRange);
             
             return ResponseEntity.ok(analysis);
             
+        } catch (BusinessException e) {
+            return ResponseEntity.status(e.getStatus()).body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             logger.error("Correlation analysis failed", e);
             return ResponseEntity.internalServerError().body(null);
@@ -225,73 +384,6 @@ public class AdvancedAnalyticsController {
         return summary;
     }
     
-    private Map<String, Object> generateScenarioAnalysis(Map<String, Object> scenarioRequest) {
-        Map<String, Object> analysis = new java.util.HashMap<>();
-        
-        String scenarioName = (String) scenarioRequest.get("scenarioName");
-        analysis.put("scenarioName", scenarioName);
-        analysis.put("analysisDate", java.time.LocalDateTime.now());
-        
-        // Mock scenario analysis results
-        Map<String, Object> baselineScenario = new java.util.HashMap<>();
-        baselineScenario.put("overallRisk", 45.2);
-        baselineScenario.put("expectedCost", 125000.0);
-        baselineScenario.put("timeToDeliver", 14);
-        analysis.put("baseline", baselineScenario);
-        
-        Map<String, Object> stressScenario = new java.util.HashMap<>();
-        stressScenario.put("overallRisk", 78.5);
-        stressScenario.put("expectedCost", 187500.0);
-        stressScenario.put("timeToDeliver", 21);
-        analysis.put("stressTest", stressScenario);
-        
-        // Recommendations
-        List<String> recommendations = new java.util.ArrayList<>();
-        recommendations.add("Increase inventory buffer by 15%");
-        recommendations.add("Diversify supplier base for critical components");
-        recommendations.add("Implement enhanced monitoring for high-risk suppliers");
-        analysis.put("recommendations", recommendations);
-        
-        return analysis;
-    }
-    
-    private Map<String, Object> generateCorrelationAnalysis(List<String> variables, String timeRange) {
-        Map<String, Object> analysis = new java.util.HashMap<>();
-        
-        analysis.put("variables", variables);
-        analysis.put("timeRange", timeRange);
-        analysis.put("analysisDate", java.time.LocalDateTime.now());
-        
-        // Mock correlation matrix
-        Map<String, Map<String, Double>> correlationMatrix = new java.util.HashMap<>();
-        for (String var1 : variables) {
-            Map<String, Double> correlations = new java.util.HashMap<>();
-            for (String var2 : variables) {
-                if (var1.equals(var2)) {
-                    correlations.put(var2, 1.0);
-                } else {
-                    // Generate mock correlation values
-                    correlations.put(var2, Math.random() * 2 - 1); // Random between -1 and 1
-                }
-            }
-            correlationMatrix.put(var1, correlations);
-        }
-        analysis.put("correlationMatrix", correlationMatrix);
-        
-        // Significant correlations
-        List<Map<String, Object>> significantCorrelations = new java.util.ArrayList<>();
-        Map<String, Object> strongCorr = new java.util.HashMap<>();
-        strongCorr.put("variable1", "delivery_performance");
-        strongCorr.put("variable2", "supplier_risk_score");
-        strongCorr.put("correlation", -0.78);
-        strongCorr.put("significance", "high");
-        significantCorrelations.add(strongCorr);
-        
-        analysis.put("significantCorrelations", significantCorrelations);
-        
-        return analysis;
-    }
-    
     private Map<String, Object> generateDashboardData(Map<String, Object> dashboardRequest) {
         Map<String, Object> dashboard = new java.util.HashMap<>();
         
@@ -0,0 +1,95 @@
+package com.supplychainrisk.controller;
+
+import com.supplychainrisk.dto.AnalyticsRequest;
+import com.supplychainrisk.entity.AnalyticsResult;
+import com.supplychainrisk.entity.User;
+import com.supplychainrisk.service.AnalyticsJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/analytics/jobs")
+@Tag(name = "Analytics Jobs", description = "APIs for running predictive and comprehensive analytics in the background")
+@CrossOrigin(origins = "*")
+public class AnalyticsJobController {
+
+    @Autowired
+    private AnalyticsJobService analyticsJobService;
+
+    @PostMapping("/predictive-analytics")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPPLY_MANAGER')")
+    @Operation(summary = "Queue predictive analytics; progress is published to /topic/analytics/jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> submitPredictiveAnalytics(
+            @RequestBody AnalyticsRequest request,
+            @Parameter(description = "HIGH, NORMAL or LOW") @RequestParam(defaultValue = "NORMAL") AnalyticsJobService.Priority priority,
+            Authentication authentication) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(analyticsJobService.submit(
+            AnalyticsJobService.JobType.PREDICTIVE, request, priority, userId(authentication)));
+    }
+
+    @PostMapping("/comprehensive-analysis")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPPLY_MANAGER')")
+    @Operation(summary = "Queue comprehensive analytics; progress is published to /topic/analytics/jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> submitComprehensiveAnalysis(
+            @RequestBody AnalyticsRequest request,
+            @Parameter(description = "HIGH, NORMAL or LOW") @RequestParam(defaultValue = "NORMAL") AnalyticsJobService.Priority priority,
+            Authentication authentication) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(analyticsJobService.submit(
+            AnalyticsJobService.JobType.COMPREHENSIVE, request, priority, userId(authentication)));
+    }
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPPLY_MANAGER')")
+    @Operation(summary = "List queued and running analytics jobs in service order")
+    public ResponseEntity<List<Map<String, Object>>> listActiveJobs(Authentication authentication) {
+        return ResponseEntity.ok(analyticsJobService.listActiveJobs(userId(authentication), isAdmin(authentication)));
+    }
+
+    @GetMapping("/queue")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPPLY_MANAGER')")
+    @Operation(summary = "Get analytics job queue depth and worker usage")
+    public ResponseEntity<Map<String, Object>> getQueueStatistics() {
+        return ResponseEntity.ok(analyticsJobService.getQueueStatistics());
+    }
+
+    @GetMapping("/{jobId}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPPLY_MANAGER')")
+    @Operation(summary = "Get the status, stage and progress of an analytics job")
+    public ResponseEntity<Map<String, Object>> getStatus(@PathVariable String jobId, Authentication authentication) {
+        return ResponseEntity.ok(analyticsJobService.getStatus(jobId, userId(authentication), isAdmin(authentication)));
+    }
+
+    @GetMapping("/{jobId}/result")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPPLY_MANAGER')")
+    @Operation(summary = "Get the persisted result of a completed analytics job")
+    public ResponseEntity<AnalyticsResult> getResult(@PathVariable String jobId, Authentication authentication) {
+        return ResponseEntity.ok(analyticsJobService.getResult(jobId, userId(authentication), isAdmin(authentication)));
+    }
+
+    @DeleteMapping("/{jobId}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPPLY_MANAGER')")
+    @Operation(summary = "Cancel an analytics job that has not started yet")
+    public ResponseEntity<Map<String, Object>> cancel(@PathVariable String jobId, Authentication authentication) {
+        return ResponseEntity.ok(analyticsJobService.cancel(jobId, userId(authentication), isAdmin(authentication)));
+    }
+
+    private Long userId(Authentication authentication) {
+        return authentication != null && authentication.getPrincipal() instanceof User
+            ? ((User) authentication.getPrincipal()).getId() : null;
+    }
+
+    private boolean isAdmin(Authentication authentication) {
+        return authentication != null && authentication.getAuthorities().stream()
+            .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+}
@@ -3,6 +3,7 @@ package com.supplychainrisk.controller;
 import com.supplychainrisk.dto.*;
 import com.supplychainrisk.entity.Supplier;
 import com.supplychainrisk.service.EnhancedSupplierService;
+import com.supplychainrisk.service.RiskScoreHistogram;
 import com.supplychainrisk.service.SupplierIntelligenceService;
 import com.supplychainrisk.service.SupplierService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -144,6 +145,28 @@ public class EnhancedSupplierController {
         }
     }
     
+    @GetMapping("/analytics/risk-histogram")
+    @Operation(summary = "Get the live risk score histogram, percentiles and above-threshold count for one score dimension")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPPLY_MANAGER') or hasRole('VIEWER')")
+    public ResponseEntity<Map<String, Object>> getRiskScoreHistogram(
+            @Parameter(description = "Score dimension") @RequestParam(defaultValue = "OVERALL") RiskScoreHistogram.Dimension dimension,
+            @Parameter(description = "Limit to one supplier status") @RequestParam(required = false) Supplier.SupplierStatus status,
+            @Parameter(description = "Limit to one supplier tier") @RequestParam(required = false) Supplier.SupplierTier tier,
+            @Parameter(description = "Limit to one country") @RequestParam(required = false) String country,
+            @Parameter(description = "Count suppliers scoring above this value") @RequestParam(defaultValue = "70") int threshold) {
+        return ResponseEntity.ok(enhancedSupplierService.getRiskScoreHistogram(dimension, status, tier, country, threshold));
+    }
+    
+    @GetMapping("/analytics/risk-histogram/segments")
+    @Operation(summary = "Get risk score percentiles and above-threshold counts per status, tier or country")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPPLY_MANAGER') or hasRole('VIEWER')")
+    public ResponseEntity<Map<String, Object>> getRiskScoreHistogramsBySegment(
+            @Parameter(description = "Score dimension") @RequestParam(defaultValue = "OVERALL") RiskScoreHistogram.Dimension dimension,
+            @Parameter(description = "STATUS, TIER or COUNTRY") @RequestParam(defaultValue = "STATUS") String segment,
+            @Parameter(description = "Count suppliers scoring above this value") @RequestParam(defaultValue = "70") int threshold) {
+        return ResponseEntity.ok(enhancedSupplierService.getRiskScoreHistogramsBySegment(dimension, segment, threshold));
+    }
+    
     @GetMapping("/analytics/performance-trends")
     @Operation(summary = "Get performance trends analytics across all suppliers")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPPLY_MANAGER') or hasRole('VIEWER')")
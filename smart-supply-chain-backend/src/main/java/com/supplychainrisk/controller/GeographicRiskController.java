@@ -0,0 +1,52 @@
+package com.supplychainrisk.controller;
+
+import com.supplychainrisk.service.GeographicRiskDatasetService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/geo-risk")
+@Tag(name = "Geographic Risk Dataset", description = "APIs for the memory-mapped country/region risk dataset")
+@CrossOrigin(origins = "*")
+public class GeographicRiskController {
+
+    @Autowired
+    private GeographicRiskDatasetService geographicRiskDatasetService;
+
+    @GetMapping("/dataset")
+    @Operation(summary = "Get the loaded geographic risk dataset version and size")
+    public ResponseEntity<Map<String, Object>> getDatasetStatus() {
+        return ResponseEntity.ok(geographicRiskDatasetService.getStatus());
+    }
+
+    @GetMapping("/lookup")
+    @Operation(summary = "Look up the geographic risk score and factors for a country and optional region")
+    public ResponseEntity<Map<String, Object>> lookup(
+            @Parameter(description = "Country name or ISO code") @RequestParam String country,
+            @Parameter(description = "Region name or ISO 3166-2 subdivision code") @RequestParam(required = false) String region) {
+        return ResponseEntity.ok(geographicRiskDatasetService.lookup(country, region));
+    }
+
+    @PostMapping("/dataset/reload")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Re-map the geographic risk dataset file")
+    public ResponseEntity<Map<String, Object>> reloadDataset() {
+        return ResponseEntity.ok(geographicRiskDatasetService.reload());
+    }
+
+    @PostMapping(value = "/dataset", consumes = "text/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Replace the dataset from CSV (iso_code,name,score,<factor>...) and swap it in")
+    public ResponseEntity<Map<String, Object>> importDataset(@RequestBody String csv) {
+        return ResponseEntity.ok(geographicRiskDatasetService.importCsv(new BufferedReader(new StringReader(csv))));
+    }
+}
@@ -0,0 +1,81 @@
+package com.supplychainrisk.controller;
+
+import com.supplychainrisk.dto.RiskModelDefinition;
+import com.supplychainrisk.entity.RiskModelVersion;
+import com.supplychainrisk.entity.User;
+import com.supplychainrisk.service.RiskModelService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/risk-models")
+@Tag(name = "Risk Model Management", description = "APIs for versioned risk model weights, bands and country tiers")
+@CrossOrigin(origins = "*")
+public class RiskModelController {
+    
+    @Autowired
+    private RiskModelService riskModelService;
+    
+    @GetMapping("/active")
+    @Operation(summary = "Get the active risk model version and definition")
+    public ResponseEntity<Map<String, Object>> getActiveModel() {
+        return ResponseEntity.ok(riskModelService.getActiveModel());
+    }
+    
+    @GetMapping
+    @Operation(summary = "List all risk model versions")
+    public ResponseEntity<List<Map<String, Object>>> listVersions() {
+        return ResponseEntity.ok(riskModelService.listVersions());
+    }
+    
+    @GetMapping("/{version}")
+    @Operation(summary = "Get the definition of a risk model version")
+    public ResponseEntity<RiskModelDefinition> getDefinition(@PathVariable int version) {
+        return ResponseEntity.ok(riskModelService.getDefinition(version));
+    }
+    
+    @GetMapping("/{version}/diff")
+    @Operation(summary = "Show which risk components and countries differ between two versions")
+    public ResponseEntity<Map<String, Object>> diffVersions(
+            @PathVariable int version,
+            @Parameter(description = "Version to compare against") @RequestParam int from) {
+        return ResponseEntity.ok(riskModelService.diffVersions(from, version).toMap());
+    }
+    
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Publish a new risk model version; omitted sections are inherited from the active version")
+    public ResponseEntity<Map<String, Object>> publishVersion(
+            @RequestBody RiskModelDefinition definition,
+            @RequestParam(required = false) String description,
+            @Parameter(description = "Activate the new version and rescore affected suppliers")
+            @RequestParam(defaultValue = "false") boolean activate,
+            Authentication authentication) {
+        
+        User user = (User) authentication.getPrincipal();
+        RiskModelVersion version = riskModelService.publish(definition, description,
+            RiskModelService.SOURCE_API, user.getId(), activate);
+        return ResponseEntity.status(HttpStatus.CREATED).body(Map.of(
+            "version", version.getVersion(),
+            "active", version.getActive()
+        ));
+    }
+    
+    @PostMapping("/{version}/activate")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Activate a risk model version and rescore the suppliers its changes affect")
+    public ResponseEntity<Map<String, Object>> activateVersion(@PathVariable int version, Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(riskModelService.activate(version, user.getId()));
+    }
+}
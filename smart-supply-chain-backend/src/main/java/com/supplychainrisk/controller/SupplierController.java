@@ -3,8 +3,10 @@ package com.supplychainrisk.controller;
 import com.supplychainrisk.dto.SupplierDTO;
 import com.supplychainrisk.entity.Supplier;
 import com.supplychainrisk.entity.User;
+import com.supplychainrisk.exception.BusinessException;
 import com.supplychainrisk.service.SupplierService;
 import com.supplychainrisk.service.RiskAssessmentService;
+import com.supplychainrisk.service.RiskRecalculationJobService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -15,6 +17,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
@@ -33,6 +36,9 @@ public class SupplierController {
     @Autowired
     private RiskAssessmentService riskAssessmentService;
     
+    @Autowired
+    private RiskRecalculationJobService riskRecalculationJobService;
+    
     @GetMapping
     @Operation(summary = "Get all suppliers with pagination and sorting")
     public ResponseEntity<Page<SupplierDTO>> getAllSuppliers(
@@ -186,17 +192,35 @@ public class SupplierController {
     
     @PostMapping("/{id}/recalculate-risk")
     @Operation(summary = "Recalculate risk scores for a supplier")
-    public ResponseEntity<SupplierDTO> recalculateRiskScores(
-            @PathVariable Long id,
+    public ResponseEntity<SupplierDTO> recalculateRiskScores(@PathVariable Long id) {
+        SupplierDTO updatedSupplier = supplierService.recalculateRiskScores(id);
+        return ResponseEntity.ok(updatedSupplier);
+    }
+    
+    @PostMapping("/risk-recalculation")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Start a bulk risk recalculation for all suppliers")
+    public ResponseEntity<Map<String, Object>> startBulkRiskRecalculation(
+            @Parameter(description = "Resume the last failed or stopped run from its checkpoint")
+            @RequestParam(defaultValue = "false") boolean resume,
             Authentication authentication) {
         
         User user = (User) authentication.getPrincipal();
-        SupplierDTO supplier = supplierService.getSupplierById(id);
-        
-        // Convert to entity, recalculate, and update
-        // This would typically be handled in the service layer
-        SupplierDTO updatedSupplier = supplierService.updateSupplier(id, supplier, user.getId());
-        return ResponseEntity.ok(updatedSupplier);
+        Map<String, Object> progress = riskRecalculationJobService.startRecalculation(resume, user.getId());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(progress);
+    }
+    
+    @GetMapping("/risk-recalculation")
+    @Operation(summary = "Get progress and throughput of the bulk risk recalculation")
+    public ResponseEntity<Map<String, Object>> getBulkRiskRecalculationProgress() {
+        return ResponseEntity.ok(riskRecalculationJobService.getProgress());
+    }
+    
+    @PostMapping("/risk-recalculation/stop")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Stop the bulk risk recalculation after the current page")
+    public ResponseEntity<Map<String, Object>> stopBulkRiskRecalculation() {
+        return ResponseEntity.ok(riskRecalculationJobService.requestStop());
     }
     
     @GetMapping("/{id}/risk-assessment")
@@ -253,6 +277,12 @@ public class SupplierController {
         return ResponseEntity.ok(recommendations);
     }
     
+    @ExceptionHandler(BusinessException.class)
+    public ResponseEntity<Map<String, String>> handleBusinessException(BusinessException ex) {
+        return ResponseEntity.status(ex.getStatus())
+            .body(Map.of("error", ex.getMessage(), "errorCode", ex.getErrorCode()));
+    }
+    
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<Map<String, String>> handleRuntimeException(RuntimeException ex) {
         return ResponseEntity.badRequest()
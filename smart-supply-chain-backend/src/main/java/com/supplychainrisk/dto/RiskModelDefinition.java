@@ -0,0 +1,260 @@
+package com.supplychainrisk.dto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Versioned risk model parameters: sub-score weights, scoring bands and country tiers.
+ *
+ * Stored as JSON in {@code risk_model_versions} and compiled into a
+ * {@code CompiledRiskScorer} when activated. Sections omitted from a new
+ * version are inherited from the active one.
+ */
+public class RiskModelDefinition {
+    private Weights weights;
+    private CreditRatings creditRatings;
+    private Bands annualRevenue; // whole currency units
+    private Bands yearsInBusiness;
+    private Bands onTimeDeliveryRate; // percent, up to 2 decimals
+    private Bands qualityRating; // 0-10, up to 2 decimals
+    private Bands employeeCount;
+    private Bands isoCertifications; // by certification count; missingPoints unused
+    private Bands complianceCertifications; // by certification count; missingPoints unused
+    private Audits audits;
+    private CountryTiers countryTiers;
+
+    public Weights getWeights() { return weights; }
+    public void setWeights(Weights weights) { this.weights = weights; }
+    public CreditRatings getCreditRatings() { return creditRatings; }
+    public void setCreditRatings(CreditRatings creditRatings) { this.creditRatings = creditRatings; }
+    public Bands getAnnualRevenue() { return annualRevenue; }
+    public void setAnnualRevenue(Bands annualRevenue) { this.annualRevenue = annualRevenue; }
+    public Bands getYearsInBusiness() { return yearsInBusiness; }
+    public void setYearsInBusiness(Bands yearsInBusiness) { this.yearsInBusiness = yearsInBusiness; }
+    public Bands getOnTimeDeliveryRate() { return onTimeDeliveryRate; }
+    public void setOnTimeDeliveryRate(Bands onTimeDeliveryRate) { this.onTimeDeliveryRate = onTimeDeliveryRate; }
+    public Bands getQualityRating() { return qualityRating; }
+    public void setQualityRating(Bands qualityRating) { this.qualityRating = qualityRating; }
+    public Bands getEmployeeCount() { return employeeCount; }
+    public void setEmployeeCount(Bands employeeCount) { this.employeeCount = employeeCount; }
+    public Bands getIsoCertifications() { return isoCertifications; }
+    public void setIsoCertifications(Bands isoCertifications) { this.isoCertifications = isoCertifications; }
+    public Bands getComplianceCertifications() { return complianceCertifications; }
+    public void setComplianceCertifications(Bands complianceCertifications) { this.complianceCertifications = complianceCertifications; }
+    public Audits getAudits() { return audits; }
+    public void setAudits(Audits audits) { this.audits = audits; }
+    public CountryTiers getCountryTiers() { return countryTiers; }
+    public void setCountryTiers(CountryTiers countryTiers) { this.countryTiers = countryTiers; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RiskModelDefinition)) return false;
+        RiskModelDefinition that = (RiskModelDefinition) o;
+        return Objects.equals(weights, that.weights) &&
+            Objects.equals(creditRatings, that.creditRatings) &&
+            Objects.equals(annualRevenue, that.annualRevenue) &&
+            Objects.equals(yearsInBusiness, that.yearsInBusiness) &&
+            Objects.equals(onTimeDeliveryRate, that.onTimeDeliveryRate) &&
+            Objects.equals(qualityRating, that.qualityRating) &&
+            Objects.equals(employeeCount, that.employeeCount) &&
+            Objects.equals(isoCertifications, that.isoCertifications) &&
+            Objects.equals(complianceCertifications, that.complianceCertifications) &&
+            Objects.equals(audits, that.audits) &&
+            Objects.equals(countryTiers, that.countryTiers);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(weights, creditRatings, annualRevenue, yearsInBusiness, onTimeDeliveryRate, qualityRating, employeeCount, isoCertifications, complianceCertifications, audits, countryTiers);
+    }
+
+    /**
+     * Sub-score weights of the overall score; must sum to 1
+     */
+    public static class Weights {
+        private Double financial;
+        private Double operational;
+        private Double compliance;
+        private Double geographic;
+
+        public Double getFinancial() { return financial; }
+        public void setFinancial(Double financial) { this.financial = financial; }
+        public Double getOperational() { return operational; }
+        public void setOperational(Double operational) { this.operational = operational; }
+        public Double getCompliance() { return compliance; }
+        public void setCompliance(Double compliance) { this.compliance = compliance; }
+        public Double getGeographic() { return geographic; }
+        public void setGeographic(Double geographic) { this.geographic = geographic; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Weights)) return false;
+            Weights that = (Weights) o;
+            return Objects.equals(financial, that.financial) &&
+                Objects.equals(operational, that.operational) &&
+                Objects.equals(compliance, that.compliance) &&
+                Objects.equals(geographic, that.geographic);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(financial, operational, compliance, geographic);
+        }
+    }
+
+    /**
+     * Points per credit rating (matched case-insensitively)
+     */
+    public static class CreditRatings {
+        private Map<String, Integer> points;
+        private Integer unknownPoints;
+        private Integer missingPoints;
+
+        public Map<String, Integer> getPoints() { return points; }
+        public void setPoints(Map<String, Integer> points) { this.points = points; }
+        public Integer getUnknownPoints() { return unknownPoints; }
+        public void setUnknownPoints(Integer unknownPoints) { this.unknownPoints = unknownPoints; }
+        public Integer getMissingPoints() { return missingPoints; }
+        public void setMissingPoints(Integer missingPoints) { this.missingPoints = missingPoints; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CreditRatings)) return false;
+            CreditRatings that = (CreditRatings) o;
+            return Objects.equals(points, that.points) &&
+                Objects.equals(unknownPoints, that.unknownPoints) &&
+                Objects.equals(missingPoints, that.missingPoints);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(points, unknownPoints, missingPoints);
+        }
+    }
+
+    /**
+     * Descending cutoffs; a value scores the points of the first cutoff it reaches, else the last entry
+     */
+    public static class Bands {
+        private List<Double> cutoffs;
+        private List<Integer> points; // one more entry than cutoffs
+        private Integer missingPoints;
+
+        public List<Double> getCutoffs() { return cutoffs; }
+        public void setCutoffs(List<Double> cutoffs) { this.cutoffs = cutoffs; }
+        public List<Integer> getPoints() { return points; }
+        public void setPoints(List<Integer> points) { this.points = points; }
+        public Integer getMissingPoints() { return missingPoints; }
+        public void setMissingPoints(Integer missingPoints) { this.missingPoints = missingPoints; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Bands)) return false;
+            Bands that = (Bands) o;
+            return Objects.equals(cutoffs, that.cutoffs) &&
+                Objects.equals(points, that.points) &&
+                Objects.equals(missingPoints, that.missingPoints);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(cutoffs, points, missingPoints);
+        }
+    }
+
+    /**
+     * Audit recency and due-date thresholds (days) and their points
+     */
+    public static class Audits {
+        private Integer recentDays;
+        private Integer agedDays;
+        private List<Integer> lastAuditPoints; // recent, aged, stale, missing
+        private Integer dueSoonDays;
+        private List<Integer> nextAuditPoints; // overdue, due soon, scheduled, missing
+
+        public Integer getRecentDays() { return recentDays; }
+        public void setRecentDays(Integer recentDays) { this.recentDays = recentDays; }
+        public Integer getAgedDays() { return agedDays; }
+        public void setAgedDays(Integer agedDays) { this.agedDays = agedDays; }
+        public List<Integer> getLastAuditPoints() { return lastAuditPoints; }
+        public void setLastAuditPoints(List<Integer> lastAuditPoints) { this.lastAuditPoints = lastAuditPoints; }
+        public Integer getDueSoonDays() { return dueSoonDays; }
+        public void setDueSoonDays(Integer dueSoonDays) { this.dueSoonDays = dueSoonDays; }
+        public List<Integer> getNextAuditPoints() { return nextAuditPoints; }
+        public void setNextAuditPoints(List<Integer> nextAuditPoints) { this.nextAuditPoints = nextAuditPoints; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Audits)) return false;
+            Audits that = (Audits) o;
+            return Objects.equals(recentDays, that.recentDays) &&
+                Objects.equals(agedDays, that.agedDays) &&
+                Objects.equals(lastAuditPoints, that.lastAuditPoints) &&
+                Objects.equals(dueSoonDays, that.dueSoonDays) &&
+                Objects.equals(nextAuditPoints, that.nextAuditPoints);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(recentDays, agedDays, lastAuditPoints, dueSoonDays, nextAuditPoints);
+        }
+    }
+
+    /**
+     * Country tiers: high/medium match exact trimmed names, low matches case-insensitively
+     */
+    public static class CountryTiers {
+        private Set<String> high;
+        private Integer highPoints;
+        private Set<String> medium;
+        private Integer mediumPoints;
+        private Set<String> low;
+        private Integer lowPoints;
+        private Integer defaultPoints;
+        private Integer missingPoints;
+
+        public Set<String> getHigh() { return high; }
+        public void setHigh(Set<String> high) { this.high = high; }
+        public Integer getHighPoints() { return highPoints; }
+        public void setHighPoints(Integer highPoints) { this.highPoints = highPoints; }
+        public Set<String> getMedium() { return medium; }
+        public void setMedium(Set<String> medium) { this.medium = medium; }
+        public Integer getMediumPoints() { return mediumPoints; }
+        public void setMediumPoints(Integer mediumPoints) { this.mediumPoints = mediumPoints; }
+        public Set<String> getLow() { return low; }
+        public void setLow(Set<String> low) { this.low = low; }
+        public Integer getLowPoints() { return lowPoints; }
+        public void setLowPoints(Integer lowPoints) { this.lowPoints = lowPoints; }
+        public Integer getDefaultPoints() { return defaultPoints; }
+        public void setDefaultPoints(Integer defaultPoints) { this.defaultPoints = defaultPoints; }
+        public Integer getMissingPoints() { return missingPoints; }
+        public void setMissingPoints(Integer missingPoints) { this.missingPoints = missingPoints; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CountryTiers)) return false;
+            CountryTiers that = (CountryTiers) o;
+            return Objects.equals(high, that.high) &&
+                Objects.equals(highPoints, that.highPoints) &&
+                Objects.equals(medium, that.medium) &&
+                Objects.equals(mediumPoints, that.mediumPoints) &&
+                Objects.equals(low, that.low) &&
+                Objects.equals(lowPoints, that.lowPoints) &&
+                Objects.equals(defaultPoints, that.defaultPoints) &&
+                Objects.equals(missingPoints, that.missingPoints);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(high, highPoints, medium, mediumPoints, low, lowPoints, defaultPoints, missingPoints);
+        }
+    }
+}
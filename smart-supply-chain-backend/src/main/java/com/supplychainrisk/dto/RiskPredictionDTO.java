@@ -14,6 +14,7 @@ public class RiskPredictionDTO {
     private BigDecimal confidence;
     private LocalDateTime predictedAt;
     private Integer timeHorizonDays;
+    private Long cacheAgeSeconds; // Set when served from the prediction cache
     
     // Default constructor
     public RiskPredictionDTO() {}
@@ -82,4 +83,12 @@ public class RiskPredictionDTO {
     public void setTimeHorizonDays(Integer timeHorizonDays) {
         this.timeHorizonDays = timeHorizonDays;
     }
-}
\ No newline at end of file
+    
+    public Long getCacheAgeSeconds() {
+        return cacheAgeSeconds;
+    }
+    
+    public void setCacheAgeSeconds(Long cacheAgeSeconds) {
+        this.cacheAgeSeconds = cacheAgeSeconds;
+    }
+}
@@ -0,0 +1,97 @@
+package com.supplychainrisk.dto;
+
+import java.util.List;
+
+/**
+ * DTO for Monte Carlo scenario analysis requests.
+ *
+ * The stress scenario multiplies each supplier's disruption probability and
+ * delivery delays and applies a price shock; the baseline uses no stress.
+ */
+public class ScenarioAnalysisRequest {
+    private String scenarioName;
+    private List<Long> supplierIds;
+    private Integer horizonDays;
+    private Double disruptionMultiplier;
+    private Double delayMultiplier;
+    private Double costShockPercent;
+    private Integer maxTrials;
+    private Double relativeTolerance;
+    private Long seed;
+
+    // Default constructor
+    public ScenarioAnalysisRequest() {}
+
+    // Getters and setters
+    public String getScenarioName() {
+        return scenarioName;
+    }
+
+    public void setScenarioName(String scenarioName) {
+        this.scenarioName = scenarioName;
+    }
+
+    public List<Long> getSupplierIds() {
+        return supplierIds;
+    }
+
+    public void setSupplierIds(List<Long> supplierIds) {
+        this.supplierIds = supplierIds;
+    }
+
+    public Integer getHorizonDays() {
+        return horizonDays;
+    }
+
+    public void setHorizonDays(Integer horizonDays) {
+        this.horizonDays = horizonDays;
+    }
+
+    public Double getDisruptionMultiplier() {
+        return disruptionMultiplier;
+    }
+
+    public void setDisruptionMultiplier(Double disruptionMultiplier) {
+        this.disruptionMultiplier = disruptionMultiplier;
+    }
+
+    public Double getDelayMultiplier() {
+        return delayMultiplier;
+    }
+
+    public void setDelayMultiplier(Double delayMultiplier) {
+        this.delayMultiplier = delayMultiplier;
+    }
+
+    public Double getCostShockPercent() {
+        return costShockPercent;
+    }
+
+    public void setCostShockPercent(Double costShockPercent) {
+        this.costShockPercent = costShockPercent;
+    }
+
+    public Integer getMaxTrials() {
+        return maxTrials;
+    }
+
+    public void setMaxTrials(Integer maxTrials) {
+        this.maxTrials = maxTrials;
+    }
+
+    public Double getRelativeTolerance() {
+        return relativeTolerance;
+    }
+
+    public void setRelativeTolerance(Double relativeTolerance) {
+        this.relativeTolerance = relativeTolerance;
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+}
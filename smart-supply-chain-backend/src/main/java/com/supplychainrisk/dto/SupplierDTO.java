@@ -73,6 +73,8 @@ public class SupplierDTO {
     @Max(value = 100)
     private Integer geographicRiskScore;
     
+    private Integer riskModelVersion;
+    
     // Performance KPIs
     @DecimalMin(value = "0.00", message = "Delivery rate cannot be negative")
     @DecimalMax(value = "100.00", message = "Delivery rate cannot exceed 100%")
@@ -353,6 +355,14 @@ public class SupplierDTO {
         this.geographicRiskScore = geographicRiskScore;
     }
     
+    public Integer getRiskModelVersion() {
+        return riskModelVersion;
+    }
+    
+    public void setRiskModelVersion(Integer riskModelVersion) {
+        this.riskModelVersion = riskModelVersion;
+    }
+    
     public BigDecimal getOnTimeDeliveryRate() {
         return onTimeDeliveryRate;
     }
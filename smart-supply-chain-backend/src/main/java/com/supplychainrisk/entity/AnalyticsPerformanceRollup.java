@@ -0,0 +1,243 @@
+package com.supplychainrisk.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Hourly aggregate of created analytics results for one analysis type and model version.
+ * Rows are only written by the upsert in AnalyticsPerformanceRollupRepository; sums and
+ * counts add up across rows, so any window of hours is read by summing its rows.
+ */
+@Entity
+@Table(name = "analytics_performance_rollups", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_analytics_rollup_bucket", columnNames = {"bucket_start", "analysis_type", "model_version"})
+})
+public class AnalyticsPerformanceRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Start of the hour the results were created in
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "analysis_type", nullable = false, length = 50)
+    private String analysisType;
+
+    // Empty string when the results had no model version, so the unique key stays usable
+    @Column(name = "model_version", nullable = false, length = 20)
+    private String modelVersion;
+
+    @Column(name = "result_count", nullable = false)
+    private Long resultCount;
+
+    // Processing time (ms): results that reported one, their sum, sum of squares and maximum
+    @Column(name = "processing_time_count", nullable = false)
+    private Long processingTimeCount;
+
+    @Column(name = "processing_time_sum", nullable = false)
+    private Long processingTimeSum;
+
+    @Column(name = "processing_time_sum_squares", nullable = false)
+    private Double processingTimeSumSquares;
+
+    @Column(name = "processing_time_max", nullable = false)
+    private Long processingTimeMax;
+
+    // Processing time histogram
+    @Column(name = "latency_under_100ms", nullable = false)
+    private Long latencyUnder100Ms;
+
+    @Column(name = "latency_under_500ms", nullable = false)
+    private Long latencyUnder500Ms;
+
+    @Column(name = "latency_under_1s", nullable = false)
+    private Long latencyUnder1S;
+
+    @Column(name = "latency_under_5s", nullable = false)
+    private Long latencyUnder5S;
+
+    @Column(name = "latency_under_30s", nullable = false)
+    private Long latencyUnder30S;
+
+    @Column(name = "latency_over_30s", nullable = false)
+    private Long latencyOver30S;
+
+    // Confidence and back-tested accuracy: results that reported one and their sum
+    @Column(name = "confidence_count", nullable = false)
+    private Long confidenceCount;
+
+    @Column(name = "confidence_sum", nullable = false)
+    private Double confidenceSum;
+
+    @Column(name = "accuracy_count", nullable = false)
+    private Long accuracyCount;
+
+    @Column(name = "accuracy_sum", nullable = false)
+    private Double accuracySum;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public String getAnalysisType() {
+        return analysisType;
+    }
+
+    public void setAnalysisType(String analysisType) {
+        this.analysisType = analysisType;
+    }
+
+    public String getModelVersion() {
+        return modelVersion;
+    }
+
+    public void setModelVersion(String modelVersion) {
+        this.modelVersion = modelVersion;
+    }
+
+    public Long getResultCount() {
+        return resultCount;
+    }
+
+    public void setResultCount(Long resultCount) {
+        this.resultCount = resultCount;
+    }
+
+    public Long getProcessingTimeCount() {
+        return processingTimeCount;
+    }
+
+    public void setProcessingTimeCount(Long processingTimeCount) {
+        this.processingTimeCount = processingTimeCount;
+    }
+
+    public Long getProcessingTimeSum() {
+        return processingTimeSum;
+    }
+
+    public void setProcessingTimeSum(Long processingTimeSum) {
+        this.processingTimeSum = processingTimeSum;
+    }
+
+    public Double getProcessingTimeSumSquares() {
+        return processingTimeSumSquares;
+    }
+
+    public void setProcessingTimeSumSquares(Double processingTimeSumSquares) {
+        this.processingTimeSumSquares = processingTimeSumSquares;
+    }
+
+    public Long getProcessingTimeMax() {
+        return processingTimeMax;
+    }
+
+    public void setProcessingTimeMax(Long processingTimeMax) {
+        this.processingTimeMax = processingTimeMax;
+    }
+
+    public Long getLatencyUnder100Ms() {
+        return latencyUnder100Ms;
+    }
+
+    public void setLatencyUnder100Ms(Long latencyUnder100Ms) {
+        this.latencyUnder100Ms = latencyUnder100Ms;
+    }
+
+    public Long getLatencyUnder500Ms() {
+        return latencyUnder500Ms;
+    }
+
+    public void setLatencyUnder500Ms(Long latencyUnder500Ms) {
+        this.latencyUnder500Ms = latencyUnder500Ms;
+    }
+
+    public Long getLatencyUnder1S() {
+        return latencyUnder1S;
+    }
+
+    public void setLatencyUnder1S(Long latencyUnder1S) {
+        this.latencyUnder1S = latencyUnder1S;
+    }
+
+    public Long getLatencyUnder5S() {
+        return latencyUnder5S;
+    }
+
+    public void setLatencyUnder5S(Long latencyUnder5S) {
+        this.latencyUnder5S = latencyUnder5S;
+    }
+
+    public Long getLatencyUnder30S() {
+        return latencyUnder30S;
+    }
+
+    public void setLatencyUnder30S(Long latencyUnder30S) {
+        this.latencyUnder30S = latencyUnder30S;
+    }
+
+    public Long getLatencyOver30S() {
+        return latencyOver30S;
+    }
+
+    public void setLatencyOver30S(Long latencyOver30S) {
+        this.latencyOver30S = latencyOver30S;
+    }
+
+    public Long getConfidenceCount() {
+        return confidenceCount;
+    }
+
+    public void setConfidenceCount(Long confidenceCount) {
+        this.confidenceCount = confidenceCount;
+    }
+
+    public Double getConfidenceSum() {
+        return confidenceSum;
+    }
+
+    public void setConfidenceSum(Double confidenceSum) {
+        this.confidenceSum = confidenceSum;
+    }
+
+    public Long getAccuracyCount() {
+        return accuracyCount;
+    }
+
+    public void setAccuracyCount(Long accuracyCount) {
+        this.accuracyCount = accuracyCount;
+    }
+
+    public Double getAccuracySum() {
+        return accuracySum;
+    }
+
+    public void setAccuracySum(Double accuracySum) {
+        this.accuracySum = accuracySum;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
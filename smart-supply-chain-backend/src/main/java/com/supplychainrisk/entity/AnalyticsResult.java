@@ -6,7 +6,9 @@ import java.time.LocalDateTime;
 import java.util.Map;
 
 @Entity
-@Table(name = "analytics_results")
+@Table(name = "analytics_results", indexes = {
+    @Index(name = "idx_analytics_results_fingerprint", columnList = "request_fingerprint, expires_at")
+})
 public class AnalyticsResult {
     
     @Id
@@ -53,6 +55,10 @@ public class AnalyticsResult {
     @Enumerated(EnumType.STRING)
     private AnalyticsStatus status = AnalyticsStatus.ACTIVE;
     
+    // Canonical hash of the request that produced this result, for result reuse
+    @Column(name = "request_fingerprint", length = 64)
+    private String requestFingerprint;
+    
     public enum AnalyticsStatus {
         ACTIVE, EXPIRED, SUPERSEDED
     }
@@ -184,4 +190,12 @@ public class AnalyticsResult {
     public void setStatus(AnalyticsStatus status) {
         this.status = status;
     }
+    
+    public String getRequestFingerprint() {
+        return requestFingerprint;
+    }
+    
+    public void setRequestFingerprint(String requestFingerprint) {
+        this.requestFingerprint = requestFingerprint;
+    }
 }
\ No newline at end of file
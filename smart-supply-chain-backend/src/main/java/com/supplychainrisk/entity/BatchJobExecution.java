@@ -0,0 +1,232 @@
+package com.supplychainrisk.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint record for long-running batch jobs that walk a table in id order
+ */
+@Entity
+@Table(name = "batch_job_executions", indexes = {
+    @Index(name = "idx_batch_job_type_status", columnList = "job_type, status")
+})
+public class BatchJobExecution {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_type", nullable = false, length = 50)
+    private String jobType; // RISK_RECALCULATION, RISK_MODEL_RESCORE, AUDIT_DATE_RESCORING, NIGHTLY_RISK_SCORING
+
+    @Column(name = "status", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private JobStatus status = JobStatus.RUNNING;
+
+    // Keyset checkpoint: highest id fully processed and committed
+    @Column(name = "last_processed_id")
+    private Long lastProcessedId = 0L;
+
+    // Table the checkpoint refers to, for jobs that walk several tables in turn
+    @Column(name = "phase", length = 30)
+    private String phase;
+
+    @Column(name = "total_items")
+    private Long totalItems = 0L;
+
+    @Column(name = "processed_items")
+    private Long processedItems = 0L;
+
+    @Column(name = "failed_items")
+    private Long failedItems = 0L;
+
+    @Column(name = "page_size")
+    private Integer pageSize;
+
+    @Column(name = "started_by")
+    private Long startedBy;
+
+    // Instance running the execution and until when it holds it; renewed at every checkpoint
+    @Column(name = "owner_id", length = 100)
+    private String ownerId;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "last_checkpoint_at")
+    private LocalDateTime lastCheckpointAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public enum JobStatus {
+        RUNNING, COMPLETED, FAILED, STOPPED
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (startedAt == null) {
+            startedAt = LocalDateTime.now();
+        }
+    }
+
+    // Default constructor
+    public BatchJobExecution() {}
+
+    public BatchJobExecution(String jobType, Integer pageSize, Long startedBy) {
+        this.jobType = jobType;
+        this.pageSize = pageSize;
+        this.startedBy = startedBy;
+    }
+
+    /**
+     * Whether the job can be picked up again from its checkpoint
+     */
+    public boolean isResumable() {
+        return status == JobStatus.FAILED || status == JobStatus.STOPPED;
+    }
+
+    /**
+     * Whether the execution is RUNNING but its owner crashed: the owner stopped renewing
+     * the lease, or the owner is the (idle) instance asking, restarted since the run began
+     */
+    public boolean isAbandoned(LocalDateTime now, String instanceId) {
+        return status == JobStatus.RUNNING && (leaseExpiresAt == null || leaseExpiresAt.isBefore(now)
+            || (ownerId != null && ownerId.equals(instanceId)));
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getJobType() {
+        return jobType;
+    }
+
+    public void setJobType(String jobType) {
+        this.jobType = jobType;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(JobStatus status) {
+        this.status = status;
+    }
+
+    public Long getLastProcessedId() {
+        return lastProcessedId;
+    }
+
+    public void setLastProcessedId(Long lastProcessedId) {
+        this.lastProcessedId = lastProcessedId;
+    }
+
+    public String getPhase() {
+        return phase;
+    }
+
+    public void setPhase(String phase) {
+        this.phase = phase;
+    }
+
+    public Long getTotalItems() {
+        return totalItems;
+    }
+
+    public void setTotalItems(Long totalItems) {
+        this.totalItems = totalItems;
+    }
+
+    public Long getProcessedItems() {
+        return processedItems;
+    }
+
+    public void setProcessedItems(Long processedItems) {
+        this.processedItems = processedItems;
+    }
+
+    public Long getFailedItems() {
+        return failedItems;
+    }
+
+    public void setFailedItems(Long failedItems) {
+        this.failedItems = failedItems;
+    }
+
+    public Integer getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(Integer pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public Long getStartedBy() {
+        return startedBy;
+    }
+
+    public void setStartedBy(Long startedBy) {
+        this.startedBy = startedBy;
+    }
+
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(String ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public LocalDateTime getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+
+    public void setLeaseExpiresAt(LocalDateTime leaseExpiresAt) {
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getLastCheckpointAt() {
+        return lastCheckpointAt;
+    }
+
+    public void setLastCheckpointAt(LocalDateTime lastCheckpointAt) {
+        this.lastCheckpointAt = lastCheckpointAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
@@ -0,0 +1,147 @@
+package com.supplychainrisk.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable, versioned risk model definition (weights, bands, country tiers) stored as JSON
+ */
+@Entity
+@Table(name = "risk_model_versions", indexes = {
+    @Index(name = "idx_risk_model_active", columnList = "active")
+})
+public class RiskModelVersion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "version", nullable = false, unique = true)
+    private Integer version;
+
+    @Column(name = "definition", nullable = false, columnDefinition = "TEXT")
+    private String definition;
+
+    // SHA-256 of the canonical definition JSON, used to skip reloading identical content
+    @Column(name = "definition_hash", nullable = false, length = 64)
+    private String definitionHash;
+
+    @Column(name = "source", length = 20)
+    private String source; // BUILT_IN, API, FILE
+
+    @Column(name = "description")
+    private String description;
+
+    @Column(name = "active", nullable = false)
+    private Boolean active = false;
+
+    @Column(name = "created_by")
+    private Long createdBy;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "activated_at")
+    private LocalDateTime activatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+
+    // Default constructor
+    public RiskModelVersion() {}
+
+    public RiskModelVersion(Integer version, String definition, String definitionHash, String source,
+                            String description, Long createdBy) {
+        this.version = version;
+        this.definition = definition;
+        this.definitionHash = definitionHash;
+        this.source = source;
+        this.description = description;
+        this.createdBy = createdBy;
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
+    public String getDefinition() {
+        return definition;
+    }
+
+    public void setDefinition(String definition) {
+        this.definition = definition;
+    }
+
+    public String getDefinitionHash() {
+        return definitionHash;
+    }
+
+    public void setDefinitionHash(String definitionHash) {
+        this.definitionHash = definitionHash;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Boolean getActive() {
+        return active;
+    }
+
+    public void setActive(Boolean active) {
+        this.active = active;
+    }
+
+    public Long getCreatedBy() {
+        return createdBy;
+    }
+
+    public void setCreatedBy(Long createdBy) {
+        this.createdBy = createdBy;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getActivatedAt() {
+        return activatedAt;
+    }
+
+    public void setActivatedAt(LocalDateTime activatedAt) {
+        this.activatedAt = activatedAt;
+    }
+}
@@ -1,5 +1,7 @@
 package com.supplychainrisk.entity;
 
+import com.supplychainrisk.service.ShipmentDeliveryDayEntityListener;
+import com.supplychainrisk.service.ShipmentOutcomeEntityListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.math.BigDecimal;
@@ -7,7 +9,11 @@ import java.time.LocalDateTime;
 import java.util.Set;
 
 @Entity
-@Table(name = "shipments")
+@Table(name = "shipments", indexes = {
+    @Index(name = "idx_shipments_actual_delivery_date", columnList = "actual_delivery_date"),
+    @Index(name = "idx_shipments_updated_at", columnList = "updated_at")
+})
+@EntityListeners({ShipmentOutcomeEntityListener.class, ShipmentDeliveryDayEntityListener.class})
 public class Shipment {
 
     @Id
@@ -189,6 +195,14 @@ public class Shipment {
     @OneToMany(mappedBy = "shipment", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<ShipmentDocument> documents;
 
+    // Status as last loaded or written, so a delivery is only reported on its transition
+    @Transient
+    private ShipmentStatus persistedStatus;
+
+    // Delivery date as last loaded or written, so a move to another day can be reported
+    @Transient
+    private LocalDateTime persistedActualDeliveryDate;
+
     // Enums
     public enum ShipmentType {
         STANDARD, EXPRESS, FREIGHT
@@ -533,6 +547,22 @@ public class Shipment {
         this.predictedDelayHours = predictedDelayHours;
     }
 
+    public ShipmentStatus getPersistedStatus() {
+        return persistedStatus;
+    }
+
+    public void setPersistedStatus(ShipmentStatus persistedStatus) {
+        this.persistedStatus = persistedStatus;
+    }
+
+    public LocalDateTime getPersistedActualDeliveryDate() {
+        return persistedActualDeliveryDate;
+    }
+
+    public void setPersistedActualDeliveryDate(LocalDateTime persistedActualDeliveryDate) {
+        this.persistedActualDeliveryDate = persistedActualDeliveryDate;
+    }
+
     public Boolean getOnTimePerformance() {
         return onTimePerformance;
     }
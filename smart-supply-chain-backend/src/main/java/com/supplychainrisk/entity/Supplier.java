@@ -1,5 +1,6 @@
 package com.supplychainrisk.entity;
 
+import com.supplychainrisk.service.SupplierSnapshotEntityListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.math.BigDecimal;
@@ -10,6 +11,7 @@ import java.util.Set;
 
 @Entity
 @Table(name = "suppliers")
+@EntityListeners(SupplierSnapshotEntityListener.class)
 public class Supplier {
     
     @Id
@@ -201,6 +203,10 @@ public class Supplier {
     @Column(name = "risk_last_updated")
     private LocalDateTime riskLastUpdated;
     
+    // Risk model version that produced the stored risk scores
+    @Column(name = "risk_model_version")
+    private Integer riskModelVersion;
+    
     // Supplier relationship fields
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "parent_supplier_id")
@@ -686,6 +692,14 @@ public class Supplier {
         this.riskLastUpdated = riskLastUpdated;
     }
     
+    public Integer getRiskModelVersion() {
+        return riskModelVersion;
+    }
+    
+    public void setRiskModelVersion(Integer riskModelVersion) {
+        this.riskModelVersion = riskModelVersion;
+    }
+    
     public Supplier getParentSupplier() {
         return parentSupplier;
     }
@@ -0,0 +1,110 @@
+package com.supplychainrisk.repository;
+
+import com.supplychainrisk.entity.AnalyticsPerformanceRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AnalyticsPerformanceRollupRepository extends JpaRepository<AnalyticsPerformanceRollup, Long> {
+
+    /**
+     * Hourly rollups from the given bucket on, oldest first
+     */
+    List<AnalyticsPerformanceRollup> findByBucketStartGreaterThanEqualOrderByBucketStartAsc(LocalDateTime since);
+
+    /**
+     * Accuracy sum and count per model version over the hours from the given bucket on:
+     * rows of [modelVersion, sum, count]
+     */
+    @Query("SELECT r.modelVersion, SUM(r.accuracySum), SUM(r.accuracyCount) FROM AnalyticsPerformanceRollup r " +
+           "WHERE r.modelVersion IN :modelVersions AND r.bucketStart >= :since GROUP BY r.modelVersion")
+    List<Object[]> sumAccuracyByModelVersion(@Param("modelVersions") Collection<String> modelVersions,
+                                             @Param("since") LocalDateTime since);
+
+    /**
+     * Add a delta to the rollup row of one hour, analysis type and model version, creating it if needed
+     */
+    @Modifying
+    @Query(value = "INSERT INTO analytics_performance_rollups AS r (bucket_start, analysis_type, model_version, " +
+           "result_count, processing_time_count, processing_time_sum, processing_time_sum_squares, " +
+           "processing_time_max, latency_under_100ms, latency_under_500ms, latency_under_1s, latency_under_5s, " +
+           "latency_under_30s, latency_over_30s, confidence_count, confidence_sum, accuracy_count, accuracy_sum, " +
+           "updated_at) VALUES (:bucketStart, :analysisType, :modelVersion, :resultCount, :processingTimeCount, " +
+           ":processingTimeSum, :processingTimeSumSquares, :processingTimeMax, :under100ms, :under500ms, " +
+           ":under1s, :under5s, :under30s, :over30s, :confidenceCount, :confidenceSum, :accuracyCount, " +
+           ":accuracySum, now()) " +
+           "ON CONFLICT (bucket_start, analysis_type, model_version) DO UPDATE SET " +
+           "result_count = r.result_count + EXCLUDED.result_count, " +
+           "processing_time_count = r.processing_time_count + EXCLUDED.processing_time_count, " +
+           "processing_time_sum = r.processing_time_sum + EXCLUDED.processing_time_sum, " +
+           "processing_time_sum_squares = r.processing_time_sum_squares + EXCLUDED.processing_time_sum_squares, " +
+           "processing_time_max = GREATEST(r.processing_time_max, EXCLUDED.processing_time_max), " +
+           "latency_under_100ms = r.latency_under_100ms + EXCLUDED.latency_under_100ms, " +
+           "latency_under_500ms = r.latency_under_500ms + EXCLUDED.latency_under_500ms, " +
+           "latency_under_1s = r.latency_under_1s + EXCLUDED.latency_under_1s, " +
+           "latency_under_5s = r.latency_under_5s + EXCLUDED.latency_under_5s, " +
+           "latency_under_30s = r.latency_under_30s + EXCLUDED.latency_under_30s, " +
+           "latency_over_30s = r.latency_over_30s + EXCLUDED.latency_over_30s, " +
+           "confidence_count = r.confidence_count + EXCLUDED.confidence_count, " +
+           "confidence_sum = r.confidence_sum + EXCLUDED.confidence_sum, " +
+           "accuracy_count = r.accuracy_count + EXCLUDED.accuracy_count, " +
+           "accuracy_sum = r.accuracy_sum + EXCLUDED.accuracy_sum, " +
+           "updated_at = now()", nativeQuery = true)
+    int upsert(@Param("bucketStart") LocalDateTime bucketStart,
+               @Param("analysisType") String analysisType,
+               @Param("modelVersion") String modelVersion,
+               @Param("resultCount") long resultCount,
+               @Param("processingTimeCount") long processingTimeCount,
+               @Param("processingTimeSum") long processingTimeSum,
+               @Param("processingTimeSumSquares") double processingTimeSumSquares,
+               @Param("processingTimeMax") long processingTimeMax,
+               @Param("under100ms") long under100ms,
+               @Param("under500ms") long under500ms,
+               @Param("under1s") long under1s,
+               @Param("under5s") long under5s,
+               @Param("under30s") long under30s,
+               @Param("over30s") long over30s,
+               @Param("confidenceCount") long confidenceCount,
+               @Param("confidenceSum") double confidenceSum,
+               @Param("accuracyCount") long accuracyCount,
+               @Param("accuracySum") double accuracySum);
+
+    /**
+     * Drop rollups from the given bucket on, before rebuilding them
+     */
+    @Modifying
+    @Query("DELETE FROM AnalyticsPerformanceRollup r WHERE r.bucketStart >= :since")
+    int deleteFromBucket(@Param("since") LocalDateTime since);
+
+    /**
+     * Recompute rollups from analytics_results created since the given hour
+     */
+    @Modifying
+    @Query(value = "INSERT INTO analytics_performance_rollups (bucket_start, analysis_type, model_version, " +
+           "result_count, processing_time_count, processing_time_sum, processing_time_sum_squares, " +
+           "processing_time_max, latency_under_100ms, latency_under_500ms, latency_under_1s, latency_under_5s, " +
+           "latency_under_30s, latency_over_30s, confidence_count, confidence_sum, accuracy_count, accuracy_sum, " +
+           "updated_at) " +
+           "SELECT date_trunc('hour', a.created_at), a.analysis_type, COALESCE(a.model_version, ''), COUNT(*), " +
+           "COUNT(a.processing_time_ms), COALESCE(SUM(a.processing_time_ms), 0), " +
+           "COALESCE(SUM(CAST(a.processing_time_ms AS double precision) * a.processing_time_ms), 0), " +
+           "COALESCE(MAX(a.processing_time_ms), 0), " +
+           "COUNT(*) FILTER (WHERE a.processing_time_ms < 100), " +
+           "COUNT(*) FILTER (WHERE a.processing_time_ms >= 100 AND a.processing_time_ms < 500), " +
+           "COUNT(*) FILTER (WHERE a.processing_time_ms >= 500 AND a.processing_time_ms < 1000), " +
+           "COUNT(*) FILTER (WHERE a.processing_time_ms >= 1000 AND a.processing_time_ms < 5000), " +
+           "COUNT(*) FILTER (WHERE a.processing_time_ms >= 5000 AND a.processing_time_ms < 30000), " +
+           "COUNT(*) FILTER (WHERE a.processing_time_ms >= 30000), " +
+           "COUNT(a.confidence_score), COALESCE(SUM(a.confidence_score), 0), " +
+           "COUNT(a.accuracy_score), COALESCE(SUM(a.accuracy_score), 0), now() " +
+           "FROM analytics_results a WHERE a.created_at >= :since " +
+           "GROUP BY 1, 2, 3", nativeQuery = true)
+    int rebuildFromResults(@Param("since") LocalDateTime since);
+}
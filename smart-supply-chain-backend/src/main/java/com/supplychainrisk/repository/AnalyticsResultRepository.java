@@ -4,6 +4,7 @@ import com.supplychainrisk.entity.AnalyticsResult;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -27,6 +28,24 @@ public interface AnalyticsResultRepository extends JpaRepository<AnalyticsResult
     Optional<AnalyticsResult> findTopBySupplierIdAndAnalysisTypeAndStatusOrderByCreatedAtDesc(
         Long supplierId, String analysisType, AnalyticsResult.AnalyticsStatus status);
     
+    /**
+     * Find the newest unexpired result produced for a request fingerprint
+     */
+    Optional<AnalyticsResult> findTopByRequestFingerprintAndStatusAndExpiresAtAfterOrderByCreatedAtDesc(
+        String requestFingerprint, AnalyticsResult.AnalyticsStatus status, LocalDateTime now);
+    
+    /**
+     * Mark earlier active results for the same request fingerprint as superseded
+     */
+    @Modifying
+    @Query("UPDATE AnalyticsResult a SET a.status = :newStatus WHERE a.requestFingerprint = :fingerprint " +
+           "AND a.id <> :keepId AND a.status = :status")
+    int updateStatusForFingerprintExcept(
+        @Param("fingerprint") String fingerprint,
+        @Param("keepId") Long keepId,
+        @Param("status") AnalyticsResult.AnalyticsStatus status,
+        @Param("newStatus") AnalyticsResult.AnalyticsStatus newStatus);
+    
     /**
      * Find analytics results within a time range
      */
@@ -0,0 +1,53 @@
+package com.supplychainrisk.repository;
+
+import com.supplychainrisk.entity.BatchJobExecution;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface BatchJobExecutionRepository extends JpaRepository<BatchJobExecution, Long> {
+
+    /**
+     * Find the most recent execution of a job type
+     */
+    Optional<BatchJobExecution> findTopByJobTypeOrderByStartedAtDesc(String jobType);
+
+    /**
+     * Find the most recent execution of any of the job types
+     */
+    Optional<BatchJobExecution> findTopByJobTypeInOrderByStartedAtDesc(Collection<String> jobTypes);
+
+    /**
+     * Find the execution of a job type currently in a given status
+     */
+    Optional<BatchJobExecution> findTopByJobTypeAndStatusOrderByStartedAtDesc(
+        String jobType, BatchJobExecution.JobStatus status);
+
+    /**
+     * Mark an execution RUNNING under the given owner, unless another owner holds an unexpired lease on it
+     */
+    @Modifying
+    @Query("UPDATE BatchJobExecution e " +
+           "SET e.status = com.supplychainrisk.entity.BatchJobExecution.JobStatus.RUNNING, " +
+           "e.ownerId = :ownerId, e.leaseExpiresAt = :leaseExpiresAt WHERE e.id = :id AND " +
+           "(e.status <> com.supplychainrisk.entity.BatchJobExecution.JobStatus.RUNNING " +
+           "OR e.leaseExpiresAt IS NULL OR e.leaseExpiresAt < :now OR e.ownerId = :ownerId)")
+    int takeOver(@Param("id") Long id, @Param("ownerId") String ownerId,
+                 @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt, @Param("now") LocalDateTime now);
+
+    /**
+     * Extend the owner's lease; 0 when the execution was taken over by another owner
+     */
+    @Modifying
+    @Query("UPDATE BatchJobExecution e SET e.leaseExpiresAt = :leaseExpiresAt " +
+           "WHERE e.id = :id AND e.ownerId = :ownerId")
+    int renewLease(@Param("id") Long id, @Param("ownerId") String ownerId,
+                   @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+}
@@ -0,0 +1,33 @@
+package com.supplychainrisk.repository;
+
+import com.supplychainrisk.entity.RiskModelVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RiskModelVersionRepository extends JpaRepository<RiskModelVersion, Long> {
+
+    Optional<RiskModelVersion> findByVersion(Integer version);
+
+    /**
+     * Find the currently active model version
+     */
+    Optional<RiskModelVersion> findTopByActiveTrueOrderByActivatedAtDesc();
+
+    /**
+     * Find the highest version number issued so far
+     */
+    Optional<RiskModelVersion> findTopByOrderByVersionDesc();
+
+    List<RiskModelVersion> findAllByOrderByVersionDesc();
+
+    @Modifying
+    @Query("UPDATE RiskModelVersion v SET v.active = false WHERE v.active = true AND v.version <> :version")
+    int deactivateAllExcept(@Param("version") Integer version);
+}
@@ -11,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -69,4 +70,16 @@ public interface ShipmentRepository extends JpaRepository<Shipment, Long> {
 
     @Query("SELECT s FROM Shipment s WHERE s.estimatedDeliveryDate BETWEEN :startDate AND :endDate")
     List<Shipment> findByEstimatedDeliveryDateBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
-}
\ No newline at end of file
+
+    // Keyset page for batch jobs, with the supplier fetched in the same query
+    @Query("SELECT s FROM Shipment s LEFT JOIN FETCH s.supplier " +
+           "WHERE s.id > :lastId AND s.status IN :statuses ORDER BY s.id ASC")
+    List<Shipment> findNextPageAfterIdInStatuses(@Param("lastId") Long lastId,
+                                                 @Param("statuses") Collection<ShipmentStatus> statuses,
+                                                 Pageable pageable);
+
+    long countByStatusIn(Collection<ShipmentStatus> statuses);
+
+    // Count shipments remaining after a keyset checkpoint
+    long countByIdGreaterThanAndStatusIn(Long id, Collection<ShipmentStatus> statuses);
+}
@@ -8,6 +8,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -103,4 +105,35 @@ public interface SupplierRepository extends JpaRepository<Supplier, Long> {
     // Get distinct industries
     @Query("SELECT DISTINCT s.industry FROM Supplier s WHERE s.industry IS NOT NULL ORDER BY s.industry")
     List<String> findDistinctIndustries();
+
+    // Keyset page for batch jobs (avoids OFFSET scans on large tables)
+    @Query("SELECT s FROM Supplier s WHERE s.id > :lastId ORDER BY s.id ASC")
+    List<Supplier> findNextPageAfterId(@Param("lastId") Long lastId, Pageable pageable);
+
+    // Count suppliers remaining after a keyset checkpoint
+    long countByIdGreaterThan(Long id);
+
+    // Keyset page restricted to countries (lower-cased, trimmed), for targeted rescoring
+    @Query("SELECT s FROM Supplier s WHERE s.id > :lastId AND LOWER(TRIM(s.country)) IN :countries ORDER BY s.id ASC")
+    List<Supplier> findNextPageAfterIdInCountries(@Param("lastId") Long lastId,
+                                                  @Param("countries") Collection<String> countries,
+                                                  Pageable pageable);
+
+    @Query("SELECT COUNT(s) FROM Supplier s WHERE LOWER(TRIM(s.country)) IN :countries")
+    long countByNormalizedCountryIn(@Param("countries") Collection<String> countries);
+
+    // Suppliers whose compliance score crosses an audit-date threshold in the given windows
+    @Query("SELECT s FROM Supplier s WHERE s.id > :lastId AND (" +
+           "s.nextAuditDueDate BETWEEN :overdueFrom AND :overdueTo OR " +
+           "s.nextAuditDueDate BETWEEN :dueSoonFrom AND :dueSoonTo OR " +
+           "s.lastAuditDate BETWEEN :agedFrom AND :agedTo OR " +
+           "s.lastAuditDate BETWEEN :staleFrom AND :staleTo) ORDER BY s.id ASC")
+    List<Supplier> findAuditThresholdCrossings(
+        @Param("lastId") Long lastId,
+        @Param("overdueFrom") LocalDate overdueFrom, @Param("overdueTo") LocalDate overdueTo,
+        @Param("dueSoonFrom") LocalDate dueSoonFrom, @Param("dueSoonTo") LocalDate dueSoonTo,
+        @Param("agedFrom") LocalDate agedFrom, @Param("agedTo") LocalDate agedTo,
+        @Param("staleFrom") LocalDate staleFrom, @Param("staleTo") LocalDate staleTo,
+        Pageable pageable
+    );
 }
\ No newline at end of file
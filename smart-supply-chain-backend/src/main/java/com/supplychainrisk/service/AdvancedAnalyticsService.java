@@ -34,6 +34,18 @@ public class AdvancedAnalyticsService {
     @Autowired
     private AnalyticsResultRepository analyticsResultRepository;
     
+    @Autowired
+    private AnalyticsResultCache analyticsResultCache;
+    
+    @Autowired
+    private BulkPersistenceService bulkPersistenceService;
+    
+    @Autowired
+    private AnalyticsPerformanceRollupService analyticsPerformanceRollupService;
+    
+    @Autowired
+    private CorrelationAnalysisService correlationAnalysisService;
+    
     @Autowired
     private RiskPredictionRepository riskPredictionRepository;
     
@@ -56,22 +68,42 @@ public class AdvancedAnalyticsService {
      * Generate comprehensive analytics combining historical data with ML predictions
      */
     public AnalyticsResult generateComprehensiveAnalytics(AnalyticsRequest request) {
+        return generateComprehensiveAnalytics(request, AnalyticsProgressListener.NONE);
+    }
+    
+    /**
+     * Generate comprehensive analytics, reporting each stage to the listener
+     */
+    public AnalyticsResult generateComprehensiveAnalytics(AnalyticsRequest request, AnalyticsProgressListener progress) {
+        return analyticsResultCache.getOrCompute("COMPREHENSIVE", request,
+            fingerprint -> computeComprehensiveAnalytics(request, progress, fingerprint));
+    }
+    
+    private AnalyticsResult computeComprehensiveAnalytics(AnalyticsRequest request, AnalyticsProgressListener progress,
+                                                          String fingerprint) {
         logger.info("Generating comprehensive analytics for request: {}", request);
         
+        long startTime = System.currentTimeMillis();
+        
         try {
             // Collect data for analysis
+            progress.onProgress("COLLECTING_DATA", 10);
             AnalyticsDataSet dataSet = collectAnalyticsData(request);
             
             // Generate risk predictions
+            progress.onProgress("PREDICTING", 30);
             List<RiskPrediction> riskPredictions = generateRiskPredictions(dataSet, request);
             
             // Perform performance analysis
+            progress.onProgress("ANALYZING_PERFORMANCE", 60);
             PerformanceAnalysis performance = analyzePerformance(dataSet, request.getTimeHorizonDays());
             
             // Generate correlations and insights
+            progress.onProgress("ANALYZING_CORRELATIONS", 75);
             CorrelationAnalysis correlations = analyzeCorrelations(dataSet);
             
             // Create recommendations
+            progress.onProgress("SAVING", 90);
             List<AnalyticsRecommendation> recommendations = generateRecommendations(
                 riskPredictions, performance, correlations);
             
@@ -89,10 +121,14 @@ public class AdvancedAnalyticsService {
             result.setRecommendations(toJsonString(recommendations));
             result.setConfidenceScore(calculateConfidence(riskPredictions));
             result.setModelVersion(mlPredictionService.getCurrentModelVersion());
-            result.setProcessingTimeMs(System.currentTimeMillis());
+            result.setProcessingTimeMs(System.currentTimeMillis() - startTime);
+            result.setRequestFingerprint(fingerprint);
+            result.setExpiresAt(LocalDateTime.now().plusDays(
+                AnalyticsResultCache.getExpirationDays(request.getAnalysisType())));
             
             // Save analytics result
             result = analyticsResultRepository.save(result);
+            analyticsPerformanceRollupService.record(result);
             
             // Generate alerts if necessary
             generateAnalyticsAlerts(result);
@@ -110,36 +146,32 @@ public class AdvancedAnalyticsService {
      * Generate advanced risk predictions for multiple risk types
      */
     public List<RiskPrediction> generateAdvancedRiskPredictions(RiskPredictionRequest request) {
-        List<RiskPrediction> predictions = new ArrayList<>();
-        
         try {
-            // Generate delay predictions
-            if (request.getIncludeDelayPredictions()) {
-                predictions.addAll(generateDelayPredictions(request));
-            }
-            
-            // Generate cost increase predictions
-            if (request.getIncludeCostPredictions()) {
-                predictions.addAll(generateCostIncreasePredictions(request));
-            }
+            List<Supplier> suppliers = loadSuppliers(request.getSupplierIds());
+            AnalyticsRequest analyticsRequest = createAnalyticsRequest(request);
+            List<RiskPrediction> predictions = new ArrayList<>();
             
-            // Generate supply disruption predictions
-            if (request.getIncludeDisruptionPredictions()) {
-                predictions.addAll(generateSupplyDisruptionPredictions(request));
-            }
-            
-            // Generate demand forecasts
-            if (request.getIncludeDemandForecasts()) {
-                predictions.addAll(generateDemandForecasts(request));
-            }
-            
-            // Generate risk event predictions
-            if (request.getIncludeRiskEventPredictions()) {
-                predictions.addAll(generateRiskEventPredictions(request));
+            // One prediction per supplier and requested type
+            for (Supplier supplier : suppliers) {
+                if (request.getIncludeDelayPredictions()) {
+                    predictions.add(generateDelayPredictionForSupplier(supplier, analyticsRequest));
+                }
+                if (request.getIncludeCostPredictions()) {
+                    predictions.add(generateCostPredictionForSupplier(supplier, analyticsRequest));
+                }
+                if (request.getIncludeDisruptionPredictions()) {
+                    predictions.add(generateDisruptionPredictionForSupplier(supplier, analyticsRequest));
+                }
+                if (request.getIncludeDemandForecasts()) {
+                    predictions.add(generateDemandForecastForSupplier(supplier, request));
+                }
+                if (request.getIncludeRiskEventPredictions()) {
+                    predictions.add(generateRiskEventPredictionForSupplier(supplier, request));
+                }
             }
             
-            // Save all predictions
-            predictions = riskPredictionRepository.saveAll(predictions);
+            // Save all predictions in id-pooled JDBC batches
+            predictions = bulkPersistenceService.saveRiskPredictions(predictions);
             
             logger.info("Generated {} risk predictions", predictions.size());
             return predictions;
@@ -198,102 +230,45 @@ public class AdvancedAnalyticsService {
     
     // Private helper methods
     
-    private List<RiskPrediction> generateDelayPredictions(RiskPredictionRequest request) {
-        List<RiskPrediction> predictions = new ArrayList<>();
-        
-        if (request.getSupplierIds() != null) {
-            for (Long supplierId : request.getSupplierIds()) {
-                Supplier supplier = supplierRepository.findById(supplierId).orElse(null);
-                if (supplier != null) {
-                    predictions.add(generateDelayPredictionForSupplier(supplier, 
-                        createAnalyticsRequest(request)));
-                }
-            }
-        }
-        
-        return predictions;
-    }
-    
-    private List<RiskPrediction> generateCostIncreasePredictions(RiskPredictionRequest request) {
-        List<RiskPrediction> predictions = new ArrayList<>();
-        
-        if (request.getSupplierIds() != null) {
-            for (Long supplierId : request.getSupplierIds()) {
-                Supplier supplier = supplierRepository.findById(supplierId).orElse(null);
-                if (supplier != null) {
-                    predictions.add(generateCostPredictionForSupplier(supplier, 
-                        createAnalyticsRequest(request)));
-                }
-            }
-        }
-        
-        return predictions;
-    }
-    
-    private List<RiskPrediction> generateSupplyDisruptionPredictions(RiskPredictionRequest request) {
-        List<RiskPrediction> predictions = new ArrayList<>();
-        
-        if (request.getSupplierIds() != null) {
-            for (Long supplierId : request.getSupplierIds()) {
-                Supplier supplier = supplierRepository.findById(supplierId).orElse(null);
-                if (supplier != null) {
-                    predictions.add(generateDisruptionPredictionForSupplier(supplier, 
-                        createAnalyticsRequest(request)));
-                }
-            }
+    /**
+     * Suppliers for the given ids in request order, loaded in one query; unknown ids are dropped
+     */
+    private List<Supplier> loadSuppliers(List<Long> supplierIds) {
+        if (supplierIds == null || supplierIds.isEmpty()) {
+            return Collections.emptyList();
         }
-        
-        return predictions;
+        Map<Long, Supplier> byId = supplierRepository.findAllById(supplierIds).stream()
+            .collect(Collectors.toMap(Supplier::getId, supplier -> supplier, (a, b) -> a));
+        return supplierIds.stream()
+            .map(byId::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
     }
     
-    private List<RiskPrediction> generateDemandForecasts(RiskPredictionRequest request) {
-        List<RiskPrediction> predictions = new ArrayList<>();
-        
-        if (request.getSupplierIds() != null) {
-            for (Long supplierId : request.getSupplierIds()) {
-                Supplier supplier = supplierRepository.findById(supplierId).orElse(null);
-                if (supplier != null) {
-                    RiskPrediction prediction = RiskPrediction.builder()
-                        .riskType(RiskPrediction.RiskType.DEMAND_FORECAST)
-                        .supplier(supplier)
-                        .predictionHorizonDays(request.getPredictionHorizonDays())
-                        .riskProbability(BigDecimal.valueOf(45.0))
-                        .predictedRiskLevel(RiskPrediction.RiskLevel.MEDIUM)
-                        .confidence(BigDecimal.valueOf(75.0))
-                        .modelId("demand_forecast_v1")
-                        .modelVersion("1.0")
-                        .build();
-                    predictions.add(prediction);
-                }
-            }
-        }
-        
-        return predictions;
+    private RiskPrediction generateDemandForecastForSupplier(Supplier supplier, RiskPredictionRequest request) {
+        return RiskPrediction.builder()
+            .riskType(RiskPrediction.RiskType.DEMAND_FORECAST)
+            .supplier(supplier)
+            .predictionHorizonDays(request.getPredictionHorizonDays())
+            .riskProbability(BigDecimal.valueOf(45.0))
+            .predictedRiskLevel(RiskPrediction.RiskLevel.MEDIUM)
+            .confidence(BigDecimal.valueOf(75.0))
+            .modelId("demand_forecast_v1")
+            .modelVersion("1.0")
+            .build();
     }
     
-    private List<RiskPrediction> generateRiskEventPredictions(RiskPredictionRequest request) {
-        List<RiskPrediction> predictions = new ArrayList<>();
-        
-        if (request.getSupplierIds() != null) {
-            for (Long supplierId : request.getSupplierIds()) {
-                Supplier supplier = supplierRepository.findById(supplierId).orElse(null);
-                if (supplier != null) {
-                    RiskPrediction prediction = RiskPrediction.builder()
-                        .riskType(RiskPrediction.RiskType.RISK_EVENT)
-                        .supplier(supplier)
-                        .predictionHorizonDays(request.getPredictionHorizonDays())
-                        .riskProbability(BigDecimal.valueOf(30.0))
-                        .predictedRiskLevel(RiskPrediction.RiskLevel.LOW)
-                        .confidence(BigDecimal.valueOf(70.0))
-                        .modelId("risk_event_v1")
-                        .modelVersion("1.0")
-                        .build();
-                    predictions.add(prediction);
-                }
-            }
-        }
-        
-        return predictions;
+    private RiskPrediction generateRiskEventPredictionForSupplier(Supplier supplier, RiskPredictionRequest request) {
+        return RiskPrediction.builder()
+            .riskType(RiskPrediction.RiskType.RISK_EVENT)
+            .supplier(supplier)
+            .predictionHorizonDays(request.getPredictionHorizonDays())
+            .riskProbability(BigDecimal.valueOf(30.0))
+            .predictedRiskLevel(RiskPrediction.RiskLevel.LOW)
+            .confidence(BigDecimal.valueOf(70.0))
+            .modelId("risk_event_v1")
+            .modelVersion("1.0")
+            .build();
     }
     
     private AnalyticsRequest createAnalyticsRequest(RiskPredictionRequest request) {
@@ -592,8 +567,14 @@ public class AdvancedAnalyticsService {
     }
     
     private CorrelationAnalysis analyzeCorrelations(AnalyticsDataSet dataSet) {
-        // Placeholder implementation
-        return new CorrelationAnalysis();
+        // Metric correlations span all delivered shipments, so every request shares the cached matrix
+        CorrelationAnalysis analysis = new CorrelationAnalysis();
+        try {
+            analysis.setCorrelations(correlationAnalysisService.getCorrelationAnalysis(null, "LAST_90_DAYS"));
+        } catch (RuntimeException e) {
+            logger.warn("Correlation analysis unavailable: {}", e.getMessage());
+        }
+        return analysis;
     }
     
     private List<AnalyticsRecommendation> generateRecommendations(
@@ -0,0 +1,299 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.dto.AnalyticsRequest;
+import com.supplychainrisk.entity.AnalyticsResult;
+import com.supplychainrisk.exception.BusinessException;
+import com.supplychainrisk.exception.ResourceNotFoundException;
+import com.supplychainrisk.repository.AnalyticsResultRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Runs predictive and comprehensive analytics as background jobs.
+ *
+ * Submission returns a job id immediately; the work runs on the bounded
+ * analytics executor, highest priority first and FIFO within a priority.
+ * Submissions beyond the configured queue depth are rejected rather than
+ * piling up. Progress is kept in memory for polling and pushed to
+ * {@code /topic/analytics/jobs/{jobId}}; the outcome is the persisted
+ * {@link AnalyticsResult}, referenced from the job by id. Finished jobs
+ * are forgotten after the retention period, their results are not. A job
+ * is visible to the user who submitted it and to admins; to anyone else it
+ * does not exist, and its topic cannot be subscribed to.
+ */
+@Service
+public class AnalyticsJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsJobService.class);
+
+    public static final String TOPIC_PREFIX = "/topic/analytics/jobs/";
+
+    public enum JobType { PREDICTIVE, COMPREHENSIVE }
+
+    public enum Priority { HIGH, NORMAL, LOW }
+
+    public enum JobStatus { QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED }
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private AdvancedAnalyticsService advancedAnalyticsService;
+
+    @Autowired
+    private AnalyticsResultRepository analyticsResultRepository;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    @Qualifier("analyticsJobExecutor")
+    private ThreadPoolExecutor jobExecutor;
+
+    @Value("${analytics.jobs.max-queued:50}")
+    private int maxQueued;
+
+    @Value("${analytics.jobs.retention-minutes:60}")
+    private long retentionMinutes;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Queue an analytics job and return its initial status
+     */
+    public Map<String, Object> submit(JobType type, AnalyticsRequest request, Priority priority, Long userId) {
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            throw new BusinessException(HttpStatus.SERVICE_UNAVAILABLE, "ANALYTICS_QUEUE_FULL",
+                "Too many analytics jobs are waiting; retry later");
+        }
+
+        Job job = new Job(UUID.randomUUID().toString(), type, priority != null ? priority : Priority.NORMAL,
+            request, userId, sequence.incrementAndGet());
+        jobs.put(job.id, job);
+        try {
+            jobExecutor.execute(job);
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            jobs.remove(job.id);
+            throw new BusinessException(HttpStatus.SERVICE_UNAVAILABLE, "ANALYTICS_QUEUE_FULL",
+                "Analytics job executor is not accepting work");
+        }
+
+        logger.info("Queued {} analytics job {} with priority {} ({} waiting)",
+            type, job.id, job.priority, queued.get());
+        Map<String, Object> status = job.toMap();
+        publish(job, status);
+        return status;
+    }
+
+    public Map<String, Object> getStatus(String jobId, Long userId, boolean admin) {
+        return findJob(jobId, userId, admin).toMap();
+    }
+
+    /**
+     * Whether the job exists and the user may see it, e.g. to follow its progress topic
+     */
+    public boolean isVisible(String jobId, Long userId, boolean admin) {
+        Job job = jobs.get(jobId);
+        return job != null && job.isVisibleTo(userId, admin);
+    }
+
+    /**
+     * Jobs still queued or running that the user may see, in the order they will be served
+     */
+    public List<Map<String, Object>> listActiveJobs(Long userId, boolean admin) {
+        return jobs.values().stream()
+            .filter(job -> job.status == JobStatus.QUEUED || job.status == JobStatus.RUNNING)
+            .filter(job -> job.isVisibleTo(userId, admin))
+            .sorted(Comparator.comparing((Job job) -> job.status != JobStatus.RUNNING).thenComparing(job -> job))
+            .map(Job::toMap)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * The persisted result of a completed job
+     */
+    public AnalyticsResult getResult(String jobId, Long userId, boolean admin) {
+        Job job = findJob(jobId, userId, admin);
+        if (job.status != JobStatus.COMPLETED) {
+            throw new BusinessException(HttpStatus.CONFLICT, "ANALYTICS_JOB_NOT_COMPLETED",
+                "Analytics job " + jobId + " is " + job.status);
+        }
+        return analyticsResultRepository.findById(job.resultId)
+            .orElseThrow(() -> new ResourceNotFoundException("Analytics result", String.valueOf(job.resultId)));
+    }
+
+    /**
+     * Cancel a job that has not started yet
+     */
+    public Map<String, Object> cancel(String jobId, Long userId, boolean admin) {
+        Job job = findJob(jobId, userId, admin);
+        if (!jobExecutor.remove(job)) {
+            throw new BusinessException(HttpStatus.CONFLICT, "ANALYTICS_JOB_NOT_QUEUED",
+                "Analytics job " + jobId + " is " + job.status + " and can no longer be cancelled");
+        }
+        queued.decrementAndGet();
+        job.status = JobStatus.CANCELLED;
+        job.completedAt = LocalDateTime.now();
+        logger.info("Cancelled analytics job {}", jobId);
+        Map<String, Object> status = job.toMap();
+        publish(job, status);
+        return status;
+    }
+
+    public Map<String, Object> getQueueStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("queued", queued.get());
+        stats.put("maxQueued", maxQueued);
+        stats.put("running", jobExecutor.getActiveCount());
+        stats.put("workers", jobExecutor.getMaximumPoolSize());
+        stats.put("completedTasks", jobExecutor.getCompletedTaskCount());
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.jobs.cleanup-interval-ms:60000}")
+    public void evictFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> job.completedAt != null && job.completedAt.isBefore(cutoff));
+    }
+
+    private Job findJob(String jobId, Long userId, boolean admin) {
+        Job job = jobs.get(jobId);
+        // Other users' jobs are reported as missing so their ids cannot be probed
+        if (job == null || !job.isVisibleTo(userId, admin)) {
+            throw new ResourceNotFoundException("Analytics job", jobId);
+        }
+        return job;
+    }
+
+    private void run(Job job) {
+        queued.decrementAndGet();
+        job.status = JobStatus.RUNNING;
+        job.startedAt = LocalDateTime.now();
+        progress(job, "STARTED", 0);
+
+        try {
+            AnalyticsProgressListener listener = (stage, percent) -> progress(job, stage, percent);
+            AnalyticsResult result = job.type == JobType.PREDICTIVE
+                ? analyticsService.generatePredictiveAnalytics(job.request, listener)
+                : advancedAnalyticsService.generateComprehensiveAnalytics(job.request, listener);
+
+            job.resultId = result.getId();
+            job.stage = "DONE";
+            job.percentComplete = 100;
+            job.status = JobStatus.COMPLETED;
+            logger.info("Analytics job {} completed with result {}", job.id, job.resultId);
+        } catch (Exception e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            job.error = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+            job.status = JobStatus.FAILED;
+            logger.error("Analytics job {} failed at stage {}", job.id, job.stage, e);
+        } finally {
+            job.completedAt = LocalDateTime.now();
+            // Drop the request payload; only the status is kept until eviction
+            job.request = null;
+            publish(job, job.toMap());
+        }
+    }
+
+    private void progress(Job job, String stage, int percentComplete) {
+        job.stage = stage;
+        job.percentComplete = percentComplete;
+        publish(job, job.toMap());
+    }
+
+    private void publish(Job job, Map<String, Object> status) {
+        try {
+            messagingTemplate.convertAndSend(TOPIC_PREFIX + job.id, status);
+        } catch (Exception e) {
+            logger.warn("Failed to publish progress of analytics job {}: {}", job.id, e.getMessage());
+        }
+    }
+
+    /**
+     * A submitted job; ordered in the executor queue by priority, then submission order
+     */
+    private final class Job implements Runnable, Comparable<Job> {
+        private final String id;
+        private final JobType type;
+        private final Priority priority;
+        private final Long submittedBy;
+        private final long sequence;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+
+        private volatile AnalyticsRequest request;
+        private volatile JobStatus status = JobStatus.QUEUED;
+        private volatile String stage = "QUEUED";
+        private volatile int percentComplete;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime completedAt;
+        private volatile Long resultId;
+        private volatile String error;
+
+        Job(String id, JobType type, Priority priority, AnalyticsRequest request, Long submittedBy, long sequence) {
+            this.id = id;
+            this.type = type;
+            this.priority = priority;
+            this.request = request;
+            this.submittedBy = submittedBy;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            AnalyticsJobService.this.run(this);
+        }
+
+        boolean isVisibleTo(Long userId, boolean admin) {
+            return admin || (submittedBy != null && submittedBy.equals(userId));
+        }
+
+        @Override
+        public int compareTo(Job other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("jobId", id);
+            map.put("jobType", type);
+            map.put("priority", priority);
+            map.put("status", status);
+            map.put("stage", stage);
+            map.put("percentComplete", percentComplete);
+            map.put("submittedBy", submittedBy);
+            map.put("submittedAt", submittedAt);
+            map.put("startedAt", startedAt);
+            map.put("completedAt", completedAt);
+            map.put("resultId", resultId);
+            if (error != null) {
+                map.put("error", error);
+            }
+            return map;
+        }
+    }
+}
@@ -18,6 +18,7 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -37,6 +38,9 @@ public class AnalyticsPerformanceMonitor implements HealthIndicator {
     @Autowired
     private ApplicationEventPublisher eventPublisher;
     
+    @Autowired
+    private ModelDriftMonitor modelDriftMonitor;
+    
     // Performance tracking variables
     private final AtomicInteger totalRequests = new AtomicInteger(0);
     private final AtomicInteger successfulRequests = new AtomicInteger(0);
@@ -97,6 +101,9 @@ public class AnalyticsPerformanceMonitor implements HealthIndicator {
         try {
             logger.debug("Monitoring ML model performance");
             
+            // Close drift windows first so the drift score below is current
+            List<ModelDriftMonitor.DriftReport> driftReports = modelDriftMonitor.evaluate();
+            
             // Check ML model accuracy and performance
             MLModelMetrics metrics = collectMLModelMetrics();
             modelMetrics.put("primary", metrics);
@@ -122,11 +129,16 @@ public class AnalyticsPerformanceMonitor implements HealthIndicator {
                     Map.of("latency", metrics.getAverageLatency(), "threshold", 5000));
             }
             
-            // Check for model drift
-            if (metrics.getDriftScore() > 0.3) {
-                publishAlert("MODEL_DRIFT_DETECTED", "MEDIUM",
-                    "Model drift detected, consider retraining",
-                    Map.of("driftScore", metrics.getDriftScore(), "threshold", 0.3));
+            // Alert on model drift in the windows closed since the last run, once per cooldown
+            for (ModelDriftMonitor.DriftReport report : driftReports) {
+                if (report.isAlert()) {
+                    publishAlert("MODEL_DRIFT_DETECTED", report.isOutputDrifted() ? "HIGH" : "MEDIUM",
+                        "Model drift detected for " + report.getModel() + " model in "
+                            + String.join(", ", report.getDriftedSignals()) + ", consider retraining",
+                        Map.of("model", report.getModel(), "modelVersion", report.getModelVersion(),
+                            "driftScore", report.getMaxPsi(), "windowSamples", report.getWindowSamples(),
+                            "signals", report.getSignals(), "driftedSignals", report.getDriftedSignals()));
+                }
             }
             
         } catch (Exception e) {
@@ -347,7 +359,7 @@ public class AnalyticsPerformanceMonitor implements HealthIndicator {
             0.80 + Math.random() * 0.1, // recall
             1000 + (long)(Math.random() * 2000), // latency 1-3 seconds
             100 + (int)(Math.random() * 900), // total requests
-            Math.random() * 0.5 // drift score 0-0.5
+            modelDriftMonitor.getLatestDriftScore() // largest PSI of the latest drift windows
         );
     }
     
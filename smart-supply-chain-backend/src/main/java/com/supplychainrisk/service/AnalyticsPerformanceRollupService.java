@@ -0,0 +1,361 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.entity.AnalyticsPerformanceRollup;
+import com.supplychainrisk.entity.AnalyticsResult;
+import com.supplychainrisk.repository.AnalyticsPerformanceRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Maintains hourly analytics performance rollups and answers the performance
+ * metrics endpoint from them.
+ *
+ * Each created analytics result adds its count, processing time, confidence and
+ * accuracy to the rollup row of its hour, analysis type and model version. The
+ * upsert runs after the creating transaction commits, in its own transaction, so
+ * only committed results are counted and a rollup failure never fails the
+ * analytics request. Reading a window therefore touches one row per hour, type
+ * and version instead of every result. If the table is empty at startup it is
+ * rebuilt from the last {@code analytics.rollups.backfill-days} of analytics results.
+ *
+ * Model accuracy is reported over that same window rather than all time: older
+ * hours are only present if the service has been recording since then, so an
+ * unbounded sum would mix full and partial history.
+ */
+@Service
+public class AnalyticsPerformanceRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsPerformanceRollupService.class);
+
+    // Upper bounds (exclusive) of the processing time histogram buckets; the last bucket is open
+    private static final long[] LATENCY_BOUNDS_MS = {100, 500, 1000, 5000, 30000};
+    private static final String[] LATENCY_LABELS = {"<100ms", "<500ms", "<1s", "<5s", "<30s", ">=30s"};
+
+    @Autowired
+    private AnalyticsPerformanceRollupRepository rollupRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${analytics.rollups.backfill-days:30}")
+    private int backfillDays;
+
+    /**
+     * Add newly created results to their hourly rollups once the current transaction commits
+     */
+    public void record(Collection<AnalyticsResult> results) {
+        Map<Key, Delta> deltas = new HashMap<>();
+        for (AnalyticsResult result : results) {
+            if (result.getCreatedAt() == null || result.getAnalysisType() == null) {
+                continue;
+            }
+            Key key = new Key(result.getCreatedAt().truncatedTo(ChronoUnit.HOURS), result.getAnalysisType(),
+                result.getModelVersion() != null ? result.getModelVersion() : "");
+            deltas.computeIfAbsent(key, k -> new Delta()).add(result);
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(deltas);
+                }
+            });
+        } else {
+            apply(deltas);
+        }
+    }
+
+    public void record(AnalyticsResult result) {
+        record(Collections.singletonList(result));
+    }
+
+    private void apply(Map<Key, Delta> deltas) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            transaction.executeWithoutResult(status -> deltas.forEach((key, delta) -> rollupRepository.upsert(
+                key.bucketStart, key.analysisType, key.modelVersion, delta.results,
+                delta.processingTimeCount, delta.processingTimeSum, delta.processingTimeSumSquares,
+                delta.processingTimeMax, delta.latency[0], delta.latency[1], delta.latency[2], delta.latency[3],
+                delta.latency[4], delta.latency[5], delta.confidenceCount, delta.confidenceSum,
+                delta.accuracyCount, delta.accuracySum)));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to update analytics performance rollups; rebuild to repair: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Replace the rollups from the given time on with ones recomputed from analytics results
+     */
+    public int rebuild(LocalDateTime since) {
+        LocalDateTime bucket = since.truncatedTo(ChronoUnit.HOURS);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Integer rows = transaction.execute(status -> {
+            rollupRepository.deleteFromBucket(bucket);
+            return rollupRepository.rebuildFromResults(bucket);
+        });
+        logger.info("Rebuilt {} analytics performance rollups since {}", rows, bucket);
+        return rows != null ? rows : 0;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            if (rollupRepository.count() == 0) {
+                rebuild(LocalDateTime.now().minusDays(backfillDays));
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not backfill analytics performance rollups: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Performance metrics over the hours from the given time to now, read from the rollups
+     */
+    public Map<String, Object> getPerformanceMetrics(LocalDateTime since) {
+        LocalDateTime firstBucket = since.truncatedTo(ChronoUnit.HOURS);
+        List<AnalyticsPerformanceRollup> rollups =
+            rollupRepository.findByBucketStartGreaterThanEqualOrderByBucketStartAsc(firstBucket);
+
+        Totals total = new Totals();
+        TreeMap<LocalDateTime, Totals> hourly = new TreeMap<>();
+        Map<String, Long> byType = new TreeMap<>();
+        Map<String, Long> byModelVersion = new TreeMap<>();
+        for (AnalyticsPerformanceRollup rollup : rollups) {
+            total.add(rollup);
+            hourly.computeIfAbsent(rollup.getBucketStart(), hour -> new Totals()).add(rollup);
+            byType.merge(rollup.getAnalysisType(), rollup.getResultCount(), Long::sum);
+            if (!rollup.getModelVersion().isEmpty()) {
+                byModelVersion.merge(rollup.getModelVersion(), rollup.getResultCount(), Long::sum);
+            }
+        }
+
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("totalAnalytics", total.results);
+        metrics.put("averageProcessingTime", total.processingTimeMean());
+        metrics.put("maxProcessingTime", total.processingTimeMax);
+        metrics.put("processingTimeHistogram", total.histogram());
+        metrics.put("averageConfidence", total.confidenceMean());
+        metrics.put("analyticsBreakdown", byType);
+        metrics.put("modelVersionBreakdown", byModelVersion);
+        metrics.put("performanceTrends", calculateTrends(firstBucket, hourly, total));
+        metrics.put("modelPerformance", getModelAccuracy(byModelVersion.keySet()));
+        metrics.put("modelAccuracyWindowDays", backfillDays);
+        metrics.put("rollupRows", rollups.size());
+        return metrics;
+    }
+
+    /**
+     * Trends over hourly means: change from the first to the last hour with data, and
+     * least-squares slope per hour with empty hours as gaps
+     */
+    private Map<String, Object> calculateTrends(LocalDateTime firstBucket, TreeMap<LocalDateTime, Totals> hourly,
+                                                Totals total) {
+        Map<String, Object> trends = new HashMap<>();
+        if (hourly.isEmpty()) {
+            return trends;
+        }
+
+        StreamingStatistics processingTimes = new StreamingStatistics();
+        StreamingStatistics confidences = new StreamingStatistics();
+        Double firstProcessing = null, lastProcessing = null, firstConfidence = null, lastConfidence = null;
+        LocalDateTime lastBucket = hourly.lastKey();
+        for (LocalDateTime hour = firstBucket; !hour.isAfter(lastBucket); hour = hour.plusHours(1)) {
+            Totals totals = hourly.get(hour);
+            if (totals != null && totals.processingTimeCount > 0) {
+                processingTimes.accept(totals.processingTimeMean());
+                firstProcessing = firstProcessing == null ? totals.processingTimeMean() : firstProcessing;
+                lastProcessing = totals.processingTimeMean();
+            } else {
+                processingTimes.acceptNull();
+            }
+            if (totals != null && totals.confidenceCount > 0) {
+                confidences.accept(totals.confidenceMean());
+                firstConfidence = firstConfidence == null ? totals.confidenceMean() : firstConfidence;
+                lastConfidence = totals.confidenceMean();
+            } else {
+                confidences.acceptNull();
+            }
+        }
+
+        if (firstProcessing != null) {
+            trends.put("processing_time_trend", lastProcessing - firstProcessing);
+        }
+        processingTimes.getSlope().ifPresent(slope -> trends.put("processing_time_slope", slope));
+        trends.put("processing_time_std_dev", total.processingTimeStandardDeviation());
+        if (firstConfidence != null) {
+            trends.put("confidence_trend", lastConfidence - firstConfidence);
+        }
+        confidences.getSlope().ifPresent(slope -> trends.put("confidence_slope", slope));
+        return trends;
+    }
+
+    /**
+     * Mean accuracy per model version over the backfill window, which is the
+     * history the rollups are guaranteed to cover
+     */
+    private Map<String, Object> getModelAccuracy(Collection<String> modelVersions) {
+        Map<String, Object> modelMetrics = new HashMap<>();
+        if (modelVersions.isEmpty()) {
+            return modelMetrics;
+        }
+        LocalDateTime windowStart = LocalDateTime.now().minusDays(backfillDays).truncatedTo(ChronoUnit.HOURS);
+        // One grouped query over the window, rather than one per model version
+        for (Object[] row : rollupRepository.sumAccuracyByModelVersion(modelVersions, windowStart)) {
+            double sum = row[1] != null ? ((Number) row[1]).doubleValue() : 0.0;
+            long count = row[2] != null ? ((Number) row[2]).longValue() : 0L;
+            modelMetrics.put(row[0] + "_accuracy", count > 0 ? sum / count : 0.0);
+        }
+        return modelMetrics;
+    }
+
+    static int latencyBucket(long processingTimeMs) {
+        for (int i = 0; i < LATENCY_BOUNDS_MS.length; i++) {
+            if (processingTimeMs < LATENCY_BOUNDS_MS[i]) {
+                return i;
+            }
+        }
+        return LATENCY_BOUNDS_MS.length;
+    }
+
+    private static final class Key {
+        final LocalDateTime bucketStart;
+        final String analysisType;
+        final String modelVersion;
+
+        Key(LocalDateTime bucketStart, String analysisType, String modelVersion) {
+            this.bucketStart = bucketStart;
+            this.analysisType = analysisType;
+            this.modelVersion = modelVersion;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return bucketStart.equals(key.bucketStart) && analysisType.equals(key.analysisType)
+                && modelVersion.equals(key.modelVersion);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(bucketStart, analysisType, modelVersion);
+        }
+    }
+
+    /**
+     * Increment of one rollup row from a set of new results
+     */
+    private static final class Delta {
+        long results;
+        long processingTimeCount;
+        long processingTimeSum;
+        double processingTimeSumSquares;
+        long processingTimeMax;
+        final long[] latency = new long[LATENCY_LABELS.length];
+        long confidenceCount;
+        double confidenceSum;
+        long accuracyCount;
+        double accuracySum;
+
+        void add(AnalyticsResult result) {
+            results++;
+            Long processingTime = result.getProcessingTimeMs();
+            if (processingTime != null) {
+                processingTimeCount++;
+                processingTimeSum += processingTime;
+                processingTimeSumSquares += (double) processingTime * processingTime;
+                processingTimeMax = Math.max(processingTimeMax, processingTime);
+                latency[latencyBucket(processingTime)]++;
+            }
+            if (result.getConfidenceScore() != null) {
+                confidenceCount++;
+                confidenceSum += result.getConfidenceScore().doubleValue();
+            }
+            if (result.getAccuracyScore() != null) {
+                accuracyCount++;
+                accuracySum += result.getAccuracyScore().doubleValue();
+            }
+        }
+    }
+
+    /**
+     * Sums of rollup rows over a window or a single hour
+     */
+    private static final class Totals {
+        long results;
+        long processingTimeCount;
+        long processingTimeSum;
+        double processingTimeSumSquares;
+        long processingTimeMax;
+        final long[] latency = new long[LATENCY_LABELS.length];
+        long confidenceCount;
+        double confidenceSum;
+
+        void add(AnalyticsPerformanceRollup rollup) {
+            results += rollup.getResultCount();
+            processingTimeCount += rollup.getProcessingTimeCount();
+            processingTimeSum += rollup.getProcessingTimeSum();
+            processingTimeSumSquares += rollup.getProcessingTimeSumSquares();
+            processingTimeMax = Math.max(processingTimeMax, rollup.getProcessingTimeMax());
+            latency[0] += rollup.getLatencyUnder100Ms();
+            latency[1] += rollup.getLatencyUnder500Ms();
+            latency[2] += rollup.getLatencyUnder1S();
+            latency[3] += rollup.getLatencyUnder5S();
+            latency[4] += rollup.getLatencyUnder30S();
+            latency[5] += rollup.getLatencyOver30S();
+            confidenceCount += rollup.getConfidenceCount();
+            confidenceSum += rollup.getConfidenceSum();
+        }
+
+        double processingTimeMean() {
+            return processingTimeCount > 0 ? (double) processingTimeSum / processingTimeCount : 0.0;
+        }
+
+        double processingTimeStandardDeviation() {
+            if (processingTimeCount == 0) {
+                return 0.0;
+            }
+            double mean = processingTimeMean();
+            return Math.sqrt(Math.max(0.0, processingTimeSumSquares / processingTimeCount - mean * mean));
+        }
+
+        double confidenceMean() {
+            return confidenceCount > 0 ? confidenceSum / confidenceCount : 0.0;
+        }
+
+        Map<String, Long> histogram() {
+            Map<String, Long> histogram = new LinkedHashMap<>();
+            for (int i = 0; i < LATENCY_LABELS.length; i++) {
+                histogram.put(LATENCY_LABELS[i], latency[i]);
+            }
+            return histogram;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.supplychainrisk.service;
+
+/**
+ * Receives stage updates from long-running analytics computations
+ */
+@FunctionalInterface
+public interface AnalyticsProgressListener {
+
+    AnalyticsProgressListener NONE = (stage, percentComplete) -> { };
+
+    void onProgress(String stage, int percentComplete);
+}
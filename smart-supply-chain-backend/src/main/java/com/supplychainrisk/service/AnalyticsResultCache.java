@@ -0,0 +1,348 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.dto.AnalyticsRequest;
+import com.supplychainrisk.entity.AnalyticsResult;
+import com.supplychainrisk.repository.AnalyticsResultRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Reuses analytics results for identical requests until they expire.
+ *
+ * Requests are keyed by a SHA-256 fingerprint of a canonical encoding of every
+ * field that affects the result, namespaced by pipeline. A fresh result is served
+ * from a small in-process LRU map, then from the newest unexpired active row in
+ * {@code analytics_results}; only then is the pipeline run. Concurrent callers
+ * with the same fingerprint share a single lookup and computation, waiting for it
+ * a bounded time before computing on their own. A newly computed result
+ * supersedes older active rows for its fingerprint, and is shared with waiters
+ * and remembered only once the caller's transaction has committed it.
+ */
+@Service
+public class AnalyticsResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsResultCache.class);
+
+    private static final String METRIC = "analytics.result-cache.requests";
+
+    @Autowired
+    private AnalyticsResultRepository analyticsResultRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${analytics.result-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${analytics.result-cache.max-entries:500}")
+    private int maxEntries;
+
+    @Value("${analytics.result-cache.wait-timeout-ms:30000}")
+    private long waitTimeoutMs;
+
+    private final Map<String, AnalyticsResult> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, CompletableFuture<AnalyticsResult>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong databaseHits = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong computed = new AtomicLong();
+
+    /**
+     * Days a result of the given analysis type stays valid
+     */
+    public static int getExpirationDays(String analysisType) {
+        if (analysisType == null) {
+            return 14;
+        }
+        return switch (analysisType) {
+            case "REAL_TIME_RISK" -> 1;
+            case "SHORT_TERM_FORECAST" -> 7;
+            case "LONG_TERM_FORECAST" -> 30;
+            default -> 14;
+        };
+    }
+
+    /**
+     * Return a fresh result for the request, or run the computation with the request
+     * fingerprint. The computation must persist its result with that fingerprint and
+     * an expiry; results without an expiry are returned but not reused.
+     */
+    public AnalyticsResult getOrCompute(String pipeline, AnalyticsRequest request,
+                                        Function<String, AnalyticsResult> computation) {
+        String fingerprint = fingerprint(pipeline, request);
+        if (!enabled) {
+            return computation.apply(fingerprint);
+        }
+
+        AnalyticsResult cached = fromMemory(fingerprint, LocalDateTime.now());
+        if (cached != null) {
+            record(memoryHits, "memory");
+            return cached;
+        }
+
+        CompletableFuture<AnalyticsResult> mine = new CompletableFuture<>();
+        CompletableFuture<AnalyticsResult> running = inFlight.putIfAbsent(fingerprint, mine);
+        if (running != null) {
+            record(coalesced, "coalesced");
+            logger.debug("Waiting for in-flight analytics computation {}", fingerprint);
+            AnalyticsResult shared = await(fingerprint, running);
+            if (shared != null) {
+                return shared;
+            }
+            // Timed out or rolled back: compute without claiming the fingerprint
+            return lookupOrCompute(fingerprint, computation, null);
+        }
+
+        try {
+            return lookupOrCompute(fingerprint, computation, mine);
+        } catch (RuntimeException e) {
+            inFlight.remove(fingerprint, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * The in-flight computation's result, or null when it is not committed within the wait timeout
+     */
+    private AnalyticsResult await(String fingerprint, CompletableFuture<AnalyticsResult> running) {
+        try {
+            return running.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.info("Analytics computation {} still running after {} ms; computing independently",
+                fingerprint, waitTimeoutMs);
+            return null;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+                : new CompletionException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException("Interrupted waiting for analytics computation " + fingerprint, e);
+        }
+    }
+
+    private AnalyticsResult lookupOrCompute(String fingerprint, Function<String, AnalyticsResult> computation,
+                                            CompletableFuture<AnalyticsResult> claim) {
+        LocalDateTime now = LocalDateTime.now();
+        // Another caller may have finished between the memory check and claiming the fingerprint
+        AnalyticsResult result = fromMemory(fingerprint, now);
+        if (result != null) {
+            record(memoryHits, "memory");
+            publish(fingerprint, result, claim, true);
+            return result;
+        }
+
+        Optional<AnalyticsResult> stored = analyticsResultRepository
+            .findTopByRequestFingerprintAndStatusAndExpiresAtAfterOrderByCreatedAtDesc(
+                fingerprint, AnalyticsResult.AnalyticsStatus.ACTIVE, now);
+        if (stored.isPresent()) {
+            record(databaseHits, "database");
+            publish(fingerprint, stored.get(), claim, true);
+            return stored.get();
+        }
+
+        record(computed, "computed");
+        result = computation.apply(fingerprint);
+        if (result.getId() != null) {
+            int superseded = analyticsResultRepository.updateStatusForFingerprintExcept(fingerprint, result.getId(),
+                AnalyticsResult.AnalyticsStatus.ACTIVE, AnalyticsResult.AnalyticsStatus.SUPERSEDED);
+            if (superseded > 0) {
+                logger.debug("Superseded {} earlier results for {}", superseded, fingerprint);
+            }
+        }
+        publishAfterCommit(fingerprint, result, claim);
+        return result;
+    }
+
+    /**
+     * Share a computed result once the surrounding transaction has committed its row;
+     * on rollback, waiters compute on their own
+     */
+    private void publishAfterCommit(String fingerprint, AnalyticsResult result,
+                                    CompletableFuture<AnalyticsResult> claim) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(fingerprint, result, claim, true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                publish(fingerprint, result, claim, status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private void publish(String fingerprint, AnalyticsResult result, CompletableFuture<AnalyticsResult> claim,
+                         boolean committed) {
+        if (committed) {
+            remember(fingerprint, result);
+        }
+        if (claim != null) {
+            inFlight.remove(fingerprint, claim);
+            claim.complete(committed ? result : null);
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        long hits = memoryHits.get() + databaseHits.get() + coalesced.get();
+        long total = hits + computed.get();
+        stats.put("enabled", enabled);
+        stats.put("memoryHits", memoryHits.get());
+        stats.put("databaseHits", databaseHits.get());
+        stats.put("coalesced", coalesced.get());
+        stats.put("computed", computed.get());
+        stats.put("hitRatio", total > 0 ? (double) hits / total : 0.0);
+        synchronized (memory) {
+            stats.put("entries", memory.size());
+        }
+        stats.put("inFlight", inFlight.size());
+        return stats;
+    }
+
+    public void clear() {
+        synchronized (memory) {
+            memory.clear();
+        }
+    }
+
+    private AnalyticsResult fromMemory(String fingerprint, LocalDateTime now) {
+        synchronized (memory) {
+            AnalyticsResult result = memory.get(fingerprint);
+            if (result != null && !isFresh(result, now)) {
+                memory.remove(fingerprint);
+                return null;
+            }
+            return result;
+        }
+    }
+
+    private void remember(String fingerprint, AnalyticsResult result) {
+        if (!isFresh(result, LocalDateTime.now())) {
+            return;
+        }
+        synchronized (memory) {
+            memory.put(fingerprint, result);
+            Iterator<AnalyticsResult> eldest = memory.values().iterator();
+            while (memory.size() > maxEntries && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    private static boolean isFresh(AnalyticsResult result, LocalDateTime now) {
+        return result.getExpiresAt() != null && result.getExpiresAt().isAfter(now)
+            && result.getStatus() == AnalyticsResult.AnalyticsStatus.ACTIVE;
+    }
+
+    private void record(AtomicLong counter, String outcome) {
+        counter.incrementAndGet();
+        meterRegistry.counter(METRIC, "outcome", outcome).increment();
+    }
+
+    /**
+     * SHA-256 of a canonical encoding of the pipeline and request: map keys are
+     * sorted and null and empty collections coincide, but list order and value
+     * types are kept because they change the computed result
+     */
+    public static String fingerprint(String pipeline, AnalyticsRequest request) {
+        StringBuilder canonical = new StringBuilder(256);
+        canonical.append(pipeline);
+        field(canonical, "analysisType", request.getAnalysisType());
+        field(canonical, "timeHorizonDays", request.getTimeHorizonDays());
+        field(canonical, "startDate", request.getStartDate());
+        field(canonical, "endDate", request.getEndDate());
+        field(canonical, "supplierIds", request.getSupplierIds());
+        field(canonical, "filters", request.getFilters());
+        field(canonical, "predictionModel", request.getPredictionModel());
+        field(canonical, "businessContext", request.getBusinessContext());
+        return sha256(canonical);
+    }
+
+    static String sha256(CharSequence canonical) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    static void field(StringBuilder out, String name, Object value) {
+        out.append('|').append(name).append('=');
+        write(out, value);
+    }
+
+    private static void write(StringBuilder out, Object value) {
+        if (value == null
+                || (value instanceof Collection && ((Collection<?>) value).isEmpty())
+                || (value instanceof Map && ((Map<?, ?>) value).isEmpty())) {
+            out.append('~');
+        } else if (value instanceof Map) {
+            Map<String, Object> sorted = new TreeMap<>();
+            ((Map<?, ?>) value).forEach((key, entry) -> sorted.put(String.valueOf(key), entry));
+            out.append('{');
+            sorted.forEach((key, entry) -> {
+                string(out, key);
+                out.append(':');
+                write(out, entry);
+                out.append(',');
+            });
+            out.append('}');
+        } else if (value instanceof Collection) {
+            out.append('[');
+            for (Object element : (Collection<?>) value) {
+                write(out, element);
+                out.append(',');
+            }
+            out.append(']');
+        } else if (value instanceof String) {
+            string(out, (String) value);
+        } else if (value instanceof Number || value instanceof Boolean || value instanceof TemporalAccessor
+                || value instanceof Enum) {
+            // Type-tagged: an Integer and a Long filter value do not match the same rows
+            out.append(value.getClass().getSimpleName()).append('(')
+                .append(value instanceof BigDecimal ? ((BigDecimal) value).toString() : value).append(')');
+        } else {
+            out.append(value.getClass().getName()).append('(');
+            string(out, String.valueOf(value));
+            out.append(')');
+        }
+    }
+
+    private static void string(StringBuilder out, String value) {
+        // Length-prefixed so separators inside values cannot collide
+        out.append(value.length()).append('"').append(value).append('"');
+    }
+}
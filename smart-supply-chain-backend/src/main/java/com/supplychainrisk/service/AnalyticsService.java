@@ -37,9 +37,24 @@ public class AnalyticsService {
     @Autowired
     private SupplierRepository supplierRepository;
     
+    @Autowired
+    private SupplierFeatureSnapshot supplierFeatureSnapshot;
+    
+    @Autowired
+    private HistoricalDataCollector historicalDataCollector;
+    
     @Autowired
     private AnalyticsResultRepository analyticsResultRepository;
     
+    @Autowired
+    private AnalyticsResultCache analyticsResultCache;
+    
+    @Autowired
+    private PredictionCache predictionCache;
+    
+    @Autowired
+    private AnalyticsPerformanceRollupService analyticsPerformanceRollupService;
+    
     @Autowired
     private RealTimeUpdateService realTimeUpdateService;
     
@@ -50,21 +65,38 @@ public class AnalyticsService {
      * Generate comprehensive predictive analytics combining historical data with ML predictions
      */
     public AnalyticsResult generatePredictiveAnalytics(AnalyticsRequest request) {
+        return generatePredictiveAnalytics(request, AnalyticsProgressListener.NONE);
+    }
+    
+    /**
+     * Generate predictive analytics, reporting each stage to the listener
+     */
+    public AnalyticsResult generatePredictiveAnalytics(AnalyticsRequest request, AnalyticsProgressListener progress) {
+        // Identical requests within the result's validity reuse it instead of recomputing
+        return analyticsResultCache.getOrCompute("PREDICTIVE", request,
+            fingerprint -> computePredictiveAnalytics(request, progress, fingerprint));
+    }
+    
+    private AnalyticsResult computePredictiveAnalytics(AnalyticsRequest request, AnalyticsProgressListener progress,
+                                                       String fingerprint) {
         logger.info("Generating predictive analytics for request: {}", request.getAnalysisType());
         
         long startTime = System.currentTimeMillis();
         
         try {
             // Collect historical data based on request parameters
+            progress.onProgress("COLLECTING_DATA", 10);
             List<Map<String, Object>> historicalData = collectHistoricalData(request);
             
             // Generate ML predictions
+            progress.onProgress("PREDICTING", 40);
             Duration predictionHorizon = Duration.ofDays(
                 Optional.ofNullable(request.getTimeHorizonDays()).orElse(30)
             );
             MLPredictionResult predictions = mlPredictionService.predict(historicalData, predictionHorizon);
             
             // Calculate enhanced risk scores
+            progress.onProgress("SCORING", 70);
             Map<String, BigDecimal> riskScores = calculateEnhancedRiskScores(request, predictions);
             
             // Generate intelligent recommendations
@@ -73,8 +105,9 @@ public class AnalyticsService {
             );
             
             // Create and save analytics result
+            progress.onProgress("SAVING", 90);
             AnalyticsResult result = createAnalyticsResult(
-                request, predictions, riskScores, recommendations, startTime
+                request, fingerprint, predictions, riskScores, recommendations, startTime
             );
             
             // Broadcast real-time update
@@ -143,31 +176,11 @@ public class AnalyticsService {
     public Map<String, Object> getAnalyticsPerformanceMetrics() {
         logger.debug("Retrieving analytics performance metrics");
         
-        Map<String, Object> metrics = new HashMap<>();
-        
-        // Get recent analytics results for performance analysis
+        // Read from hourly rollups maintained as results are created, not from the results themselves
         LocalDateTime since = LocalDateTime.now().minusDays(7);
-        List<AnalyticsResult> recentResults = analyticsResultRepository.findRecentResults(since);
-        
-        // Calculate performance metrics
-        metrics.put("totalAnalytics", recentResults.size());
-        metrics.put("averageProcessingTime", calculateAverageProcessingTime(recentResults));
-        metrics.put("averageConfidence", calculateAverageConfidence(recentResults));
-        metrics.put("analyticsBreakdown", getAnalyticsBreakdownByType(recentResults));
-        metrics.put("performanceTrends", calculatePerformanceTrends(recentResults));
-        
-        // Model performance metrics
-        Map<String, Object> modelMetrics = new HashMap<>();
-        Set<String> modelVersions = recentResults.stream()
-            .map(AnalyticsResult::getModelVersion)
-            .filter(Objects::nonNull)
-            .collect(Collectors.toSet());
-        
-        for (String version : modelVersions) {
-            Double avgAccuracy = analyticsResultRepository.getAverageAccuracyByModelVersion(version);
-            modelMetrics.put(version + "_accuracy", avgAccuracy != null ? avgAccuracy : 0.0);
-        }
-        metrics.put("modelPerformance", modelMetrics);
+        Map<String, Object> metrics = new HashMap<>(analyticsPerformanceRollupService.getPerformanceMetrics(since));
+        metrics.put("resultCache", analyticsResultCache.getStatistics());
+        metrics.put("predictionCache", predictionCache.getStatistics());
         
         return metrics;
     }
@@ -180,63 +193,13 @@ public class AnalyticsService {
         
         // Determine date range for historical data collection
         LocalDateTime endDate = Optional.ofNullable(request.getEndDate()).orElse(LocalDateTime.now());
-        LocalDateTime startDate = Optional.ofNullable(request.getStartDate())
-            .orElse(endDate.minusDays(90)); // Default to 90 days of history
-        
-        // Collect supplier-specific data if supplier IDs are provided
-        if (request.getSupplierIds() != null && !request.getSupplierIds().isEmpty()) {
-            for (Long supplierId : request.getSupplierIds()) {
-                Supplier supplier = supplierRepository.findById(supplierId).orElse(null);
-                if (supplier != null) {
-                    Map<String, Object> supplierData = createSupplierDataPoint(supplier, endDate);
-                    historicalData.add(supplierData);
-                }
-            }
-        } else {
-            // Collect aggregated data for all suppliers
-            List<Supplier> suppliers = supplierRepository.findAll();
-            for (Supplier supplier : suppliers) {
-                Map<String, Object> supplierData = createSupplierDataPoint(supplier, endDate);
-                historicalData.add(supplierData);
-            }
-        }
         
-        // Apply filters if specified
-        if (request.getFilters() != null) {
-            historicalData = applyFilters(historicalData, request.getFilters());
-        }
+        // Streamed in pages with filters pushed down; only matching data points are kept
+        historicalDataCollector.collect(request.getSupplierIds(), request.getFilters(), endDate, historicalData::add);
         
-        logger.debug("Collected {} historical data points", historicalData.size());
         return historicalData;
     }
     
-    /**
-     * Create a data point from supplier information
-     */
-    private Map<String, Object> createSupplierDataPoint(Supplier supplier, LocalDateTime timestamp) {
-        Map<String, Object> dataPoint = new HashMap<>();
-        
-        dataPoint.put("supplier_id", supplier.getId());
-        dataPoint.put("timestamp", timestamp);
-        dataPoint.put("risk_score", supplier.getOverallRiskScore());
-        dataPoint.put("financial_risk", supplier.getFinancialRiskScore());
-        dataPoint.put("operational_risk", supplier.getOperationalRiskScore());
-        dataPoint.put("compliance_risk", supplier.getComplianceRiskScore());
-        dataPoint.put("geographic_risk", supplier.getGeographicRiskScore());
-        dataPoint.put("delivery_rate", supplier.getOnTimeDeliveryRate());
-        dataPoint.put("quality_rating", supplier.getQualityRating());
-        dataPoint.put("cost_competitiveness", supplier.getCostCompetitivenessScore());
-        dataPoint.put("responsiveness", supplier.getResponsivenessScore());
-        dataPoint.put("country", supplier.getCountry());
-        dataPoint.put("industry", supplier.getIndustry());
-        dataPoint.put("tier", supplier.getTier().toString());
-        dataPoint.put("annual_revenue", supplier.getAnnualRevenue());
-        dataPoint.put("employee_count", supplier.getEmployeeCount());
-        dataPoint.put("years_in_business", supplier.getYearsInBusiness());
-        
-        return dataPoint;
-    }
-    
     /**
      * Calculate enhanced risk scores combining traditional assessment with ML insights
      */
@@ -328,6 +291,7 @@ public class AnalyticsService {
      * Create and save analytics result
      */
     private AnalyticsResult createAnalyticsResult(AnalyticsRequest request,
+                                                 String fingerprint,
                                                  MLPredictionResult predictions,
                                                  Map<String, BigDecimal> riskScores,
                                                  List<Map<String, Object>> recommendations,
@@ -339,6 +303,7 @@ public class AnalyticsService {
         result.setConfidenceScore(predictions.getConfidence());
         result.setModelVersion(predictions.getModelVersion());
         result.setProcessingTimeMs(System.currentTimeMillis() - startTime);
+        result.setRequestFingerprint(fingerprint);
         
         // Convert objects to JSON strings for storage
         result.setPredictions(objectMapper.writeValueAsString(predictions.getPredictions()));
@@ -351,26 +316,13 @@ public class AnalyticsService {
         );
         result.setExpiresAt(expirationTime);
         
-        return analyticsResultRepository.save(result);
+        AnalyticsResult saved = analyticsResultRepository.save(result);
+        analyticsPerformanceRollupService.record(saved);
+        return saved;
     }
     
     // Helper methods for data processing and calculations
     
-    private List<Map<String, Object>> applyFilters(List<Map<String, Object>> data, 
-                                                  Map<String, Object> filters) {
-        return data.stream()
-            .filter(dataPoint -> {
-                for (Map.Entry<String, Object> filter : filters.entrySet()) {
-                    Object value = dataPoint.get(filter.getKey());
-                    if (!Objects.equals(value, filter.getValue())) {
-                        return false;
-                    }
-                }
-                return true;
-            })
-            .collect(Collectors.toList());
-    }
-    
     private Map<String, Object> collectRealTimeSupplierData(Supplier supplier, 
                                                            Map<String, Object> context) {
         Map<String, Object> realTimeData = new HashMap<>();
@@ -492,64 +444,8 @@ public class AnalyticsService {
     
     // Performance calculation methods
     
-    private Double calculateAverageProcessingTime(List<AnalyticsResult> results) {
-        return results.stream()
-            .filter(r -> r.getProcessingTimeMs() != null)
-            .mapToLong(AnalyticsResult::getProcessingTimeMs)
-            .average()
-            .orElse(0.0);
-    }
-    
-    private Double calculateAverageConfidence(List<AnalyticsResult> results) {
-        return results.stream()
-            .filter(r -> r.getConfidenceScore() != null)
-            .mapToDouble(r -> r.getConfidenceScore().doubleValue())
-            .average()
-            .orElse(0.0);
-    }
-    
-    private Map<String, Long> getAnalyticsBreakdownByType(List<AnalyticsResult> results) {
-        return results.stream()
-            .collect(Collectors.groupingBy(
-                AnalyticsResult::getAnalysisType,
-                Collectors.counting()
-            ));
-    }
-    
-    private Map<String, Object> calculatePerformanceTrends(List<AnalyticsResult> results) {
-        Map<String, Object> trends = new HashMap<>();
-        
-        // Sort by creation time
-        List<AnalyticsResult> sortedResults = results.stream()
-            .sorted((a, b) -> a.getCreatedAt().compareTo(b.getCreatedAt()))
-            .collect(Collectors.toList());
-        
-        if (sortedResults.size() >= 2) {
-            // Calculate processing time trend
-            AnalyticsResult first = sortedResults.get(0);
-            AnalyticsResult last = sortedResults.get(sortedResults.size() - 1);
-            
-            if (first.getProcessingTimeMs() != null && last.getProcessingTimeMs() != null) {
-                double processingTimeTrend = last.getProcessingTimeMs() - first.getProcessingTimeMs();
-                trends.put("processing_time_trend", processingTimeTrend);
-            }
-            
-            if (first.getConfidenceScore() != null && last.getConfidenceScore() != null) {
-                BigDecimal confidenceTrend = last.getConfidenceScore().subtract(first.getConfidenceScore());
-                trends.put("confidence_trend", confidenceTrend);
-            }
-        }
-        
-        return trends;
-    }
-    
     private int getExpirationDaysForAnalysisType(String analysisType) {
-        return switch (analysisType) {
-            case "REAL_TIME_RISK" -> 1;
-            case "SHORT_TERM_FORECAST" -> 7;
-            case "LONG_TERM_FORECAST" -> 30;
-            default -> 14;
-        };
+        return AnalyticsResultCache.getExpirationDays(analysisType);
     }
     
     /**
@@ -561,23 +457,23 @@ public class AnalyticsService {
         try {
             Map<String, Object> summary = new HashMap<>();
             
+            if (!supplierFeatureSnapshot.isLoaded()) {
+                // Snapshot still loading (or its load failed): read the supplier table instead
+                return getAnalyticsSummaryFromTable(summary);
+            }
+            
             // Get supplier risk summary
-            List<Supplier> suppliers = supplierRepository.findAll();
-            Map<String, Integer> riskSummary = suppliers.stream()
-                .collect(Collectors.groupingBy(
-                    s -> getRiskCategory(s.getOverallRiskScore()),
-                    Collectors.collectingAndThen(Collectors.counting(), Math::toIntExact)
-                ));
+            int totalSuppliers = supplierFeatureSnapshot.size();
+            Map<String, Integer> riskSummary = new HashMap<>();
+            supplierFeatureSnapshot.countByOverallRiskScore(this::getRiskCategory)
+                .forEach((category, count) -> riskSummary.put(category, Math.toIntExact(count)));
             
             summary.put("supplierRiskSummary", riskSummary);
-            summary.put("totalSuppliers", suppliers.size());
+            summary.put("totalSuppliers", totalSuppliers);
             
             // Calculate average metrics
-            BigDecimal avgRiskScore = suppliers.stream()
-                .filter(s -> s.getOverallRiskScore() != null)
-                .map(s -> BigDecimal.valueOf(s.getOverallRiskScore()))
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .divide(BigDecimal.valueOf(suppliers.size()), RoundingMode.HALF_UP);
+            BigDecimal avgRiskScore = BigDecimal.valueOf(supplierFeatureSnapshot.overallRiskScoreStats().getSum())
+                .divide(BigDecimal.valueOf(totalSuppliers), RoundingMode.HALF_UP);
             
             summary.put("averageRiskScore", avgRiskScore);
             
@@ -593,6 +489,30 @@ public class AnalyticsService {
         }
     }
     
+    private Map<String, Object> getAnalyticsSummaryFromTable(Map<String, Object> summary) {
+        List<Supplier> suppliers = supplierRepository.findAll();
+        Map<String, Integer> riskSummary = suppliers.stream()
+            .collect(Collectors.groupingBy(
+                s -> getRiskCategory(s.getOverallRiskScore()),
+                Collectors.collectingAndThen(Collectors.counting(), Math::toIntExact)
+            ));
+        
+        summary.put("supplierRiskSummary", riskSummary);
+        summary.put("totalSuppliers", suppliers.size());
+        
+        BigDecimal avgRiskScore = suppliers.stream()
+            .filter(s -> s.getOverallRiskScore() != null)
+            .map(s -> BigDecimal.valueOf(s.getOverallRiskScore()))
+            .reduce(BigDecimal.ZERO, BigDecimal::add)
+            .divide(BigDecimal.valueOf(suppliers.size()), RoundingMode.HALF_UP);
+        
+        summary.put("averageRiskScore", avgRiskScore);
+        summary.put("lastUpdated", LocalDateTime.now());
+        summary.put("analyticsEnabled", true);
+        
+        return summary;
+    }
+    
     /**
      * Generate risk predictions for multiple suppliers
      */
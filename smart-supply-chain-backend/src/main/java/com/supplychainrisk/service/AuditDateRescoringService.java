@@ -0,0 +1,227 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.entity.BatchJobExecution;
+import com.supplychainrisk.entity.Supplier;
+import com.supplychainrisk.repository.BatchJobExecutionRepository;
+import com.supplychainrisk.repository.SupplierRepository;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Date-driven rescoring of the compliance sub-score.
+ *
+ * The compliance score depends on today's date through the audit thresholds of
+ * the active risk model. Once a day this service finds exactly the suppliers
+ * whose audit dates crossed one of those thresholds since the last run (audit
+ * overdue, due soon, or last audit past the recent/aged limits) and recalculates
+ * only their compliance and overall scores.
+ *
+ * The crossing windows are derived from the thresholds of the model that scores
+ * the run. If another model is activated mid-run, the scan restarts with the
+ * new model's windows; suppliers whose band moved because the thresholds
+ * themselves changed are rescored by the activation (audit changes mark the
+ * compliance component in the model diff).
+ */
+@Service
+public class AuditDateRescoringService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditDateRescoringService.class);
+
+    public static final String JOB_TYPE = "AUDIT_DATE_RESCORING";
+
+    private static final String UPDATE_COMPLIANCE_SQL =
+        "UPDATE suppliers SET compliance_risk_score = ?, overall_risk_score = ?, " +
+        "risk_model_version = ?, risk_last_updated = ? WHERE id = ?";
+
+    private static final Set<RiskAssessmentService.RiskComponent> COMPLIANCE_ONLY =
+        EnumSet.of(RiskAssessmentService.RiskComponent.COMPLIANCE);
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Autowired
+    private BatchJobExecutionRepository jobExecutionRepository;
+
+    @Autowired
+    private RiskAssessmentService riskAssessmentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Value("${risk.audit-rescoring.page-size:500}")
+    private int pageSize;
+
+    /**
+     * Runs shortly after midnight so scores flip on the day a threshold is crossed
+     */
+    @Scheduled(cron = "${risk.audit-rescoring.cron:0 5 0 * * *}")
+    public void rescoreAuditThresholdCrossings() {
+        try {
+            rescoreThrough(LocalDate.now());
+        } catch (Exception e) {
+            logger.error("Audit date rescoring failed; it will catch up on the next run", e);
+        }
+    }
+
+    /**
+     * Rescore every supplier whose audit thresholds were crossed after the last
+     * completed run, up to and including the given day. Missed days are caught up.
+     */
+    public int rescoreThrough(LocalDate today) {
+        // The checkpoint column holds the epoch day of the last fully processed date
+        LocalDate lastRunDay = jobExecutionRepository
+            .findTopByJobTypeAndStatusOrderByStartedAtDesc(JOB_TYPE, BatchJobExecution.JobStatus.COMPLETED)
+            .map(execution -> LocalDate.ofEpochDay(execution.getLastProcessedId()))
+            .orElse(today.minusDays(1));
+
+        if (!lastRunDay.isBefore(today)) {
+            logger.debug("Audit date rescoring already up to date for {}", today);
+            return 0;
+        }
+
+        BatchJobExecution execution = jobExecutionRepository.save(new BatchJobExecution(JOB_TYPE, pageSize, null));
+        TransactionTemplate readTemplate = new TransactionTemplate(transactionManager);
+        readTemplate.setReadOnly(true);
+        TransactionTemplate writeTemplate = new TransactionTemplate(transactionManager);
+
+        int rescored = 0;
+        long lastId = 0L;
+        RiskAssessmentService.ActiveRiskModel model = riskAssessmentService.getActiveModel();
+        try {
+            while (true) {
+                RiskAssessmentService.ActiveRiskModel current = riskAssessmentService.getActiveModel();
+                if (current != model) {
+                    logger.info("Risk model version {} activated during audit date rescoring; rescanning",
+                        current.getVersion());
+                    model = current;
+                    lastId = 0L;
+                }
+                long afterId = lastId;
+                CompiledRiskScorer scorer = model.getScorer();
+                List<Supplier> page = readTemplate.execute(
+                    status -> loadCrossings(afterId, lastRunDay, today, scorer));
+                if (page == null || page.isEmpty()) {
+                    break;
+                }
+
+                long todayEpochDay = today.toEpochDay();
+                List<Supplier> changed = new ArrayList<>();
+                List<Integer> previousOverallScores = new ArrayList<>();
+                for (Supplier supplier : page) {
+                    Integer previousCompliance = supplier.getComplianceRiskScore();
+                    Integer previousOverall = supplier.getOverallRiskScore();
+                    scorer.score(supplier, COMPLIANCE_ONLY, todayEpochDay);
+                    if (!supplier.getComplianceRiskScore().equals(previousCompliance)) {
+                        supplier.setRiskModelVersion(model.getVersion());
+                        changed.add(supplier);
+                        previousOverallScores.add(previousOverall);
+                    }
+                }
+
+                LocalDateTime now = LocalDateTime.now();
+                writeTemplate.executeWithoutResult(status -> writeComplianceScores(changed, now));
+
+                for (int i = 0; i < changed.size(); i++) {
+                    changed.get(i).setRiskLastUpdated(now);
+                    eventPublisher.publishEvent(new RiskAssessmentService.SupplierRiskScoresChangedEvent(
+                        changed.get(i), COMPLIANCE_ONLY, previousOverallScores.get(i)));
+                }
+                rescored += changed.size();
+                execution.setProcessedItems(execution.getProcessedItems() + page.size());
+                lastId = page.get(page.size() - 1).getId();
+            }
+
+            execution.setLastProcessedId(today.toEpochDay());
+            execution.setTotalItems(execution.getProcessedItems());
+            execution.setStatus(BatchJobExecution.JobStatus.COMPLETED);
+            execution.setCompletedAt(LocalDateTime.now());
+            jobExecutionRepository.save(execution);
+
+            if (rescored > 0) {
+                Cache cache = cacheManager.getCache("suppliers");
+                if (cache != null) {
+                    cache.clear();
+                }
+            }
+            logger.info("Audit date rescoring for {} to {}: {} suppliers checked, {} compliance scores changed",
+                lastRunDay.plusDays(1), today, execution.getProcessedItems(), rescored);
+            return rescored;
+
+        } catch (RuntimeException e) {
+            execution.setStatus(BatchJobExecution.JobStatus.FAILED);
+            execution.setErrorMessage(e.getMessage());
+            jobExecutionRepository.save(execution);
+            throw e;
+        }
+    }
+
+    /**
+     * Load suppliers crossing one of the scorer's thresholds on any day in (lastRunDay, today]
+     */
+    private List<Supplier> loadCrossings(long afterId, LocalDate lastRunDay, LocalDate today,
+                                         CompiledRiskScorer scorer) {
+        int dueSoon = scorer.getAuditDueSoonDays();
+        int recent = scorer.getRecentAuditDays();
+        int aged = scorer.getAgedAuditDays();
+
+        List<Supplier> page = supplierRepository.findAuditThresholdCrossings(afterId,
+            // Overdue from the day after the due date
+            lastRunDay, today.minusDays(1),
+            // Due soon from dueSoon days before the due date
+            lastRunDay.plusDays(dueSoon + 1L), today.plusDays(dueSoon),
+            // Last audit older than the recent limit
+            lastRunDay.minusDays(recent), today.minusDays(recent + 1L),
+            // Last audit older than the aged limit
+            lastRunDay.minusDays(aged), today.minusDays(aged + 1L),
+            PageRequest.of(0, pageSize));
+
+        for (Supplier supplier : page) {
+            Hibernate.initialize(supplier.getIsoCertifications());
+            Hibernate.initialize(supplier.getComplianceCertifications());
+        }
+        return page;
+    }
+
+    private void writeComplianceScores(List<Supplier> suppliers, LocalDateTime now) {
+        if (suppliers.isEmpty()) {
+            return;
+        }
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(UPDATE_COMPLIANCE_SQL, suppliers, suppliers.size(), (ps, supplier) -> {
+            ps.setInt(1, supplier.getComplianceRiskScore());
+            ps.setInt(2, supplier.getOverallRiskScore());
+            ps.setInt(3, supplier.getRiskModelVersion());
+            ps.setTimestamp(4, timestamp);
+            ps.setLong(5, supplier.getId());
+        });
+    }
+}
@@ -0,0 +1,120 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.entity.BatchJobExecution;
+import com.supplychainrisk.repository.BatchJobExecutionRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDateTime;
+
+/**
+ * Ownership of batch job executions across application instances.
+ *
+ * The instance running an execution holds a lease on its row and renews it at
+ * every checkpoint. A RUNNING row whose lease has lapsed was left by an instance
+ * that crashed and may be taken over and resumed; one with a live lease is still
+ * being worked on elsewhere, unless it is this instance's own row from before a
+ * restart. Takeover is a conditional update, so only one instance wins it, and an
+ * owner that finds its lease gone at a checkpoint rolls the page back and stops.
+ *
+ * Instances are told apart by batch.job.instance-id, which defaults to the host
+ * name; set distinct ids when several instances share a host.
+ */
+@Service
+public class BatchJobLeaseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchJobLeaseService.class);
+
+    @Autowired
+    private BatchJobExecutionRepository jobExecutionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${batch.job.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${batch.job.instance-id:}")
+    private String instanceId;
+
+    @PostConstruct
+    public void resolveInstanceId() {
+        if (instanceId == null || instanceId.isBlank()) {
+            try {
+                instanceId = InetAddress.getLocalHost().getHostName();
+            } catch (UnknownHostException e) {
+                instanceId = ManagementFactory.getRuntimeMXBean().getName();
+            }
+        }
+        logger.info("Batch job leases held as instance {}", instanceId);
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    /**
+     * Stamp a new execution, before its first save, as owned by this instance
+     */
+    public void acquire(BatchJobExecution execution) {
+        execution.setOwnerId(instanceId);
+        execution.setLeaseExpiresAt(LocalDateTime.now().plusSeconds(leaseSeconds));
+    }
+
+    /**
+     * Whether the execution is RUNNING with no live owner, so it may be taken over;
+     * only meaningful while this instance is not running the job itself
+     */
+    public boolean isAbandoned(BatchJobExecution execution, LocalDateTime now) {
+        return execution.isAbandoned(now, instanceId);
+    }
+
+    /**
+     * Take over an existing execution to resume it and mark it RUNNING; false when
+     * another instance holds a live lease on it or took it over first
+     */
+    public boolean takeOver(BatchJobExecution execution) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusSeconds(leaseSeconds);
+        Integer updated = new TransactionTemplate(transactionManager).execute(status ->
+            jobExecutionRepository.takeOver(execution.getId(), instanceId, expiresAt, now));
+        if (updated == null || updated == 0) {
+            return false;
+        }
+        execution.setStatus(BatchJobExecution.JobStatus.RUNNING);
+        execution.setOwnerId(instanceId);
+        execution.setLeaseExpiresAt(expiresAt);
+        return true;
+    }
+
+    /**
+     * Extend this instance's lease; call inside the checkpoint transaction so the
+     * checkpoint is rolled back when the lease was lost
+     */
+    public void renew(BatchJobExecution execution) {
+        LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(leaseSeconds);
+        if (jobExecutionRepository.renewLease(execution.getId(), instanceId, expiresAt) == 0) {
+            throw new LeaseLostException(execution.getId());
+        }
+        execution.setLeaseExpiresAt(expiresAt);
+    }
+
+    /**
+     * Another instance took the execution over after this one's lease lapsed; the
+     * row is no longer this instance's to update
+     */
+    public static class LeaseLostException extends IllegalStateException {
+        public LeaseLostException(Long executionId) {
+            super("Batch job execution " + executionId + " was taken over by another instance");
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.dto.RiskPredictionDTO;
+import com.supplychainrisk.entity.MLModelMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Compares a candidate risk model with the current one on live traffic.
+ *
+ * Shadow mode: a fraction of the requests served by the current model is scored
+ * again by the candidate on a small low-priority pool after the response has been
+ * produced. The pool's queue is bounded and full-queue submissions are dropped, so
+ * shadow work is shed under load and never adds latency to the primary path.
+ *
+ * Canary mode: a percentage of suppliers is served by the candidate. Suppliers are
+ * bucketed by a hash of their ID, so a supplier sees one model consistently.
+ *
+ * Paired outputs and canary calls are aggregated per flush interval and written as
+ * {@link MLModelMetrics} rows in one bulk insert: agreement on the high-risk band and
+ * the mean absolute difference of the predicted overall score for shadow pairs, and
+ * latency and throughput for the candidate, the current model and canary traffic.
+ */
+@Service
+public class CandidateModelEvaluator {
+
+    private static final Logger logger = LoggerFactory.getLogger(CandidateModelEvaluator.class);
+
+    private static final String SHADOW_METRIC = "ml.shadow.requests";
+    private static final String CANARY_METRIC = "ml.canary.requests";
+
+    // Predicted overall score above which a supplier counts as high risk, as in the fallback alerts
+    private static final double HIGH_RISK_SCORE = 70;
+
+    // Length of ml_model_metrics.model_version
+    private static final int MAX_VERSION_LENGTH = 20;
+
+    @Autowired
+    private BulkPersistenceService bulkPersistenceService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("shadowEvaluationExecutor")
+    private ThreadPoolExecutor shadowExecutor;
+
+    @Value("${ml.model.version:v1.0.0}")
+    private String currentVersion;
+
+    @Value("${ml.candidate.version:}")
+    private String candidateVersion;
+
+    @Value("${ml.candidate.shadow-fraction:0.0}")
+    private double shadowFraction;
+
+    @Value("${ml.candidate.canary-percent:0}")
+    private int canaryPercent;
+
+    private Window window = new Window();
+
+    public String getCurrentVersion() {
+        return currentVersion;
+    }
+
+    public String getCandidateVersion() {
+        return candidateVersion;
+    }
+
+    public boolean hasCandidate() {
+        return candidateVersion != null && !candidateVersion.isBlank();
+    }
+
+    /**
+     * Whether the candidate serves this supplier's predictions
+     */
+    public boolean servesCanary(Long supplierId) {
+        return hasCandidate() && canaryPercent > 0 && supplierId != null && bucket(supplierId) < canaryPercent;
+    }
+
+    /**
+     * Model version that serves this supplier
+     */
+    public String versionFor(Long supplierId) {
+        return servesCanary(supplierId) ? candidateVersion : currentVersion;
+    }
+
+    /**
+     * Stable bucket 0-99 of a supplier ID; consecutive IDs are spread evenly
+     */
+    static int bucket(long supplierId) {
+        long mixed = supplierId * 0x9E3779B97F4A7C15L;
+        return (int) Math.floorMod(mixed ^ (mixed >>> 32), 100L);
+    }
+
+    /**
+     * Maybe score a request served by the current model with the candidate too. Returns at
+     * once; the candidate call runs on the shadow pool, or is dropped if the pool is busy.
+     */
+    public void shadow(RiskPredictionDTO primary, long primaryLatencyNanos, Supplier<RiskPredictionDTO> candidate) {
+        if (!hasCandidate() || shadowFraction <= 0 || primary == null
+                || ThreadLocalRandom.current().nextDouble() >= shadowFraction) {
+            return;
+        }
+        try {
+            shadowExecutor.execute(() -> runShadow(primary, primaryLatencyNanos, candidate));
+            meterRegistry.counter(SHADOW_METRIC, "outcome", "submitted").increment();
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter(SHADOW_METRIC, "outcome", "shed").increment();
+            synchronized (this) {
+                window.shed++;
+            }
+        }
+    }
+
+    /**
+     * Record a prediction served by the candidate in canary mode
+     */
+    public void recordCanary(long latencyNanos, boolean success) {
+        meterRegistry.counter(CANARY_METRIC, "outcome", success ? "success" : "error").increment();
+        synchronized (this) {
+            if (success) {
+                window.canaryCalls++;
+                window.canaryLatencyNanos += latencyNanos;
+            } else {
+                window.canaryErrors++;
+            }
+        }
+    }
+
+    private void runShadow(RiskPredictionDTO primary, long primaryLatencyNanos,
+                           Supplier<RiskPredictionDTO> candidate) {
+        long start = System.nanoTime();
+        RiskPredictionDTO shadow;
+        try {
+            shadow = candidate.get();
+        } catch (RuntimeException e) {
+            logger.debug("Shadow prediction by candidate {} failed: {}", candidateVersion, e.getMessage());
+            meterRegistry.counter(SHADOW_METRIC, "outcome", "error").increment();
+            synchronized (this) {
+                window.shadowErrors++;
+            }
+            return;
+        }
+        long latency = System.nanoTime() - start;
+        double primaryScore = predictedOverall(primary);
+        double candidateScore = predictedOverall(shadow);
+        meterRegistry.counter(SHADOW_METRIC, "outcome", "success").increment();
+        synchronized (this) {
+            window.pairs++;
+            window.primaryLatencyNanos += primaryLatencyNanos;
+            window.candidateLatencyNanos += latency;
+            if (!Double.isNaN(primaryScore) && !Double.isNaN(candidateScore)) {
+                window.comparedPairs++;
+                double difference = Math.abs(candidateScore - primaryScore);
+                window.absoluteDifference += difference;
+                window.maxAbsoluteDifference = Math.max(window.maxAbsoluteDifference, difference);
+                if ((primaryScore > HIGH_RISK_SCORE) == (candidateScore > HIGH_RISK_SCORE)) {
+                    window.agreements++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Write the current window's comparison as model metric rows and start a new window
+     */
+    @Scheduled(fixedDelayString = "${ml.candidate.flush-interval-ms:60000}",
+               initialDelayString = "${ml.candidate.flush-interval-ms:60000}")
+    public void flush() {
+        Window closed;
+        synchronized (this) {
+            closed = window;
+            window = new Window();
+        }
+        List<MLModelMetrics> rows = toMetrics(closed, LocalDateTime.now());
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            bulkPersistenceService.saveModelMetrics(rows);
+            logger.info("Candidate model {}: {} shadow pairs ({} shed), {} canary predictions",
+                candidateVersion, closed.pairs, closed.shed, closed.canaryCalls);
+        } catch (RuntimeException e) {
+            logger.error("Could not save candidate model metrics: {}", e.getMessage());
+        }
+    }
+
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("currentVersion", currentVersion);
+        status.put("candidateVersion", hasCandidate() ? candidateVersion : null);
+        status.put("shadowFraction", shadowFraction);
+        status.put("canaryPercent", canaryPercent);
+        int queued = shadowExecutor.getQueue().size();
+        status.put("shadowQueued", queued);
+        status.put("shadowQueueCapacity", queued + shadowExecutor.getQueue().remainingCapacity());
+
+        Map<String, Object> current = new LinkedHashMap<>();
+        current.put("since", window.since);
+        current.put("shadowPairs", window.pairs);
+        current.put("shadowErrors", window.shadowErrors);
+        current.put("shadowShed", window.shed);
+        current.put("agreementRate",
+            window.comparedPairs > 0 ? (double) window.agreements / window.comparedPairs : null);
+        current.put("meanAbsoluteDifference",
+            window.comparedPairs > 0 ? window.absoluteDifference / window.comparedPairs : null);
+        current.put("maxAbsoluteDifference", window.comparedPairs > 0 ? window.maxAbsoluteDifference : null);
+        current.put("canaryPredictions", window.canaryCalls);
+        current.put("canaryErrors", window.canaryErrors);
+        status.put("window", current);
+        return status;
+    }
+
+    List<MLModelMetrics> toMetrics(Window closed, LocalDateTime now) {
+        List<MLModelMetrics> rows = new ArrayList<>();
+        if (!hasCandidate()) {
+            return rows;
+        }
+        double seconds = Math.max(1, Duration.between(closed.since, now).toSeconds());
+        if (closed.pairs > 0) {
+            rows.add(row(candidateVersion, "Risk prediction candidate (shadow)", "shadow vs " + currentVersion, now)
+                .accuracy(closed.comparedPairs > 0
+                    ? decimal((double) closed.agreements / closed.comparedPairs, 5) : null)
+                .modelDriftScore(closed.comparedPairs > 0
+                    ? decimal(closed.absoluteDifference / closed.comparedPairs, 2) : null)
+                .averageLatencyMs(TimeUnit.NANOSECONDS.toMillis(closed.candidateLatencyNanos / closed.pairs))
+                .throughputPerSecond(Math.round(closed.pairs / seconds))
+                .build());
+            rows.add(row(currentVersion, "Risk prediction current (shadow baseline)", "shadow baseline", now)
+                .averageLatencyMs(TimeUnit.NANOSECONDS.toMillis(closed.primaryLatencyNanos / closed.pairs))
+                .throughputPerSecond(Math.round(closed.pairs / seconds))
+                .build());
+        }
+        if (closed.canaryCalls > 0 || closed.canaryErrors > 0) {
+            long calls = closed.canaryCalls + closed.canaryErrors;
+            rows.add(row(candidateVersion, "Risk prediction candidate (canary)", "canary " + canaryPercent + "%", now)
+                .accuracy(decimal((double) closed.canaryCalls / calls, 5))
+                .averageLatencyMs(closed.canaryCalls > 0
+                    ? TimeUnit.NANOSECONDS.toMillis(closed.canaryLatencyNanos / closed.canaryCalls) : null)
+                .throughputPerSecond(Math.round(calls / seconds))
+                .build());
+        }
+        return rows;
+    }
+
+    private static MLModelMetrics.Builder row(String version, String name, String evaluatedBy, LocalDateTime now) {
+        return MLModelMetrics.builder()
+            .modelId("risk_prediction")
+            .modelName(name)
+            .modelVersion(version.length() > MAX_VERSION_LENGTH ? version.substring(0, MAX_VERSION_LENGTH) : version)
+            .modelType(MLModelMetrics.ModelType.REGRESSION)
+            .evaluationDate(now)
+            .evaluatedBy(evaluatedBy);
+    }
+
+    private static double predictedOverall(RiskPredictionDTO prediction) {
+        // ML service responses are mapped without conversion, so values can be any Number
+        Object value = prediction == null || prediction.getRiskScores() == null ? null
+            : ((Map<String, ?>) prediction.getRiskScores()).get("predicted_overall");
+        return value instanceof Number number ? number.doubleValue() : Double.NaN;
+    }
+
+    private static BigDecimal decimal(double value, int scale) {
+        return BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Counters of one flush interval; guarded by the evaluator
+     */
+    static final class Window {
+        private final LocalDateTime since = LocalDateTime.now();
+        long pairs;
+        long comparedPairs;
+        long agreements;
+        double absoluteDifference;
+        double maxAbsoluteDifference;
+        long primaryLatencyNanos;
+        long candidateLatencyNanos;
+        long shadowErrors;
+        long shed;
+        long canaryCalls;
+        long canaryErrors;
+        long canaryLatencyNanos;
+    }
+}
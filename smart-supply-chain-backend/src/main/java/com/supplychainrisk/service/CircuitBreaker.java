@@ -0,0 +1,162 @@
+package com.supplychainrisk.service;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker for calls to a remote dependency.
+ *
+ * While CLOSED the outcomes of the last {@code windowSize} calls are kept, and
+ * the breaker opens once at least {@code minimumCalls} are recorded and the
+ * failure rate reaches the threshold. OPEN refuses every call until the open
+ * duration has passed; HALF_OPEN then lets {@code halfOpenCalls} trial calls
+ * through. If they all succeed the breaker closes with an empty window; a
+ * single failure opens it again.
+ *
+ * A permit carries the generation it was issued in, and each state change
+ * starts a new generation, so a call that started before a transition cannot
+ * affect the state that follows it.
+ */
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /** Returned by {@link #tryAcquire()} when the call must not be made */
+    public static final long REJECTED = -1;
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier clock;
+
+    // Ring buffer of outcomes while closed, true = failure
+    private final boolean[] outcomes;
+    private int recorded;
+    private int next;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private long openedAt;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, Duration openDuration,
+                          int halfOpenCalls) {
+        this(windowSize, minimumCalls, failureRateThreshold, openDuration, halfOpenCalls, System::nanoTime);
+    }
+
+    CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, Duration openDuration,
+                   int halfOpenCalls, LongSupplier clock) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize || halfOpenCalls < 1) {
+            throw new IllegalArgumentException("Invalid circuit breaker window");
+        }
+        if (!(failureRateThreshold > 0 && failureRateThreshold <= 1)) {
+            throw new IllegalArgumentException("Failure rate threshold must be in (0, 1]");
+        }
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.clock = clock;
+        this.outcomes = new boolean[windowSize];
+    }
+
+    /**
+     * Permit for one call, or {@link #REJECTED} while open or once the
+     * half-open trial calls are taken. Every permit must be reported back
+     * through {@link #onSuccess} or {@link #onFailure}.
+     */
+    public synchronized long tryAcquire() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openedAt < openNanos) {
+                return REJECTED;
+            }
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsStarted >= halfOpenCalls) {
+                return REJECTED;
+            }
+            trialsStarted++;
+        }
+        return generation;
+    }
+
+    public synchronized void onSuccess(long permit) {
+        if (permit != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            if (++trialsSucceeded >= halfOpenCalls) {
+                transition(State.CLOSED);
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    /**
+     * Records a failed call; returns true if this failure opened the breaker
+     */
+    public synchronized boolean onFailure(long permit) {
+        if (permit != generation) {
+            return false;
+        }
+        if (state == State.HALF_OPEN) {
+            transition(State.OPEN);
+            return true;
+        }
+        if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minimumCalls && failures >= failureRateThreshold * recorded) {
+                transition(State.OPEN);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Failure rate over the current closed window, 0 when nothing is recorded
+     */
+    public synchronized double getFailureRate() {
+        return recorded == 0 ? 0 : (double) failures / recorded;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == windowSize) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % windowSize;
+    }
+
+    private void transition(State target) {
+        state = target;
+        generation++;
+        trialsStarted = 0;
+        trialsSucceeded = 0;
+        if (target == State.OPEN) {
+            openedAt = clock.getAsLong();
+        } else if (target == State.CLOSED) {
+            recorded = 0;
+            next = 0;
+            failures = 0;
+        }
+    }
+}
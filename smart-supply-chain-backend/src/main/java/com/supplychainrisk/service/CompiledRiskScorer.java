@@ -0,0 +1,646 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.entity.Supplier;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Allocation-free evaluator for the supplier risk model.
+ *
+ * All thresholds are compiled once into primitive tables: credit ratings are
+ * packed into long keys, band cutoffs are int/long arrays (decimal cutoffs are
+ * pre-scaled so BigDecimal comparisons stay on the compact fast path), country
+ * tiers live in open-addressing tables probed without trimming or lower-casing,
+ * and "today" is passed in as an epoch day once per batch. For the built-in model
+ * with no {@link GeographicOverlay} attached, results are identical to the
+ * hand-written evaluation kept in the test sources (ReferenceRiskScorer).
+ *
+ * Instances are immutable and safe to share across scoring threads.
+ */
+public final class CompiledRiskScorer {
+
+    // Decimal inputs are stored as NUMERIC(x, 2)
+    private static final int DECIMAL_SCALE = 2;
+
+    private final double financialWeight;
+    private final double operationalWeight;
+    private final double complianceWeight;
+    private final double geographicWeight;
+
+    // Financial
+    private final long[] creditRatingKeys;
+    private final int[] creditRatingPoints;
+    private final int creditRatingDefaultPoints;
+    private final int creditRatingMissingPoints;
+    private final BigDecimal[] revenueCutoffs;
+    private final int[] revenuePoints;
+    private final int revenueMissingPoints;
+    private final int[] yearsCutoffs;
+    private final int[] yearsPoints;
+    private final int yearsMissingPoints;
+
+    // Operational
+    private final BigDecimal[] onTimeCutoffs;
+    private final int[] onTimePoints;
+    private final int onTimeMissingPoints;
+    private final BigDecimal[] qualityCutoffs;
+    private final int[] qualityPoints;
+    private final int qualityMissingPoints;
+    private final int[] employeeCutoffs;
+    private final int[] employeePoints;
+    private final int employeeMissingPoints;
+
+    // Compliance
+    private final int[] isoCountCutoffs;
+    private final int[] isoCountPoints;
+    private final int[] complianceCountCutoffs;
+    private final int[] complianceCountPoints;
+    private final int recentAuditDays;
+    private final int agedAuditDays;
+    private final int[] lastAuditPoints; // recent, aged, stale, missing
+    private final int auditDueSoonDays;
+    private final int[] nextAuditPoints; // overdue, due soon, scheduled, missing
+
+    // Geographic
+    private final CountryTable exactCountries;
+    private final CountryTable caseInsensitiveCountries;
+    private final int defaultCountryPoints;
+    private final int missingCountryPoints;
+    private final GeographicOverlay geographicOverlay;
+
+    private CompiledRiskScorer(Builder builder) {
+        this.financialWeight = builder.financialWeight;
+        this.operationalWeight = builder.operationalWeight;
+        this.complianceWeight = builder.complianceWeight;
+        this.geographicWeight = builder.geographicWeight;
+
+        long[] keys = new long[builder.creditRatingPoints.size()];
+        int[] points = new int[keys.length];
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : builder.creditRatingPoints.entrySet()) {
+            keys[i] = packCreditRating(entry.getKey());
+            if (keys[i] < 0) {
+                throw new IllegalArgumentException("Credit rating key must be 1-7 ASCII characters: " + entry.getKey());
+            }
+            points[i++] = entry.getValue();
+        }
+        sortByKey(keys, points);
+        this.creditRatingKeys = keys;
+        this.creditRatingPoints = points;
+        this.creditRatingDefaultPoints = builder.creditRatingDefaultPoints;
+        this.creditRatingMissingPoints = builder.creditRatingMissingPoints;
+
+        this.revenueCutoffs = toDecimalCutoffs(builder.revenueCutoffs);
+        this.revenuePoints = checkBands(builder.revenueCutoffs.length, builder.revenuePoints);
+        this.revenueMissingPoints = builder.revenueMissingPoints;
+        this.yearsCutoffs = builder.yearsCutoffs.clone();
+        this.yearsPoints = checkBands(yearsCutoffs.length, builder.yearsPoints);
+        this.yearsMissingPoints = builder.yearsMissingPoints;
+
+        this.onTimeCutoffs = toDecimalCutoffs(builder.onTimeCutoffs);
+        this.onTimePoints = checkBands(builder.onTimeCutoffs.length, builder.onTimePoints);
+        this.onTimeMissingPoints = builder.onTimeMissingPoints;
+        this.qualityCutoffs = toDecimalCutoffs(builder.qualityCutoffs);
+        this.qualityPoints = checkBands(builder.qualityCutoffs.length, builder.qualityPoints);
+        this.qualityMissingPoints = builder.qualityMissingPoints;
+        this.employeeCutoffs = builder.employeeCutoffs.clone();
+        this.employeePoints = checkBands(employeeCutoffs.length, builder.employeePoints);
+        this.employeeMissingPoints = builder.employeeMissingPoints;
+
+        this.isoCountCutoffs = builder.isoCountCutoffs.clone();
+        this.isoCountPoints = checkBands(isoCountCutoffs.length, builder.isoCountPoints);
+        this.complianceCountCutoffs = builder.complianceCountCutoffs.clone();
+        this.complianceCountPoints = checkBands(complianceCountCutoffs.length, builder.complianceCountPoints);
+        this.recentAuditDays = builder.recentAuditDays;
+        this.agedAuditDays = builder.agedAuditDays;
+        this.lastAuditPoints = builder.lastAuditPoints.clone();
+        this.auditDueSoonDays = builder.auditDueSoonDays;
+        this.nextAuditPoints = builder.nextAuditPoints.clone();
+
+        // Medium first so a country listed in both tiers resolves to high, as in the reference path
+        Map<String, Integer> exact = new LinkedHashMap<>();
+        builder.mediumRiskCountries.forEach(country -> exact.put(country, builder.mediumRiskCountryPoints));
+        builder.highRiskCountries.forEach(country -> exact.put(country, builder.highRiskCountryPoints));
+        this.exactCountries = new CountryTable(exact, false);
+
+        Map<String, Integer> lowRisk = new LinkedHashMap<>();
+        builder.lowRiskCountries.forEach(country -> lowRisk.put(country.toLowerCase(), builder.lowRiskCountryPoints));
+        this.caseInsensitiveCountries = new CountryTable(lowRisk, true);
+        this.defaultCountryPoints = builder.defaultCountryPoints;
+        this.missingCountryPoints = builder.missingCountryPoints;
+        this.geographicOverlay = builder.geographicOverlay;
+    }
+
+    /**
+     * Current epoch day, to be taken once per batch
+     */
+    public static long today() {
+        return LocalDate.now().toEpochDay();
+    }
+
+    /**
+     * Score all components and the overall score into the supplier
+     */
+    public void score(Supplier supplier, long todayEpochDay) {
+        int financial = financialScore(supplier);
+        int operational = operationalScore(supplier);
+        int compliance = complianceScore(supplier, todayEpochDay);
+        int geographic = geographicScore(supplier);
+
+        supplier.setFinancialRiskScore(financial);
+        supplier.setOperationalRiskScore(operational);
+        supplier.setComplianceRiskScore(compliance);
+        supplier.setGeographicRiskScore(geographic);
+        supplier.setOverallRiskScore(overallScore(financial, operational, compliance, geographic));
+    }
+
+    /**
+     * Score only the given components, then the overall score from the stored sub-scores
+     */
+    public void score(Supplier supplier, Set<RiskAssessmentService.RiskComponent> components, long todayEpochDay) {
+        if (components.contains(RiskAssessmentService.RiskComponent.FINANCIAL)) {
+            supplier.setFinancialRiskScore(financialScore(supplier));
+        }
+        if (components.contains(RiskAssessmentService.RiskComponent.OPERATIONAL)) {
+            supplier.setOperationalRiskScore(operationalScore(supplier));
+        }
+        if (components.contains(RiskAssessmentService.RiskComponent.COMPLIANCE)) {
+            supplier.setComplianceRiskScore(complianceScore(supplier, todayEpochDay));
+        }
+        if (components.contains(RiskAssessmentService.RiskComponent.GEOGRAPHIC)) {
+            supplier.setGeographicRiskScore(geographicScore(supplier));
+        }
+        supplier.setOverallRiskScore(overallScore(
+            scoreOrZero(supplier.getFinancialRiskScore()),
+            scoreOrZero(supplier.getOperationalRiskScore()),
+            scoreOrZero(supplier.getComplianceRiskScore()),
+            scoreOrZero(supplier.getGeographicRiskScore())));
+    }
+
+    /**
+     * Score a list of suppliers with a single "today"
+     */
+    public void scoreAll(List<Supplier> suppliers) {
+        long todayEpochDay = today();
+        for (int i = 0, n = suppliers.size(); i < n; i++) {
+            score(suppliers.get(i), todayEpochDay);
+        }
+    }
+
+    /**
+     * Days since the last audit up to which it counts as recent
+     */
+    public int getRecentAuditDays() { return recentAuditDays; }
+
+    /**
+     * Days since the last audit up to which it counts as aged rather than stale
+     */
+    public int getAgedAuditDays() { return agedAuditDays; }
+
+    /**
+     * Days before the next audit from which it counts as due soon
+     */
+    public int getAuditDueSoonDays() { return auditDueSoonDays; }
+
+    public int overallScore(int financial, int operational, int compliance, int geographic) {
+        // Same operation order as the reference path so rounding is identical
+        double overall = (financial * financialWeight) +
+                         (operational * operationalWeight) +
+                         (compliance * complianceWeight) +
+                         (geographic * geographicWeight);
+        return (int) Math.round(overall);
+    }
+
+    public int financialScore(Supplier supplier) {
+        int score;
+        String creditRating = supplier.getCreditRating();
+        if (creditRating != null) {
+            int index = Arrays.binarySearch(creditRatingKeys, packCreditRating(creditRating));
+            score = index >= 0 ? creditRatingPoints[index] : creditRatingDefaultPoints;
+        } else {
+            score = creditRatingMissingPoints;
+        }
+
+        BigDecimal revenue = supplier.getAnnualRevenue();
+        score += revenue != null ? band(revenue, revenueCutoffs, revenuePoints) : revenueMissingPoints;
+
+        Integer years = supplier.getYearsInBusiness();
+        score += years != null ? band(years, yearsCutoffs, yearsPoints) : yearsMissingPoints;
+
+        return Math.min(100, score);
+    }
+
+    public int operationalScore(Supplier supplier) {
+        BigDecimal deliveryRate = supplier.getOnTimeDeliveryRate();
+        int score = deliveryRate != null ? band(deliveryRate, onTimeCutoffs, onTimePoints) : onTimeMissingPoints;
+
+        BigDecimal quality = supplier.getQualityRating();
+        score += quality != null ? band(quality, qualityCutoffs, qualityPoints) : qualityMissingPoints;
+
+        Integer employees = supplier.getEmployeeCount();
+        score += employees != null ? band(employees, employeeCutoffs, employeePoints) : employeeMissingPoints;
+
+        return Math.min(100, score);
+    }
+
+    public int complianceScore(Supplier supplier, long todayEpochDay) {
+        Collection<String> iso = supplier.getIsoCertifications();
+        int score = band(iso != null ? iso.size() : 0, isoCountCutoffs, isoCountPoints);
+
+        Collection<String> compliance = supplier.getComplianceCertifications();
+        score += band(compliance != null ? compliance.size() : 0, complianceCountCutoffs, complianceCountPoints);
+
+        LocalDate lastAudit = supplier.getLastAuditDate();
+        if (lastAudit != null) {
+            long daysSinceAudit = todayEpochDay - lastAudit.toEpochDay();
+            if (daysSinceAudit <= recentAuditDays) {
+                score += lastAuditPoints[0];
+            } else if (daysSinceAudit <= agedAuditDays) {
+                score += lastAuditPoints[1];
+            } else {
+                score += lastAuditPoints[2];
+            }
+        } else {
+            score += lastAuditPoints[3];
+        }
+
+        LocalDate nextAudit = supplier.getNextAuditDueDate();
+        if (nextAudit != null) {
+            long daysToAudit = nextAudit.toEpochDay() - todayEpochDay;
+            if (daysToAudit < 0) {
+                score += nextAuditPoints[0];
+            } else if (daysToAudit <= auditDueSoonDays) {
+                score += nextAuditPoints[1];
+            } else {
+                score += nextAuditPoints[2];
+            }
+        } else {
+            score += nextAuditPoints[3];
+        }
+
+        return Math.min(100, score);
+    }
+
+    public int geographicScore(Supplier supplier) {
+        String country = supplier.getCountry();
+        if (geographicOverlay != null && country != null) {
+            int points = geographicOverlay.geographicScore(country, supplier.getStateProvince());
+            if (points >= 0) {
+                return Math.min(100, points);
+            }
+        }
+        if (country == null) {
+            return Math.min(100, missingCountryPoints);
+        }
+
+        // Bounds of country.trim() without creating the trimmed string
+        int start = 0;
+        int end = country.length();
+        while (start < end && country.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && country.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        int points = exactCountries.get(country, start, end);
+        if (points < 0) {
+            points = caseInsensitiveCountries.get(country, start, end);
+        }
+        return Math.min(100, points >= 0 ? points : defaultCountryPoints);
+    }
+
+    private static int band(BigDecimal value, BigDecimal[] cutoffs, int[] points) {
+        for (int i = 0; i < cutoffs.length; i++) {
+            if (value.compareTo(cutoffs[i]) >= 0) {
+                return points[i];
+            }
+        }
+        return points[cutoffs.length];
+    }
+
+    private static int band(int value, int[] cutoffs, int[] points) {
+        for (int i = 0; i < cutoffs.length; i++) {
+            if (value >= cutoffs[i]) {
+                return points[i];
+            }
+        }
+        return points[cutoffs.length];
+    }
+
+    private static int scoreOrZero(Integer score) {
+        return score != null ? score : 0;
+    }
+
+    /**
+     * Pack an upper-cased ASCII rating of up to 7 chars into a long; -1 if it cannot match any key
+     */
+    static long packCreditRating(String rating) {
+        int length = rating.length();
+        if (length == 0 || length > 7) {
+            return -1L;
+        }
+        long key = 0;
+        for (int i = 0; i < length; i++) {
+            char c = rating.charAt(i);
+            if (c > 127) {
+                return -1L;
+            }
+            if (c >= 'a' && c <= 'z') {
+                c -= 'a' - 'A';
+            }
+            key = (key << 8) | c;
+        }
+        return key;
+    }
+
+    private static void sortByKey(long[] keys, int[] values) {
+        // Insertion sort: rating tables are tiny
+        for (int i = 1; i < keys.length; i++) {
+            long key = keys[i];
+            int value = values[i];
+            int j = i - 1;
+            while (j >= 0 && keys[j] > key) {
+                keys[j + 1] = keys[j];
+                values[j + 1] = values[j];
+                j--;
+            }
+            keys[j + 1] = key;
+            values[j + 1] = value;
+        }
+    }
+
+    private static BigDecimal[] toDecimalCutoffs(double[] cutoffs) {
+        BigDecimal[] decimals = new BigDecimal[cutoffs.length];
+        for (int i = 0; i < cutoffs.length; i++) {
+            decimals[i] = BigDecimal.valueOf(cutoffs[i]).setScale(DECIMAL_SCALE);
+        }
+        return decimals;
+    }
+
+    private static BigDecimal[] toDecimalCutoffs(long[] cutoffs) {
+        BigDecimal[] decimals = new BigDecimal[cutoffs.length];
+        for (int i = 0; i < cutoffs.length; i++) {
+            decimals[i] = BigDecimal.valueOf(cutoffs[i]).setScale(DECIMAL_SCALE);
+        }
+        return decimals;
+    }
+
+    private static int[] checkBands(int cutoffCount, int[] points) {
+        if (points.length != cutoffCount + 1) {
+            throw new IllegalArgumentException("Expected " + (cutoffCount + 1) + " band points but got " + points.length);
+        }
+        return points.clone();
+    }
+
+    /**
+     * Open-addressing table of country names probed over a char range of the input
+     */
+    private static final class CountryTable {
+        private final String[] keys;
+        private final int[] values;
+        private final int mask;
+        private final boolean ignoreCase;
+
+        CountryTable(Map<String, Integer> entries, boolean ignoreCase) {
+            int capacity = Integer.highestOneBit(Math.max(4, entries.size() * 4) - 1) << 1;
+            this.keys = new String[capacity];
+            this.values = new int[capacity];
+            this.mask = capacity - 1;
+            this.ignoreCase = ignoreCase;
+            entries.forEach((key, value) -> {
+                int slot = hash(key, 0, key.length()) & mask;
+                while (keys[slot] != null && !keys[slot].equals(key)) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = value;
+            });
+        }
+
+        /**
+         * Points for country[start, end), or -1 if not listed
+         */
+        int get(String country, int start, int end) {
+            if (ignoreCase && !isAscii(country, start, end)) {
+                // Non-ASCII case mapping can change lengths; use the exact reference semantics
+                String lower = country.substring(start, end).toLowerCase();
+                return probe(lower, 0, lower.length());
+            }
+            return probe(country, start, end);
+        }
+
+        private int probe(String country, int start, int end) {
+            int length = end - start;
+            int slot = hash(country, start, end) & mask;
+            String key;
+            while ((key = keys[slot]) != null) {
+                if (key.length() == length && key.regionMatches(ignoreCase, 0, country, start, length)) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private int hash(String s, int start, int end) {
+            int h = 0;
+            for (int i = start; i < end; i++) {
+                char c = s.charAt(i);
+                if (ignoreCase && c >= 'A' && c <= 'Z') {
+                    c += 'a' - 'A';
+                }
+                h = 31 * h + c;
+            }
+            return h ^ (h >>> 16);
+        }
+
+        private static boolean isAscii(String s, int start, int end) {
+            for (int i = start; i < end; i++) {
+                if (s.charAt(i) > 127) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * External per-country/region geographic scores consulted before the country tiers
+     */
+    public interface GeographicOverlay {
+        /**
+         * Geographic points for the country and optional region, or -1 if not covered
+         */
+        int geographicScore(String country, String stateProvince);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Model parameters; defaults reproduce the thresholds in RiskAssessmentService
+     */
+    public static class Builder {
+        private double financialWeight = 0.25;
+        private double operationalWeight = 0.30;
+        private double complianceWeight = 0.25;
+        private double geographicWeight = 0.20;
+
+        private Map<String, Integer> creditRatingPoints = defaultCreditRatingPoints();
+        private int creditRatingDefaultPoints = 80;
+        private int creditRatingMissingPoints = 50;
+        private long[] revenueCutoffs = {1_000_000_000L, 100_000_000L, 10_000_000L, 1_000_000L};
+        private int[] revenuePoints = {5, 10, 20, 30, 40};
+        private int revenueMissingPoints = 30;
+        private int[] yearsCutoffs = {20, 10, 5, 2};
+        private int[] yearsPoints = {5, 10, 20, 30, 40};
+        private int yearsMissingPoints = 25;
+
+        private double[] onTimeCutoffs = {95, 90, 80, 70};
+        private int[] onTimePoints = {5, 15, 30, 50, 70};
+        private int onTimeMissingPoints = 40;
+        private double[] qualityCutoffs = {9, 8, 7, 6};
+        private int[] qualityPoints = {5, 15, 25, 40, 60};
+        private int qualityMissingPoints = 30;
+        private int[] employeeCutoffs = {1000, 100, 50, 10};
+        private int[] employeePoints = {5, 10, 20, 30, 40};
+        private int employeeMissingPoints = 25;
+
+        // A missing certification list scores the same as an empty one
+        private int[] isoCountCutoffs = {5, 3, 1};
+        private int[] isoCountPoints = {5, 15, 25, 40};
+        private int[] complianceCountCutoffs = {3, 1};
+        private int[] complianceCountPoints = {10, 20, 30};
+        private int recentAuditDays = RiskAssessmentService.RECENT_AUDIT_DAYS;
+        private int agedAuditDays = RiskAssessmentService.AGED_AUDIT_DAYS;
+        private int[] lastAuditPoints = {5, 15, 30, 40};
+        private int auditDueSoonDays = RiskAssessmentService.AUDIT_DUE_SOON_DAYS;
+        private int[] nextAuditPoints = {30, 10, 5, 20};
+
+        private Set<String> highRiskCountries = RiskAssessmentService.HIGH_RISK_COUNTRIES;
+        private int highRiskCountryPoints = 80;
+        private Set<String> mediumRiskCountries = RiskAssessmentService.MEDIUM_RISK_COUNTRIES;
+        private int mediumRiskCountryPoints = 50;
+        private Set<String> lowRiskCountries = RiskAssessmentService.LOW_RISK_COUNTRIES;
+        private int lowRiskCountryPoints = 10;
+        private int defaultCountryPoints = 25;
+        private int missingCountryPoints = 50;
+        private GeographicOverlay geographicOverlay;
+
+        private static Map<String, Integer> defaultCreditRatingPoints() {
+            Map<String, Integer> points = new LinkedHashMap<>();
+            for (String rating : new String[] {"AAA", "AA+", "AA", "AA-"}) points.put(rating, 5);
+            for (String rating : new String[] {"A+", "A", "A-"}) points.put(rating, 15);
+            for (String rating : new String[] {"BBB+", "BBB", "BBB-"}) points.put(rating, 25);
+            for (String rating : new String[] {"BB+", "BB", "BB-"}) points.put(rating, 40);
+            for (String rating : new String[] {"B+", "B", "B-"}) points.put(rating, 60);
+            return points;
+        }
+
+        public Builder weights(double financial, double operational, double compliance, double geographic) {
+            this.financialWeight = financial;
+            this.operationalWeight = operational;
+            this.complianceWeight = compliance;
+            this.geographicWeight = geographic;
+            return this;
+        }
+
+        public Builder creditRatings(Map<String, Integer> points, int unknownPoints, int missingPoints) {
+            this.creditRatingPoints = new LinkedHashMap<>(points);
+            this.creditRatingDefaultPoints = unknownPoints;
+            this.creditRatingMissingPoints = missingPoints;
+            return this;
+        }
+
+        public Builder revenueBands(long[] cutoffs, int[] points, int missingPoints) {
+            this.revenueCutoffs = cutoffs.clone();
+            this.revenuePoints = points.clone();
+            this.revenueMissingPoints = missingPoints;
+            return this;
+        }
+
+        public Builder yearsInBusinessBands(int[] cutoffs, int[] points, int missingPoints) {
+            this.yearsCutoffs = cutoffs.clone();
+            this.yearsPoints = points.clone();
+            this.yearsMissingPoints = missingPoints;
+            return this;
+        }
+
+        public Builder onTimeDeliveryBands(double[] cutoffs, int[] points, int missingPoints) {
+            this.onTimeCutoffs = cutoffs.clone();
+            this.onTimePoints = points.clone();
+            this.onTimeMissingPoints = missingPoints;
+            return this;
+        }
+
+        public Builder qualityBands(double[] cutoffs, int[] points, int missingPoints) {
+            this.qualityCutoffs = cutoffs.clone();
+            this.qualityPoints = points.clone();
+            this.qualityMissingPoints = missingPoints;
+            return this;
+        }
+
+        public Builder employeeBands(int[] cutoffs, int[] points, int missingPoints) {
+            this.employeeCutoffs = cutoffs.clone();
+            this.employeePoints = points.clone();
+            this.employeeMissingPoints = missingPoints;
+            return this;
+        }
+
+        public Builder isoCertificationBands(int[] cutoffs, int[] points) {
+            this.isoCountCutoffs = cutoffs.clone();
+            this.isoCountPoints = points.clone();
+            return this;
+        }
+
+        public Builder complianceCertificationBands(int[] cutoffs, int[] points) {
+            this.complianceCountCutoffs = cutoffs.clone();
+            this.complianceCountPoints = points.clone();
+            return this;
+        }
+
+        public Builder lastAudit(int recentDays, int agedDays, int[] points) {
+            this.recentAuditDays = recentDays;
+            this.agedAuditDays = agedDays;
+            this.lastAuditPoints = points.clone();
+            return this;
+        }
+
+        public Builder nextAudit(int dueSoonDays, int[] points) {
+            this.auditDueSoonDays = dueSoonDays;
+            this.nextAuditPoints = points.clone();
+            return this;
+        }
+
+        public Builder countryTiers(Set<String> high, int highPoints, Set<String> medium, int mediumPoints,
+                                    Set<String> low, int lowPoints, int defaultPoints, int missingPoints) {
+            this.highRiskCountries = Set.copyOf(high);
+            this.highRiskCountryPoints = highPoints;
+            this.mediumRiskCountries = Set.copyOf(medium);
+            this.mediumRiskCountryPoints = mediumPoints;
+            this.lowRiskCountries = Set.copyOf(low);
+            this.lowRiskCountryPoints = lowPoints;
+            this.defaultCountryPoints = defaultPoints;
+            this.missingCountryPoints = missingPoints;
+            return this;
+        }
+
+        public Builder geographicOverlay(GeographicOverlay overlay) {
+            this.geographicOverlay = overlay;
+            return this;
+        }
+
+        public CompiledRiskScorer build() {
+            return new CompiledRiskScorer(this);
+        }
+    }
+}
@@ -0,0 +1,507 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.exception.BusinessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Correlations between supplier and shipment metrics over delivered shipments.
+ *
+ * Each time range keeps one {@link CorrelationMatrix} of sums per delivery day,
+ * from the start of the day the window begins on. Refreshes are incremental:
+ * shipments delivered since the last refresh are added to their day, days that
+ * fell out of the window are dropped, and days with shipments changed since the
+ * last refresh (e.g. a backdated delivery date) are read again, together with the
+ * days such shipments left, which {@link ShipmentDeliveryDayEntityListener} reports
+ * (writes that bypass JPA are picked up by the next full rebuild). The window's
+ * sums are re-added from the day sums on every refresh, so values that change
+ * later in the database never have to be subtracted. Spearman correlation needs
+ * ranks over the whole window, so it is recomputed on full rebuilds, which
+ * happen periodically and once enough rows have changed since the last one.
+ */
+@Service
+public class CorrelationAnalysisService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CorrelationAnalysisService.class);
+
+    private static final Pattern TIME_RANGE = Pattern.compile("LAST_(\\d+)_DAYS");
+    private static final int DEFAULT_DAYS = 90;
+
+    // |t| thresholds for two-sided p < 0.001 and p < 0.05 at large sample sizes
+    private static final double HIGH_SIGNIFICANCE_T = 3.29;
+    private static final double MEDIUM_SIGNIFICANCE_T = 1.96;
+
+    // Metric name -> SQL expression over shipments s joined with their supplier sup
+    private static final Map<String, String> METRICS = new LinkedHashMap<>();
+
+    static {
+        METRICS.put("shipment_risk_score", "s.risk_score");
+        METRICS.put("delay_risk_probability", "s.delay_risk_probability");
+        METRICS.put("predicted_delay_hours", "s.predicted_delay_hours");
+        METRICS.put("delay_hours",
+            "EXTRACT(EPOCH FROM (s.actual_delivery_date - s.estimated_delivery_date)) / 3600.0");
+        METRICS.put("on_time", "CASE WHEN s.on_time_performance THEN 1.0 WHEN NOT s.on_time_performance THEN 0.0 END");
+        METRICS.put("transit_days", "s.transit_days");
+        METRICS.put("shipping_cost", "s.shipping_cost");
+        METRICS.put("total_cost", "s.total_cost");
+        METRICS.put("weight_kg", "s.weight_kg");
+        METRICS.put("declared_value", "s.declared_value");
+        METRICS.put("carbon_footprint_kg", "s.carbon_footprint_kg");
+        METRICS.put("supplier_risk_score", "sup.overall_risk_score");
+        METRICS.put("supplier_financial_risk", "sup.financial_risk_score");
+        METRICS.put("supplier_operational_risk", "sup.operational_risk_score");
+        METRICS.put("supplier_compliance_risk", "sup.compliance_risk_score");
+        METRICS.put("supplier_geographic_risk", "sup.geographic_risk_score");
+        METRICS.put("supplier_on_time_rate", "sup.on_time_delivery_rate");
+        METRICS.put("supplier_quality_rating", "sup.quality_rating");
+        METRICS.put("supplier_cost_competitiveness", "sup.cost_competitiveness_score");
+        METRICS.put("supplier_responsiveness", "sup.responsiveness_score");
+    }
+
+    private static final String[] METRIC_NAMES = METRICS.keySet().toArray(new String[0]);
+
+    private static final String FROM_SQL = " FROM shipments s LEFT JOIN suppliers sup ON sup.id = s.supplier_id " +
+        "WHERE s.actual_delivery_date >= ? AND s.actual_delivery_date < ?";
+    private static final String COUNT_SQL = "SELECT COUNT(*)" + FROM_SQL;
+    private static final String SELECT_SQL = "SELECT s.actual_delivery_date, " + String.join(", ", METRICS.values())
+        + FROM_SQL + " ORDER BY s.actual_delivery_date";
+    // Days whose delivered shipments were written since the last refresh
+    private static final String CHANGED_DAYS_SQL = "SELECT DISTINCT CAST(s.actual_delivery_date AS DATE) " +
+        "FROM shipments s WHERE s.updated_at >= ? AND s.actual_delivery_date >= ? AND s.actual_delivery_date < ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${analytics.correlation.fetch-size:5000}")
+    private int fetchSize;
+
+    @Value("${analytics.correlation.refresh-interval-seconds:60}")
+    private long refreshIntervalSeconds;
+
+    @Value("${analytics.correlation.full-rebuild-hours:24}")
+    private long fullRebuildHours;
+
+    @Value("${analytics.correlation.full-rebuild-fraction:0.1}")
+    private double fullRebuildFraction;
+
+    @Value("${analytics.correlation.min-pairs:30}")
+    private long minPairs;
+
+    @Value("${analytics.correlation.significance-threshold:0.3}")
+    private double significanceThreshold;
+
+    @Value("${analytics.correlation.max-time-ranges:8}")
+    private int maxTimeRanges;
+
+    // Least recently used time ranges are dropped beyond max-time-ranges
+    private final Map<Integer, Window> windows = Collections.synchronizedMap(
+        new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Window> eldest) {
+                return size() > Math.max(1, maxTimeRanges);
+            }
+        });
+
+    // Days that shipments moved away from or were deleted from, in report order. Kept
+    // for full-rebuild-hours, since every window is rebuilt at least that often.
+    private final Queue<VacatedDay> vacatedDays = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Correlation matrices for the requested metrics (all metrics when none are given)
+     */
+    public Map<String, Object> getCorrelationAnalysis(List<String> variables, String timeRange) {
+        int days = parseTimeRangeDays(timeRange);
+        Snapshot snapshot = refresh(windows.computeIfAbsent(days, Window::new));
+
+        List<String> unknown = new ArrayList<>();
+        List<Integer> selected = new ArrayList<>();
+        if (variables == null || variables.isEmpty()) {
+            for (int i = 0; i < METRIC_NAMES.length; i++) {
+                selected.add(i);
+            }
+        } else {
+            List<String> names = Arrays.asList(METRIC_NAMES);
+            for (String variable : new LinkedHashSet<>(variables)) {
+                int index = names.indexOf(variable);
+                if (index >= 0) {
+                    selected.add(index);
+                } else {
+                    unknown.add(variable);
+                }
+            }
+        }
+
+        Map<String, Object> analysis = new HashMap<>();
+        analysis.put("variables", selected.stream().map(i -> METRIC_NAMES[i]).collect(Collectors.toList()));
+        analysis.put("timeRange", timeRange);
+        analysis.put("analysisDate", LocalDateTime.now());
+        analysis.put("correlationMatrix", toNamedMatrix(snapshot.pearson, selected));
+        analysis.put("spearmanMatrix", toNamedMatrix(snapshot.spearman, selected));
+        analysis.put("significantCorrelations", significantCorrelations(snapshot, selected));
+        if (!unknown.isEmpty()) {
+            analysis.put("unknownVariables", unknown);
+            analysis.put("availableVariables", Arrays.asList(METRIC_NAMES));
+        }
+
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("shipments", snapshot.rows);
+        metadata.put("windowStart", snapshot.windowStart);
+        metadata.put("refreshedAt", snapshot.refreshedAt);
+        metadata.put("spearmanAsOf", snapshot.spearmanAsOf);
+        metadata.put("incrementalUpdates", snapshot.incrementalUpdates);
+        metadata.put("lastRefreshMs", snapshot.refreshMs);
+        analysis.put("metadata", metadata);
+        return analysis;
+    }
+
+    /**
+     * Record that a shipment no longer counts toward a delivery day; the day is read
+     * again on each window's next incremental refresh
+     */
+    public void deliveryDayVacated(LocalDate day) {
+        vacatedDays.add(new VacatedDay(LocalDateTime.now(), day));
+    }
+
+    /**
+     * Parse LAST_&lt;n&gt;_DAYS; null or blank means the 90-day default
+     */
+    public static int parseTimeRangeDays(String timeRange) {
+        if (timeRange == null || timeRange.isBlank()) {
+            return DEFAULT_DAYS;
+        }
+        Matcher matcher = TIME_RANGE.matcher(timeRange.trim().toUpperCase());
+        if (!matcher.matches()) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "INVALID_TIME_RANGE",
+                "Time range must look like LAST_90_DAYS: " + timeRange);
+        }
+        int days = Integer.parseInt(matcher.group(1));
+        if (days < 1 || days > 3650) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "INVALID_TIME_RANGE",
+                "Time range must cover 1 to 3650 days: " + timeRange);
+        }
+        return days;
+    }
+
+    private Snapshot refresh(Window window) {
+        synchronized (window) {
+            LocalDateTime now = LocalDateTime.now();
+            if (window.snapshot != null && window.refreshedAt.plusSeconds(refreshIntervalSeconds).isAfter(now)) {
+                return window.snapshot;
+            }
+
+            long start = System.currentTimeMillis();
+            boolean rebuild = window.pearson == null || window.builtAt.plusHours(fullRebuildHours).isBefore(now);
+            if (!rebuild) {
+                update(window, now);
+                rebuild = window.changedSinceBuild > fullRebuildFraction * Math.max(window.rowsAtBuild, 1);
+            }
+            if (rebuild) {
+                rebuild(window, now);
+            }
+            window.refreshedAt = now;
+
+            Snapshot snapshot = new Snapshot();
+            snapshot.pearson = window.pearson.pearsonMatrix();
+            snapshot.pairCounts = window.pearson.pairCountMatrix();
+            snapshot.spearman = window.spearman;
+            snapshot.rows = window.rows;
+            snapshot.windowStart = window.start;
+            snapshot.refreshedAt = now;
+            snapshot.spearmanAsOf = window.builtAt;
+            snapshot.incrementalUpdates = window.incrementalUpdates;
+            snapshot.refreshMs = System.currentTimeMillis() - start;
+            window.snapshot = snapshot;
+
+            logger.debug("Correlations for last {} days refreshed ({}) over {} shipments in {} ms",
+                window.days, rebuild ? "full" : "incremental", window.rows, snapshot.refreshMs);
+            return snapshot;
+        }
+    }
+
+    private void rebuild(Window window, LocalDateTime now) {
+        LocalDateTime windowStart = windowStart(window, now);
+        Columns columns = load(windowStart, now);
+
+        // Day sums share the shift of the whole window, so they can be merged
+        window.dayBuckets.clear();
+        window.pearson = CorrelationMatrix.empty(columns.values, columns.rows);
+        addToDays(window, columns);
+        sumDays(window);
+
+        // Ranks overwrite the loaded values; nothing reads them after this
+        CorrelationMatrix.rankInPlace(columns.values, columns.rows);
+        window.spearman = CorrelationMatrix.of(columns.values, columns.rows).pearsonMatrix();
+
+        window.start = windowStart;
+        window.watermark = now;
+        window.builtAt = now;
+        window.rowsAtBuild = window.rows;
+        window.changedSinceBuild = 0;
+        window.incrementalUpdates = 0;
+        logger.info("Correlation matrix for last {} days rebuilt over {} shipments", window.days, columns.rows);
+    }
+
+    private void update(Window window, LocalDateTime now) {
+        LocalDateTime windowStart = windowStart(window, now);
+        long changed = 0;
+
+        // Days that left the window
+        Iterator<DayBucket> expired = window.dayBuckets.headMap(windowStart.toLocalDate()).values().iterator();
+        while (expired.hasNext()) {
+            changed += expired.next().rows;
+            expired.remove();
+        }
+
+        // Days with shipments written since the last refresh but delivered before it, e.g. backdated,
+        // and the days those shipments were delivered on before
+        Set<LocalDate> reloadDays = new TreeSet<>(changedDays(window.watermark, windowStart, window.watermark));
+        reloadDays.addAll(vacatedDaysSince(window.watermark, windowStart, now));
+        for (LocalDate day : reloadDays) {
+            DayBucket previous = window.dayBuckets.remove(day);
+            LocalDateTime dayStart = day.atStartOfDay();
+            LocalDateTime dayEnd = day.plusDays(1).atStartOfDay();
+            Columns reloaded = load(dayStart.isBefore(windowStart) ? windowStart : dayStart,
+                dayEnd.isAfter(window.watermark) ? window.watermark : dayEnd);
+            addToDays(window, reloaded);
+            changed += reloaded.rows + (previous != null ? previous.rows : 0);
+        }
+
+        Columns arrived = load(window.watermark, now);
+        addToDays(window, arrived);
+        changed += arrived.rows;
+
+        sumDays(window);
+        window.start = windowStart;
+        window.watermark = now;
+        window.changedSinceBuild += changed;
+        window.incrementalUpdates++;
+    }
+
+    // Windows start at midnight so that whole days leave them
+    private static LocalDateTime windowStart(Window window, LocalDateTime now) {
+        return now.minusDays(window.days).toLocalDate().atStartOfDay();
+    }
+
+    /**
+     * Add loaded rows, ordered by delivery date, to the sums of their days
+     */
+    private static void addToDays(Window window, Columns columns) {
+        int from = 0;
+        while (from < columns.rows) {
+            long day = columns.days[from];
+            int to = from + 1;
+            while (to < columns.rows && columns.days[to] == day) {
+                to++;
+            }
+            DayBucket bucket = window.dayBuckets.computeIfAbsent(LocalDate.ofEpochDay(day),
+                d -> new DayBucket(window.pearson.emptyCopy()));
+            bucket.sums.add(columns.values, from, to);
+            bucket.rows += to - from;
+            from = to;
+        }
+    }
+
+    private static void sumDays(Window window) {
+        CorrelationMatrix total = window.pearson.emptyCopy();
+        long rows = 0;
+        for (DayBucket bucket : window.dayBuckets.values()) {
+            total.add(bucket.sums);
+            rows += bucket.rows;
+        }
+        window.pearson = total;
+        window.rows = rows;
+    }
+
+    private List<LocalDate> vacatedDaysSince(LocalDateTime reportedSince, LocalDateTime windowStart,
+                                             LocalDateTime now) {
+        LocalDateTime retainedFrom = now.minusHours(fullRebuildHours);
+        while (!vacatedDays.isEmpty() && vacatedDays.peek().reportedAt.isBefore(retainedFrom)) {
+            vacatedDays.poll();
+        }
+        LocalDate firstDay = windowStart.toLocalDate();
+        List<LocalDate> days = new ArrayList<>();
+        for (VacatedDay vacated : vacatedDays) {
+            if (!vacated.reportedAt.isBefore(reportedSince) && !vacated.day.isBefore(firstDay)
+                    && vacated.day.atStartOfDay().isBefore(reportedSince)) {
+                days.add(vacated.day);
+            }
+        }
+        return days;
+    }
+
+    private List<LocalDate> changedDays(LocalDateTime writtenSince, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            return List.of();
+        }
+        TransactionTemplate readTemplate = new TransactionTemplate(transactionManager);
+        readTemplate.setReadOnly(true);
+        return readTemplate.execute(status -> jdbcTemplate.query(CHANGED_DAYS_SQL,
+            (rs, rowNum) -> rs.getDate(1).toLocalDate(),
+            Timestamp.valueOf(writtenSince), Timestamp.valueOf(from), Timestamp.valueOf(to)));
+    }
+
+    /**
+     * Metric columns of shipments delivered in [from, to), NaN where a value is null
+     */
+    private Columns load(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            return new Columns(0);
+        }
+        Timestamp fromTs = Timestamp.valueOf(from);
+        Timestamp toTs = Timestamp.valueOf(to);
+
+        TransactionTemplate readTemplate = new TransactionTemplate(transactionManager);
+        readTemplate.setReadOnly(true);
+        return readTemplate.execute(status -> {
+            Long expected = jdbcTemplate.queryForObject(COUNT_SQL, Long.class, fromTs, toTs);
+            Columns columns = new Columns(expected != null ? expected.intValue() : 0);
+            // Own template so the fetch size does not leak into the shared one
+            JdbcTemplate streamingTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+            streamingTemplate.setFetchSize(fetchSize);
+            streamingTemplate.query(SELECT_SQL, rs -> {
+                int row = columns.nextRow();
+                columns.days[row] = rs.getTimestamp(1).toLocalDateTime().toLocalDate().toEpochDay();
+                for (int m = 0; m < METRIC_NAMES.length; m++) {
+                    double value = rs.getDouble(m + 2);
+                    columns.values[m][row] = rs.wasNull() ? Double.NaN : value;
+                }
+            }, fromTs, toTs);
+            return columns;
+        });
+    }
+
+    private static Map<String, Map<String, Double>> toNamedMatrix(double[][] matrix, List<Integer> selected) {
+        Map<String, Map<String, Double>> named = new LinkedHashMap<>();
+        for (int i : selected) {
+            Map<String, Double> row = new LinkedHashMap<>();
+            for (int j : selected) {
+                row.put(METRIC_NAMES[j], Double.isNaN(matrix[i][j]) ? null : matrix[i][j]);
+            }
+            named.put(METRIC_NAMES[i], row);
+        }
+        return named;
+    }
+
+    private List<Map<String, Object>> significantCorrelations(Snapshot snapshot, List<Integer> selected) {
+        List<Map<String, Object>> significant = new ArrayList<>();
+        for (int a = 0; a < selected.size(); a++) {
+            for (int b = a + 1; b < selected.size(); b++) {
+                int i = selected.get(a);
+                int j = selected.get(b);
+                double r = snapshot.pearson[i][j];
+                long n = snapshot.pairCounts[i][j];
+                if (Double.isNaN(r) || n < minPairs || Math.abs(r) < significanceThreshold) {
+                    continue;
+                }
+                double t = Math.abs(r) >= 1.0 ? Double.POSITIVE_INFINITY
+                    : Math.abs(r) * Math.sqrt((n - 2) / (1 - r * r));
+                if (t < MEDIUM_SIGNIFICANCE_T) {
+                    continue;
+                }
+                Map<String, Object> correlation = new HashMap<>();
+                correlation.put("variable1", METRIC_NAMES[i]);
+                correlation.put("variable2", METRIC_NAMES[j]);
+                correlation.put("correlation", r);
+                correlation.put("spearman", Double.isNaN(snapshot.spearman[i][j]) ? null : snapshot.spearman[i][j]);
+                correlation.put("pairs", n);
+                correlation.put("significance", t >= HIGH_SIGNIFICANCE_T ? "high" : "medium");
+                significant.add(correlation);
+            }
+        }
+        significant.sort(Comparator.comparingDouble(c -> -Math.abs((Double) c.get("correlation"))));
+        return significant;
+    }
+
+    private static final class Window {
+        private final int days;
+        private final TreeMap<LocalDate, DayBucket> dayBuckets = new TreeMap<>();
+        private CorrelationMatrix pearson;
+        private double[][] spearman;
+        private LocalDateTime start;
+        private LocalDateTime watermark;
+        private LocalDateTime builtAt;
+        private LocalDateTime refreshedAt;
+        private long rows;
+        private long rowsAtBuild;
+        private long changedSinceBuild;
+        private long incrementalUpdates;
+        private volatile Snapshot snapshot;
+
+        private Window(int days) {
+            this.days = days;
+        }
+    }
+
+    private static final class VacatedDay {
+        private final LocalDateTime reportedAt;
+        private final LocalDate day;
+
+        private VacatedDay(LocalDateTime reportedAt, LocalDate day) {
+            this.reportedAt = reportedAt;
+            this.day = day;
+        }
+    }
+
+    private static final class DayBucket {
+        private final CorrelationMatrix sums;
+        private long rows;
+
+        private DayBucket(CorrelationMatrix sums) {
+            this.sums = sums;
+        }
+    }
+
+    private static final class Snapshot {
+        private double[][] pearson;
+        private long[][] pairCounts;
+        private double[][] spearman;
+        private long rows;
+        private LocalDateTime windowStart;
+        private LocalDateTime refreshedAt;
+        private LocalDateTime spearmanAsOf;
+        private long incrementalUpdates;
+        private long refreshMs;
+    }
+
+    private static final class Columns {
+        private double[][] values;
+        private long[] days; // delivery date as epoch day
+        private int rows;
+
+        private Columns(int capacity) {
+            values = new double[METRIC_NAMES.length][Math.max(capacity, 0)];
+            days = new long[Math.max(capacity, 0)];
+        }
+
+        // Rows delivered between the count and the scan grow the arrays
+        private int nextRow() {
+            if (rows == values[0].length) {
+                int capacity = Math.max(16, rows + (rows >> 1));
+                for (int m = 0; m < values.length; m++) {
+                    values[m] = Arrays.copyOf(values[m], capacity);
+                }
+                days = Arrays.copyOf(days, capacity);
+            }
+            return rows++;
+        }
+    }
+}
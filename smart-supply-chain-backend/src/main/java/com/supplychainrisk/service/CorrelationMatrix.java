@@ -0,0 +1,344 @@
+package com.supplychainrisk.service;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Pairwise-complete correlation sums over primitive metric columns.
+ *
+ * Columns are {@code double[]} of equal length with {@code NaN} marking a
+ * missing value; a row counts for a pair of metrics when both are present.
+ * Co-moment sums are accumulated per pair of metric blocks: each block pair is
+ * an independent task that walks the rows in cache-sized tiles and writes only
+ * its own cells, so tasks run in parallel without any merge step.
+ *
+ * Sums are taken around a fixed per-column shift (the column mean of the rows
+ * the matrix was built from), which keeps them accurate and lets the same
+ * matrix be extended with new rows or merged with other matrices of the same
+ * shift.
+ * Spearman correlation is the Pearson correlation of {@link #rankInPlace ranked}
+ * columns.
+ */
+public final class CorrelationMatrix {
+
+    // 8 metrics x 2048 rows x 8 bytes = 128 KB per block tile, two tiles per task
+    static final int BLOCK_COLUMNS = 8;
+    static final int TILE_ROWS = 2048;
+    private static final int PARALLEL_THRESHOLD = 4 * TILE_ROWS;
+
+    private final int metrics;
+    private final double[] shift;
+
+    // Indexed [i * metrics + j]; count and cross sums use the upper triangle (i <= j),
+    // sum and sumSquares hold metric i's sums at [i][j] and metric j's at [j][i]
+    private final long[] count;
+    private final double[] sum;
+    private final double[] sumSquares;
+    private final double[] crossSum;
+
+    private CorrelationMatrix(double[] shift) {
+        this.metrics = shift.length;
+        this.shift = shift.clone();
+        this.count = new long[metrics * metrics];
+        this.sum = new double[metrics * metrics];
+        this.sumSquares = new double[metrics * metrics];
+        this.crossSum = new double[metrics * metrics];
+    }
+
+    /**
+     * Build a matrix from the first {@code rows} rows of the columns, shifted by their means
+     */
+    public static CorrelationMatrix of(double[][] columns, int rows) {
+        CorrelationMatrix matrix = new CorrelationMatrix(means(columns, rows));
+        matrix.add(columns, rows);
+        return matrix;
+    }
+
+    /**
+     * An empty matrix shifted by the means of the first {@code rows} rows, e.g. for per-day
+     * sums that are merged with {@link #add(CorrelationMatrix)}
+     */
+    public static CorrelationMatrix empty(double[][] columns, int rows) {
+        return new CorrelationMatrix(means(columns, rows));
+    }
+
+    /**
+     * Add rows to every pair's sums
+     */
+    public void add(double[][] columns, int rows) {
+        accumulate(columns, 0, rows);
+    }
+
+    /**
+     * Add rows {@code from} (inclusive) to {@code to} (exclusive) to every pair's sums
+     */
+    public void add(double[][] columns, int from, int to) {
+        accumulate(columns, from, to);
+    }
+
+    /**
+     * An empty matrix with the same shift, whose sums can be merged into this one
+     */
+    public CorrelationMatrix emptyCopy() {
+        return new CorrelationMatrix(shift);
+    }
+
+    /**
+     * Add the sums of a matrix created by {@link #emptyCopy} (or its source)
+     */
+    public void add(CorrelationMatrix other) {
+        if (!Arrays.equals(shift, other.shift)) {
+            throw new IllegalArgumentException("Matrices with different shifts cannot be merged");
+        }
+        for (int k = 0; k < count.length; k++) {
+            count[k] += other.count[k];
+            sum[k] += other.sum[k];
+            sumSquares[k] += other.sumSquares[k];
+            crossSum[k] += other.crossSum[k];
+        }
+    }
+
+    public int getMetrics() { return metrics; }
+
+    public long pairCount(int i, int j) {
+        return count[Math.min(i, j) * metrics + Math.max(i, j)];
+    }
+
+    /**
+     * Pearson correlation of two metrics over rows where both are present; NaN when undefined
+     */
+    public double pearson(int i, int j) {
+        int a = Math.min(i, j);
+        int b = Math.max(i, j);
+        long n = count[a * metrics + b];
+        if (n < 2) {
+            return Double.NaN;
+        }
+        double sumA = sum[a * metrics + b];
+        double sumB = sum[b * metrics + a];
+        double covariance = crossSum[a * metrics + b] - sumA * sumB / n;
+        double varianceA = sumSquares[a * metrics + b] - sumA * sumA / n;
+        double varianceB = sumSquares[b * metrics + a] - sumB * sumB / n;
+        if (varianceA <= 0 || varianceB <= 0) {
+            return Double.NaN;
+        }
+        return Math.max(-1.0, Math.min(1.0, covariance / Math.sqrt(varianceA * varianceB)));
+    }
+
+    public double[][] pearsonMatrix() {
+        double[][] matrix = new double[metrics][metrics];
+        for (int i = 0; i < metrics; i++) {
+            for (int j = i; j < metrics; j++) {
+                matrix[i][j] = matrix[j][i] = pearson(i, j);
+            }
+        }
+        return matrix;
+    }
+
+    public long[][] pairCountMatrix() {
+        long[][] matrix = new long[metrics][metrics];
+        for (int i = 0; i < metrics; i++) {
+            for (int j = i; j < metrics; j++) {
+                matrix[i][j] = matrix[j][i] = pairCount(i, j);
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Replace each column's present values by their 1-based ranks, ties sharing the average rank
+     */
+    public static void rankInPlace(double[][] columns, int rows) {
+        IntStream indexes = IntStream.range(0, columns.length);
+        if (rows >= PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(c -> rankInPlace(columns[c], rows));
+    }
+
+    private static void rankInPlace(double[] column, int rows) {
+        long[] keys = new long[rows];
+        int[] order = new int[rows];
+        int present = 0;
+        for (int row = 0; row < rows; row++) {
+            double value = column[row];
+            if (!Double.isNaN(value)) {
+                keys[present] = sortableBits(value);
+                order[present++] = row;
+            }
+        }
+        radixSort(keys, order, present);
+
+        // Runs of equal values share the average of their 1-based positions
+        int from = 0;
+        while (from < present) {
+            double value = column[order[from]];
+            int to = from + 1;
+            while (to < present && column[order[to]] == value) {
+                to++;
+            }
+            double rank = (from + to - 1) / 2.0 + 1;
+            for (int k = from; k < to; k++) {
+                column[order[k]] = rank;
+            }
+            from = to;
+        }
+    }
+
+    // Flipped so that unsigned long order matches double order
+    private static long sortableBits(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        return bits < 0 ? ~bits : bits ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * Stable LSD radix sort of the first {@code length} keys (unsigned, 16 bits per pass)
+     * carrying their row indexes; passes where every key has the same digit are skipped
+     */
+    private static void radixSort(long[] keys, int[] order, int length) {
+        long[] keyBuffer = new long[length];
+        int[] orderBuffer = new int[length];
+        int[] counts = new int[1 << 16];
+        for (int shift = 0; shift < 64 && length > 0; shift += 16) {
+            Arrays.fill(counts, 0);
+            for (int k = 0; k < length; k++) {
+                counts[(int) (keys[k] >>> shift) & 0xFFFF]++;
+            }
+            if (counts[(int) (keys[0] >>> shift) & 0xFFFF] == length) {
+                continue;
+            }
+            int position = 0;
+            for (int digit = 0; digit < counts.length; digit++) {
+                int count = counts[digit];
+                counts[digit] = position;
+                position += count;
+            }
+            for (int k = 0; k < length; k++) {
+                int target = counts[(int) (keys[k] >>> shift) & 0xFFFF]++;
+                keyBuffer[target] = keys[k];
+                orderBuffer[target] = order[k];
+            }
+            System.arraycopy(keyBuffer, 0, keys, 0, length);
+            System.arraycopy(orderBuffer, 0, order, 0, length);
+        }
+    }
+
+    private static double[] means(double[][] columns, int rows) {
+        double[] means = new double[columns.length];
+        IntStream indexes = IntStream.range(0, columns.length);
+        if (rows >= PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(c -> {
+            double total = 0;
+            long present = 0;
+            for (int row = 0; row < rows; row++) {
+                double value = columns[c][row];
+                if (!Double.isNaN(value)) {
+                    total += value;
+                    present++;
+                }
+            }
+            means[c] = present > 0 ? total / present : 0;
+        });
+        return means;
+    }
+
+    private void accumulate(double[][] columns, int firstRow, int endRow) {
+        if (columns.length != metrics) {
+            throw new IllegalArgumentException("Expected " + metrics + " columns, got " + columns.length);
+        }
+        boolean[] dense = new boolean[metrics];
+        for (int c = 0; c < metrics; c++) {
+            dense[c] = isDense(columns[c], firstRow, endRow);
+        }
+
+        int blocks = (metrics + BLOCK_COLUMNS - 1) / BLOCK_COLUMNS;
+        int[] blockPairs = new int[blocks * (blocks + 1) / 2];
+        int pairs = 0;
+        for (int bi = 0; bi < blocks; bi++) {
+            for (int bj = bi; bj < blocks; bj++) {
+                blockPairs[pairs++] = bi * blocks + bj;
+            }
+        }
+
+        IntStream tasks = IntStream.range(0, pairs);
+        if (endRow - firstRow >= PARALLEL_THRESHOLD) {
+            tasks = tasks.parallel();
+        }
+        tasks.forEach(task -> accumulateBlocks(columns, dense, firstRow, endRow,
+            blockPairs[task] / blocks, blockPairs[task] % blocks));
+    }
+
+    private void accumulateBlocks(double[][] columns, boolean[] dense, int firstRow, int endRow,
+                                  int blockI, int blockJ) {
+        int fromI = blockI * BLOCK_COLUMNS;
+        int toI = Math.min(metrics, fromI + BLOCK_COLUMNS);
+        int fromJ = blockJ * BLOCK_COLUMNS;
+        int toJ = Math.min(metrics, fromJ + BLOCK_COLUMNS);
+
+        for (int from = firstRow; from < endRow; from += TILE_ROWS) {
+            int to = Math.min(endRow, from + TILE_ROWS);
+            for (int i = fromI; i < toI; i++) {
+                for (int j = Math.max(i, fromJ); j < toJ; j++) {
+                    accumulatePair(columns, dense, i, j, from, to);
+                }
+            }
+        }
+    }
+
+    private void accumulatePair(double[][] columns, boolean[] dense, int i, int j, int from, int to) {
+        double[] x = columns[i];
+        double[] y = columns[j];
+        double shiftX = shift[i];
+        double shiftY = shift[j];
+        long n = 0;
+        double sumX = 0, sumY = 0, sumXX = 0, sumYY = 0, sumXY = 0;
+        if (dense[i] && dense[j]) {
+            for (int row = from; row < to; row++) {
+                double dx = x[row] - shiftX;
+                double dy = y[row] - shiftY;
+                sumX += dx;
+                sumY += dy;
+                sumXX += dx * dx;
+                sumYY += dy * dy;
+                sumXY += dx * dy;
+            }
+            n = to - from;
+        } else {
+            for (int row = from; row < to; row++) {
+                double dx = x[row] - shiftX;
+                double dy = y[row] - shiftY;
+                // NaN propagates through the subtraction, so one check per value
+                if (dx == dx && dy == dy) {
+                    sumX += dx;
+                    sumY += dy;
+                    sumXX += dx * dx;
+                    sumYY += dy * dy;
+                    sumXY += dx * dy;
+                    n++;
+                }
+            }
+        }
+
+        int upper = i * metrics + j;
+        int lower = j * metrics + i;
+        count[upper] += n;
+        crossSum[upper] += sumXY;
+        sum[upper] += sumX;
+        sumSquares[upper] += sumXX;
+        if (lower != upper) {
+            sum[lower] += sumY;
+            sumSquares[lower] += sumYY;
+        }
+    }
+
+    private static boolean isDense(double[] column, int from, int to) {
+        for (int row = from; row < to; row++) {
+            if (Double.isNaN(column[row])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,109 @@
+package com.supplychainrisk.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-bin histogram of one model input or output, filled lock-free by
+ * prediction threads and drained once per drift window.
+ *
+ * The range is split into equal-width bins; values outside it count in the
+ * first or last bin and NaN (a missing value) counts in an extra bin after
+ * them. Because reference and window histograms share the bin edges, PSI and
+ * KS between them cost O(bins) however many predictions were seen.
+ */
+public final class DriftHistogram {
+
+    // Floor for empty-bin proportions so PSI stays finite
+    private static final double EPSILON = 1e-4;
+
+    private final double lower;
+    private final double upper;
+    private final int bins;
+    private final AtomicLongArray counts;
+
+    public DriftHistogram(double lower, double upper, int bins) {
+        if (!(upper > lower) || bins < 2) {
+            throw new IllegalArgumentException("Drift histogram needs lower < upper and at least 2 bins");
+        }
+        this.lower = lower;
+        this.upper = upper;
+        this.bins = bins;
+        this.counts = new AtomicLongArray(bins + 1);
+    }
+
+    public void record(double value) {
+        counts.incrementAndGet(bin(value));
+    }
+
+    int bin(double value) {
+        if (Double.isNaN(value)) {
+            return bins;
+        }
+        int bin = (int) Math.floor((value - lower) / (upper - lower) * bins);
+        return Math.max(0, Math.min(bins - 1, bin));
+    }
+
+    /**
+     * Take the counts recorded since the last drain; the last element is the missing count.
+     * Values recorded while draining land in this window or the next, never in neither.
+     */
+    public long[] drain() {
+        long[] window = new long[bins + 1];
+        for (int i = 0; i < window.length; i++) {
+            window[i] = counts.getAndSet(i, 0);
+        }
+        return window;
+    }
+
+    public int getBins() { return bins; }
+    public double getLower() { return lower; }
+    public double getUpper() { return upper; }
+
+    /**
+     * Population stability index of the window against the reference, missing values included
+     */
+    public static double psi(long[] reference, long[] window) {
+        double referenceTotal = total(reference, reference.length);
+        double windowTotal = total(window, window.length);
+        if (referenceTotal == 0 || windowTotal == 0) {
+            return 0.0;
+        }
+        double psi = 0.0;
+        for (int i = 0; i < reference.length; i++) {
+            double expected = Math.max(EPSILON, reference[i] / referenceTotal);
+            double actual = Math.max(EPSILON, window[i] / windowTotal);
+            psi += (actual - expected) * Math.log(actual / expected);
+        }
+        return psi;
+    }
+
+    /**
+     * Kolmogorov-Smirnov distance between the binned distributions of present values:
+     * the largest gap between the two CDFs at a bin edge
+     */
+    public static double ks(long[] reference, long[] window) {
+        int bins = reference.length - 1;
+        double referenceTotal = total(reference, bins);
+        double windowTotal = total(window, bins);
+        if (referenceTotal == 0 || windowTotal == 0) {
+            return 0.0;
+        }
+        double referenceCdf = 0.0;
+        double windowCdf = 0.0;
+        double distance = 0.0;
+        for (int i = 0; i < bins; i++) {
+            referenceCdf += reference[i] / referenceTotal;
+            windowCdf += window[i] / windowTotal;
+            distance = Math.max(distance, Math.abs(referenceCdf - windowCdf));
+        }
+        return distance;
+    }
+
+    static long total(long[] counts, int length) {
+        long total = 0;
+        for (int i = 0; i < length; i++) {
+            total += counts[i];
+        }
+        return total;
+    }
+}
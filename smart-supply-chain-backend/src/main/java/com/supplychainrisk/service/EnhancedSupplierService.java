@@ -2,10 +2,12 @@ package com.supplychainrisk.service;
 
 import com.supplychainrisk.dto.*;
 import com.supplychainrisk.entity.*;
+import com.supplychainrisk.exception.BusinessException;
 import com.supplychainrisk.repository.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -40,6 +42,9 @@ public class EnhancedSupplierService {
     @Autowired
     private SupplierIntelligenceService supplierIntelligenceService;
     
+    @Autowired
+    private SupplierFeatureSnapshot supplierFeatureSnapshot;
+    
     public SupplierProfile getComprehensiveSupplierProfile(Long supplierId) {
         try {
             Supplier supplier = supplierRepository.findById(supplierId)
@@ -163,24 +168,56 @@ public class EnhancedSupplierService {
     }
     
     public Map<String, Object> getSupplierRiskDistribution() {
+        if (!supplierFeatureSnapshot.isLoaded()) {
+            return getSupplierRiskDistributionFromTable();
+        }
+        try {
+            Map<String, Object> distribution = new HashMap<>();
+            Map<String, Long> riskLevelCounts = supplierFeatureSnapshot.countByRiskLevel();
+            
+            distribution.put("riskLevelDistribution", riskLevelCounts);
+            distribution.put("totalSuppliers", supplierFeatureSnapshot.size());
+            distribution.put("averageRiskScore", supplierFeatureSnapshot.averageRiskScore().orElse(0.0));
+            distribution.put("riskScoreDistribution", supplierFeatureSnapshot
+                .riskScoreHistogram(RiskScoreHistogram.Dimension.OVERALL)
+                .countBy(riskAssessmentService::getRiskLevelDescription));
+            
+            return distribution;
+            
+        } catch (Exception e) {
+            logger.error("Error retrieving risk distribution", e);
+            throw new RuntimeException("Failed to retrieve risk distribution", e);
+        }
+    }
+    
+    /**
+     * Same distribution read from the supplier table, used until the snapshot has loaded
+     */
+    private Map<String, Object> getSupplierRiskDistributionFromTable() {
         try {
             List<Supplier> allSuppliers = supplierRepository.findAll();
             
             Map<String, Object> distribution = new HashMap<>();
             Map<String, Long> riskLevelCounts = allSuppliers.stream()
                 .collect(Collectors.groupingBy(
-                    supplier -> supplier.getRiskLevel() != null ? 
+                    supplier -> supplier.getRiskLevel() != null ?
                         supplier.getRiskLevel().toString() : "UNKNOWN",
                     Collectors.counting()
                 ));
             
             distribution.put("riskLevelDistribution", riskLevelCounts);
             distribution.put("totalSuppliers", allSuppliers.size());
-            distribution.put("averageRiskScore", 
+            distribution.put("averageRiskScore",
                 allSuppliers.stream()
                     .filter(s -> s.getRiskScore() != null)
                     .mapToDouble(Supplier::getRiskScore)
                     .average().orElse(0.0));
+            distribution.put("riskScoreDistribution", allSuppliers.stream()
+                .filter(s -> s.getOverallRiskScore() != null)
+                .collect(Collectors.groupingBy(
+                    s -> riskAssessmentService.getRiskLevelDescription(s.getOverallRiskScore()),
+                    Collectors.counting()
+                )));
             
             return distribution;
             
@@ -190,6 +227,88 @@ public class EnhancedSupplierService {
         }
     }
     
+    /**
+     * Live distribution of one risk score dimension, optionally limited to a single
+     * status, tier or country, served from the snapshot histograms
+     */
+    public Map<String, Object> getRiskScoreHistogram(RiskScoreHistogram.Dimension dimension,
+                                                     Supplier.SupplierStatus status,
+                                                     Supplier.SupplierTier tier,
+                                                     String country,
+                                                     int threshold) {
+        int filters = (status != null ? 1 : 0) + (tier != null ? 1 : 0) + (country != null ? 1 : 0);
+        if (filters > 1) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "INVALID_HISTOGRAM_FILTER",
+                "Filter by at most one of status, tier or country");
+        }
+        requireSnapshotLoaded();
+        
+        RiskScoreHistogram histogram;
+        Map<String, Object> segment = new LinkedHashMap<>();
+        if (status != null) {
+            histogram = supplierFeatureSnapshot.riskScoreHistogram(dimension, status);
+            segment.put("status", status);
+        } else if (tier != null) {
+            histogram = supplierFeatureSnapshot.riskScoreHistogram(dimension, tier);
+            segment.put("tier", tier);
+        } else if (country != null) {
+            histogram = supplierFeatureSnapshot.riskScoreHistogramForCountry(dimension, country);
+            segment.put("country", country);
+        } else {
+            histogram = supplierFeatureSnapshot.riskScoreHistogram(dimension);
+        }
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("dimension", dimension);
+        result.put("segment", segment);
+        result.putAll(histogram.toMap());
+        result.put("threshold", threshold);
+        result.put("aboveThreshold", histogram.countAbove(threshold));
+        result.put("riskLevelDistribution", histogram.countBy(riskAssessmentService::getRiskLevelDescription));
+        return result;
+    }
+    
+    /**
+     * Per-segment summaries (count, mean, percentiles, above threshold) of one risk score dimension
+     */
+    public Map<String, Object> getRiskScoreHistogramsBySegment(RiskScoreHistogram.Dimension dimension,
+                                                               String segmentType,
+                                                               int threshold) {
+        requireSnapshotLoaded();
+        Map<String, RiskScoreHistogram> histograms = switch (segmentType.toUpperCase()) {
+            case "STATUS" -> supplierFeatureSnapshot.riskScoreHistogramsByStatus(dimension);
+            case "TIER" -> supplierFeatureSnapshot.riskScoreHistogramsByTier(dimension);
+            case "COUNTRY" -> supplierFeatureSnapshot.riskScoreHistogramsByCountry(dimension);
+            default -> throw new BusinessException(HttpStatus.BAD_REQUEST, "INVALID_HISTOGRAM_SEGMENT",
+                "Segment must be STATUS, TIER or COUNTRY");
+        };
+        
+        Map<String, Object> segments = new LinkedHashMap<>();
+        histograms.forEach((key, histogram) -> {
+            Map<String, Object> summary = histogram.toMap();
+            summary.remove("bins");
+            summary.put("aboveThreshold", histogram.countAbove(threshold));
+            segments.put(key, summary);
+        });
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("dimension", dimension);
+        result.put("segmentType", segmentType.toUpperCase());
+        result.put("threshold", threshold);
+        result.put("segments", segments);
+        return result;
+    }
+    
+    /**
+     * The histograms exist only in the snapshot, so there is nothing to serve until it has loaded
+     */
+    private void requireSnapshotLoaded() {
+        if (!supplierFeatureSnapshot.isLoaded()) {
+            throw new BusinessException(HttpStatus.SERVICE_UNAVAILABLE, "SUPPLIER_SNAPSHOT_LOADING",
+                "Supplier risk statistics are still loading, retry shortly");
+        }
+    }
+    
     public Map<String, Object> getSupplierPerformanceTrends(SupplierPerformanceAnalytics.TimeRange timeRange) {
         try {
             List<Supplier> allSuppliers = supplierRepository.findAll();
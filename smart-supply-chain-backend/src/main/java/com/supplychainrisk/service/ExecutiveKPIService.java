@@ -1,7 +1,7 @@
 package com.supplychainrisk.service;
 
-import com.supplychainrisk.entity.Supplier;
 import com.supplychainrisk.entity.Shipment;
+import com.supplychainrisk.entity.Supplier;
 import com.supplychainrisk.repository.SupplierRepository;
 import com.supplychainrisk.repository.ShipmentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,6 +28,9 @@ public class ExecutiveKPIService {
     @Autowired
     private ShipmentRepository shipmentRepository;
     
+    @Autowired
+    private SupplierFeatureSnapshot supplierFeatureSnapshot;
+    
     /**
      * Calculate comprehensive Executive KPIs dashboard data
      */
@@ -83,19 +86,13 @@ public class ExecutiveKPIService {
      */
     public Double calculateSupplyChainHealthScore() {
         try {
-            List<Supplier> suppliers = supplierRepository.findAll();
-            
-            if (suppliers.isEmpty()) {
+            if (!hasSuppliers()) {
                 logger.warn("No suppliers found for health score calculation");
                 return 75.0; // Default score
             }
             
             // Calculate average supplier score (inverse of risk score)
-            Double avgSupplierScore = suppliers.stream()
-                .filter(s -> s.getOverallRiskScore() != null)
-                .mapToDouble(s -> Math.max(0, 100 - s.getOverallRiskScore().doubleValue()))
-                .average()
-                .orElse(75.0);
+            Double avgSupplierScore = averageOverallRiskHeadroom().orElse(75.0);
             
             // Calculate delivery performance
             Double deliveryPerformance = calculateOnTimeDeliveryRate();
@@ -176,11 +173,7 @@ public class ExecutiveKPIService {
         Map<String, Object> risks = new HashMap<>();
         
         try {
-            List<Supplier> suppliers = supplierRepository.findAll();
-            
-            long highRiskSuppliers = suppliers.stream()
-                .filter(s -> s.getOverallRiskScore() != null && s.getOverallRiskScore().doubleValue() > 70)
-                .count();
+            long highRiskSuppliers = countOverallRiskAbove(70);
             
             List<Shipment> recentShipments = getRecentShipments(30);
             long delayedShipments = recentShipments.stream()
@@ -281,17 +274,11 @@ public class ExecutiveKPIService {
     
     private Double calculateSupplierPerformanceScore() {
         try {
-            List<Supplier> suppliers = supplierRepository.findAll();
-            
-            if (suppliers.isEmpty()) {
+            if (!hasSuppliers()) {
                 return 85.0;
             }
             
-            return suppliers.stream()
-                .filter(s -> s.getOverallRiskScore() != null)
-                .mapToDouble(s -> Math.max(0, 100 - s.getOverallRiskScore().doubleValue()))
-                .average()
-                .orElse(85.0);
+            return averageOverallRiskHeadroom().orElse(85.0);
                 
         } catch (Exception e) {
             logger.error("Error calculating supplier performance score: {}", e.getMessage(), e);
@@ -329,17 +316,12 @@ public class ExecutiveKPIService {
     
     private Double calculateRiskExposureIndex() {
         try {
-            List<Supplier> suppliers = supplierRepository.findAll();
-            
-            if (suppliers.isEmpty()) {
+            if (!hasSuppliers()) {
                 return 25.0; // Default low risk
             }
             
-            return suppliers.stream()
-                .filter(s -> s.getOverallRiskScore() != null)
-                .mapToDouble(s -> s.getOverallRiskScore().doubleValue())
-                .average()
-                .orElse(25.0);
+            IntSummaryStatistics stats = overallRiskScoreStats();
+            return stats.getCount() > 0 ? stats.getAverage() : 25.0;
                 
         } catch (Exception e) {
             logger.error("Error calculating risk exposure index: {}", e.getMessage(), e);
@@ -347,6 +329,50 @@ public class ExecutiveKPIService {
         }
     }
     
+    // Supplier score aggregates come from the snapshot once it has loaded; until then
+    // (or if its load failed) they are read from the supplier table instead of
+    // reporting an empty supplier base
+    
+    private boolean hasSuppliers() {
+        return supplierFeatureSnapshot.isLoaded()
+            ? supplierFeatureSnapshot.size() > 0
+            : supplierRepository.count() > 0;
+    }
+    
+    private OptionalDouble averageOverallRiskHeadroom() {
+        if (supplierFeatureSnapshot.isLoaded()) {
+            return supplierFeatureSnapshot.averageOverallRiskHeadroom();
+        }
+        return overallRiskScoresFromTable().stream()
+            .mapToDouble(score -> Math.max(0, 100 - score))
+            .average();
+    }
+    
+    private long countOverallRiskAbove(int threshold) {
+        if (supplierFeatureSnapshot.isLoaded()) {
+            return supplierFeatureSnapshot.countOverallRiskAbove(threshold);
+        }
+        return overallRiskScoresFromTable().stream()
+            .filter(score -> score > threshold)
+            .count();
+    }
+    
+    private IntSummaryStatistics overallRiskScoreStats() {
+        if (supplierFeatureSnapshot.isLoaded()) {
+            return supplierFeatureSnapshot.overallRiskScoreStats();
+        }
+        return overallRiskScoresFromTable().stream()
+            .mapToInt(Integer::intValue)
+            .summaryStatistics();
+    }
+    
+    private List<Integer> overallRiskScoresFromTable() {
+        return supplierRepository.findAll().stream()
+            .map(Supplier::getOverallRiskScore)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+    
     private List<Shipment> getRecentShipments(int days) {
         try {
             LocalDateTime since = LocalDateTime.now().minusDays(days);
@@ -0,0 +1,332 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.entity.Supplier;
+import com.supplychainrisk.exception.BusinessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scores suppliers with an in-process {@link FallbackRiskModel} while the ML service is unavailable.
+ *
+ * The model file at {@code ml.fallback.model.path} is loaded at startup and reloaded when the
+ * file changes; the new model is swapped in with a single volatile write, so scoring threads
+ * never block. Until a file is configured a built-in baseline model is used. Model features
+ * must be named from {@link #FEATURES}.
+ */
+@Service
+public class FallbackModelService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FallbackModelService.class);
+
+    /** Features a model may use, in the order {@link #extract} fills them */
+    public static final List<String> FEATURES = List.of(
+        "overall_risk_score", "financial_risk_score", "operational_risk_score", "compliance_risk_score",
+        "geographic_risk_score", "on_time_delivery_rate", "quality_rating", "years_in_business",
+        "log_employee_count", "log_annual_revenue", "iso_certification_count", "compliance_certification_count",
+        "horizon_days");
+
+    private static final int HORIZON_DAYS = FEATURES.indexOf("horizon_days");
+
+    @Value("${ml.fallback.model.path:}")
+    private String modelPath;
+
+    private volatile LoadedModel current = new LoadedModel(builtInModel(), "builtin");
+    private volatile Object loadedFileStamp;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        checkModelFile();
+    }
+
+    /**
+     * Reload the model when the file has been replaced
+     */
+    @Scheduled(fixedDelayString = "${ml.fallback.model.refresh-interval-ms:30000}",
+               initialDelayString = "${ml.fallback.model.refresh-interval-ms:30000}")
+    public void refresh() {
+        checkModelFile();
+    }
+
+    /**
+     * Reload the model file now, even if it looks unchanged
+     */
+    public synchronized Map<String, Object> reload() {
+        if (modelPath == null || modelPath.isBlank()) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "FALLBACK_MODEL_NOT_CONFIGURED",
+                "Set ml.fallback.model.path to load a fallback model file");
+        }
+        Path path = Paths.get(modelPath);
+        if (!Files.exists(path)) {
+            throw new BusinessException(HttpStatus.NOT_FOUND, "FALLBACK_MODEL_NOT_FOUND",
+                "Fallback model file does not exist: " + path);
+        }
+        try {
+            swap(path, fileStamp(path));
+        } catch (IOException e) {
+            throw new BusinessException(HttpStatus.UNPROCESSABLE_ENTITY, "INVALID_FALLBACK_MODEL", e.getMessage());
+        }
+        return getStatus();
+    }
+
+    public Map<String, Object> getStatus() {
+        LoadedModel loaded = current;
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("path", modelPath);
+        status.put("source", loaded.source);
+        status.put("modelVersion", loaded.getModelVersion());
+        status.put("features", loaded.model.getFeatureNames());
+        status.put("targets", loaded.model.getTargetNames());
+        status.put("trees", loaded.model.getTreeCount());
+        status.put("nodes", loaded.model.getNodeCount());
+        status.put("loadedAt", loaded.loadedAt);
+        return status;
+    }
+
+    public String getModelVersion() {
+        return current.getModelVersion();
+    }
+
+    /**
+     * Score a supplier over the given horizon
+     */
+    public Prediction predict(Supplier supplier, int horizonDays) {
+        double[] features = new double[FEATURES.size()];
+        extract(supplier, horizonDays, features);
+        return current.score(features);
+    }
+
+    /**
+     * Score named inputs, e.g. a real-time data set; absent or non-numeric features count as missing
+     */
+    public Prediction predict(Map<String, Object> inputs, int horizonDays) {
+        double[] features = new double[FEATURES.size()];
+        for (int i = 0; i < features.length; i++) {
+            Object value = inputs == null ? null : inputs.get(FEATURES.get(i));
+            features[i] = value instanceof Number number ? number.doubleValue() : Double.NaN;
+        }
+        features[HORIZON_DAYS] = horizonDays;
+        return current.score(features);
+    }
+
+    /**
+     * Whether the inputs carry at least one numeric model feature besides the horizon
+     */
+    public static boolean hasAnyFeature(Map<String, Object> inputs) {
+        if (inputs == null) {
+            return false;
+        }
+        for (int i = 0; i < FEATURES.size(); i++) {
+            if (i != HORIZON_DAYS && inputs.get(FEATURES.get(i)) instanceof Number) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fill {@code out} with the supplier's features in {@link #FEATURES} order; missing values are NaN
+     */
+    public static void extract(Supplier supplier, int horizonDays, double[] out) {
+        out[0] = value(supplier.getOverallRiskScore());
+        out[1] = value(supplier.getFinancialRiskScore());
+        out[2] = value(supplier.getOperationalRiskScore());
+        out[3] = value(supplier.getComplianceRiskScore());
+        out[4] = value(supplier.getGeographicRiskScore());
+        out[5] = value(supplier.getOnTimeDeliveryRate());
+        out[6] = value(supplier.getQualityRating());
+        out[7] = value(supplier.getYearsInBusiness());
+        out[8] = supplier.getEmployeeCount() == null ? Double.NaN
+            : Math.log1p(Math.max(0, supplier.getEmployeeCount()));
+        out[9] = supplier.getAnnualRevenue() == null ? Double.NaN
+            : Math.log1p(Math.max(0, supplier.getAnnualRevenue().doubleValue()));
+        out[10] = count(supplier.getIsoCertifications());
+        out[11] = count(supplier.getComplianceCertifications());
+        out[HORIZON_DAYS] = horizonDays;
+    }
+
+    private synchronized void checkModelFile() {
+        if (modelPath == null || modelPath.isBlank()) {
+            return;
+        }
+        Path path = Paths.get(modelPath);
+        try {
+            if (!Files.exists(path)) {
+                return;
+            }
+            Object stamp = fileStamp(path);
+            if (stamp.equals(loadedFileStamp)) {
+                return;
+            }
+            swap(path, stamp);
+        } catch (IOException e) {
+            logger.error("Rejected fallback model {}: {}", path, e.getMessage());
+            // Do not retry the same broken file on every poll
+            try {
+                loadedFileStamp = fileStamp(path);
+            } catch (IOException ignored) {
+                // retried on the next poll
+            }
+        }
+    }
+
+    private void swap(Path path, Object stamp) throws IOException {
+        FallbackRiskModel model = FallbackRiskModel.open(path);
+        try {
+            current = new LoadedModel(model, path.toString());
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage() + ": " + path, e);
+        }
+        loadedFileStamp = stamp;
+        logger.info("Loaded fallback model {} version {} ({} targets, {} trees, {} nodes)",
+            path, model.getVersion(), model.getTargetNames().size(), model.getTreeCount(), model.getNodeCount());
+    }
+
+    private static Object fileStamp(Path path) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        // The file key changes when a new file is renamed over the old one
+        return Arrays.asList(attributes.fileKey(), attributes.lastModifiedTime(), attributes.size());
+    }
+
+    private static double value(Integer value) {
+        return value == null ? Double.NaN : value;
+    }
+
+    private static double value(BigDecimal value) {
+        return value == null ? Double.NaN : value.doubleValue();
+    }
+
+    private static double count(Collection<?> values) {
+        return values == null ? 0 : values.size();
+    }
+
+    /**
+     * Baseline used until a model file is configured: the next score stays close to the
+     * current one, drifts up with the horizon and moves with delivery and quality
+     * performance, with a penalty split for poor delivery. Version 0.
+     */
+    public static FallbackRiskModel builtInModel() {
+        return builtInWriter().build();
+    }
+
+    static FallbackRiskModel.Writer builtInWriter() {
+        FallbackRiskModel.Writer writer = FallbackRiskModel.writer(FEATURES).version(0)
+            .imputation("on_time_delivery_rate", 90)
+            .imputation("quality_rating", 7)
+            .imputation("years_in_business", 10)
+            .imputation("log_annual_revenue", 16);
+        int onTime = FEATURES.indexOf("on_time_delivery_rate");
+        int overall = FEATURES.indexOf("overall_risk_score");
+
+        writer.target("predicted_overall", FallbackRiskModel.Link.IDENTITY, 1, 13.3, new double[FEATURES.size()])
+            .weight("overall_risk_score", 0.9)
+            .weight("on_time_delivery_rate", -0.06)
+            .weight("quality_rating", -0.4)
+            .weight("horizon_days", 0.03)
+            .tree()
+                .split(onTime, 85, 1, 4, false)
+                .split(overall, 60, 2, 3, false)
+                .leaf(1.5)
+                .leaf(4.0)
+                .leaf(-1.0);
+        writer.target("predicted_financial", FallbackRiskModel.Link.IDENTITY, 1, 12.5, new double[FEATURES.size()])
+            .weight("financial_risk_score", 0.92)
+            .weight("log_annual_revenue", -0.5)
+            .weight("years_in_business", -0.05)
+            .weight("horizon_days", 0.02);
+        writer.target("predicted_operational", FallbackRiskModel.Link.IDENTITY, 1, 19.2, new double[FEATURES.size()])
+            .weight("operational_risk_score", 0.9)
+            .weight("on_time_delivery_rate", -0.1)
+            .weight("quality_rating", -0.6)
+            .weight("horizon_days", 0.03)
+            .tree()
+                .split(onTime, 85, 1, 2, false)
+                .leaf(3.0)
+                .leaf(-1.0);
+        writer.target("elevated_risk_probability", FallbackRiskModel.Link.LOGISTIC, 1, -5, new double[FEATURES.size()])
+            .weight("overall_risk_score", 0.1)
+            .weight("on_time_delivery_rate", -0.03)
+            .weight("horizon_days", 0.01);
+        return writer;
+    }
+
+    /**
+     * Model outputs by target name
+     */
+    public static final class Prediction {
+        private final String modelVersion;
+        private final Map<String, Double> values;
+
+        private Prediction(String modelVersion, Map<String, Double> values) {
+            this.modelVersion = modelVersion;
+            this.values = values;
+        }
+
+        public String getModelVersion() { return modelVersion; }
+        public Map<String, Double> getValues() { return values; }
+
+        /**
+         * Output of a target, or NaN if the model has no such target
+         */
+        public double get(String target) {
+            Double value = values.get(target);
+            return value == null ? Double.NaN : value;
+        }
+    }
+
+    private static final class LoadedModel {
+        private final FallbackRiskModel model;
+        private final String source;
+        private final int[] binding; // model feature -> index into FEATURES
+        private final LocalDateTime loadedAt = LocalDateTime.now();
+
+        private LoadedModel(FallbackRiskModel model, String source) {
+            this.model = model;
+            this.source = source;
+            List<String> names = model.getFeatureNames();
+            this.binding = new int[names.size()];
+            for (int i = 0; i < binding.length; i++) {
+                binding[i] = FEATURES.indexOf(names.get(i));
+                if (binding[i] < 0) {
+                    throw new IllegalArgumentException("Unknown fallback model feature: " + names.get(i));
+                }
+            }
+        }
+
+        private String getModelVersion() {
+            return model.getVersion() == 0 ? "fallback-builtin" : "fallback-" + model.getVersion();
+        }
+
+        private Prediction score(double[] features) {
+            double[] input = new double[binding.length];
+            for (int i = 0; i < binding.length; i++) {
+                input[i] = features[binding[i]];
+            }
+            double[] output = new double[model.getTargetNames().size()];
+            model.score(input, output);
+            Map<String, Double> values = new LinkedHashMap<>();
+            for (int t = 0; t < output.length; t++) {
+                values.put(model.getTargetNames().get(t), output[t]);
+            }
+            return new Prediction(getModelVersion(), values);
+        }
+    }
+}
@@ -0,0 +1,483 @@
+package com.supplychainrisk.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Serialized risk model scored in-process when the ML service is unavailable.
+ *
+ * Each target is an additive model over a shared feature vector: a bias, one
+ * weight per feature and any number of regression trees, passed through an
+ * identity or logistic link and multiplied by an output scale. A linear or
+ * logistic regression has no trees, a gradient-boosted ensemble has no
+ * weights, and a model may mix both. Missing inputs are NaN: linear terms use
+ * the feature's imputation value and each tree split sends them to its stored
+ * side.
+ *
+ * File layout (big-endian):
+ * <pre>
+ *   header   magic "RSKM", format version, model version, payload length, CRC32 of the payload
+ *   payload  u2 feature count, then per feature (UTF name, f8 imputation value)
+ *            u2 target count, then per target (UTF name, u1 link, f8 scale, f8 bias,
+ *            f8[features] weights, u4 tree count, then per tree u4 node count and per node
+ *            (s2 feature or -1 for a leaf, f8 threshold or leaf value, u4 left, u4 right,
+ *            u1 missing goes left); child indexes are relative to the tree)
+ * </pre>
+ * The whole model is decoded onto the heap as flat primitive arrays, so scoring
+ * allocates nothing. Instances are immutable and thread-safe.
+ */
+public final class FallbackRiskModel {
+
+    static final int MAGIC = 0x52534B4D; // "RSKM"
+    static final short FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 22;
+
+    public enum Link { IDENTITY, LOGISTIC }
+
+    private final long version;
+    private final List<String> featureNames;
+    private final List<String> targetNames;
+    private final double[] imputation;
+    private final Link[] links;
+    private final double[] scales;
+    private final double[] biases;
+    private final double[] weights;      // [target * features + feature]
+    private final int[] treeOffsets;     // trees of target t are treeOffsets[t] until treeOffsets[t + 1]
+    private final int[] treeRoots;
+    private final int[] nodeFeature;     // -1 for a leaf
+    private final double[] nodeValue;    // threshold, or the leaf value
+    private final int[] nodeLeft;
+    private final int[] nodeRight;
+    private final boolean[] nodeMissingLeft;
+
+    private FallbackRiskModel(Writer writer) {
+        int features = writer.featureNames.size();
+        int targets = writer.targets.size();
+        this.version = writer.version;
+        this.featureNames = Collections.unmodifiableList(new ArrayList<>(writer.featureNames));
+        this.imputation = writer.imputation.stream().mapToDouble(Double::doubleValue).toArray();
+        List<String> names = new ArrayList<>(targets);
+        this.links = new Link[targets];
+        this.scales = new double[targets];
+        this.biases = new double[targets];
+        this.weights = new double[targets * features];
+        this.treeOffsets = new int[targets + 1];
+
+        int treeCount = 0;
+        int nodeCount = 0;
+        for (Writer.Target target : writer.targets) {
+            treeCount += target.trees.size();
+            for (Writer.Tree tree : target.trees) {
+                nodeCount += tree.size();
+            }
+        }
+        this.treeRoots = new int[treeCount];
+        this.nodeFeature = new int[nodeCount];
+        this.nodeValue = new double[nodeCount];
+        this.nodeLeft = new int[nodeCount];
+        this.nodeRight = new int[nodeCount];
+        this.nodeMissingLeft = new boolean[nodeCount];
+
+        int tree = 0;
+        int node = 0;
+        for (int t = 0; t < targets; t++) {
+            Writer.Target target = writer.targets.get(t);
+            names.add(target.name);
+            links[t] = target.link;
+            scales[t] = target.scale;
+            biases[t] = target.bias;
+            System.arraycopy(target.weights, 0, weights, t * features, features);
+            treeOffsets[t] = tree;
+            for (Writer.Tree source : target.trees) {
+                treeRoots[tree++] = node;
+                int base = node;
+                for (int i = 0; i < source.size(); i++, node++) {
+                    nodeFeature[node] = source.features.get(i);
+                    nodeValue[node] = source.values.get(i);
+                    nodeLeft[node] = base + source.lefts.get(i);
+                    nodeRight[node] = base + source.rights.get(i);
+                    nodeMissingLeft[node] = source.missingLeft.get(i);
+                }
+            }
+        }
+        treeOffsets[targets] = tree;
+        this.targetNames = Collections.unmodifiableList(names);
+    }
+
+    /**
+     * Read and validate a model file
+     */
+    public static FallbackRiskModel open(Path path) throws IOException {
+        return decode(Files.readAllBytes(path), path.toString());
+    }
+
+    static FallbackRiskModel decode(byte[] bytes, String source) throws IOException {
+        ByteBuffer header = ByteBuffer.wrap(bytes);
+        if (bytes.length < HEADER_BYTES || header.getInt(0) != MAGIC) {
+            throw new IOException("Not a fallback risk model: " + source);
+        }
+        if (header.getShort(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported fallback risk model format " + header.getShort(4) + ": " + source);
+        }
+        long version = header.getLong(6);
+        int payloadLength = header.getInt(14);
+        if (payloadLength != bytes.length - HEADER_BYTES) {
+            throw new IOException("Truncated fallback risk model (" + bytes.length + " of "
+                + ((long) HEADER_BYTES + payloadLength) + " bytes): " + source);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, HEADER_BYTES, payloadLength);
+        if ((int) crc.getValue() != header.getInt(18)) {
+            throw new IOException("Fallback risk model checksum mismatch: " + source);
+        }
+
+        try (DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(bytes, HEADER_BYTES, payloadLength))) {
+            int features = in.readUnsignedShort();
+            List<String> names = new ArrayList<>(features);
+            double[] imputation = new double[features];
+            for (int i = 0; i < features; i++) {
+                names.add(in.readUTF());
+                imputation[i] = in.readDouble();
+            }
+            Writer writer = writer(names).version(version);
+            for (int i = 0; i < features; i++) {
+                writer.imputation(names.get(i), imputation[i]);
+            }
+
+            int targets = in.readUnsignedShort();
+            for (int t = 0; t < targets; t++) {
+                String name = in.readUTF();
+                int link = in.readUnsignedByte();
+                if (link >= Link.values().length) {
+                    throw new IOException("Unknown link " + link + " for target " + name + ": " + source);
+                }
+                double scale = in.readDouble();
+                double bias = in.readDouble();
+                double[] weights = new double[features];
+                for (int i = 0; i < features; i++) {
+                    weights[i] = in.readDouble();
+                }
+                Writer.Target target = writer.target(name, Link.values()[link], scale, bias, weights);
+                int trees = in.readInt();
+                for (int k = 0; k < trees; k++) {
+                    Writer.Tree tree = target.tree();
+                    int nodes = in.readInt();
+                    for (int n = 0; n < nodes; n++) {
+                        int feature = in.readShort();
+                        double value = in.readDouble();
+                        int left = in.readInt();
+                        int right = in.readInt();
+                        boolean missingLeft = in.readBoolean();
+                        if (feature < 0) {
+                            tree.leaf(value);
+                        } else {
+                            tree.split(feature, value, left, right, missingLeft);
+                        }
+                    }
+                }
+            }
+            if (in.available() > 0) {
+                throw new IOException("Trailing bytes in fallback risk model: " + source);
+            }
+            return writer.build();
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid fallback risk model " + source + ": " + e.getMessage(), e);
+        }
+    }
+
+    public long getVersion() { return version; }
+    public List<String> getFeatureNames() { return featureNames; }
+    public List<String> getTargetNames() { return targetNames; }
+    public int getTreeCount() { return treeRoots.length; }
+    public int getNodeCount() { return nodeFeature.length; }
+
+    /**
+     * Score one feature vector (NaN = missing) into {@code out}, one value per target
+     */
+    public void score(double[] features, double[] out) {
+        score(features, 0, out, 0);
+    }
+
+    /**
+     * Score {@code rows} feature vectors stored row-major in {@code features};
+     * {@code out} receives the targets of each row in turn
+     */
+    public void scoreAll(double[] features, int rows, double[] out) {
+        int width = featureNames.size();
+        int targets = targetNames.size();
+        for (int row = 0; row < rows; row++) {
+            score(features, row * width, out, row * targets);
+        }
+    }
+
+    private void score(double[] features, int offset, double[] out, int outOffset) {
+        int width = featureNames.size();
+        for (int t = 0; t < links.length; t++) {
+            double z = biases[t];
+            int weightBase = t * width;
+            for (int f = 0; f < width; f++) {
+                double weight = weights[weightBase + f];
+                if (weight != 0) {
+                    double x = features[offset + f];
+                    z += weight * (Double.isNaN(x) ? imputation[f] : x);
+                }
+            }
+            for (int k = treeOffsets[t]; k < treeOffsets[t + 1]; k++) {
+                int node = treeRoots[k];
+                int feature;
+                while ((feature = nodeFeature[node]) >= 0) {
+                    double x = features[offset + feature];
+                    boolean left = Double.isNaN(x) ? nodeMissingLeft[node] : x < nodeValue[node];
+                    node = left ? nodeLeft[node] : nodeRight[node];
+                }
+                z += nodeValue[node];
+            }
+            out[outOffset + t] = scales[t] * (links[t] == Link.LOGISTIC ? 1 / (1 + Math.exp(-z)) : z);
+        }
+    }
+
+    public static Writer writer(List<String> featureNames) {
+        return new Writer(featureNames);
+    }
+
+    /**
+     * Builds a model in memory and writes it in the file format; training
+     * exporters produce files through this class
+     */
+    public static final class Writer {
+        private final List<String> featureNames;
+        private final List<Double> imputation = new ArrayList<>();
+        private final List<Target> targets = new ArrayList<>();
+        private long version = System.currentTimeMillis();
+
+        private Writer(List<String> featureNames) {
+            if (featureNames.isEmpty() || featureNames.size() > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("A model needs between 1 and " + Short.MAX_VALUE + " features");
+            }
+            if (featureNames.stream().distinct().count() != featureNames.size()) {
+                throw new IllegalArgumentException("Duplicate feature name");
+            }
+            this.featureNames = List.copyOf(featureNames);
+            featureNames.forEach(name -> imputation.add(0.0));
+        }
+
+        public Writer version(long version) {
+            this.version = version;
+            return this;
+        }
+
+        /**
+         * Value linear terms use when the feature is missing
+         */
+        public Writer imputation(String feature, double value) {
+            imputation.set(indexOf(feature), value);
+            return this;
+        }
+
+        public Target target(String name, Link link, double scale, double bias, double... weights) {
+            if (weights.length != featureNames.size()) {
+                throw new IllegalArgumentException("Expected " + featureNames.size() + " weights for " + name
+                    + " but got " + weights.length);
+            }
+            if (targets.stream().anyMatch(target -> target.name.equals(name))) {
+                throw new IllegalArgumentException("Duplicate target: " + name);
+            }
+            Target target = new Target(name, link, scale, bias, weights.clone());
+            targets.add(target);
+            return target;
+        }
+
+        public FallbackRiskModel build() {
+            if (targets.isEmpty()) {
+                throw new IllegalArgumentException("A model needs at least one target");
+            }
+            for (Target target : targets) {
+                for (Tree tree : target.trees) {
+                    tree.validate(featureNames.size());
+                }
+            }
+            return new FallbackRiskModel(this);
+        }
+
+        public byte[] toBytes() throws IOException {
+            build();
+            ByteArrayOutputStream payload = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(payload)) {
+                out.writeShort(featureNames.size());
+                for (int i = 0; i < featureNames.size(); i++) {
+                    out.writeUTF(featureNames.get(i));
+                    out.writeDouble(imputation.get(i));
+                }
+                out.writeShort(targets.size());
+                for (Target target : targets) {
+                    out.writeUTF(target.name);
+                    out.writeByte(target.link.ordinal());
+                    out.writeDouble(target.scale);
+                    out.writeDouble(target.bias);
+                    for (double weight : target.weights) {
+                        out.writeDouble(weight);
+                    }
+                    out.writeInt(target.trees.size());
+                    for (Tree tree : target.trees) {
+                        out.writeInt(tree.size());
+                        for (int i = 0; i < tree.size(); i++) {
+                            out.writeShort(tree.features.get(i));
+                            out.writeDouble(tree.values.get(i));
+                            out.writeInt(tree.lefts.get(i));
+                            out.writeInt(tree.rights.get(i));
+                            out.writeBoolean(tree.missingLeft.get(i));
+                        }
+                    }
+                }
+            }
+            byte[] body = payload.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            ByteBuffer file = ByteBuffer.allocate(HEADER_BYTES + body.length);
+            file.putInt(MAGIC).putShort(FORMAT_VERSION).putLong(version).putInt(body.length)
+                .putInt((int) crc.getValue()).put(body);
+            return file.array();
+        }
+
+        /**
+         * Write the model next to the target and atomically rename it into place
+         */
+        public void write(Path target) throws IOException {
+            byte[] bytes = toBytes();
+            Path directory = target.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+            try {
+                Files.write(temp, bytes);
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        private int indexOf(String feature) {
+            int index = featureNames.indexOf(feature);
+            if (index < 0) {
+                throw new IllegalArgumentException("Unknown feature: " + feature);
+            }
+            return index;
+        }
+
+        public final class Target {
+            private final String name;
+            private final Link link;
+            private final double scale;
+            private final double bias;
+            private final double[] weights;
+            private final List<Tree> trees = new ArrayList<>();
+
+            private Target(String name, Link link, double scale, double bias, double[] weights) {
+                this.name = name;
+                this.link = link;
+                this.scale = scale;
+                this.bias = bias;
+                this.weights = weights;
+            }
+
+            /**
+             * Set the weight of a named feature
+             */
+            public Target weight(String feature, double weight) {
+                weights[indexOf(feature)] = weight;
+                return this;
+            }
+
+            /**
+             * Add a tree; nodes are appended in order and node 0 is the root
+             */
+            public Tree tree() {
+                Tree tree = new Tree();
+                trees.add(tree);
+                return tree;
+            }
+
+            public Writer done() {
+                return Writer.this;
+            }
+        }
+
+        public static final class Tree {
+            private final List<Integer> features = new ArrayList<>();
+            private final List<Double> values = new ArrayList<>();
+            private final List<Integer> lefts = new ArrayList<>();
+            private final List<Integer> rights = new ArrayList<>();
+            private final List<Boolean> missingLeft = new ArrayList<>();
+
+            /**
+             * Append a split: rows with {@code feature < threshold} go to {@code left}
+             */
+            public Tree split(int feature, double threshold, int left, int right, boolean missingGoesLeft) {
+                if (feature < 0 || Double.isNaN(threshold)) {
+                    throw new IllegalArgumentException("Invalid split on feature " + feature);
+                }
+                return add(feature, threshold, left, right, missingGoesLeft);
+            }
+
+            public Tree leaf(double value) {
+                return add(-1, value, 0, 0, false);
+            }
+
+            private Tree add(int feature, double value, int left, int right, boolean missingGoesLeft) {
+                features.add(feature);
+                values.add(value);
+                lefts.add(left);
+                rights.add(right);
+                missingLeft.add(missingGoesLeft);
+                return this;
+            }
+
+            private int size() {
+                return features.size();
+            }
+
+            /**
+             * Children must come after their parent, which rules out cycles
+             */
+            private void validate(int featureCount) {
+                if (features.isEmpty()) {
+                    throw new IllegalArgumentException("Empty tree");
+                }
+                boolean[] reached = new boolean[size()];
+                reached[0] = true;
+                for (int i = 0; i < size(); i++) {
+                    int feature = features.get(i);
+                    if (feature < 0) {
+                        continue;
+                    }
+                    if (feature >= featureCount) {
+                        throw new IllegalArgumentException("Split on unknown feature " + feature);
+                    }
+                    for (int child : Arrays.asList(lefts.get(i), rights.get(i))) {
+                        if (child <= i || child >= size()) {
+                            throw new IllegalArgumentException("Node " + i + " has invalid child " + child);
+                        }
+                        reached[child] = true;
+                    }
+                }
+                for (boolean node : reached) {
+                    if (!node) {
+                        throw new IllegalArgumentException("Tree has unreachable nodes");
+                    }
+                }
+            }
+        }
+    }
+}
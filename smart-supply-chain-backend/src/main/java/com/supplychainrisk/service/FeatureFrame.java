@@ -0,0 +1,166 @@
+package com.supplychainrisk.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+
+/**
+ * Columnar, primitive view of a list of data point maps.
+ *
+ * Built in a single pass over the source rows: every requested feature becomes
+ * a {@code double[]} with a presence bitmap (a value is present when the source
+ * map held a {@link Number} for it) and a {@link StreamingStatistics} fed in
+ * row order, and the number of non-null map values is counted for completeness
+ * scoring. Large inputs are split into 64-row aligned chunks that are filled in
+ * parallel and whose statistics are combined in order.
+ */
+public final class FeatureFrame {
+
+    // Chunks are a multiple of 64 rows so no two chunks share a bitmap word
+    private static final int CHUNK_ROWS = 8192;
+    private static final int PARALLEL_THRESHOLD = 4 * CHUNK_ROWS;
+
+    private final int rows;
+    private final long nonNullValues;
+    private final Map<String, Column> columns;
+
+    private FeatureFrame(int rows, long nonNullValues, Map<String, Column> columns) {
+        this.rows = rows;
+        this.nonNullValues = nonNullValues;
+        this.columns = columns;
+    }
+
+    public static FeatureFrame of(List<? extends Map<String, ?>> data, String... features) {
+        List<? extends Map<String, ?>> rowsList = data instanceof RandomAccess ? data : new ArrayList<>(data);
+        int rows = rowsList.size();
+        double[][] values = new double[features.length][rows];
+        long[][] present = new long[features.length][words(rows)];
+
+        int chunks = (rows + CHUNK_ROWS - 1) / CHUNK_ROWS;
+        IntStream chunkIndexes = IntStream.range(0, chunks);
+        if (rows >= PARALLEL_THRESHOLD) {
+            chunkIndexes = chunkIndexes.parallel();
+        }
+        Chunk merged = chunkIndexes
+            .mapToObj(chunk -> fill(rowsList, features, values, present, chunk * CHUNK_ROWS,
+                Math.min(rows, (chunk + 1) * CHUNK_ROWS)))
+            .reduce(Chunk::combine)
+            .orElseGet(() -> new Chunk(features.length));
+
+        Map<String, Column> columns = new LinkedHashMap<>();
+        for (int f = 0; f < features.length; f++) {
+            columns.put(features[f], new Column(values[f], present[f], merged.statistics[f]));
+        }
+        return new FeatureFrame(rows, merged.nonNullValues, Collections.unmodifiableMap(columns));
+    }
+
+    private static Chunk fill(List<? extends Map<String, ?>> data, String[] features, double[][] values,
+                              long[][] present, int from, int to) {
+        Chunk chunk = new Chunk(features.length);
+        for (int row = from; row < to; row++) {
+            Map<String, ?> record = data.get(row);
+            for (int f = 0; f < features.length; f++) {
+                Object value = record.get(features[f]);
+                if (value instanceof Number) {
+                    double number = ((Number) value).doubleValue();
+                    values[f][row] = number;
+                    present[f][row >>> 6] |= 1L << row;
+                    chunk.statistics[f].accept(number);
+                } else {
+                    chunk.statistics[f].acceptNull();
+                }
+            }
+            for (Object value : record.values()) {
+                if (value != null) {
+                    chunk.nonNullValues++;
+                }
+            }
+        }
+        return chunk;
+    }
+
+    private static int words(int rows) {
+        return (rows + 63) >>> 6;
+    }
+
+    /**
+     * Per-chunk accumulators, combined in row order
+     */
+    private static final class Chunk {
+        final StreamingStatistics[] statistics;
+        long nonNullValues;
+
+        Chunk(int features) {
+            statistics = new StreamingStatistics[features];
+            for (int f = 0; f < features; f++) {
+                statistics[f] = new StreamingStatistics();
+            }
+        }
+
+        Chunk combine(Chunk next) {
+            for (int f = 0; f < statistics.length; f++) {
+                statistics[f].combine(next.statistics[f]);
+            }
+            nonNullValues += next.nonNullValues;
+            return this;
+        }
+    }
+
+    public int getRows() { return rows; }
+
+    /**
+     * Non-null values across all keys of all source rows
+     */
+    public long getNonNullValues() { return nonNullValues; }
+
+    public Map<String, Column> getColumns() { return columns; }
+
+    public Column column(String feature) {
+        Column column = columns.get(feature);
+        if (column == null) {
+            throw new IllegalArgumentException("Feature not in frame: " + feature);
+        }
+        return column;
+    }
+
+    /**
+     * One numeric feature: values by row, a bitmap of the rows that have one, and their statistics
+     */
+    public static final class Column {
+        private final double[] values;
+        private final long[] present;
+        private final StreamingStatistics statistics;
+
+        private Column(double[] values, long[] present, StreamingStatistics statistics) {
+            this.values = values;
+            this.present = present;
+            this.statistics = statistics;
+        }
+
+        public boolean isPresent(int row) {
+            return (present[row >>> 6] & (1L << row)) != 0;
+        }
+
+        /**
+         * Value at a row; 0 when absent, so check {@link #isPresent} first
+         */
+        public double get(int row) {
+            return values[row];
+        }
+
+        public long count() {
+            return statistics.getCount();
+        }
+
+        /**
+         * Statistics over the rows in order, with absent rows as missing observations
+         */
+        public StreamingStatistics statistics() {
+            return statistics.copy();
+        }
+    }
+}
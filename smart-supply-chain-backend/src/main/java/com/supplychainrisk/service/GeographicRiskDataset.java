@@ -0,0 +1,463 @@
+package com.supplychainrisk.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Read-only, memory-mapped country/admin-region risk dataset.
+ *
+ * File layout (big-endian):
+ * <pre>
+ *   header   magic "GEOR", format version, factor count, row count, slot count,
+ *            dataset version, factor-name section length, CRC32 of everything after the header
+ *   names    factor names as (u2 length, UTF-8 bytes), padded to 8 bytes
+ *   keys     long[slots]  open-addressing table, 0 = empty slot
+ *   refs     int[slots]   row index for each occupied slot
+ *   codes    long[rows]   packed ISO code of each row
+ *   values   byte[rows * (1 + factors)]  composite score then factor scores, 0-100, 0xFF = missing
+ * </pre>
+ * Keys are either a packed ISO code ("DE", "US-CA": up to 8 ASCII characters, one per byte,
+ * left-aligned) or a 64-bit hash of a normalized name alias with the
+ * sign bit set, so codes and names share one table and a lookup is a single probe sequence.
+ * Nothing but the header is copied onto the heap; instances are immutable and thread-safe.
+ *
+ * Files are produced by {@link Writer}, which writes to a temporary file and renames it
+ * over the target so a mapped file is never modified in place.
+ */
+public final class GeographicRiskDataset {
+
+    static final int MAGIC = 0x47454F52; // "GEOR"
+    static final short FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 40;
+    public static final int MAX_FACTORS = 32;
+    private static final int MISSING = 0xFF;
+    private static final int MAX_CODE_LENGTH = 8;
+    private static final long NAME_KEY_FLAG = Long.MIN_VALUE;
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final long version;
+    private final List<String> factorNames;
+    private final int rowCount;
+    private final int slotMask;
+    private final int keysOffset;
+    private final int refsOffset;
+    private final int codesOffset;
+    private final int valuesOffset;
+    private final int rowWidth;
+
+    private GeographicRiskDataset(Path path, ByteBuffer buffer) throws IOException {
+        this.path = path;
+        this.buffer = buffer;
+
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a geographic risk dataset: " + path);
+        }
+        if (buffer.getShort(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported geographic risk dataset format " + buffer.getShort(4) + ": " + path);
+        }
+        int factorCount = buffer.getShort(6);
+        this.rowCount = buffer.getInt(8);
+        int slotCount = buffer.getInt(12);
+        this.version = buffer.getLong(16);
+        int namesLength = buffer.getInt(24);
+        int expectedCrc = buffer.getInt(28);
+
+        if (factorCount < 0 || factorCount > MAX_FACTORS || rowCount < 0 || slotCount <= 0
+                || Integer.bitCount(slotCount) != 1 || slotCount < rowCount || namesLength < 0) {
+            throw new IOException("Corrupt geographic risk dataset header: " + path);
+        }
+        this.slotMask = slotCount - 1;
+        this.rowWidth = 1 + factorCount;
+        this.keysOffset = HEADER_BYTES + namesLength;
+        this.refsOffset = keysOffset + slotCount * Long.BYTES;
+        this.codesOffset = refsOffset + slotCount * Integer.BYTES;
+        this.valuesOffset = codesOffset + rowCount * Long.BYTES;
+        long expectedSize = (long) valuesOffset + (long) rowCount * rowWidth;
+        if (expectedSize != buffer.capacity()) {
+            throw new IOException("Truncated geographic risk dataset (" + buffer.capacity() + " of "
+                + expectedSize + " bytes): " + path);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(HEADER_BYTES));
+        if ((int) crc.getValue() != expectedCrc) {
+            throw new IOException("Geographic risk dataset checksum mismatch: " + path);
+        }
+
+        List<String> names = new ArrayList<>(factorCount);
+        int position = HEADER_BYTES;
+        for (int i = 0; i < factorCount; i++) {
+            int length = buffer.getShort(position) & 0xFFFF;
+            byte[] bytes = new byte[length];
+            buffer.get(position + 2, bytes);
+            names.add(new String(bytes, StandardCharsets.UTF_8));
+            position += 2 + length;
+        }
+        this.factorNames = Collections.unmodifiableList(names);
+    }
+
+    /**
+     * Map a dataset file read-only and validate its header, bounds and checksum
+     */
+    public static GeographicRiskDataset open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Geographic risk dataset too large: " + path);
+            }
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new GeographicRiskDataset(path, mapped);
+        }
+    }
+
+    public Path getPath() { return path; }
+    public long getVersion() { return version; }
+    public List<String> getFactorNames() { return factorNames; }
+    public int size() { return rowCount; }
+    public long getSizeInBytes() { return buffer.capacity(); }
+
+    /**
+     * Row for a packed code or name key, or -1
+     */
+    public int findRow(long key) {
+        if (key == 0) {
+            return -1;
+        }
+        int slot = mix(key) & slotMask;
+        long stored;
+        while ((stored = buffer.getLong(keysOffset + slot * Long.BYTES)) != 0) {
+            if (stored == key) {
+                return buffer.getInt(refsOffset + slot * Integer.BYTES);
+            }
+            slot = (slot + 1) & slotMask;
+        }
+        return -1;
+    }
+
+    /**
+     * Packed ISO code of a row
+     */
+    public long code(int row) {
+        return buffer.getLong(codesOffset + row * Long.BYTES);
+    }
+
+    /**
+     * Composite geographic score of a row (0-100), or -1 if the dataset leaves it blank
+     */
+    public int score(int row) {
+        return value(row, 0);
+    }
+
+    /**
+     * Score for one factor column (0-100), or -1 if missing
+     */
+    public int factor(int row, int factor) {
+        return value(row, 1 + factor);
+    }
+
+    private int value(int row, int column) {
+        int value = buffer.get(valuesOffset + row * rowWidth + column) & 0xFF;
+        return value == MISSING ? -1 : value;
+    }
+
+    /**
+     * Factor scores of a row by factor name; missing factors are omitted
+     */
+    public Map<String, Integer> factors(int row) {
+        Map<String, Integer> factors = new LinkedHashMap<>();
+        for (int i = 0; i < factorNames.size(); i++) {
+            int value = factor(row, i);
+            if (value >= 0) {
+                factors.put(factorNames.get(i), value);
+            }
+        }
+        return factors;
+    }
+
+    // ----- Keys -----
+
+    /**
+     * Pack an ISO 3166 code such as "DE" or "US-CA" (case-insensitive, trimmed), or 0 if it is not a code
+     */
+    public static long codeKey(CharSequence code) {
+        return appendCode(0L, code, 0, code.length());
+    }
+
+    /**
+     * Pack "COUNTRY-REGION" from a packed country code and a subdivision code, or 0
+     */
+    public static long regionCodeKey(long countryCode, CharSequence region) {
+        if (countryCode == 0) {
+            return 0;
+        }
+        int length = codeLength(countryCode);
+        if (length + 2 > MAX_CODE_LENGTH) {
+            return 0;
+        }
+        long withSeparator = countryCode | ((long) '-' << (8 * (MAX_CODE_LENGTH - 1 - length)));
+        return appendCode(withSeparator, region, 0, region.length());
+    }
+
+    /**
+     * Key for a name alias within a country; a 0 country code means a country-level name
+     */
+    public static long nameKey(long countryCode, CharSequence name) {
+        // 64-bit FNV-1a over the country code bytes, then the trimmed, lower-cased,
+        // whitespace-collapsed name
+        long hash = 0xcbf29ce484222325L;
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            hash = (hash ^ ((countryCode >>> shift) & 0xFF)) * 0x100000001b3L;
+        }
+        hash = (hash ^ '|') * 0x100000001b3L;
+
+        int start = 0;
+        int end = name.length();
+        while (start < end && Character.isWhitespace(name.charAt(start))) start++;
+        while (end > start && Character.isWhitespace(name.charAt(end - 1))) end--;
+        if (start == end) {
+            return 0;
+        }
+        boolean pendingSpace = false;
+        for (int i = start; i < end; i++) {
+            char c = name.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                continue;
+            }
+            if (pendingSpace) {
+                hash = (hash ^ ' ') * 0x100000001b3L;
+                pendingSpace = false;
+            }
+            hash = (hash ^ Character.toLowerCase(c)) * 0x100000001b3L;
+        }
+        return hash | NAME_KEY_FLAG;
+    }
+
+    /**
+     * Unpack a code key back into "DE" / "US-CA"
+     */
+    public static String codeString(long code) {
+        StringBuilder result = new StringBuilder(MAX_CODE_LENGTH);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            char c = (char) ((code >>> shift) & 0xFF);
+            if (c == 0) {
+                break;
+            }
+            result.append(c);
+        }
+        return result.toString();
+    }
+
+    /**
+     * The country part of a packed code ("US" for "US-CA")
+     */
+    public static long countryCode(long code) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            if (((code >>> shift) & 0xFF) == '-') {
+                return code & ~(-1L >>> (56 - shift));
+            }
+        }
+        return code;
+    }
+
+    private static long appendCode(long prefix, CharSequence code, int start, int end) {
+        while (start < end && code.charAt(start) <= ' ') start++;
+        while (end > start && code.charAt(end - 1) <= ' ') end--;
+        int offset = prefix == 0 ? 0 : codeLength(prefix);
+        if (start == end || offset + (end - start) > MAX_CODE_LENGTH) {
+            return 0;
+        }
+        long key = prefix;
+        for (int i = start; i < end; i++, offset++) {
+            char c = code.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                c -= 'a' - 'A';
+            }
+            boolean valid = (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || (c == '-' && prefix == 0 && i > start);
+            if (!valid) {
+                return 0;
+            }
+            key |= (long) c << (8 * (MAX_CODE_LENGTH - 1 - offset));
+        }
+        return key;
+    }
+
+    private static int codeLength(long code) {
+        return MAX_CODE_LENGTH - Long.numberOfTrailingZeros(code) / 8;
+    }
+
+    private static int mix(long key) {
+        // MurmurHash3 fmix64 finalizer; packed codes differ only in a few bytes
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    public static Writer writer(List<String> factorNames) {
+        return new Writer(factorNames);
+    }
+
+    /**
+     * Builds a dataset file from rows and name aliases
+     */
+    public static final class Writer {
+        private final List<String> factorNames;
+        private final List<Long> codes = new ArrayList<>();
+        private final List<byte[]> values = new ArrayList<>();
+        private final Map<Long, Integer> keys = new LinkedHashMap<>();
+        private long version = System.currentTimeMillis();
+
+        private Writer(List<String> factorNames) {
+            if (factorNames.size() > MAX_FACTORS) {
+                throw new IllegalArgumentException("At most " + MAX_FACTORS + " factor columns are supported");
+            }
+            this.factorNames = List.copyOf(factorNames);
+        }
+
+        public Writer version(long version) {
+            this.version = version;
+            return this;
+        }
+
+        /**
+         * Add a country ("DE") or region ("US-CA") row; null scores are stored as missing
+         */
+        public Writer add(String isoCode, Integer score, Integer... factors) {
+            long code = codeKey(isoCode);
+            if (code == 0 || isoCode.trim().startsWith("-") || isoCode.trim().endsWith("-")) {
+                throw new IllegalArgumentException("Invalid ISO code: " + isoCode);
+            }
+            if (factors.length != factorNames.size()) {
+                throw new IllegalArgumentException("Expected " + factorNames.size() + " factors for " + isoCode
+                    + " but got " + factors.length);
+            }
+            if (keys.containsKey(code)) {
+                throw new IllegalArgumentException("Duplicate ISO code: " + isoCode);
+            }
+            byte[] row = new byte[1 + factors.length];
+            row[0] = encode(score, isoCode);
+            for (int i = 0; i < factors.length; i++) {
+                row[1 + i] = encode(factors[i], isoCode);
+            }
+            keys.put(code, codes.size());
+            codes.add(code);
+            values.add(row);
+            return this;
+        }
+
+        /**
+         * Let a name ("Germany", or "California" within "US") resolve to an existing row
+         */
+        public Writer alias(String name, String isoCode) {
+            long code = codeKey(isoCode);
+            Integer row = keys.get(code);
+            if (row == null) {
+                throw new IllegalArgumentException("Alias " + name + " refers to unknown ISO code " + isoCode);
+            }
+            long country = countryCode(code);
+            long key = nameKey(country == code ? 0 : country, name);
+            if (key == 0) {
+                throw new IllegalArgumentException("Blank alias for " + isoCode);
+            }
+            Integer existing = keys.putIfAbsent(key, row);
+            if (existing != null && !existing.equals(row)) {
+                throw new IllegalArgumentException("Alias " + name + " is ambiguous");
+            }
+            return this;
+        }
+
+        /**
+         * Write the dataset next to the target and atomically rename it into place
+         */
+        public void write(Path target) throws IOException {
+            int slotCount = Integer.highestOneBit(Math.max(4, keys.size() * 2) - 1) << 1;
+            long[] slotKeys = new long[slotCount];
+            int[] slotRefs = new int[slotCount];
+            for (Map.Entry<Long, Integer> entry : keys.entrySet()) {
+                int slot = mix(entry.getKey()) & (slotCount - 1);
+                while (slotKeys[slot] != 0) {
+                    slot = (slot + 1) & (slotCount - 1);
+                }
+                slotKeys[slot] = entry.getKey();
+                slotRefs[slot] = entry.getValue();
+            }
+
+            List<byte[]> encodedNames = new ArrayList<>();
+            int namesLength = 0;
+            for (String name : factorNames) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                if (bytes.length > 0xFFFF) {
+                    throw new IllegalArgumentException("Factor name too long");
+                }
+                encodedNames.add(bytes);
+                namesLength += 2 + bytes.length;
+            }
+            namesLength = (namesLength + 7) & ~7;
+
+            int rowWidth = 1 + factorNames.size();
+            long size = (long) HEADER_BYTES + namesLength + (long) slotCount * (Long.BYTES + Integer.BYTES)
+                + (long) codes.size() * (Long.BYTES + rowWidth);
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Dataset too large");
+            }
+            ByteBuffer out = ByteBuffer.allocate((int) size);
+            out.position(HEADER_BYTES);
+            for (byte[] bytes : encodedNames) {
+                out.putShort((short) bytes.length).put(bytes);
+            }
+            out.position(HEADER_BYTES + namesLength);
+            for (long key : slotKeys) out.putLong(key);
+            for (int ref : slotRefs) out.putInt(ref);
+            for (long code : codes) out.putLong(code);
+            for (byte[] row : values) out.put(row);
+
+            CRC32 crc = new CRC32();
+            crc.update(out.array(), HEADER_BYTES, out.capacity() - HEADER_BYTES);
+            out.putInt(0, MAGIC)
+                .putShort(4, FORMAT_VERSION)
+                .putShort(6, (short) factorNames.size())
+                .putInt(8, codes.size())
+                .putInt(12, slotCount)
+                .putLong(16, version)
+                .putInt(24, namesLength)
+                .putInt(28, (int) crc.getValue());
+
+            Path directory = target.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+            try {
+                Files.write(temp, out.array());
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        private static byte encode(Integer score, String isoCode) {
+            if (score == null) {
+                return (byte) MISSING;
+            }
+            if (score < 0 || score > 100) {
+                throw new IllegalArgumentException("Score out of range 0-100 for " + isoCode + ": " + score);
+            }
+            return score.byteValue();
+        }
+    }
+}
@@ -0,0 +1,411 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.exception.BusinessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves geographic risk scores from a memory-mapped {@link GeographicRiskDataset}.
+ *
+ * The dataset at {@code geo.risk.dataset.path} is mapped at startup and re-mapped when
+ * the file changes; the new mapping is swapped in with a single volatile write, so
+ * scoring threads never block and the heap holds only the header and a small cache of
+ * interned supplier country strings. Suppliers whose country is not covered fall back
+ * to the country tiers of the active risk model.
+ *
+ * A dataset loaded after startup, whether the first one or a new version, starts a
+ * geographic rescore. If a recalculation job is running at the time, the rescore is
+ * kept pending and started by the first poll after the job has finished.
+ */
+@Service
+public class GeographicRiskDatasetService implements CompiledRiskScorer.GeographicOverlay {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeographicRiskDatasetService.class);
+
+    // Distinct supplier country spellings are few; cap the cache against free-text input
+    private static final int MAX_INTERNED_COUNTRIES = 10_000;
+
+    private static final Map<String, String> ISO_ALPHA2_BY_NAME = isoAlpha2ByName();
+
+    @Autowired
+    @Lazy
+    private RiskRecalculationJobService recalculationJobService;
+
+    @Value("${geo.risk.dataset.path:}")
+    private String datasetPath;
+
+    @Value("${geo.risk.dataset.rescore-on-swap:true}")
+    private boolean rescoreOnSwap;
+
+    private volatile LoadedDataset current;
+    private volatile Object loadedFileStamp;
+    private volatile boolean rescorePending;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        checkDatasetFile(false);
+    }
+
+    /**
+     * Re-map the dataset when the file has been replaced
+     */
+    @Scheduled(fixedDelayString = "${geo.risk.dataset.refresh-interval-ms:30000}",
+               initialDelayString = "${geo.risk.dataset.refresh-interval-ms:30000}")
+    public void refresh() {
+        checkDatasetFile(rescoreOnSwap);
+        if (rescorePending) {
+            retryPendingRescore();
+        }
+    }
+
+    /**
+     * Re-map the dataset file now, even if it looks unchanged
+     */
+    public synchronized Map<String, Object> reload() {
+        Path path = requireDatasetPath();
+        if (!Files.exists(path)) {
+            throw new BusinessException(HttpStatus.NOT_FOUND, "GEO_DATASET_NOT_FOUND",
+                "Geographic risk dataset file does not exist: " + path);
+        }
+        try {
+            swap(path, fileStamp(path), rescoreOnSwap);
+        } catch (IOException e) {
+            throw new BusinessException(HttpStatus.UNPROCESSABLE_ENTITY, "INVALID_GEO_DATASET", e.getMessage());
+        }
+        return getStatus();
+    }
+
+    /**
+     * Convert CSV rows ({@code iso_code,name,score,<factor>...}) into a dataset file and swap it in
+     */
+    public synchronized Map<String, Object> importCsv(BufferedReader reader) {
+        Path path = requireDatasetPath();
+        try {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new IllegalArgumentException("CSV is empty");
+            }
+            List<String> columns = splitCsvLine(header);
+            if (columns.size() < 3) {
+                throw new IllegalArgumentException("Expected columns iso_code,name,score followed by factor columns");
+            }
+            GeographicRiskDataset.Writer writer = GeographicRiskDataset.writer(columns.subList(3, columns.size()));
+            Map<String, String> aliases = new LinkedHashMap<>();
+            String line;
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> cells = splitCsvLine(line);
+                if (cells.size() != columns.size()) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": expected " + columns.size()
+                        + " columns but found " + cells.size());
+                }
+                Integer[] factors = new Integer[columns.size() - 3];
+                for (int i = 0; i < factors.length; i++) {
+                    factors[i] = parseScore(cells.get(3 + i), lineNumber);
+                }
+                writer.add(cells.get(0), parseScore(cells.get(2), lineNumber), factors);
+                if (!cells.get(1).isBlank()) {
+                    aliases.put(cells.get(1), cells.get(0));
+                }
+            }
+            aliases.forEach(writer::alias);
+            writer.write(path);
+            swap(path, fileStamp(path), rescoreOnSwap);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "INVALID_GEO_DATASET", e.getMessage());
+        } catch (IOException e) {
+            throw new BusinessException(HttpStatus.INTERNAL_SERVER_ERROR, "GEO_DATASET_WRITE_FAILED",
+                "Could not write geographic risk dataset: " + e.getMessage());
+        }
+        return getStatus();
+    }
+
+    public Map<String, Object> getStatus() {
+        LoadedDataset loaded = current;
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("path", datasetPath);
+        status.put("loaded", loaded != null);
+        if (loaded != null) {
+            status.put("version", loaded.dataset.getVersion());
+            status.put("rows", loaded.dataset.size());
+            status.put("factors", loaded.dataset.getFactorNames());
+            status.put("mappedBytes", loaded.dataset.getSizeInBytes());
+            status.put("internedCountries", loaded.countryCodes.size());
+            status.put("loadedAt", loaded.loadedAt);
+        }
+        status.put("rescorePending", rescorePending);
+        return status;
+    }
+
+    /**
+     * Dataset row for a country and optional region, including factor breakdown
+     */
+    public Map<String, Object> lookup(String country, String region) {
+        LoadedDataset loaded = current;
+        if (loaded == null) {
+            throw new BusinessException(HttpStatus.SERVICE_UNAVAILABLE, "GEO_DATASET_NOT_LOADED",
+                "No geographic risk dataset is loaded");
+        }
+        int row = loaded.findRow(country, region);
+        if (row < 0) {
+            throw new BusinessException(HttpStatus.NOT_FOUND, "GEO_RISK_NOT_FOUND",
+                "No geographic risk data for " + country + (region != null ? " / " + region : ""));
+        }
+        GeographicRiskDataset dataset = loaded.dataset;
+        long code = dataset.code(row);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("isoCode", GeographicRiskDataset.codeString(code));
+        result.put("regionMatched", GeographicRiskDataset.countryCode(code) != code);
+        result.put("score", dataset.score(row));
+        result.put("factors", dataset.factors(row));
+        result.put("datasetVersion", dataset.getVersion());
+        return result;
+    }
+
+    /**
+     * Dataset score for the supplier's country/region, or -1 to use the model's country tiers
+     */
+    @Override
+    public int geographicScore(String country, String stateProvince) {
+        LoadedDataset loaded = current;
+        if (loaded == null || country == null) {
+            return -1;
+        }
+        int row = loaded.findRow(country, stateProvince);
+        return row < 0 ? -1 : loaded.dataset.score(row);
+    }
+
+    public boolean isLoaded() {
+        return current != null;
+    }
+
+    private synchronized void checkDatasetFile(boolean rescore) {
+        if (datasetPath == null || datasetPath.isBlank()) {
+            return;
+        }
+        Path path = Paths.get(datasetPath);
+        try {
+            if (!Files.exists(path)) {
+                return;
+            }
+            Object stamp = fileStamp(path);
+            if (stamp.equals(loadedFileStamp)) {
+                return;
+            }
+            swap(path, stamp, rescore);
+        } catch (IOException e) {
+            logger.error("Rejected geographic risk dataset {}: {}", path, e.getMessage());
+            // Do not retry the same broken file on every poll
+            try {
+                loadedFileStamp = fileStamp(path);
+            } catch (IOException ignored) {
+                // retried on the next poll
+            }
+        }
+    }
+
+    private void swap(Path path, Object stamp, boolean rescore) throws IOException {
+        GeographicRiskDataset dataset = GeographicRiskDataset.open(path);
+        LoadedDataset previous = current;
+        current = new LoadedDataset(dataset);
+        loadedFileStamp = stamp;
+        logger.info("Mapped geographic risk dataset {} version {} ({} rows, {} factors, {} bytes)",
+            path, dataset.getVersion(), dataset.size(), dataset.getFactorNames().size(), dataset.getSizeInBytes());
+
+        // Before the first dataset, stored geographic scores came from the model's country tiers
+        if (rescore && (previous == null || previous.dataset.getVersion() != dataset.getVersion())) {
+            startRescore();
+        }
+    }
+
+    private synchronized void retryPendingRescore() {
+        if (rescorePending) {
+            startRescore();
+        }
+    }
+
+    private void startRescore() {
+        if (recalculationJobService.isRunning()) {
+            rescorePending = true;
+            logger.info("Risk recalculation already running; geographic rescore starts once it has finished");
+            return;
+        }
+        try {
+            recalculationJobService.startModelRescore(
+                EnumSet.of(RiskAssessmentService.RiskComponent.GEOGRAPHIC), null, null);
+            rescorePending = false;
+        } catch (BusinessException e) {
+            if (e.getStatus() != HttpStatus.CONFLICT) {
+                throw e;
+            }
+            // A job started between the check and the start
+            rescorePending = true;
+        }
+    }
+
+    private Path requireDatasetPath() {
+        if (datasetPath == null || datasetPath.isBlank()) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "GEO_DATASET_NOT_CONFIGURED",
+                "Set geo.risk.dataset.path to use a geographic risk dataset");
+        }
+        return Paths.get(datasetPath);
+    }
+
+    private static Object fileStamp(Path path) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        // The file key changes when a new file is renamed over the old one
+        return Arrays.asList(attributes.fileKey(), attributes.lastModifiedTime(), attributes.size());
+    }
+
+    private static Integer parseScore(String cell, int lineNumber) {
+        if (cell.isBlank()) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(cell.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": not a score: " + cell);
+        }
+    }
+
+    static List<String> splitCsvLine(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString().trim());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString().trim());
+        return cells;
+    }
+
+    /**
+     * English country names and ISO alpha-3 codes mapped to alpha-2, for free-text supplier countries
+     */
+    private static Map<String, String> isoAlpha2ByName() {
+        Map<String, String> names = new HashMap<>();
+        for (String alpha2 : Locale.getISOCountries()) {
+            Locale locale = new Locale("", alpha2);
+            names.put(locale.getDisplayCountry(Locale.ENGLISH).toLowerCase(Locale.ROOT), alpha2);
+            try {
+                names.put(locale.getISO3Country().toLowerCase(Locale.ROOT), alpha2);
+            } catch (MissingResourceException e) {
+                // no alpha-3 code for this entry
+            }
+        }
+        names.put("usa", "US");
+        names.put("united states of america", "US");
+        names.put("uk", "GB");
+        names.put("great britain", "GB");
+        names.put("england", "GB");
+        names.put("south korea", "KR");
+        names.put("north korea", "KP");
+        names.put("russian federation", "RU");
+        names.put("czech republic", "CZ");
+        names.put("uae", "AE");
+        names.put("viet nam", "VN");
+        names.put("iran, islamic republic of", "IR");
+        return Collections.unmodifiableMap(names);
+    }
+
+    /**
+     * A mapped dataset with the country spellings resolved against it
+     */
+    static final class LoadedDataset {
+        final GeographicRiskDataset dataset;
+        final Map<String, Long> countryCodes = new ConcurrentHashMap<>();
+        final LocalDateTime loadedAt = LocalDateTime.now();
+
+        LoadedDataset(GeographicRiskDataset dataset) {
+            this.dataset = dataset;
+        }
+
+        /**
+         * Region row if the dataset has one, else the country row, else -1
+         */
+        int findRow(String country, String region) {
+            long countryCode = countryCode(country);
+            if (countryCode == 0) {
+                return -1;
+            }
+            if (region != null && !region.isBlank()) {
+                int row = dataset.findRow(GeographicRiskDataset.regionCodeKey(countryCode, region));
+                if (row < 0) {
+                    row = dataset.findRow(GeographicRiskDataset.nameKey(countryCode, region));
+                }
+                if (row >= 0) {
+                    return row;
+                }
+            }
+            return dataset.findRow(countryCode);
+        }
+
+        /**
+         * Interned country spelling → packed alpha-2 code, 0 if unknown
+         */
+        long countryCode(String country) {
+            Long cached = countryCodes.get(country);
+            if (cached != null) {
+                return cached;
+            }
+            long code = resolveCountryCode(country);
+            if (countryCodes.size() < MAX_INTERNED_COUNTRIES) {
+                countryCodes.put(country, code);
+            }
+            return code;
+        }
+
+        private long resolveCountryCode(String country) {
+            // Names and codes listed in the dataset win over the JDK country list
+            int row = dataset.findRow(GeographicRiskDataset.nameKey(0, country));
+            if (row >= 0) {
+                return GeographicRiskDataset.countryCode(dataset.code(row));
+            }
+            String trimmed = country.trim();
+            if (trimmed.length() == 2) {
+                return GeographicRiskDataset.codeKey(trimmed);
+            }
+            String alpha2 = ISO_ALPHA2_BY_NAME.get(trimmed.replaceAll("\\s+", " ").toLowerCase(Locale.ROOT));
+            return alpha2 != null ? GeographicRiskDataset.codeKey(alpha2) : 0;
+        }
+    }
+}
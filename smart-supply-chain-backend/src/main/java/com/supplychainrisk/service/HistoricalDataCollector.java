@@ -0,0 +1,317 @@
+package com.supplychainrisk.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Streams supplier data points for predictive analytics straight from the
+ * suppliers table.
+ *
+ * Rows are read with a plain JDBC projection in keyset pages (or chunked
+ * {@code IN} lists for explicit supplier ids), so no entities are hydrated
+ * and the persistence context does not grow with the supplier count. Equality
+ * filters whose Java semantics match SQL equality are pushed into the WHERE
+ * clause; the rest are checked per row before a data point is emitted. Each
+ * data point is a compact fixed-key map handed to the sink as soon as it is read.
+ */
+@Component
+public class HistoricalDataCollector {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoricalDataCollector.class);
+
+    /**
+     * Data point keys, their source column and the Java type the data point holds
+     */
+    enum Field {
+        SUPPLIER_ID("supplier_id", "id", Long.class),
+        TIMESTAMP("timestamp", null, LocalDateTime.class),
+        RISK_SCORE("risk_score", "overall_risk_score", Integer.class),
+        FINANCIAL_RISK("financial_risk", "financial_risk_score", Integer.class),
+        OPERATIONAL_RISK("operational_risk", "operational_risk_score", Integer.class),
+        COMPLIANCE_RISK("compliance_risk", "compliance_risk_score", Integer.class),
+        GEOGRAPHIC_RISK("geographic_risk", "geographic_risk_score", Integer.class),
+        DELIVERY_RATE("delivery_rate", "on_time_delivery_rate", BigDecimal.class),
+        QUALITY_RATING("quality_rating", "quality_rating", BigDecimal.class),
+        COST_COMPETITIVENESS("cost_competitiveness", "cost_competitiveness_score", Integer.class),
+        RESPONSIVENESS("responsiveness", "responsiveness_score", Integer.class),
+        COUNTRY("country", "country", String.class),
+        INDUSTRY("industry", "industry", String.class),
+        TIER("tier", "tier", String.class),
+        ANNUAL_REVENUE("annual_revenue", "annual_revenue", BigDecimal.class),
+        EMPLOYEE_COUNT("employee_count", "employee_count", Integer.class),
+        YEARS_IN_BUSINESS("years_in_business", "years_in_business", Integer.class);
+
+        final String key;
+        final String column;
+        final Class<?> type;
+
+        Field(String key, String column, Class<?> type) {
+            this.key = key;
+            this.column = column;
+            this.type = type;
+        }
+    }
+
+    private static final Field[] FIELDS = Field.values();
+    private static final Map<String, Field> FIELDS_BY_KEY = new HashMap<>();
+    private static final String SELECT_SQL;
+
+    static {
+        StringJoiner columns = new StringJoiner(", ");
+        for (Field field : FIELDS) {
+            FIELDS_BY_KEY.put(field.key, field);
+            if (field.column != null) {
+                columns.add(field.column);
+            }
+        }
+        SELECT_SQL = "SELECT " + columns + " FROM suppliers";
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${analytics.historical-data.page-size:1000}")
+    private int pageSize;
+
+    /**
+     * Emit one data point per matching supplier: requested ids in request order
+     * (repeats included), otherwise all suppliers in id order. Returns the number emitted.
+     */
+    public long collect(Collection<Long> supplierIds, Map<String, Object> filters, LocalDateTime timestamp,
+                        Consumer<Map<String, Object>> sink) {
+        Filter filter = Filter.of(filters, timestamp);
+        if (filter.matchesNothing) {
+            logger.debug("Filters {} cannot match any data point", filters);
+            return 0;
+        }
+
+        long emitted;
+        if (supplierIds != null && !supplierIds.isEmpty()) {
+            emitted = collectByIds(new ArrayList<>(supplierIds), filter, timestamp, sink);
+        } else {
+            emitted = collectAll(filter, timestamp, sink);
+        }
+        logger.debug("Collected {} historical data points", emitted);
+        return emitted;
+    }
+
+    private long collectAll(Filter filter, LocalDateTime timestamp, Consumer<Map<String, Object>> sink) {
+        String sql = SELECT_SQL + " WHERE id > ?" + filter.sql + " ORDER BY id LIMIT ?";
+        long lastId = 0;
+        long emitted = 0;
+        while (true) {
+            List<Object> args = new ArrayList<>();
+            args.add(lastId);
+            args.addAll(filter.args);
+            args.add(pageSize);
+
+            long[] state = {lastId, 0, 0}; // last id, rows read, emitted
+            jdbcTemplate.query(sql, rs -> {
+                DataPoint point = readDataPoint(rs, timestamp);
+                state[0] = (Long) point.values[Field.SUPPLIER_ID.ordinal()];
+                state[1]++;
+                if (filter.test(point)) {
+                    sink.accept(point);
+                    state[2]++;
+                }
+            }, args.toArray());
+
+            emitted += state[2];
+            if (state[1] < pageSize) {
+                return emitted;
+            }
+            lastId = state[0];
+        }
+    }
+
+    private long collectByIds(List<Long> supplierIds, Filter filter, LocalDateTime timestamp,
+                              Consumer<Map<String, Object>> sink) {
+        long emitted = 0;
+        for (int from = 0; from < supplierIds.size(); from += pageSize) {
+            List<Long> chunk = supplierIds.subList(from, Math.min(supplierIds.size(), from + pageSize));
+            Set<Long> distinct = new LinkedHashSet<>(chunk);
+            distinct.remove(null);
+            if (distinct.isEmpty()) {
+                continue;
+            }
+
+            String sql = SELECT_SQL + " WHERE id IN (" + String.join(", ", Collections.nCopies(distinct.size(), "?"))
+                + ")" + filter.sql;
+            List<Object> args = new ArrayList<>(distinct);
+            args.addAll(filter.args);
+
+            Map<Long, DataPoint> found = new HashMap<>(distinct.size() * 2);
+            jdbcTemplate.query(sql, rs -> {
+                DataPoint point = readDataPoint(rs, timestamp);
+                if (filter.test(point)) {
+                    found.put((Long) point.values[Field.SUPPLIER_ID.ordinal()], point);
+                }
+            }, args.toArray());
+
+            for (Long id : chunk) {
+                DataPoint point = found.get(id);
+                if (point != null) {
+                    sink.accept(point);
+                    emitted++;
+                }
+            }
+        }
+        return emitted;
+    }
+
+    private DataPoint readDataPoint(ResultSet rs, LocalDateTime timestamp) throws SQLException {
+        Object[] values = new Object[FIELDS.length];
+        for (Field field : FIELDS) {
+            Object value;
+            if (field == Field.TIMESTAMP) {
+                value = timestamp;
+            } else if (field.type == Long.class) {
+                value = rs.getLong(field.column);
+            } else if (field.type == Integer.class) {
+                int number = rs.getInt(field.column);
+                value = rs.wasNull() ? null : number;
+            } else if (field.type == BigDecimal.class) {
+                value = rs.getBigDecimal(field.column);
+            } else {
+                value = rs.getString(field.column);
+            }
+            values[field.ordinal()] = value;
+        }
+        return new DataPoint(values);
+    }
+
+    /**
+     * Request filters split into a SQL predicate and a residual per-row check,
+     * with the same result as {@code Objects.equals(dataPoint.get(key), value)} for every filter
+     */
+    static final class Filter {
+        final String sql;
+        final List<Object> args;
+        final Map<Field, Object> residual;
+        final boolean matchesNothing;
+
+        private Filter(String sql, List<Object> args, Map<Field, Object> residual, boolean matchesNothing) {
+            this.sql = sql;
+            this.args = args;
+            this.residual = residual;
+            this.matchesNothing = matchesNothing;
+        }
+
+        static Filter of(Map<String, Object> filters, LocalDateTime timestamp) {
+            StringBuilder sql = new StringBuilder();
+            List<Object> args = new ArrayList<>();
+            Map<Field, Object> residual = new EnumMap<>(Field.class);
+            if (filters == null) {
+                return new Filter("", args, residual, false);
+            }
+            for (Map.Entry<String, Object> entry : filters.entrySet()) {
+                Field field = FIELDS_BY_KEY.get(entry.getKey());
+                Object value = entry.getValue();
+                if (field == null) {
+                    // Absent keys read as null
+                    if (value != null) {
+                        return new Filter("", args, residual, true);
+                    }
+                } else if (field == Field.TIMESTAMP) {
+                    if (!Objects.equals(timestamp, value)) {
+                        return new Filter("", args, residual, true);
+                    }
+                } else if (field == Field.SUPPLIER_ID) {
+                    if (!(value instanceof Long)) {
+                        // Ids are Longs, so a null or an Integer never equals one
+                        return new Filter("", args, residual, true);
+                    }
+                    sql.append(" AND id = ?");
+                    args.add(value);
+                } else if (value == null) {
+                    sql.append(" AND ").append(field.column).append(" IS NULL");
+                } else if (value.getClass() == field.type && field.type != BigDecimal.class) {
+                    sql.append(" AND ").append(field.column).append(" = ?");
+                    args.add(value);
+                } else {
+                    // BigDecimal equality is scale-sensitive and mixed types never match; check in Java
+                    residual.put(field, value);
+                }
+            }
+            return new Filter(sql.toString(), args, residual, false);
+        }
+
+        boolean test(DataPoint point) {
+            for (Map.Entry<Field, Object> entry : residual.entrySet()) {
+                if (!Objects.equals(point.values[entry.getKey().ordinal()], entry.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Read-only map over a shared key set; a fraction of the footprint of a HashMap per supplier
+     */
+    static final class DataPoint extends AbstractMap<String, Object> {
+        private final Object[] values;
+
+        DataPoint(Object[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public Object get(Object key) {
+            Field field = FIELDS_BY_KEY.get(key);
+            return field != null ? values[field.ordinal()] : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return FIELDS_BY_KEY.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return FIELDS.length;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new Iterator<>() {
+                        private int index;
+
+                        @Override
+                        public boolean hasNext() {
+                            return index < FIELDS.length;
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (index >= FIELDS.length) {
+                                throw new NoSuchElementException();
+                            }
+                            Field field = FIELDS[index++];
+                            return new SimpleImmutableEntry<>(field.key, values[field.ordinal()]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return FIELDS.length;
+                }
+            };
+        }
+    }
+}
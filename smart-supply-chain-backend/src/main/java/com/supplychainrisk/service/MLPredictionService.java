@@ -1,30 +1,35 @@
 package com.supplychainrisk.service;
 
+import com.supplychainrisk.dto.MLPredictionRequest;
 import com.supplychainrisk.dto.MLPredictionResult;
 import com.supplychainrisk.dto.RiskPredictionDTO;
 import com.supplychainrisk.entity.Supplier;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class MLPredictionService {
     
     private static final Logger logger = LoggerFactory.getLogger(MLPredictionService.class);
     
-    @Value("${ml.service.url:http://localhost:5000}")
-    private String mlServiceUrl;
+    // Numeric data point fields the statistics are computed from
+    private static final String[] FRAME_FEATURES = {"risk_score", "performance_score", "delivery_rate"};
     
     @Value("${ml.service.enabled:false}")
     private boolean mlServiceEnabled;
@@ -32,12 +37,67 @@ public class MLPredictionService {
     @Value("${ml.fallback.enabled:true}")
     private boolean fallbackEnabled;
     
+    @Value("${ml.batch.enabled:true}")
+    private boolean batchingEnabled;
+    
+    @Value("${ml.batch.max-size:32}")
+    private int batchMaxSize;
+    
+    @Value("${ml.batch.max-wait-ms:5}")
+    private long batchMaxWaitMs;
+    
+    @Value("${ml.batch.max-concurrent-batches:4}")
+    private int batchMaxConcurrent;
+    
+    @Value("${ml.batch.max-queued:256}")
+    private int batchMaxQueued;
+    
     @Autowired
-    private RestTemplate restTemplate;
+    private MLServiceClient mlServiceClient;
     
     @Autowired
     private ObjectMapper objectMapper;
     
+    @Autowired
+    private FallbackModelService fallbackModelService;
+    
+    @Autowired
+    private PredictionCache predictionCache;
+    
+    @Autowired
+    private ModelDriftMonitor modelDriftMonitor;
+    
+    @Autowired
+    private CandidateModelEvaluator candidateModelEvaluator;
+    
+    // Own connection bulkhead and breaker, so shadow calls never take capacity from served ones
+    @Autowired
+    @Qualifier("mlShadowClient")
+    private MLServiceClient mlShadowClient;
+    
+    // Bulk scoring jobs have their own bulkhead and breaker as well
+    @Autowired
+    @Qualifier("mlBatchClient")
+    private MLServiceClient mlBatchClient;
+    
+    // Coalesces concurrent risk predictions into /predict-risk/batch calls; null when batching is off
+    private MicroBatcher<Map<String, Object>, Map<String, Object>> riskPredictionBatcher;
+    
+    @PostConstruct
+    public void startBatching() {
+        if (mlServiceEnabled && batchingEnabled) {
+            riskPredictionBatcher = new MicroBatcher<>("ml-risk", batchMaxSize, Duration.ofMillis(batchMaxWaitMs),
+                batchMaxConcurrent, batchMaxQueued, this::callMLServiceForRiskPredictionBatch);
+        }
+    }
+    
+    @PreDestroy
+    public void stopBatching() {
+        if (riskPredictionBatcher != null) {
+            riskPredictionBatcher.close();
+        }
+    }
+    
     /**
      * Predict future risk levels using ML models
      */
@@ -47,7 +107,7 @@ public class MLPredictionService {
         
         try {
             if (mlServiceEnabled) {
-                return callMLServiceForRiskPrediction(supplier, realTimeData, timeHorizon);
+                return cachedMLServiceRiskPrediction(supplier, realTimeData, timeHorizon);
             } else {
                 logger.info("ML service disabled, using fallback risk prediction");
                 return generateFallbackRiskPrediction(supplier, timeHorizon);
@@ -63,6 +123,34 @@ public class MLPredictionService {
         }
     }
     
+    /**
+     * Predict risk for a bulk scoring job such as the nightly re-prediction. Unlike
+     * {@link #predictRisk} it skips the prediction cache, canary routing, shadow scoring
+     * and drift recording, so a full pass over all suppliers neither evicts served
+     * predictions nor skews the live monitoring, and it calls the ML service through the
+     * batch client instead of the one that serves requests.
+     */
+    public RiskPredictionDTO predictRiskForBatch(Supplier supplier, Duration timeHorizon) {
+        try {
+            if (mlServiceEnabled) {
+                Map<String, Object> request = createRiskPredictionRequest(supplier, createSupplierProfile(supplier),
+                    Map.of(), timeHorizon, candidateModelEvaluator.getCurrentVersion());
+                Map<String, Object> response = mlBatchClient.post("/predict-risk", request);
+                if (response == null) {
+                    throw new MLServiceException("ML service returned invalid response");
+                }
+                return mapToRiskPrediction(response, supplier.getId(), (int) timeHorizon.toDays());
+            }
+            return generateFallbackRiskPrediction(supplier, timeHorizon);
+        } catch (Exception e) {
+            logger.debug("Batch ML risk prediction failed for supplier {}: {}", supplier.getId(), e.getMessage());
+            if (fallbackEnabled) {
+                return generateFallbackRiskPrediction(supplier, timeHorizon);
+            }
+            throw new MLServiceException("ML service failed and fallback is disabled", e);
+        }
+    }
+    
     /**
      * Generate ML predictions for various analytics
      */
@@ -70,64 +158,220 @@ public class MLPredictionService {
         logger.info("Generating ML predictions for {} data points with horizon {} days", 
                    historicalData.size(), predictionHorizon.toDays());
         
+        FeatureFrame frame = FeatureFrame.of(historicalData, FRAME_FEATURES);
         try {
             if (mlServiceEnabled) {
-                return callMLServiceForPrediction(historicalData, predictionHorizon);
+                return callMLServiceForPrediction(historicalData, frame, predictionHorizon);
             } else {
-                return generateFallbackPrediction(historicalData, predictionHorizon);
+                return generateFallbackPrediction(frame, predictionHorizon);
             }
         } catch (Exception e) {
             logger.error("Error in ML prediction: {}", e.getMessage());
             if (fallbackEnabled) {
-                return generateFallbackPrediction(historicalData, predictionHorizon);
+                return generateFallbackPrediction(frame, predictionHorizon);
             } else {
                 throw new MLServiceException("ML service failed and fallback is disabled", e);
             }
         }
     }
     
+    /**
+     * Serve an ML prediction from the cache while the supplier's inputs and model are unchanged.
+     * Fallback predictions are not cached, so a recovered ML service is used at once.
+     */
+    private RiskPredictionDTO cachedMLServiceRiskPrediction(Supplier supplier,
+                                                         Map<String, Object> realTimeData,
+                                                         Duration timeHorizon) {
+        Map<String, Object> supplierProfile = createSupplierProfile(supplier);
+        String modelVersion = candidateModelEvaluator.versionFor(supplier.getId());
+        int horizonDays = (int) timeHorizon.toDays();
+        if (predictionCache.isEnabled()) {
+            RiskPredictionDTO cached = predictionCache.get(supplier.getId(),
+                PredictionCache.featureHash(modelVersion, supplierProfile, realTimeData), horizonDays);
+            if (cached != null) {
+                logger.debug("Serving cached risk prediction for supplier {} ({}s old)",
+                    supplier.getId(), cached.getCacheAgeSeconds());
+                return cached;
+            }
+        }
+        
+        RiskPredictionDTO prediction = null;
+        if (!modelVersion.equals(candidateModelEvaluator.getCurrentVersion())) {
+            prediction = canaryMLServiceRiskPrediction(supplier, supplierProfile, realTimeData, timeHorizon);
+            if (prediction == null) {
+                modelVersion = candidateModelEvaluator.getCurrentVersion();
+            }
+        }
+        if (prediction == null) {
+            prediction = primaryMLServiceRiskPrediction(supplier, supplierProfile, realTimeData, timeHorizon);
+        }
+        if (predictionCache.isEnabled()) {
+            predictionCache.put(supplier.getId(),
+                PredictionCache.featureHash(modelVersion, supplierProfile, realTimeData), horizonDays, prediction);
+        }
+        return prediction;
+    }
+    
+    /**
+     * Predict with the current model, then maybe hand the same request to the
+     * candidate model in the background for comparison
+     */
+    private RiskPredictionDTO primaryMLServiceRiskPrediction(Supplier supplier,
+                                                          Map<String, Object> supplierProfile,
+                                                          Map<String, Object> realTimeData,
+                                                          Duration timeHorizon) {
+        long start = System.nanoTime();
+        RiskPredictionDTO prediction = callMLServiceForRiskPrediction(supplier, supplierProfile, realTimeData,
+            timeHorizon, candidateModelEvaluator.getCurrentVersion(), "ml");
+        candidateModelEvaluator.shadow(prediction, System.nanoTime() - start,
+            () -> callCandidateForRiskPrediction(supplier, supplierProfile, realTimeData, timeHorizon));
+        return prediction;
+    }
+    
+    /**
+     * Predict with the candidate model for a canary supplier; null if it failed,
+     * in which case the current model serves the request
+     */
+    private RiskPredictionDTO canaryMLServiceRiskPrediction(Supplier supplier,
+                                                         Map<String, Object> supplierProfile,
+                                                         Map<String, Object> realTimeData,
+                                                         Duration timeHorizon) {
+        long start = System.nanoTime();
+        try {
+            RiskPredictionDTO prediction = callMLServiceForRiskPrediction(supplier, supplierProfile, realTimeData,
+                timeHorizon, candidateModelEvaluator.getCandidateVersion(), "ml-canary");
+            candidateModelEvaluator.recordCanary(System.nanoTime() - start, true);
+            return prediction;
+        } catch (RuntimeException e) {
+            candidateModelEvaluator.recordCanary(System.nanoTime() - start, false);
+            logger.warn("Candidate model failed for canary supplier {}, using current model: {}",
+                supplier.getId(), e.getMessage());
+            return null;
+        }
+    }
+    
     /**
      * Call external ML service for risk prediction
      */
     private RiskPredictionDTO callMLServiceForRiskPrediction(Supplier supplier, 
+                                                         Map<String, Object> supplierProfile,
                                                          Map<String, Object> realTimeData, 
-                                                         Duration timeHorizon) {
+                                                         Duration timeHorizon,
+                                                         String requestedVersion,
+                                                         String driftModel) {
+        Map<String, Object> request = createRiskPredictionRequest(
+            supplier, supplierProfile, realTimeData, timeHorizon, requestedVersion);
+        
+        Map<String, Object> response = riskPredictionBatcher != null
+            ? awaitBatchedRiskPrediction(request)
+            : mlServiceClient.post("/predict-risk", request);
+        if (response == null) {
+            throw new MLServiceException("ML service returned invalid response");
+        }
+        RiskPredictionDTO prediction = mapToRiskPrediction(response, supplier.getId(), (int) timeHorizon.toDays());
+        Object modelVersion = prediction.getRiskFactors() == null ? null
+            : prediction.getRiskFactors().get("model_version");
+        modelDriftMonitor.record(driftModel, modelVersion == null ? "unknown" : modelVersion.toString(),
+            supplier, (int) timeHorizon.toDays(), prediction);
+        return prediction;
+    }
+    
+    /**
+     * Shadow call to the candidate model; runs on the shadow pool, never on a request thread
+     */
+    private RiskPredictionDTO callCandidateForRiskPrediction(Supplier supplier,
+                                                          Map<String, Object> supplierProfile,
+                                                          Map<String, Object> realTimeData,
+                                                          Duration timeHorizon) {
+        Map<String, Object> request = createRiskPredictionRequest(supplier, supplierProfile, realTimeData,
+            timeHorizon, candidateModelEvaluator.getCandidateVersion());
+        Map<String, Object> response = mlShadowClient.post("/predict-risk", request);
+        if (response == null) {
+            throw new MLServiceException("ML service returned invalid response");
+        }
+        return mapToRiskPrediction(response, supplier.getId(), (int) timeHorizon.toDays());
+    }
+    
+    private Map<String, Object> createRiskPredictionRequest(Supplier supplier,
+                                                            Map<String, Object> supplierProfile,
+                                                            Map<String, Object> realTimeData,
+                                                            Duration timeHorizon,
+                                                            String modelVersion) {
         Map<String, Object> request = new HashMap<>();
         request.put("supplierId", supplier.getId());
-        request.put("supplierProfile", createSupplierProfile(supplier));
+        request.put("supplierProfile", supplierProfile);
         request.put("realTimeData", realTimeData);
         request.put("timeHorizonDays", timeHorizon.toDays());
         request.put("modelType", "risk_prediction");
-        
-        ResponseEntity<Map> response = restTemplate.postForEntity(
-            mlServiceUrl + "/predict-risk", request, Map.class);
-        
-        if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-            return mapToRiskPrediction(response.getBody(), supplier.getId(), (int) timeHorizon.toDays());
-        } else {
-            throw new MLServiceException("ML service returned invalid response");
+        request.put("modelVersion", modelVersion);
+        return request;
+    }
+    
+    /**
+     * Wait for this request's share of a batched call. A failed batch, a full
+     * batch queue or a missing item result surfaces here, so predictRisk falls
+     * back per item. A request given up on is cancelled, so it is not sent if
+     * its batch has not left yet.
+     */
+    private Map<String, Object> awaitBatchedRiskPrediction(Map<String, Object> request) {
+        // Besides its own call, a batch may wait for a busy batch slot to free up
+        long timeoutMs = batchMaxWaitMs + 2 * mlServiceClient.getDeadline().toMillis();
+        CompletableFuture<Map<String, Object>> future = riskPredictionBatcher.submit(request);
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new MLServiceException("Batched ML risk prediction failed", e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw new MLServiceException("Batched ML risk prediction timed out", e);
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new MLServiceException("Interrupted waiting for batched ML risk prediction", e);
+        }
+    }
+    
+    /**
+     * One /predict-risk/batch call for queued risk prediction requests. The
+     * service answers with a "results" list in request order; an entry with
+     * an "error" key has no prediction.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> callMLServiceForRiskPredictionBatch(List<Map<String, Object>> requests) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("modelType", "risk_prediction");
+        payload.put("requests", requests);
+        
+        Map<String, Object> response = mlServiceClient.post("/predict-risk/batch", payload);
+        Object results = response == null ? null : response.get("results");
+        if (!(results instanceof List<?> items)) {
+            throw new MLServiceException("ML service returned invalid batch response");
         }
+        List<Map<String, Object>> predictions = new ArrayList<>(items.size());
+        for (Object item : items) {
+            predictions.add(item instanceof Map<?, ?> map && !map.containsKey("error")
+                ? (Map<String, Object>) map : null);
+        }
+        return predictions;
     }
     
     /**
      * Call external ML service for general predictions
      */
     private MLPredictionResult callMLServiceForPrediction(List<Map<String, Object>> historicalData, 
+                                                         FeatureFrame frame,
                                                          Duration predictionHorizon) {
         Map<String, Object> request = new HashMap<>();
         request.put("historicalData", historicalData);
         request.put("predictionHorizonDays", predictionHorizon.toDays());
-        request.put("features", extractFeatures(historicalData));
+        request.put("features", extractFeatures(frame));
         request.put("modelType", "time_series_forecast");
         
-        ResponseEntity<Map> response = restTemplate.postForEntity(
-            mlServiceUrl + "/predict", request, Map.class);
-        
-        if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-            return mapToMLPredictionResult(response.getBody());
-        } else {
+        Map<String, Object> response = mlServiceClient.post("/predict", request);
+        if (response == null) {
             throw new MLServiceException("ML service returned invalid response");
         }
+        return mapToMLPredictionResult(response);
     }
     
     /**
@@ -151,16 +395,16 @@ public class MLPredictionService {
         riskScores.put("current_compliance", BigDecimal.valueOf(supplier.getComplianceRiskScore()));
         riskScores.put("current_geographic", BigDecimal.valueOf(supplier.getGeographicRiskScore()));
         
-        // Predicted risk scores (using simple trend analysis with random variation)
-        ThreadLocalRandom random = ThreadLocalRandom.current();
-        double trendFactor = 1.0 + (random.nextDouble(-0.1, 0.1)); // ±10% variation
+        // Predicted risk scores from the in-process fallback model
+        FallbackModelService.Prediction modelPrediction =
+            fallbackModelService.predict(supplier, (int) timeHorizon.toDays());
         
         riskScores.put("predicted_overall", 
-            BigDecimal.valueOf(Math.max(0, Math.min(100, supplier.getOverallRiskScore() * trendFactor))));
+            riskScore(modelPrediction.get("predicted_overall"), supplier.getOverallRiskScore()));
         riskScores.put("predicted_financial", 
-            BigDecimal.valueOf(Math.max(0, Math.min(100, supplier.getFinancialRiskScore() * trendFactor))));
+            riskScore(modelPrediction.get("predicted_financial"), supplier.getFinancialRiskScore()));
         riskScores.put("predicted_operational", 
-            BigDecimal.valueOf(Math.max(0, Math.min(100, supplier.getOperationalRiskScore() * trendFactor))));
+            riskScore(modelPrediction.get("predicted_operational"), supplier.getOperationalRiskScore()));
         
         prediction.setRiskScores(riskScores);
         
@@ -177,6 +421,11 @@ public class MLPredictionService {
         riskFactors.put("geographic_risk", supplier.getCountry());
         riskFactors.put("certification_count", 
             Optional.ofNullable(supplier.getIsoCertifications()).orElse(Collections.emptyList()).size());
+        double elevatedRisk = modelPrediction.get("elevated_risk_probability");
+        if (!Double.isNaN(elevatedRisk)) {
+            riskFactors.put("elevated_risk_probability", elevatedRisk);
+        }
+        riskFactors.put("model_version", modelPrediction.getModelVersion());
         
         prediction.setRiskFactors(riskFactors);
         
@@ -195,15 +444,22 @@ public class MLPredictionService {
         BigDecimal confidence = calculateConfidenceScore(supplier);
         prediction.setConfidence(confidence);
         
+        modelDriftMonitor.record("fallback", modelPrediction.getModelVersion(),
+            supplier, (int) timeHorizon.toDays(), prediction);
         return prediction;
     }
     
+    private static BigDecimal riskScore(double predicted, Integer current) {
+        // A model without this target leaves the current score unchanged
+        double value = Double.isNaN(predicted) ? (current == null ? 0 : current) : predicted;
+        return BigDecimal.valueOf(Math.max(0, Math.min(100, value)));
+    }
+    
     /**
      * Generate fallback prediction using statistical methods
      */
-    private MLPredictionResult generateFallbackPrediction(List<Map<String, Object>> historicalData, 
-                                                         Duration predictionHorizon) {
-        logger.debug("Generating fallback prediction for {} data points", historicalData.size());
+    private MLPredictionResult generateFallbackPrediction(FeatureFrame frame, Duration predictionHorizon) {
+        logger.debug("Generating fallback prediction for {} data points", frame.getRows());
         
         MLPredictionResult.Builder resultBuilder = MLPredictionResult.builder()
             .modelVersion("fallback-v1.0")
@@ -212,11 +468,11 @@ public class MLPredictionService {
         // Simple statistical predictions
         Map<String, Object> predictions = new HashMap<>();
         
-        if (!historicalData.isEmpty()) {
+        if (frame.getRows() > 0) {
             // Calculate trend-based predictions
-            predictions.put("risk_trend", calculateSimpleTrend(historicalData, "risk_score"));
-            predictions.put("performance_trend", calculateSimpleTrend(historicalData, "performance_score"));
-            predictions.put("delivery_prediction", calculateDeliveryPrediction(historicalData));
+            predictions.put("risk_trend", calculateSimpleTrend(frame.column("risk_score").statistics()));
+            predictions.put("performance_trend", calculateSimpleTrend(frame.column("performance_score").statistics()));
+            predictions.put("delivery_prediction", calculateDeliveryPrediction(frame));
         }
         
         // Add prediction horizon info
@@ -226,11 +482,11 @@ public class MLPredictionService {
         resultBuilder.predictions(predictions);
         
         // Features extracted from historical data
-        Map<String, Object> features = extractFeatures(historicalData);
+        Map<String, Object> features = extractFeatures(frame);
         resultBuilder.features(features);
         
         // Confidence based on data quality
-        BigDecimal confidence = calculateDataQualityConfidence(historicalData);
+        BigDecimal confidence = calculateDataQualityConfidence(frame);
         resultBuilder.confidence(confidence);
         
         // Uncertainty bounds (wider for fallback method)
@@ -272,53 +528,40 @@ public class MLPredictionService {
     /**
      * Extract features from historical data
      */
-    private Map<String, Object> extractFeatures(List<Map<String, Object>> historicalData) {
+    private Map<String, Object> extractFeatures(FeatureFrame frame) {
         Map<String, Object> features = new HashMap<>();
         
-        if (historicalData.isEmpty()) {
+        if (frame.getRows() == 0) {
             return features;
         }
         
         // Statistical features
-        features.put("data_points", historicalData.size());
-        features.put("time_span_days", calculateTimeSpan(historicalData));
-        features.put("data_completeness", calculateDataCompleteness(historicalData));
+        StreamingStatistics riskScore = frame.column("risk_score").statistics();
+        features.put("data_points", frame.getRows());
+        features.put("time_span_days", calculateTimeSpan(frame));
+        features.put("data_completeness", calculateDataCompleteness(frame));
         
         // Aggregate features
-        features.put("avg_risk_score", calculateAverage(historicalData, "risk_score"));
-        features.put("max_risk_score", calculateMaximum(historicalData, "risk_score"));
-        features.put("min_risk_score", calculateMinimum(historicalData, "risk_score"));
-        features.put("risk_volatility", calculateVolatility(historicalData, "risk_score"));
+        features.put("avg_risk_score", calculateAverage(riskScore));
+        features.put("max_risk_score", BigDecimal.valueOf(riskScore.getMax().orElse(0.0)));
+        features.put("min_risk_score", BigDecimal.valueOf(riskScore.getMin().orElse(0.0)));
+        features.put("risk_volatility", calculateVolatility(riskScore));
+        features.put("risk_slope", BigDecimal.valueOf(riskScore.getSlope().orElse(0.0)));
         
         return features;
     }
     
     // Helper methods for statistical calculations
-    private BigDecimal calculateSimpleTrend(List<Map<String, Object>> data, String field) {
-        if (data.size() < 2) return BigDecimal.ZERO;
-        
-        double sum = 0;
-        int count = 0;
-        
-        for (int i = 1; i < data.size(); i++) {
-            Object current = data.get(i).get(field);
-            Object previous = data.get(i - 1).get(field);
-            
-            if (current instanceof Number && previous instanceof Number) {
-                double change = ((Number) current).doubleValue() - ((Number) previous).doubleValue();
-                sum += change;
-                count++;
-            }
-        }
-        
-        return count > 0 ? BigDecimal.valueOf(sum / count) : BigDecimal.ZERO;
+    private BigDecimal calculateSimpleTrend(StreamingStatistics statistics) {
+        OptionalDouble trend = statistics.getMeanStepChange();
+        return trend.isPresent() ? BigDecimal.valueOf(trend.getAsDouble()) : BigDecimal.ZERO;
     }
     
-    private Map<String, Object> calculateDeliveryPrediction(List<Map<String, Object>> data) {
+    private Map<String, Object> calculateDeliveryPrediction(FeatureFrame frame) {
         Map<String, Object> prediction = new HashMap<>();
         
         // Simple delivery performance prediction
-        double avgDeliveryRate = calculateAverage(data, "delivery_rate").doubleValue();
+        double avgDeliveryRate = calculateAverage(frame.column("delivery_rate").statistics()).doubleValue();
         prediction.put("predicted_delivery_rate", avgDeliveryRate);
         prediction.put("confidence", avgDeliveryRate > 90 ? "HIGH" : avgDeliveryRate > 70 ? "MEDIUM" : "LOW");
         
@@ -338,94 +581,42 @@ public class MLPredictionService {
         return BigDecimal.valueOf(Math.min(100, score));
     }
     
-    private BigDecimal calculateDataQualityConfidence(List<Map<String, Object>> data) {
-        if (data.isEmpty()) return BigDecimal.valueOf(20);
+    private BigDecimal calculateDataQualityConfidence(FeatureFrame frame) {
+        if (frame.getRows() == 0) return BigDecimal.valueOf(20);
         
         double score = 30.0; // Base score
         
         // More data points = higher confidence
-        score += Math.min(40, data.size() * 2);
+        score += Math.min(40, frame.getRows() * 2);
         
         // Data completeness
-        score += calculateDataCompleteness(data).doubleValue() * 0.3;
+        score += calculateDataCompleteness(frame).doubleValue() * 0.3;
         
         return BigDecimal.valueOf(Math.min(100, score));
     }
     
-    private BigDecimal calculateAverage(List<Map<String, Object>> data, String field) {
-        return data.stream()
-            .map(d -> d.get(field))
-            .filter(Objects::nonNull)
-            .filter(v -> v instanceof Number)
-            .map(v -> ((Number) v).doubleValue())
-            .collect(java.util.stream.Collectors.averagingDouble(Double::doubleValue))
-            .doubleValue() == 0 ? BigDecimal.ZERO : BigDecimal.valueOf(
-                data.stream()
-                    .map(d -> d.get(field))
-                    .filter(Objects::nonNull)
-                    .filter(v -> v instanceof Number)
-                    .map(v -> ((Number) v).doubleValue())
-                    .collect(java.util.stream.Collectors.averagingDouble(Double::doubleValue))
-            );
-    }
-    
-    private BigDecimal calculateMaximum(List<Map<String, Object>> data, String field) {
-        return BigDecimal.valueOf(
-            data.stream()
-                .map(d -> d.get(field))
-                .filter(Objects::nonNull)
-                .filter(v -> v instanceof Number)
-                .map(v -> ((Number) v).doubleValue())
-                .max(Double::compareTo)
-                .orElse(0.0)
-        );
-    }
-    
-    private BigDecimal calculateMinimum(List<Map<String, Object>> data, String field) {
-        return BigDecimal.valueOf(
-            data.stream()
-                .map(d -> d.get(field))
-                .filter(Objects::nonNull)
-                .filter(v -> v instanceof Number)
-                .map(v -> ((Number) v).doubleValue())
-                .min(Double::compareTo)
-                .orElse(0.0)
-        );
-    }
-    
-    private BigDecimal calculateVolatility(List<Map<String, Object>> data, String field) {
-        if (data.size() < 2) return BigDecimal.ZERO;
-        
-        BigDecimal avg = calculateAverage(data, field);
-        double sumSquaredDiffs = data.stream()
-            .map(d -> d.get(field))
-            .filter(Objects::nonNull)
-            .filter(v -> v instanceof Number)
-            .map(v -> ((Number) v).doubleValue())
-            .map(v -> Math.pow(v - avg.doubleValue(), 2))
-            .reduce(0.0, Double::sum);
-        
-        return BigDecimal.valueOf(Math.sqrt(sumSquaredDiffs / data.size()));
-    }
-    
-    private BigDecimal calculateTimeSpan(List<Map<String, Object>> data) {
-        // Simplified - assume data covers reasonable time span
-        return BigDecimal.valueOf(data.size() * 7); // Weekly data points
+    private BigDecimal calculateAverage(StreamingStatistics statistics) {
+        double average = statistics.getMean();
+        return average == 0 ? BigDecimal.ZERO : BigDecimal.valueOf(average);
     }
     
-    private BigDecimal calculateDataCompleteness(List<Map<String, Object>> data) {
-        if (data.isEmpty()) return BigDecimal.ZERO;
-        
-        int totalFields = data.size() * 5; // Assume 5 key fields per record
-        int completeFields = 0;
+    private BigDecimal calculateVolatility(StreamingStatistics statistics) {
+        if (statistics.getObservations() < 2) return BigDecimal.ZERO;
         
-        for (Map<String, Object> record : data) {
-            completeFields += record.values().stream()
-                .map(v -> v != null ? 1 : 0)
-                .reduce(0, Integer::sum);
-        }
+        // Deviations of the present values, spread over every data point
+        return BigDecimal.valueOf(Math.sqrt(statistics.getSumOfSquaredDeviations() / statistics.getObservations()));
+    }
+    
+    private BigDecimal calculateTimeSpan(FeatureFrame frame) {
+        // Simplified - assume data covers reasonable time span
+        return BigDecimal.valueOf(frame.getRows() * 7); // Weekly data points
+    }
+    
+    private BigDecimal calculateDataCompleteness(FeatureFrame frame) {
+        if (frame.getRows() == 0) return BigDecimal.ZERO;
         
-        return BigDecimal.valueOf((double) completeFields / totalFields * 100);
+        long totalFields = frame.getRows() * 5L; // Assume 5 key fields per record
+        return BigDecimal.valueOf((double) frame.getNonNullValues() / totalFields * 100);
     }
     
     // Mapping methods for ML service responses
@@ -496,7 +687,7 @@ public class MLPredictionService {
      * Get current model version for tracking
      */
     public String getCurrentModelVersion() {
-        return "v1.0.0"; // This could be dynamic from config or ML service
+        return candidateModelEvaluator.getCurrentVersion();
     }
     
     private Map<String, Object> convertToMLInput(Object dataSet) {
@@ -510,6 +701,15 @@ public class MLPredictionService {
             try {
                 if (dataSet instanceof Map) {
                     input.putAll((Map<String, Object>) dataSet);
+                } else if (dataSet instanceof AdvancedAnalyticsService.RealTimeDataSet realTimeData) {
+                    if (realTimeData.getData() != null) {
+                        input.putAll(realTimeData.getData());
+                    }
+                    input.put("data_freshness", realTimeData.getDataFreshness());
+                } else if (dataSet instanceof MLPredictionRequest request) {
+                    if (request.getParameters() != null) {
+                        input.putAll(request.getParameters());
+                    }
                 } else {
                     // Use reflection to extract relevant fields (simplified approach)
                     input.put("entity_data", dataSet.toString());
@@ -528,35 +728,51 @@ public class MLPredictionService {
         request.put("prediction_type", "real_time_risk");
         request.put("model_type", "ensemble");
         
-        try {
-            ResponseEntity<Map> response = restTemplate.postForEntity(
-                mlServiceUrl + "/predict/realtime", request, Map.class);
-            
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                return mapToMLPredictionResult(response.getBody());
-            } else {
-                throw new MLServiceException("ML service returned invalid response for real-time prediction");
-            }
-        } catch (Exception e) {
-            logger.error("ML service call failed for real-time prediction", e);
-            throw new MLServiceException("ML service call failed", e);
+        Map<String, Object> response = mlServiceClient.post("/predict/realtime", request);
+        if (response == null) {
+            throw new MLServiceException("ML service returned invalid response for real-time prediction");
         }
+        return mapToMLPredictionResult(response);
     }
     
     private MLPredictionResult generateFallbackRealTimePrediction(Map<String, Object> inputData) {
         logger.debug("Generating fallback real-time prediction");
         
-        // Generate basic predictions using statistical methods
+        if (!FallbackModelService.hasAnyFeature(inputData)) {
+            // A score from imputed values alone would report every entity as low risk
+            Map<String, Object> predictions = new HashMap<>();
+            predictions.put("risk_score", null);
+            predictions.put("trend", "unknown");
+            predictions.put("prediction_method", "fallback_realtime");
+            predictions.put("data_quality", calculateDataQuality(inputData));
+            return MLPredictionResult.builder()
+                .predictions(predictions)
+                .modelVersion(fallbackModelService.getModelVersion())
+                .generatedAt(LocalDateTime.now())
+                .features(inputData)
+                .build();
+        }
+        
+        // Score whichever model features the data set carries; the rest are imputed
+        FallbackModelService.Prediction modelPrediction = fallbackModelService.predict(inputData, 1);
+        double riskScore = Math.max(0, Math.min(100, modelPrediction.get("predicted_overall")));
+        Object current = inputData.get("overall_risk_score");
+        String trend = "stable";
+        if (current instanceof Number number && !Double.isNaN(riskScore)) {
+            double change = riskScore - number.doubleValue();
+            trend = change > 2 ? "increasing" : change < -2 ? "decreasing" : "stable";
+        }
+        
         Map<String, Object> predictions = new HashMap<>();
-        predictions.put("risk_score", 45.0 + (Math.random() * 20)); // Random between 45-65
-        predictions.put("trend", "stable");
+        predictions.put("risk_score", Double.isNaN(riskScore) ? null : riskScore);
+        predictions.put("trend", trend);
         predictions.put("prediction_method", "fallback_realtime");
         predictions.put("data_quality", calculateDataQuality(inputData));
         
         return MLPredictionResult.builder()
             .predictions(predictions)
             .confidence(BigDecimal.valueOf(65.0)) // Lower confidence for fallback
-            .modelVersion(getCurrentModelVersion())
+            .modelVersion(modelPrediction.getModelVersion())
             .generatedAt(LocalDateTime.now())
             .features(inputData)
             .build();
@@ -0,0 +1,399 @@
+package com.supplychainrisk.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JSON client for the external ML service over a pooled HTTP client.
+ *
+ * Each call has a deadline covering the connection lease, connect and
+ * response together; a scheduler aborts the exchange when it expires. A
+ * semaphore bulkhead caps the calls in flight, so a slow service holds at most
+ * that many request threads, and a circuit breaker fails calls immediately
+ * while the service keeps failing, sending callers straight to their fallback.
+ *
+ * With hedging on and the breaker closed, a call still unanswered after the
+ * hedge delay is sent once more if a bulkhead permit is free, and the first
+ * response wins. The prediction endpoints have no side effects, so a
+ * duplicate request is harmless.
+ *
+ * Meters carry a {@code client} tag, so clients with separate limits (e.g.
+ * for shadow traffic) can share the HTTP pool and still be told apart.
+ */
+public class MLServiceClient implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MLServiceClient.class);
+
+    private static final TypeReference<Map<String, Object>> RESPONSE_TYPE = new TypeReference<>() {};
+
+    private static final String METRIC = "ml.client.requests";
+    private static final String HEDGE_METRIC = "ml.client.hedges";
+
+    private final String name;
+    private final String baseUrl;
+    private final CloseableHttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final long deadlineNanos;
+    private final long bulkheadWaitNanos;
+    private final long hedgeDelayNanos;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+
+    // One thread aborts exchanges at their deadline; hedged attempts run on the cached pool
+    private final ScheduledExecutorService deadlines;
+    private final ExecutorService attempts;
+
+    private MLServiceClient(Builder builder) {
+        this.name = builder.name;
+        this.baseUrl = builder.baseUrl.endsWith("/")
+            ? builder.baseUrl.substring(0, builder.baseUrl.length() - 1) : builder.baseUrl;
+        this.httpClient = builder.httpClient;
+        this.objectMapper = builder.objectMapper;
+        this.meterRegistry = builder.meterRegistry;
+        this.deadlineNanos = builder.deadline.toNanos();
+        this.bulkheadWaitNanos = builder.bulkheadWait.toNanos();
+        this.hedgeDelayNanos = builder.hedgeDelay.toNanos();
+        this.bulkhead = new Semaphore(builder.maxConcurrentCalls);
+        this.circuitBreaker = builder.circuitBreaker;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.deadlines = Executors.newSingleThreadScheduledExecutor(
+            runnable -> daemon(runnable, "ml-" + name + "-deadline"));
+        this.attempts = Executors.newCachedThreadPool(
+            runnable -> daemon(runnable, "ml-" + name + "-" + threadNumber.incrementAndGet()));
+
+        Gauge.builder("ml.client.bulkhead.available", bulkhead, Semaphore::availablePermits)
+            .description("Free slots for concurrent ML service calls")
+            .tag("client", name)
+            .register(meterRegistry);
+        Gauge.builder("ml.client.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+            .description("0 = closed, 1 = open, 2 = half open")
+            .tag("client", name)
+            .register(meterRegistry);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * POSTs the body as JSON to the path and returns the decoded JSON response.
+     *
+     * @throws MLPredictionService.MLServiceException if the bulkhead is full,
+     *         the circuit breaker is open, the deadline passes or the call fails
+     */
+    public Map<String, Object> post(String path, Object body) {
+        long start = System.nanoTime();
+        long deadline = start + deadlineNanos;
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new MLPredictionService.MLServiceException("Could not encode ML service request", e);
+        }
+
+        if (!acquireBulkhead()) {
+            record(path, "rejected", start);
+            throw new MLPredictionService.MLServiceException("ML service concurrency limit reached");
+        }
+        try {
+            long permit = circuitBreaker.tryAcquire();
+            if (permit == CircuitBreaker.REJECTED) {
+                record(path, "short_circuited", start);
+                throw new MLPredictionService.MLServiceException("ML service circuit breaker is open");
+            }
+
+            String outcome = "error";
+            boolean healthy = false;
+            try {
+                Map<String, Object> response = hedgeDelayNanos > 0
+                    && circuitBreaker.getState() == CircuitBreaker.State.CLOSED
+                    ? exchangeHedged(path, json, deadline)
+                    : exchange(newRequest(path, json), deadline);
+                outcome = "success";
+                healthy = true;
+                return response;
+            } catch (StatusException e) {
+                // A rejected request says nothing about the health of the service
+                healthy = e.status < 500;
+                throw new MLPredictionService.MLServiceException("ML service returned HTTP " + e.status, e);
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                if (e instanceof TimeoutException || System.nanoTime() - deadline >= 0) {
+                    outcome = "timeout";
+                    throw new MLPredictionService.MLServiceException(
+                        "ML service call to " + path + " exceeded its deadline", e);
+                }
+                throw new MLPredictionService.MLServiceException("ML service call to " + path + " failed", e);
+            } finally {
+                if (healthy) {
+                    circuitBreaker.onSuccess(permit);
+                } else if (circuitBreaker.onFailure(permit)) {
+                    logger.warn("ML service circuit breaker opened after {} call to {}", outcome, path);
+                }
+                record(path, outcome, start);
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    public Duration getDeadline() {
+        return Duration.ofNanos(deadlineNanos);
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    @Override
+    public void close() {
+        deadlines.shutdownNow();
+        attempts.shutdownNow();
+    }
+
+    private Map<String, Object> exchange(HttpPost request, long deadline) throws IOException, TimeoutException {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            throw new TimeoutException("Deadline passed before the request was sent");
+        }
+        Timeout timeout = Timeout.ofMilliseconds(Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining)));
+        request.setConfig(RequestConfig.custom()
+            .setConnectionRequestTimeout(timeout)
+            .setResponseTimeout(timeout)
+            .build());
+        // The timeouts bound each step; the abort bounds all of them together
+        ScheduledFuture<?> abort = deadlines.schedule(request::cancel, remaining, TimeUnit.NANOSECONDS);
+        try {
+            return httpClient.execute(request, response -> {
+                byte[] content = response.getEntity() == null
+                    ? new byte[0] : EntityUtils.toByteArray(response.getEntity());
+                if (response.getCode() < 200 || response.getCode() >= 300) {
+                    throw new StatusException(response.getCode());
+                }
+                return objectMapper.readValue(content, RESPONSE_TYPE);
+            });
+        } finally {
+            abort.cancel(false);
+        }
+    }
+
+    private Map<String, Object> exchangeHedged(String path, byte[] json, long deadline) throws Exception {
+        CompletableFuture<Map<String, Object>> result = new CompletableFuture<>();
+        List<HttpPost> outstanding = new CopyOnWriteArrayList<>();
+        AtomicInteger pending = new AtomicInteger();
+        launch(newRequest(path, json), deadline, false, result, outstanding, pending);
+        try {
+            try {
+                return result.get(Math.min(hedgeDelayNanos, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException slow) {
+                if (!result.isDone() && deadline - System.nanoTime() > 0 && bulkhead.tryAcquire()) {
+                    meterRegistry.counter(HEDGE_METRIC, "client", name, "outcome", "sent").increment();
+                    launch(newRequest(path, json), deadline, true, result, outstanding, pending);
+                }
+            }
+            return result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } finally {
+            // Abort the losers; the winner has already left the list
+            outstanding.forEach(HttpPost::cancel);
+        }
+    }
+
+    /**
+     * Runs one attempt of a hedged call. The call fails only once every
+     * attempt has failed. A hedge holds its own bulkhead permit until done.
+     */
+    private void launch(HttpPost request, long deadline, boolean hedge, CompletableFuture<Map<String, Object>> result,
+                        List<HttpPost> outstanding, AtomicInteger pending) {
+        outstanding.add(request);
+        pending.incrementAndGet();
+        Runnable attempt = () -> {
+            try {
+                Map<String, Object> response = exchange(request, deadline);
+                outstanding.remove(request);
+                if (result.complete(response) && hedge) {
+                    meterRegistry.counter(HEDGE_METRIC, "client", name, "outcome", "won").increment();
+                }
+            } catch (Exception e) {
+                if (pending.decrementAndGet() == 0) {
+                    result.completeExceptionally(e);
+                }
+            } finally {
+                if (hedge) {
+                    bulkhead.release();
+                }
+            }
+        };
+        try {
+            attempts.execute(attempt);
+        } catch (RejectedExecutionException e) {
+            outstanding.remove(request);
+            if (hedge) {
+                bulkhead.release();
+            }
+            if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private HttpPost newRequest(String path, byte[] json) {
+        HttpPost request = new HttpPost(baseUrl + path);
+        request.setEntity(new ByteArrayEntity(json, ContentType.APPLICATION_JSON));
+        return request;
+    }
+
+    private boolean acquireBulkhead() {
+        try {
+            return bulkhead.tryAcquire(bulkheadWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void record(String path, String outcome, long start) {
+        Timer.builder(METRIC)
+            .tag("client", name)
+            .tag("endpoint", path)
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Non-2xx response from the ML service
+     */
+    private static class StatusException extends IOException {
+        private final int status;
+
+        StatusException(int status) {
+            super("HTTP " + status);
+            this.status = status;
+        }
+    }
+
+    public static class Builder {
+        private String name = "primary";
+        private String baseUrl = "http://localhost:5000";
+        private CloseableHttpClient httpClient;
+        private ObjectMapper objectMapper = new ObjectMapper();
+        private MeterRegistry meterRegistry;
+        private Duration deadline = Duration.ofSeconds(3);
+        private int maxConcurrentCalls = 16;
+        private Duration bulkheadWait = Duration.ofMillis(50);
+        private Duration hedgeDelay = Duration.ZERO;
+        private CircuitBreaker circuitBreaker;
+
+        /**
+         * Value of the client tag on this client's meters and part of its thread names
+         */
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder baseUrl(String baseUrl) {
+            this.baseUrl = baseUrl;
+            return this;
+        }
+
+        public Builder httpClient(CloseableHttpClient httpClient) {
+            this.httpClient = httpClient;
+            return this;
+        }
+
+        public Builder objectMapper(ObjectMapper objectMapper) {
+            this.objectMapper = objectMapper;
+            return this;
+        }
+
+        public Builder meterRegistry(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+            return this;
+        }
+
+        public Builder deadline(Duration deadline) {
+            this.deadline = deadline;
+            return this;
+        }
+
+        public Builder maxConcurrentCalls(int maxConcurrentCalls) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+            return this;
+        }
+
+        public Builder bulkheadWait(Duration bulkheadWait) {
+            this.bulkheadWait = bulkheadWait;
+            return this;
+        }
+
+        /**
+         * Delay before a slow call is sent again; zero disables hedging
+         */
+        public Builder hedgeDelay(Duration hedgeDelay) {
+            this.hedgeDelay = hedgeDelay;
+            return this;
+        }
+
+        public Builder circuitBreaker(CircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            return this;
+        }
+
+        public MLServiceClient build() {
+            if (httpClient == null || meterRegistry == null) {
+                throw new IllegalStateException("ML service client needs an HTTP client and a meter registry");
+            }
+            if (deadline.isNegative() || deadline.isZero() || maxConcurrentCalls < 1) {
+                throw new IllegalArgumentException("Invalid ML service client limits");
+            }
+            if (circuitBreaker == null) {
+                circuitBreaker = new CircuitBreaker(20, 10, 0.5, Duration.ofSeconds(30), 3);
+            }
+            return new MLServiceClient(this);
+        }
+    }
+}
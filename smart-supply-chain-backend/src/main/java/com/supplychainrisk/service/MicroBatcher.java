@@ -0,0 +1,243 @@
+package com.supplychainrisk.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent single-item calls into batched calls.
+ *
+ * Submitted items wait in a queue. Once one of {@code maxConcurrentBatches}
+ * batch slots is free, a dispatcher thread takes the oldest item and collects
+ * more until the batch holds {@code maxBatchSize} items or the oldest has
+ * waited {@code maxWait}, then runs the batch on a worker thread. While every
+ * slot is busy items keep queueing, so batches grow under load, up to
+ * {@code maxQueuedItems}; beyond that a submission fails at once so the caller
+ * can fall back instead of waiting behind a backlog. Items whose future is
+ * already done (e.g. cancelled by a caller that stopped waiting) are dropped
+ * instead of being sent.
+ *
+ * The batch function returns one result per item, in item order, and each
+ * caller's future completes with its own result. A failed batch fails every
+ * item in it and a null result fails only its item, so callers can fall back
+ * per item.
+ */
+public final class MicroBatcher<I, O> implements AutoCloseable {
+
+    private final String name;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final Function<List<I>, List<O>> batchCall;
+    private final BlockingQueue<Pending<I, O>> queue;
+    private final Semaphore slots;
+    private final ExecutorService workers;
+    private final Thread dispatcher;
+    private volatile boolean closed;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong items = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public MicroBatcher(String name, int maxBatchSize, Duration maxWait, int maxConcurrentBatches,
+                        int maxQueuedItems, Function<List<I>, List<O>> batchCall) {
+        if (maxBatchSize < 1 || maxConcurrentBatches < 1 || maxQueuedItems < 1 || maxWait.isNegative()) {
+            throw new IllegalArgumentException("Invalid micro-batch limits");
+        }
+        this.name = name;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.batchCall = batchCall;
+        this.queue = new LinkedBlockingQueue<>(maxQueuedItems);
+        this.slots = new Semaphore(maxConcurrentBatches);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(maxConcurrentBatches, runnable -> {
+            Thread thread = new Thread(runnable, name + "-batch-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = new Thread(this::dispatch, name + "-batcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Queue an item; the future completes with its result once its batch returns, or
+     * fails at once when the queue is full. Cancelling the future drops the item if
+     * its batch has not been sent yet.
+     */
+    public CompletableFuture<O> submit(I item) {
+        CompletableFuture<O> future = new CompletableFuture<>();
+        if (closed) {
+            future.completeExceptionally(new IllegalStateException(name + " batcher is closed"));
+            return future;
+        }
+        if (!queue.offer(new Pending<>(item, future, System.nanoTime()))) {
+            rejected.incrementAndGet();
+            future.completeExceptionally(new RejectedExecutionException(name + " batch queue is full"));
+            return future;
+        }
+        if (closed) {
+            failQueued();
+        }
+        return future;
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    public long getItems() {
+        return items.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public int getQueued() {
+        return queue.size();
+    }
+
+    public double getAverageBatchSize() {
+        long count = batches.get();
+        return count == 0 ? 0 : (double) items.get() / count;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        dispatcher.interrupt();
+        workers.shutdown();
+        failQueued();
+    }
+
+    private void dispatch() {
+        List<Pending<I, O>> batch = new ArrayList<>(maxBatchSize);
+        while (!closed) {
+            try {
+                slots.acquire();
+                Pending<I, O> first = queue.take();
+                while (isDropped(first)) {
+                    first = queue.take();
+                }
+                batch.add(first);
+                long flushAt = first.enqueuedAt + maxWaitNanos;
+                while (batch.size() < maxBatchSize) {
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        batch.removeIf(this::isDropped);
+                        continue;
+                    }
+                    long remaining = flushAt - System.nanoTime();
+                    Pending<I, O> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    if (!isDropped(next)) {
+                        batch.add(next);
+                    }
+                }
+            } catch (InterruptedException e) {
+                fail(batch, new IllegalStateException(name + " batcher is closed"));
+                break;
+            }
+
+            List<Pending<I, O>> ready = List.copyOf(batch);
+            batch.clear();
+            try {
+                workers.execute(() -> run(ready));
+            } catch (RejectedExecutionException e) {
+                slots.release();
+                fail(ready, e);
+            }
+        }
+        failQueued();
+    }
+
+    private void run(List<Pending<I, O>> ready) {
+        try {
+            // Callers may have given up while the batch waited for a worker
+            List<Pending<I, O>> batch = new ArrayList<>(ready.size());
+            for (Pending<I, O> pending : ready) {
+                if (!isDropped(pending)) {
+                    batch.add(pending);
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            batches.incrementAndGet();
+            items.addAndGet(batch.size());
+            List<I> input = new ArrayList<>(batch.size());
+            for (Pending<I, O> pending : batch) {
+                input.add(pending.item);
+            }
+
+            List<O> results = batchCall.apply(input);
+            if (results == null || results.size() != batch.size()) {
+                throw new IllegalStateException("Batch of " + batch.size() + " items returned "
+                    + (results == null ? "no" : String.valueOf(results.size())) + " results");
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                O result = results.get(i);
+                if (result == null) {
+                    batch.get(i).future.completeExceptionally(new IllegalStateException("No result for batch item"));
+                } else {
+                    batch.get(i).future.complete(result);
+                }
+            }
+        } catch (Throwable t) {
+            fail(ready, t);
+        } finally {
+            slots.release();
+        }
+    }
+
+    private boolean isDropped(Pending<I, O> pending) {
+        if (pending.future.isDone()) {
+            dropped.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    private void failQueued() {
+        List<Pending<I, O>> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        fail(remaining, new IllegalStateException(name + " batcher is closed"));
+    }
+
+    private static <I, O> void fail(List<Pending<I, O>> batch, Throwable cause) {
+        for (Pending<I, O> pending : batch) {
+            pending.future.completeExceptionally(cause);
+        }
+    }
+
+    private static final class Pending<I, O> {
+        private final I item;
+        private final CompletableFuture<O> future;
+        private final long enqueuedAt;
+
+        private Pending(I item, CompletableFuture<O> future, long enqueuedAt) {
+            this.item = item;
+            this.future = future;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
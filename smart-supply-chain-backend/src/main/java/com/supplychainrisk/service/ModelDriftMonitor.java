@@ -0,0 +1,429 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.dto.RiskPredictionDTO;
+import com.supplychainrisk.entity.Supplier;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Detects drift in the inputs and outputs of risk prediction models.
+ *
+ * Every fresh prediction is recorded into fixed-bin {@link DriftHistogram}s, one per
+ * supplier feature and per predicted value, kept separately for each model (ML service,
+ * fallback) and reset when the model version changes. Recording only increments atomic
+ * bin counters; nothing is written to the database.
+ *
+ * {@link #evaluate()} closes a window once it holds enough predictions. The first windows
+ * of a model version build its reference histograms; later windows are compared with the
+ * reference by PSI and binned KS distance, each O(bins) per signal. Both statistics are
+ * noisy on finite samples, so their limits grow as the samples shrink: KS must also reach
+ * the two-sample critical value c * sqrt((n + m) / (n * m)), and PSI must exceed its
+ * threshold by the (bins - 1) * (1/n + 1/m) a stable stream is expected to show. A signal
+ * drifts once it has crossed a limit in several consecutive windows, and a model raises
+ * at most one drift alert per cooldown.
+ */
+@Service
+public class ModelDriftMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModelDriftMonitor.class);
+
+    // Supplier features tracked, with the range their bins cover; horizon_days is a request parameter
+    private static final Map<String, double[]> FEATURE_RANGES = new LinkedHashMap<>();
+    // Prediction outputs tracked, with the range their bins cover
+    private static final Map<String, double[]> OUTPUT_RANGES = new LinkedHashMap<>();
+
+    static {
+        for (String score : List.of("overall_risk_score", "financial_risk_score", "operational_risk_score",
+                "compliance_risk_score", "geographic_risk_score", "on_time_delivery_rate")) {
+            FEATURE_RANGES.put(score, new double[] {0, 100});
+        }
+        FEATURE_RANGES.put("quality_rating", new double[] {0, 10});
+        FEATURE_RANGES.put("years_in_business", new double[] {0, 100});
+        FEATURE_RANGES.put("log_employee_count", new double[] {0, 12});
+        FEATURE_RANGES.put("log_annual_revenue", new double[] {0, 25});
+        FEATURE_RANGES.put("iso_certification_count", new double[] {0, 10});
+        FEATURE_RANGES.put("compliance_certification_count", new double[] {0, 10});
+
+        OUTPUT_RANGES.put("predicted_overall", new double[] {0, 100});
+        OUTPUT_RANGES.put("predicted_financial", new double[] {0, 100});
+        OUTPUT_RANGES.put("predicted_operational", new double[] {0, 100});
+        OUTPUT_RANGES.put("overall_risk_trend", new double[] {-50, 50});
+        OUTPUT_RANGES.put("confidence", new double[] {0, 100});
+    }
+
+    private static final int[] FEATURE_INDEXES = FEATURE_RANGES.keySet().stream()
+        .mapToInt(FallbackModelService.FEATURES::indexOf).toArray();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ml.drift.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ml.drift.bins:20}")
+    private int bins;
+
+    @Value("${ml.drift.min-window-samples:1000}")
+    private long minWindowSamples;
+
+    @Value("${ml.drift.reference-samples:2000}")
+    private long referenceSize;
+
+    @Value("${ml.drift.psi-threshold:0.2}")
+    private double psiThreshold;
+
+    // Smallest KS distance reported as drift, however large the samples
+    @Value("${ml.drift.ks-threshold:0.1}")
+    private double ksThreshold;
+
+    // c(alpha) of the two-sample KS test; 1.95 is alpha = 0.001
+    @Value("${ml.drift.ks-critical-coefficient:1.95}")
+    private double ksCriticalCoefficient;
+
+    @Value("${ml.drift.consecutive-windows:2}")
+    private int consecutiveWindows;
+
+    @Value("${ml.drift.alert-cooldown-minutes:60}")
+    private long alertCooldownMinutes;
+
+    private final Map<String, ModelStream> streams = new ConcurrentHashMap<>();
+    private final Map<String, double[]> gaugeValues = new ConcurrentHashMap<>();
+
+    /**
+     * Record the inputs and outputs of a freshly computed prediction
+     */
+    public void record(String model, String modelVersion, Supplier supplier, int horizonDays,
+                       RiskPredictionDTO prediction) {
+        if (!enabled || prediction == null) {
+            return;
+        }
+        ModelStream stream = stream(model, modelVersion);
+        double[] features = new double[FallbackModelService.FEATURES.size()];
+        FallbackModelService.extract(supplier, horizonDays, features);
+        int signal = 0;
+        for (int index : FEATURE_INDEXES) {
+            stream.histograms[signal++].record(features[index]);
+        }
+        Map<String, ?> riskScores = prediction.getRiskScores() == null ? Map.of() : prediction.getRiskScores();
+        stream.histograms[signal++].record(value(riskScores.get("predicted_overall")));
+        stream.histograms[signal++].record(value(riskScores.get("predicted_financial")));
+        stream.histograms[signal++].record(value(riskScores.get("predicted_operational")));
+        stream.histograms[signal++].record(value(prediction.getOverallRiskTrend()));
+        stream.histograms[signal].record(value(prediction.getConfidence()));
+        stream.pending.incrementAndGet();
+    }
+
+    /**
+     * Close every window holding enough predictions and compare it with its reference.
+     * Returns the reports of the windows compared in this call.
+     */
+    public synchronized List<DriftReport> evaluate() {
+        List<DriftReport> reports = new ArrayList<>();
+        for (ModelStream stream : streams.values()) {
+            long pending = stream.pending.get();
+            if (pending < minWindowSamples) {
+                continue;
+            }
+            stream.pending.addAndGet(-pending);
+            long[][] window = new long[stream.histograms.length][];
+            for (int i = 0; i < window.length; i++) {
+                window[i] = stream.histograms[i].drain();
+            }
+
+            if (!stream.isBaselined()) {
+                for (int i = 0; i < window.length; i++) {
+                    for (int bin = 0; bin < window[i].length; bin++) {
+                        stream.reference[i][bin] += window[i][bin];
+                    }
+                }
+                stream.referenceSamples += pending;
+                if (stream.isBaselined()) {
+                    logger.info("Drift reference for {} model {} complete with {} predictions",
+                        stream.model, stream.modelVersion, stream.referenceSamples);
+                }
+                continue;
+            }
+
+            DriftReport report = compare(stream, window, pending);
+            stream.lastReport = report;
+            reports.add(report);
+        }
+        return reports;
+    }
+
+    /**
+     * Discard all references and windows; each model re-baselines from its next predictions
+     */
+    public synchronized Map<String, Object> rebaseline() {
+        streams.clear();
+        logger.info("Drift references discarded; re-baselining from new predictions");
+        return getStatus();
+    }
+
+    /**
+     * Largest PSI of the latest window of any model, 0 before the first comparison
+     */
+    public double getLatestDriftScore() {
+        double score = 0.0;
+        for (ModelStream stream : streams.values()) {
+            DriftReport report = stream.lastReport;
+            if (report != null) {
+                score = Math.max(score, report.getMaxPsi());
+            }
+        }
+        return score;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("bins", bins);
+        status.put("minWindowSamples", minWindowSamples);
+        status.put("referenceSamples", referenceSize);
+        status.put("psiThreshold", psiThreshold);
+        status.put("ksThreshold", ksThreshold);
+        status.put("ksCriticalCoefficient", ksCriticalCoefficient);
+        status.put("consecutiveWindows", consecutiveWindows);
+        status.put("alertCooldownMinutes", alertCooldownMinutes);
+        Map<String, Object> models = new LinkedHashMap<>();
+        for (ModelStream stream : streams.values()) {
+            Map<String, Object> model = new LinkedHashMap<>();
+            model.put("modelVersion", stream.modelVersion);
+            model.put("baselined", stream.isBaselined());
+            model.put("referenceSamples", stream.referenceSamples);
+            model.put("pendingSamples", stream.pending.get());
+            model.put("since", stream.since);
+            model.put("lastReport", stream.lastReport);
+            models.put(stream.model, model);
+        }
+        status.put("models", models);
+        return status;
+    }
+
+    private DriftReport compare(ModelStream stream, long[][] window, long samples) {
+        Map<String, SignalDrift> signals = new LinkedHashMap<>();
+        List<String> drifted = new ArrayList<>();
+        for (int i = 0; i < window.length; i++) {
+            String name = stream.names.get(i);
+            double psi = DriftHistogram.psi(stream.reference[i], window[i]);
+            double ks = DriftHistogram.ks(stream.reference[i], window[i]);
+            double psiLimit = psiThreshold + psiNoise(stream.reference[i], window[i]);
+            double ksLimit = Math.max(ksThreshold, ksCriticalValue(stream.reference[i], window[i]));
+            signals.put(name, new SignalDrift(i < FEATURE_INDEXES.length ? "FEATURE" : "OUTPUT", psi, ks,
+                psiLimit, ksLimit, DriftHistogram.total(window[i], window[i].length)));
+            boolean breached = psi >= psiLimit || ks >= ksLimit;
+            stream.breachStreak[i] = breached ? stream.breachStreak[i] + 1 : 0;
+            if (stream.breachStreak[i] >= Math.max(1, consecutiveWindows)) {
+                drifted.add(name);
+            }
+            gauge("ml.drift.psi", stream.model, name)[0] = psi;
+            gauge("ml.drift.ks", stream.model, name)[0] = ks;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        boolean alert = !drifted.isEmpty() && (stream.lastAlertAt == null
+            || !stream.lastAlertAt.plusMinutes(alertCooldownMinutes).isAfter(now));
+        if (alert) {
+            stream.lastAlertAt = now;
+        }
+        return new DriftReport(stream.model, stream.modelVersion, samples, signals, drifted, alert);
+    }
+
+    /**
+     * PSI a window drawn from the reference distribution shows on average,
+     * about (occupied bins - 1) * (1/n + 1/m) for n reference and m window values
+     */
+    private static double psiNoise(long[] reference, long[] window) {
+        long n = DriftHistogram.total(reference, reference.length);
+        long m = DriftHistogram.total(window, window.length);
+        if (n == 0 || m == 0) {
+            return 0.0;
+        }
+        int occupied = 0;
+        for (int bin = 0; bin < reference.length; bin++) {
+            if (reference[bin] > 0 || window[bin] > 0) {
+                occupied++;
+            }
+        }
+        return Math.max(0, occupied - 1) * (1.0 / n + 1.0 / m);
+    }
+
+    /**
+     * Two-sample KS critical value over the present values of both histograms
+     */
+    private double ksCriticalValue(long[] reference, long[] window) {
+        long n = DriftHistogram.total(reference, reference.length - 1);
+        long m = DriftHistogram.total(window, window.length - 1);
+        if (n == 0 || m == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return ksCriticalCoefficient * Math.sqrt((double) (n + m) / ((double) n * m));
+    }
+
+    private ModelStream stream(String model, String modelVersion) {
+        ModelStream stream = streams.get(model);
+        if (stream != null && stream.modelVersion.equals(modelVersion)) {
+            return stream;
+        }
+        return streams.compute(model, (key, existing) -> {
+            if (existing != null && existing.modelVersion.equals(modelVersion)) {
+                return existing;
+            }
+            if (existing != null) {
+                logger.info("Model {} changed from {} to {}; re-baselining drift reference",
+                    model, existing.modelVersion, modelVersion);
+            }
+            return new ModelStream(model, modelVersion);
+        });
+    }
+
+    private double[] gauge(String name, String model, String signal) {
+        return gaugeValues.computeIfAbsent(name + '|' + model + '|' + signal, key -> {
+            double[] value = new double[1];
+            Gauge.builder(name, value, holder -> holder[0])
+                .tag("model", model)
+                .tag("signal", signal)
+                .register(meterRegistry);
+            return value;
+        });
+    }
+
+    private static double value(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal.doubleValue();
+        }
+        return value instanceof Number number ? number.doubleValue() : Double.NaN;
+    }
+
+    /**
+     * Live histograms and reference of one model version
+     */
+    private final class ModelStream {
+        private final String model;
+        private final String modelVersion;
+        private final List<String> names = new ArrayList<>();
+        private final DriftHistogram[] histograms;
+        private final long[][] reference;
+        private final AtomicLong pending = new AtomicLong();
+        private final LocalDateTime since = LocalDateTime.now();
+        // Guarded by the monitor
+        private long referenceSamples;
+        private final int[] breachStreak;
+        private LocalDateTime lastAlertAt;
+        private volatile DriftReport lastReport;
+
+        private ModelStream(String model, String modelVersion) {
+            this.model = model;
+            this.modelVersion = modelVersion;
+            List<double[]> ranges = new ArrayList<>();
+            FEATURE_RANGES.forEach((name, range) -> {
+                names.add(name);
+                ranges.add(range);
+            });
+            OUTPUT_RANGES.forEach((name, range) -> {
+                names.add(name);
+                ranges.add(range);
+            });
+            this.histograms = new DriftHistogram[ranges.size()];
+            this.reference = new long[ranges.size()][bins + 1];
+            this.breachStreak = new int[ranges.size()];
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i] = new DriftHistogram(ranges.get(i)[0], ranges.get(i)[1], bins);
+            }
+        }
+
+        private boolean isBaselined() {
+            return referenceSamples >= referenceSize;
+        }
+    }
+
+    /**
+     * Drift of one signal in one window
+     */
+    public static final class SignalDrift {
+        private final String kind;
+        private final double psi;
+        private final double ks;
+        private final double psiLimit;
+        private final double ksLimit;
+        private final long samples;
+
+        SignalDrift(String kind, double psi, double ks, double psiLimit, double ksLimit, long samples) {
+            this.kind = kind;
+            this.psi = psi;
+            this.ks = ks;
+            this.psiLimit = psiLimit;
+            this.ksLimit = ksLimit;
+            this.samples = samples;
+        }
+
+        public String getKind() { return kind; }
+        public double getPsi() { return psi; }
+        public double getKs() { return ks; }
+        public double getPsiLimit() { return psiLimit; }
+        public double getKsLimit() { return ksLimit; }
+        public long getSamples() { return samples; }
+    }
+
+    /**
+     * Comparison of one window of a model with its reference
+     */
+    public static final class DriftReport {
+        private final String model;
+        private final String modelVersion;
+        private final long windowSamples;
+        private final Map<String, SignalDrift> signals;
+        private final List<String> driftedSignals;
+        private final boolean alert;
+        private final LocalDateTime evaluatedAt = LocalDateTime.now();
+
+        DriftReport(String model, String modelVersion, long windowSamples, Map<String, SignalDrift> signals,
+                    List<String> driftedSignals, boolean alert) {
+            this.model = model;
+            this.modelVersion = modelVersion;
+            this.windowSamples = windowSamples;
+            this.signals = Collections.unmodifiableMap(signals);
+            this.driftedSignals = Collections.unmodifiableList(driftedSignals);
+            this.alert = alert;
+        }
+
+        public String getModel() { return model; }
+        public String getModelVersion() { return modelVersion; }
+        public long getWindowSamples() { return windowSamples; }
+        public Map<String, SignalDrift> getSignals() { return signals; }
+        public List<String> getDriftedSignals() { return driftedSignals; }
+        public LocalDateTime getEvaluatedAt() { return evaluatedAt; }
+        public boolean isDrifted() { return !driftedSignals.isEmpty(); }
+
+        /**
+         * Whether this drift should be alerted, i.e. the model's alert cooldown has passed
+         */
+        public boolean isAlert() { return alert; }
+
+        /**
+         * Whether a predicted value drifted, not only model inputs
+         */
+        public boolean isOutputDrifted() {
+            return driftedSignals.stream().anyMatch(name -> "OUTPUT".equals(signals.get(name).getKind()));
+        }
+
+        public double getMaxPsi() {
+            return signals.values().stream().mapToDouble(SignalDrift::getPsi).max().orElse(0.0);
+        }
+    }
+}
@@ -0,0 +1,446 @@
+package com.supplychainrisk.service;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Monte Carlo simulation of supplier disruption, delivery delay and cost shocks
+ * over a planning horizon.
+ *
+ * Trials run in fixed-size batches. Every batch draws from its own
+ * {@link SplittableRandom} split off the seeded root in batch order before any
+ * batch starts, and batches are merged in index order, so a given seed yields
+ * the same distribution whatever the number of cores. Batches of a round run in
+ * parallel; after each round the 95% confidence intervals of the mean cost and
+ * delay impact are checked and the simulation stops once both are within the
+ * tolerance (relative to the larger of |mean| and the standard deviation, so a
+ * near-zero mean still converges).
+ */
+public final class MonteCarloSimulator {
+
+    private static final double Z_95 = 1.959964;
+
+    // Outage length is log-normal: median 3 days for a risk-free supplier, 17 at operational risk 100
+    private static final double OUTAGE_MEDIAN_BASE_DAYS = 3.0;
+    private static final double OUTAGE_MEDIAN_RISK_DAYS = 14.0;
+    private static final double OUTAGE_SIGMA = 0.75;
+
+    // Share of an affected shipment's cost spent on expediting or spot sourcing
+    private static final double EXPEDITE_PREMIUM = 0.35;
+
+    // Price volatility over the horizon: 2% plus up to 15% at financial risk 100
+    private static final double BASE_PRICE_VOLATILITY = 0.02;
+    private static final double RISK_PRICE_VOLATILITY = 0.15;
+
+    private static final int EXACT_BINOMIAL_LIMIT = 50;
+
+    private MonteCarloSimulator() {
+    }
+
+    public static Result run(Portfolio portfolio, Shock shock, Settings settings) {
+        long start = System.nanoTime();
+        SplittableRandom root = new SplittableRandom(settings.seed);
+        int maxBatches = (settings.maxTrials + settings.batchSize - 1) / settings.batchSize;
+
+        double[] cost = new double[0];
+        double[] delay = new double[0];
+        double[] supplierCost = new double[portfolio.size()];
+        double[] supplierDelay = new double[portfolio.size()];
+        StreamingStatistics costStatistics = new StreamingStatistics();
+        StreamingStatistics delayStatistics = new StreamingStatistics();
+        long trialsWithDisruption = 0;
+        long disruptions = 0;
+        int trials = 0;
+        int batchesRun = 0;
+        boolean converged = false;
+
+        while (batchesRun < maxBatches && !converged) {
+            int roundBatches = Math.min(settings.roundBatches, maxBatches - batchesRun);
+            int firstTrial = batchesRun * settings.batchSize;
+            SplittableRandom[] streams = new SplittableRandom[roundBatches];
+            int[] sizes = new int[roundBatches];
+            for (int b = 0; b < roundBatches; b++) {
+                streams[b] = root.split();
+                sizes[b] = Math.min(settings.batchSize, settings.maxTrials - firstTrial - b * settings.batchSize);
+            }
+
+            IntStream batches = IntStream.range(0, roundBatches);
+            if (settings.parallel) {
+                batches = batches.parallel();
+            }
+            Batch[] results = new Batch[roundBatches];
+            batches.forEach(b -> results[b] = simulate(portfolio, shock, settings.horizonDays, sizes[b], streams[b]));
+
+            int roundTrials = Arrays.stream(sizes).sum();
+            cost = Arrays.copyOf(cost, trials + roundTrials);
+            delay = Arrays.copyOf(delay, trials + roundTrials);
+            for (Batch batch : results) {
+                System.arraycopy(batch.cost, 0, cost, trials, batch.cost.length);
+                System.arraycopy(batch.delay, 0, delay, trials, batch.delay.length);
+                trials += batch.cost.length;
+                costStatistics.combine(batch.costStatistics);
+                delayStatistics.combine(batch.delayStatistics);
+                trialsWithDisruption += batch.trialsWithDisruption;
+                disruptions += batch.disruptions;
+                for (int s = 0; s < supplierCost.length; s++) {
+                    supplierCost[s] += batch.supplierCost[s];
+                    supplierDelay[s] += batch.supplierDelay[s];
+                }
+            }
+            batchesRun += roundBatches;
+
+            converged = trials >= settings.minTrials
+                && withinTolerance(costStatistics, settings.relativeTolerance)
+                && withinTolerance(delayStatistics, settings.relativeTolerance);
+        }
+
+        for (int s = 0; s < supplierCost.length; s++) {
+            supplierCost[s] /= Math.max(trials, 1);
+            supplierDelay[s] /= Math.max(trials, 1);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        return new Result(trials, converged, new Distribution(cost, costStatistics),
+            new Distribution(delay, delayStatistics), trials > 0 ? (double) trialsWithDisruption / trials : 0,
+            trials > 0 ? (double) disruptions / trials : 0, supplierCost, supplierDelay, elapsedNanos);
+    }
+
+    static boolean withinTolerance(StreamingStatistics statistics, double relativeTolerance) {
+        long n = statistics.getCount();
+        if (n < 2) {
+            return false;
+        }
+        double standardDeviation = Math.sqrt(statistics.getSampleVariance());
+        double halfWidth = Z_95 * standardDeviation / Math.sqrt(n);
+        double scale = Math.max(Math.abs(statistics.getMean()), standardDeviation);
+        return halfWidth <= relativeTolerance * scale;
+    }
+
+    private static Batch simulate(Portfolio portfolio, Shock shock, int horizonDays, int trials,
+                                  SplittableRandom random) {
+        Batch batch = new Batch(trials, portfolio.size());
+        double horizonYears = horizonDays / 365.0;
+        for (int t = 0; t < trials; t++) {
+            double trialCost = 0;
+            double trialDelay = 0;
+            int trialDisruptions = 0;
+            for (int s = 0; s < portfolio.size(); s++) {
+                double shipments = portfolio.shipmentsPerDay[s] * horizonDays;
+                double shipmentCost = portfolio.costPerShipment[s];
+                double cost = 0;
+                double delay = 0;
+
+                double disruptionProbability = Math.min(0.95,
+                    portfolio.disruptionRisk[s] / 100.0 * horizonYears * shock.disruptionMultiplier);
+                if (random.nextDouble() < disruptionProbability) {
+                    trialDisruptions++;
+                    double median = OUTAGE_MEDIAN_BASE_DAYS
+                        + OUTAGE_MEDIAN_RISK_DAYS * portfolio.operationalRisk[s] / 100.0;
+                    double outageDays = Math.min(horizonDays, median * Math.exp(OUTAGE_SIGMA * random.nextGaussian()));
+                    double affected = portfolio.shipmentsPerDay[s] * outageDays;
+                    // Shipments due during the outage wait on average half of it
+                    delay += affected * outageDays * 12.0;
+                    cost += affected * shipmentCost * EXPEDITE_PREMIUM;
+                }
+
+                double lateProbability = Math.min(1.0, portfolio.lateRate[s] * shock.delayMultiplier);
+                long late = binomial(random, Math.round(shipments), lateProbability);
+                delay += gammaSum(random, late, portfolio.meanDelayHours[s] * shock.delayMultiplier);
+
+                double volatility = BASE_PRICE_VOLATILITY + RISK_PRICE_VOLATILITY * portfolio.financialRisk[s] / 100.0;
+                cost += shipments * shipmentCost * (shock.costShock + volatility * random.nextGaussian());
+
+                trialCost += cost;
+                trialDelay += delay;
+                batch.supplierCost[s] += cost;
+                batch.supplierDelay[s] += delay;
+            }
+            batch.cost[t] = trialCost;
+            batch.delay[t] = trialDelay;
+            batch.costStatistics.accept(trialCost);
+            batch.delayStatistics.accept(trialDelay);
+            batch.disruptions += trialDisruptions;
+            if (trialDisruptions > 0) {
+                batch.trialsWithDisruption++;
+            }
+        }
+        return batch;
+    }
+
+    // Exact for small counts, normal approximation beyond
+    private static long binomial(SplittableRandom random, long n, double p) {
+        if (n <= 0 || p <= 0) {
+            return 0;
+        }
+        if (p >= 1) {
+            return n;
+        }
+        if (n <= EXACT_BINOMIAL_LIMIT) {
+            long successes = 0;
+            for (long i = 0; i < n; i++) {
+                if (random.nextDouble() < p) {
+                    successes++;
+                }
+            }
+            return successes;
+        }
+        double mean = n * p;
+        double draw = Math.rint(mean + Math.sqrt(mean * (1 - p)) * random.nextGaussian());
+        return (long) Math.max(0, Math.min(n, draw));
+    }
+
+    // Sum of k exponential delays with the given mean; normal approximation beyond the exact limit
+    private static double gammaSum(SplittableRandom random, long k, double mean) {
+        if (k <= 0 || mean <= 0) {
+            return 0;
+        }
+        if (k <= EXACT_BINOMIAL_LIMIT) {
+            double sum = 0;
+            for (long i = 0; i < k; i++) {
+                sum -= mean * Math.log(1.0 - random.nextDouble());
+            }
+            return sum;
+        }
+        return Math.max(0, k * mean + Math.sqrt(k) * mean * random.nextGaussian());
+    }
+
+    /**
+     * Per-supplier simulation inputs as primitive columns
+     */
+    public static final class Portfolio {
+        private final double[] disruptionRisk;
+        private final double[] operationalRisk;
+        private final double[] financialRisk;
+        private final double[] lateRate;
+        private final double[] meanDelayHours;
+        private final double[] shipmentsPerDay;
+        private final double[] costPerShipment;
+        private int size;
+
+        public Portfolio(int capacity) {
+            disruptionRisk = new double[capacity];
+            operationalRisk = new double[capacity];
+            financialRisk = new double[capacity];
+            lateRate = new double[capacity];
+            meanDelayHours = new double[capacity];
+            shipmentsPerDay = new double[capacity];
+            costPerShipment = new double[capacity];
+        }
+
+        /**
+         * @param disruptionRisk  0-100, annual disruption probability in percent
+         * @param operationalRisk 0-100, drives outage length
+         * @param financialRisk   0-100, drives price volatility
+         * @param lateRate        share of shipments delivered late (0-1)
+         * @param meanDelayHours  mean lateness of a late shipment
+         * @param shipmentsPerDay shipment rate
+         * @param costPerShipment mean landed cost of a shipment
+         */
+        public Portfolio add(double disruptionRisk, double operationalRisk, double financialRisk, double lateRate,
+                             double meanDelayHours, double shipmentsPerDay, double costPerShipment) {
+            this.disruptionRisk[size] = disruptionRisk;
+            this.operationalRisk[size] = operationalRisk;
+            this.financialRisk[size] = financialRisk;
+            this.lateRate[size] = lateRate;
+            this.meanDelayHours[size] = meanDelayHours;
+            this.shipmentsPerDay[size] = shipmentsPerDay;
+            this.costPerShipment[size] = costPerShipment;
+            size++;
+            return this;
+        }
+
+        public int size() { return size; }
+    }
+
+    /**
+     * Stress applied on top of the portfolio's own risk: multipliers of 1 and no cost shock is the baseline
+     */
+    public static final class Shock {
+        public static final Shock BASELINE = new Shock(1.0, 1.0, 0.0);
+
+        private final double disruptionMultiplier;
+        private final double delayMultiplier;
+        private final double costShock;
+
+        /**
+         * @param costShock relative price change, e.g. 0.1 for +10%
+         */
+        public Shock(double disruptionMultiplier, double delayMultiplier, double costShock) {
+            this.disruptionMultiplier = disruptionMultiplier;
+            this.delayMultiplier = delayMultiplier;
+            this.costShock = costShock;
+        }
+
+        public double getDisruptionMultiplier() { return disruptionMultiplier; }
+        public double getDelayMultiplier() { return delayMultiplier; }
+        public double getCostShock() { return costShock; }
+    }
+
+    public static final class Settings {
+        private final long seed;
+        private final int horizonDays;
+        private final int maxTrials;
+        private final int minTrials;
+        private final int batchSize;
+        private final int roundBatches;
+        private final double relativeTolerance;
+        private final boolean parallel;
+
+        private Settings(Builder builder) {
+            this.seed = builder.seed;
+            this.horizonDays = builder.horizonDays;
+            this.maxTrials = builder.maxTrials;
+            this.minTrials = builder.minTrials;
+            this.batchSize = builder.batchSize;
+            this.roundBatches = builder.roundBatches;
+            this.relativeTolerance = builder.relativeTolerance;
+            this.parallel = builder.parallel;
+        }
+
+        public static Builder builder() {
+            return new Builder();
+        }
+
+        public long getSeed() { return seed; }
+        public int getHorizonDays() { return horizonDays; }
+        public int getMaxTrials() { return maxTrials; }
+        public double getRelativeTolerance() { return relativeTolerance; }
+
+        public static class Builder {
+            private long seed = 17L;
+            private int horizonDays = 90;
+            private int maxTrials = 100_000;
+            private int minTrials = 2_000;
+            private int batchSize = 500;
+            private int roundBatches = 16;
+            private double relativeTolerance = 0.01;
+            private boolean parallel = true;
+
+            public Builder seed(long seed) { this.seed = seed; return this; }
+            public Builder horizonDays(int horizonDays) { this.horizonDays = horizonDays; return this; }
+            public Builder maxTrials(int maxTrials) { this.maxTrials = maxTrials; return this; }
+            public Builder minTrials(int minTrials) { this.minTrials = minTrials; return this; }
+            public Builder batchSize(int batchSize) { this.batchSize = batchSize; return this; }
+            public Builder roundBatches(int roundBatches) { this.roundBatches = roundBatches; return this; }
+            public Builder relativeTolerance(double relativeTolerance) {
+                this.relativeTolerance = relativeTolerance;
+                return this;
+            }
+            public Builder parallel(boolean parallel) { this.parallel = parallel; return this; }
+
+            public Settings build() {
+                if (horizonDays < 1 || maxTrials < 1 || batchSize < 1 || roundBatches < 1) {
+                    throw new IllegalArgumentException(
+                        "Horizon, trials, batch size and round batches must be positive");
+                }
+                return new Settings(this);
+            }
+        }
+    }
+
+    /**
+     * Summary of one simulated quantity across trials
+     */
+    public static final class Distribution {
+        private final double mean;
+        private final double standardDeviation;
+        private final double confidenceHalfWidth;
+        private final double p50;
+        private final double p90;
+        private final double p99;
+        private final double min;
+        private final double max;
+
+        private Distribution(double[] values, StreamingStatistics statistics) {
+            double[] sorted = values.clone();
+            Arrays.sort(sorted);
+            long n = statistics.getCount();
+            this.mean = statistics.getMean();
+            this.standardDeviation = n > 1 ? Math.sqrt(statistics.getSampleVariance()) : 0;
+            this.confidenceHalfWidth = n > 1 ? Z_95 * standardDeviation / Math.sqrt(n) : 0;
+            this.p50 = percentile(sorted, 0.50);
+            this.p90 = percentile(sorted, 0.90);
+            this.p99 = percentile(sorted, 0.99);
+            this.min = sorted.length > 0 ? sorted[0] : 0;
+            this.max = sorted.length > 0 ? sorted[sorted.length - 1] : 0;
+        }
+
+        // Nearest-rank percentile
+        static double percentile(double[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(p * sorted.length);
+            return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+        }
+
+        public double getMean() { return mean; }
+        public double getStandardDeviation() { return standardDeviation; }
+        public double getConfidenceHalfWidth() { return confidenceHalfWidth; }
+        public double getP50() { return p50; }
+        public double getP90() { return p90; }
+        public double getP99() { return p99; }
+        public double getMin() { return min; }
+        public double getMax() { return max; }
+    }
+
+    public static final class Result {
+        private final int trials;
+        private final boolean converged;
+        private final Distribution costImpact;
+        private final Distribution delayImpactHours;
+        private final double disruptionProbability;
+        private final double expectedDisruptions;
+        private final double[] supplierCostImpact;
+        private final double[] supplierDelayHours;
+        private final long elapsedNanos;
+
+        private Result(int trials, boolean converged, Distribution costImpact, Distribution delayImpactHours,
+                       double disruptionProbability, double expectedDisruptions, double[] supplierCostImpact,
+                       double[] supplierDelayHours, long elapsedNanos) {
+            this.trials = trials;
+            this.converged = converged;
+            this.costImpact = costImpact;
+            this.delayImpactHours = delayImpactHours;
+            this.disruptionProbability = disruptionProbability;
+            this.expectedDisruptions = expectedDisruptions;
+            this.supplierCostImpact = supplierCostImpact;
+            this.supplierDelayHours = supplierDelayHours;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getTrials() { return trials; }
+        public boolean isConverged() { return converged; }
+        public Distribution getCostImpact() { return costImpact; }
+        public Distribution getDelayImpactHours() { return delayImpactHours; }
+        /** Share of trials with at least one supplier disruption */
+        public double getDisruptionProbability() { return disruptionProbability; }
+        public double getExpectedDisruptions() { return expectedDisruptions; }
+        /** Mean cost impact per supplier, in portfolio order */
+        public double getSupplierCostImpact(int supplier) { return supplierCostImpact[supplier]; }
+        public double getSupplierDelayHours(int supplier) { return supplierDelayHours[supplier]; }
+        public long getElapsedMs() { return elapsedNanos / 1_000_000; }
+
+        public double getTrialsPerSecond() {
+            return elapsedNanos > 0 ? trials * 1e9 / elapsedNanos : 0;
+        }
+    }
+
+    private static final class Batch {
+        private final double[] cost;
+        private final double[] delay;
+        private final double[] supplierCost;
+        private final double[] supplierDelay;
+        private final StreamingStatistics costStatistics = new StreamingStatistics();
+        private final StreamingStatistics delayStatistics = new StreamingStatistics();
+        private long trialsWithDisruption;
+        private long disruptions;
+
+        private Batch(int trials, int suppliers) {
+            cost = new double[trials];
+            delay = new double[trials];
+            supplierCost = new double[suppliers];
+            supplierDelay = new double[suppliers];
+        }
+    }
+}
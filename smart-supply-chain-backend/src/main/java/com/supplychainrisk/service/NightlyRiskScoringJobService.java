@@ -0,0 +1,748 @@
+package com.supplychainrisk.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.supplychainrisk.dto.RiskPredictionDTO;
+import com.supplychainrisk.entity.BatchJobExecution;
+import com.supplychainrisk.entity.RiskPrediction;
+import com.supplychainrisk.entity.Shipment;
+import com.supplychainrisk.entity.Supplier;
+import com.supplychainrisk.exception.BusinessException;
+import com.supplychainrisk.repository.BatchJobExecutionRepository;
+import com.supplychainrisk.repository.ShipmentRepository;
+import com.supplychainrisk.repository.SupplierRepository;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Nightly re-prediction of every supplier and in-flight shipment.
+ *
+ * The job walks suppliers and then in-flight shipments in keyset chunks. Each chunk
+ * is scored on a small pool of low-priority workers through
+ * {@link MLPredictionService#predictRiskForBatch}, so the ML service is used when enabled
+ * and the embedded fallback model otherwise, without touching the prediction cache or the
+ * live drift and shadow monitoring. Suppliers get delay, cost increase and
+ * disruption predictions; shipments get a delay prediction from their supplier's
+ * prediction, adjusted for the shipment's own state. Rows are bulk inserted, and the
+ * checkpoint (phase and last id) advances after every chunk, so a failed, stopped or
+ * crashed run resumes after its last finished chunk. On resume, rows the run wrote
+ * past its checkpoint are deleted first, so no entity is predicted twice in a run.
+ * A run holds a {@link BatchJobLeaseService lease} on its execution row, so when
+ * several instances are deployed only one works on a run, and a RUNNING row is
+ * resumed only once its owner's lease has lapsed or its owner restarted.
+ *
+ * To leave daytime traffic alone, the worker count caps CPU use, the job pauses
+ * between chunks so that DB work takes at most a configured share of its wall time,
+ * and scheduled runs stop at the end of the nightly window and resume the next night.
+ */
+@Service
+public class NightlyRiskScoringJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NightlyRiskScoringJobService.class);
+
+    public static final String JOB_TYPE = "NIGHTLY_RISK_SCORING";
+
+    // Model id of the rows this job writes; the model version is recorded per row
+    public static final String MODEL_ID = "nightly_risk_scoring";
+
+    static final String SUPPLIERS = "SUPPLIERS";
+    static final String SHIPMENTS = "SHIPMENTS";
+
+    static final Set<Shipment.ShipmentStatus> IN_FLIGHT = EnumSet.of(Shipment.ShipmentStatus.PICKED_UP,
+        Shipment.ShipmentStatus.IN_TRANSIT, Shipment.ShipmentStatus.OUT_FOR_DELIVERY,
+        Shipment.ShipmentStatus.EXCEPTION);
+
+    // Length of risk_predictions.model_version
+    private static final int MAX_VERSION_LENGTH = 20;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Autowired
+    private ShipmentRepository shipmentRepository;
+
+    @Autowired
+    private BatchJobExecutionRepository jobExecutionRepository;
+
+    @Autowired
+    private BatchJobLeaseService batchJobLeaseService;
+
+    @Autowired
+    private MLPredictionService mlPredictionService;
+
+    @Autowired
+    private BulkPersistenceService bulkPersistenceService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("nightlyScoringExecutor")
+    private Executor jobExecutor;
+
+    @Value("${risk.nightly-scoring.enabled:true}")
+    private boolean enabled;
+
+    @Value("${risk.nightly-scoring.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${risk.nightly-scoring.workers:2}")
+    private int workers;
+
+    @Value("${risk.nightly-scoring.horizon-days:30}")
+    private int horizonDays;
+
+    @Value("${risk.nightly-scoring.db-time-share:0.5}")
+    private double dbTimeShare;
+
+    @Value("${risk.nightly-scoring.window-end:06:00}")
+    private String windowEnd;
+
+    @Value("${risk.nightly-scoring.resume-max-age-hours:36}")
+    private long resumeMaxAgeHours;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicBoolean stopRequested = new AtomicBoolean(false);
+    private final AtomicLong processedThisRun = new AtomicLong();
+    private final AtomicLong dbNanosThisRun = new AtomicLong();
+
+    private volatile BatchJobExecution currentExecution;
+    private volatile LocalDateTime currentDeadline;
+    private volatile long runStartedNanos;
+
+    /**
+     * Nightly run: resumes an unfinished recent run, otherwise starts a new one
+     */
+    @Scheduled(cron = "${risk.nightly-scoring.cron:0 30 1 * * *}")
+    public void scoreNightly() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            start(true, null, nextWindowEnd(LocalDateTime.now()));
+        } catch (BusinessException e) {
+            logger.warn("Nightly risk scoring not started: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Pick up a run this instance was executing when it went down, if still inside the window
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedRun() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalTime end = parseWindowEnd();
+        BatchJobExecution interrupted = findResumableExecution(now);
+        if (interrupted == null || interrupted.getStatus() != BatchJobExecution.JobStatus.RUNNING
+                || (end != null && !now.toLocalTime().isBefore(end))) {
+            return;
+        }
+        try {
+            logger.info("Nightly risk scoring job {} was interrupted; resuming", interrupted.getId());
+            start(true, null, nextWindowEnd(now));
+        } catch (BusinessException e) {
+            logger.warn("Could not resume nightly risk scoring: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Start a run now, without the nightly window's deadline. With resume, continues the
+     * last unfinished run from its checkpoint if there is a recent one.
+     */
+    public Map<String, Object> startScoring(boolean resume, Long userId) {
+        return start(resume, userId, null);
+    }
+
+    private Map<String, Object> start(boolean resume, Long userId, LocalDateTime deadline) {
+        if (!running.compareAndSet(false, true)) {
+            throw new BusinessException(HttpStatus.CONFLICT, "JOB_ALREADY_RUNNING",
+                "The nightly risk scoring job is already running");
+        }
+
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            BatchJobExecution execution = resume ? findResumableExecution(now) : null;
+            if (execution != null && !batchJobLeaseService.takeOver(execution)) {
+                throw runningElsewhere(execution);
+            }
+            if (execution == null) {
+                // Every instance fires the nightly schedule; the one that got there first owns the night
+                BatchJobExecution latest = jobExecutionRepository.findTopByJobTypeOrderByStartedAtDesc(JOB_TYPE)
+                    .orElse(null);
+                if (latest != null && latest.getStatus() == BatchJobExecution.JobStatus.RUNNING
+                        && !batchJobLeaseService.isAbandoned(latest, now)) {
+                    throw runningElsewhere(latest);
+                }
+                execution = new BatchJobExecution(JOB_TYPE, chunkSize, userId);
+                execution.setPhase(SUPPLIERS);
+                execution.setTotalItems(supplierRepository.count() + shipmentRepository.countByStatusIn(IN_FLIGHT));
+                batchJobLeaseService.acquire(execution);
+            } else {
+                logger.info("Resuming nightly risk scoring job {} after {} id {}",
+                    execution.getId(), execution.getPhase(), execution.getLastProcessedId());
+                execution.setErrorMessage(null);
+                execution.setCompletedAt(null);
+                execution.setTotalItems(execution.getProcessedItems() + execution.getFailedItems()
+                    + countRemaining(execution));
+                deleteRowsPastCheckpoint(execution);
+            }
+            execution.setStatus(BatchJobExecution.JobStatus.RUNNING);
+            execution = jobExecutionRepository.save(execution);
+
+            currentExecution = execution;
+            currentDeadline = deadline;
+            stopRequested.set(false);
+            processedThisRun.set(0);
+            dbNanosThisRun.set(0);
+            runStartedNanos = System.nanoTime();
+
+            final BatchJobExecution jobExecution = execution;
+            jobExecutor.execute(() -> runJob(jobExecution, deadline));
+            return buildProgress(execution);
+
+        } catch (TaskRejectedException e) {
+            running.set(false);
+            throw new BusinessException(HttpStatus.CONFLICT, "JOB_ALREADY_RUNNING",
+                "The nightly risk scoring job is already running");
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    /**
+     * Ask the running job to stop after the current chunk; it can be resumed later
+     */
+    public Map<String, Object> requestStop() {
+        if (!running.get()) {
+            throw new BusinessException(HttpStatus.CONFLICT, "JOB_NOT_RUNNING",
+                "The nightly risk scoring job is not running");
+        }
+        stopRequested.set(true);
+        return buildProgress(currentExecution);
+    }
+
+    /**
+     * Progress of the running job, or of the last one if none is running
+     */
+    public Map<String, Object> getProgress() {
+        BatchJobExecution execution = running.get() ? currentExecution
+            : jobExecutionRepository.findTopByJobTypeOrderByStartedAtDesc(JOB_TYPE).orElse(null);
+        if (execution == null) {
+            return Map.of("jobType", JOB_TYPE, "status", "NEVER_RUN");
+        }
+        return buildProgress(execution);
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    private void runJob(BatchJobExecution execution, LocalDateTime deadline) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService scoringPool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "nightly-scoring-worker-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+        TransactionTemplate readTemplate = new TransactionTemplate(transactionManager);
+        readTemplate.setReadOnly(true);
+        TransactionTemplate writeTemplate = new TransactionTemplate(transactionManager);
+
+        logger.info("Nightly risk scoring job {} started: {} items, chunk size {}, {} workers, deadline {}",
+            execution.getId(), execution.getTotalItems(), chunkSize, workers, deadline);
+
+        String stopReason = null;
+        try {
+            while (true) {
+                if (stopRequested.get()) {
+                    stopReason = "Stopped on request";
+                    break;
+                }
+                if (deadline != null && !LocalDateTime.now().isBefore(deadline)) {
+                    stopReason = "Stopped at the end of the nightly window";
+                    break;
+                }
+
+                long dbStart = System.nanoTime();
+                long lastId = execution.getLastProcessedId();
+                boolean supplierPhase = SUPPLIERS.equals(execution.getPhase());
+                List<?> chunk = readTemplate.execute(status -> supplierPhase
+                    ? loadSuppliers(lastId) : loadShipments(lastId));
+                long dbNanos = System.nanoTime() - dbStart;
+
+                if (chunk == null || chunk.isEmpty()) {
+                    if (!supplierPhase) {
+                        break;
+                    }
+                    // Shipment ids are a separate keyset
+                    execution.setPhase(SHIPMENTS);
+                    execution.setLastProcessedId(0L);
+                    continue;
+                }
+
+                ChunkResult result = supplierPhase
+                    ? scoreSuppliers(scoringPool, castList(chunk))
+                    : scoreShipments(scoringPool, castList(chunk));
+                long chunkLastId = supplierPhase
+                    ? ((Supplier) chunk.get(chunk.size() - 1)).getId()
+                    : ((Shipment) chunk.get(chunk.size() - 1)).getId();
+
+                // Predictions commit in bulk-insert chunks of their own; the checkpoint follows them
+                dbStart = System.nanoTime();
+                // Checked before the rows are written too, as they commit ahead of the checkpoint
+                writeTemplate.executeWithoutResult(status -> batchJobLeaseService.renew(execution));
+                bulkPersistenceService.saveRiskPredictions(result.predictions);
+                LocalDateTime now = LocalDateTime.now();
+                writeTemplate.executeWithoutResult(status -> {
+                    execution.setLastProcessedId(chunkLastId);
+                    execution.setProcessedItems(execution.getProcessedItems() + result.scored);
+                    execution.setFailedItems(execution.getFailedItems() + result.failed);
+                    execution.setLastCheckpointAt(now);
+                    batchJobLeaseService.renew(execution);
+                    jobExecutionRepository.save(execution);
+                });
+                dbNanos += System.nanoTime() - dbStart;
+                dbNanosThisRun.addAndGet(dbNanos);
+                processedThisRun.addAndGet(chunk.size());
+
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Nightly risk scoring checkpoint at {} id {} ({}/{})", execution.getPhase(),
+                        chunkLastId, execution.getProcessedItems(), execution.getTotalItems());
+                }
+                pause(dbPause(dbNanos, dbTimeShare));
+            }
+
+            execution.setStatus(stopReason != null
+                ? BatchJobExecution.JobStatus.STOPPED : BatchJobExecution.JobStatus.COMPLETED);
+            execution.setErrorMessage(stopReason);
+            execution.setCompletedAt(LocalDateTime.now());
+            jobExecutionRepository.save(execution);
+
+            logger.info("Nightly risk scoring job {} {}: {} processed, {} failed, {} items/sec",
+                execution.getId(), execution.getStatus(), execution.getProcessedItems(),
+                execution.getFailedItems(), String.format("%.1f", calculateThroughput()));
+
+        } catch (BatchJobLeaseService.LeaseLostException e) {
+            // The instance that took over now owns the row and its status
+            logger.warn("Nightly risk scoring job {} stopped after {} id {}: {}",
+                execution.getId(), execution.getPhase(), execution.getLastProcessedId(), e.getMessage());
+        } catch (Exception e) {
+            logger.error("Nightly risk scoring job {} failed after {} id {}",
+                execution.getId(), execution.getPhase(), execution.getLastProcessedId(), e);
+            execution.setStatus(BatchJobExecution.JobStatus.FAILED);
+            execution.setErrorMessage(e.getMessage());
+            try {
+                jobExecutionRepository.save(execution);
+            } catch (Exception saveError) {
+                logger.error("Could not record failure of nightly risk scoring job {}", execution.getId(), saveError);
+            }
+        } finally {
+            scoringPool.shutdownNow();
+            running.set(false);
+        }
+    }
+
+    /**
+     * Next supplier chunk with the collections the models read already initialized
+     */
+    private List<Supplier> loadSuppliers(long lastId) {
+        List<Supplier> chunk = supplierRepository.findNextPageAfterId(lastId, PageRequest.of(0, chunkSize));
+        for (Supplier supplier : chunk) {
+            Hibernate.initialize(supplier.getIsoCertifications());
+            Hibernate.initialize(supplier.getComplianceCertifications());
+        }
+        return chunk;
+    }
+
+    private List<Shipment> loadShipments(long lastId) {
+        List<Shipment> chunk = shipmentRepository.findNextPageAfterIdInStatuses(
+            lastId, IN_FLIGHT, PageRequest.of(0, chunkSize));
+        for (Shipment shipment : chunk) {
+            if (shipment.getSupplier() != null) {
+                Hibernate.initialize(shipment.getSupplier().getIsoCertifications());
+                Hibernate.initialize(shipment.getSupplier().getComplianceCertifications());
+            }
+        }
+        return chunk;
+    }
+
+    private ChunkResult scoreSuppliers(ExecutorService pool, List<Supplier> suppliers) throws InterruptedException {
+        Map<Long, RiskPredictionDTO> predictions = predict(pool, suppliers);
+        ChunkResult result = new ChunkResult();
+        LocalDateTime now = LocalDateTime.now();
+        for (Supplier supplier : suppliers) {
+            RiskPredictionDTO prediction = predictions.get(supplier.getId());
+            if (prediction == null) {
+                result.failed++;
+                continue;
+            }
+            result.predictions.addAll(supplierPredictions(supplier, prediction, horizonDays, now,
+                modelVersion(prediction), toJson(prediction.getRiskScores())));
+            result.scored++;
+        }
+        return result;
+    }
+
+    /**
+     * Shipments are predicted from their supplier, which is scored once per chunk
+     */
+    private ChunkResult scoreShipments(ExecutorService pool, List<Shipment> shipments) throws InterruptedException {
+        Map<Long, Supplier> suppliers = new LinkedHashMap<>();
+        for (Shipment shipment : shipments) {
+            if (shipment.getSupplier() != null) {
+                suppliers.putIfAbsent(shipment.getSupplier().getId(), shipment.getSupplier());
+            }
+        }
+        Map<Long, RiskPredictionDTO> predictions = predict(pool, new ArrayList<>(suppliers.values()));
+
+        ChunkResult result = new ChunkResult();
+        LocalDateTime now = LocalDateTime.now();
+        for (Shipment shipment : shipments) {
+            RiskPredictionDTO prediction = shipment.getSupplier() == null ? null
+                : predictions.get(shipment.getSupplier().getId());
+            if (shipment.getSupplier() != null && prediction == null) {
+                result.failed++;
+                continue;
+            }
+            result.predictions.add(shipmentDelayPrediction(shipment, prediction, horizonDays, now,
+                prediction != null ? modelVersion(prediction) : truncate(mlPredictionService.getCurrentModelVersion()),
+                prediction != null ? toJson(prediction.getRiskScores()) : null));
+            result.scored++;
+        }
+        return result;
+    }
+
+    /**
+     * Supplier predictions by id from the worker pool; failed suppliers are left out
+     */
+    private Map<Long, RiskPredictionDTO> predict(ExecutorService pool, List<Supplier> suppliers)
+            throws InterruptedException {
+        Duration horizon = Duration.ofDays(horizonDays);
+        List<Callable<RiskPredictionDTO>> tasks = new ArrayList<>(suppliers.size());
+        for (Supplier supplier : suppliers) {
+            tasks.add(() -> mlPredictionService.predictRiskForBatch(supplier, horizon));
+        }
+        List<Future<RiskPredictionDTO>> futures = pool.invokeAll(tasks);
+
+        Map<Long, RiskPredictionDTO> predictions = new HashMap<>(suppliers.size() * 2);
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                RiskPredictionDTO prediction = futures.get(i).get();
+                if (prediction != null) {
+                    predictions.put(suppliers.get(i).getId(), prediction);
+                }
+            } catch (ExecutionException e) {
+                logger.warn("Skipping supplier {} in nightly risk scoring: {}",
+                    suppliers.get(i).getId(), e.getCause().getMessage());
+            }
+        }
+        return predictions;
+    }
+
+    /**
+     * Delay, cost increase and disruption predictions of a supplier from its risk prediction
+     */
+    static List<RiskPrediction> supplierPredictions(Supplier supplier, RiskPredictionDTO prediction, int horizonDays,
+                                                    LocalDateTime now, String modelVersion, String riskFactors) {
+        double overall = score(prediction, "predicted_overall", supplier.getOverallRiskScore());
+        double financial = score(prediction, "predicted_financial", supplier.getFinancialRiskScore());
+        double operational = score(prediction, "predicted_operational", supplier.getOperationalRiskScore());
+        LocalDateTime eventDate = now.plusDays(horizonDays);
+
+        List<RiskPrediction> rows = new ArrayList<>(3);
+        // Operational risk covers delivery performance
+        rows.add(row(RiskPrediction.RiskType.DELAY_PREDICTION, operational, prediction, horizonDays, eventDate,
+                modelVersion, riskFactors)
+            .supplier(supplier)
+            .estimatedDelayDays((int) (operational / 10))
+            .build());
+        rows.add(row(RiskPrediction.RiskType.COST_INCREASE, financial, prediction, horizonDays, eventDate,
+                modelVersion, riskFactors)
+            .supplier(supplier)
+            .build());
+        rows.add(row(RiskPrediction.RiskType.SUPPLY_DISRUPTION, overall, prediction, horizonDays, eventDate,
+                modelVersion, riskFactors)
+            .supplier(supplier)
+            .estimatedDelayDays((int) (overall / 10))
+            .build());
+        return rows;
+    }
+
+    /**
+     * Delay prediction of a shipment: its supplier's delay risk, raised for shipments that
+     * are in exception or past their estimated delivery date. Without a supplier the
+     * shipment's stored risk score is the base.
+     */
+    static RiskPrediction shipmentDelayPrediction(Shipment shipment, RiskPredictionDTO supplierPrediction,
+                                                  int defaultHorizonDays, LocalDateTime now,
+                                                  String modelVersion, String riskFactors) {
+        double base = supplierPrediction != null
+            ? score(supplierPrediction, "predicted_operational",
+                shipment.getSupplier() != null ? shipment.getSupplier().getOperationalRiskScore() : null)
+            : (shipment.getRiskScore() != null ? shipment.getRiskScore() : 0);
+        double probability = base;
+        int delayDays = (int) (base / 10);
+        int horizon = defaultHorizonDays;
+        LocalDateTime eta = shipment.getEstimatedDeliveryDate();
+
+        if (eta != null && eta.isBefore(now)) {
+            long overdueDays = Math.max(1, Duration.between(eta, now).toDays());
+            probability = Math.max(probability, 90);
+            delayDays += (int) overdueDays;
+            horizon = 1;
+        } else if (eta != null) {
+            horizon = (int) Math.max(1, Duration.between(now, eta).toDays());
+        }
+        if (shipment.getStatus() == Shipment.ShipmentStatus.EXCEPTION) {
+            probability = Math.max(probability, 75);
+        }
+
+        BigDecimal costImpact = shipment.getTotalCost() == null ? null
+            : shipment.getTotalCost().multiply(BigDecimal.valueOf(probability / 100))
+                .setScale(2, RoundingMode.HALF_UP);
+        return row(RiskPrediction.RiskType.DELAY_PREDICTION, probability, supplierPrediction, horizon,
+                (eta != null && eta.isAfter(now) ? eta : now).plusDays(delayDays), modelVersion, riskFactors)
+            .supplier(shipment.getSupplier())
+            .shipment(shipment)
+            .estimatedDelayDays(delayDays)
+            .estimatedCostImpact(costImpact)
+            .build();
+    }
+
+    private static RiskPrediction.Builder row(RiskPrediction.RiskType type, double probability,
+                                              RiskPredictionDTO prediction, int horizonDays,
+                                              LocalDateTime eventDate, String modelVersion, String riskFactors) {
+        return RiskPrediction.builder()
+            .riskType(type)
+            .riskProbability(BigDecimal.valueOf(probability).setScale(2, RoundingMode.HALF_UP))
+            .predictedRiskLevel(RiskPrediction.RiskLevel.fromScore(probability))
+            .impactSeverity(severity(probability))
+            .confidence(prediction != null ? prediction.getConfidence() : null)
+            .predictionHorizonDays(horizonDays)
+            .eventPredictedDate(eventDate)
+            .riskFactors(riskFactors)
+            .modelId(MODEL_ID)
+            .modelVersion(modelVersion);
+    }
+
+    static RiskPrediction.ImpactSeverity severity(double probability) {
+        if (probability < 25) return RiskPrediction.ImpactSeverity.MINIMAL;
+        if (probability < 50) return RiskPrediction.ImpactSeverity.MODERATE;
+        if (probability < 75) return RiskPrediction.ImpactSeverity.SIGNIFICANT;
+        if (probability < 90) return RiskPrediction.ImpactSeverity.SEVERE;
+        return RiskPrediction.ImpactSeverity.CATASTROPHIC;
+    }
+
+    /**
+     * A predicted 0-100 score; ML service responses are mapped without conversion, so
+     * values can be any Number. Falls back to the current score when missing.
+     */
+    private static double score(RiskPredictionDTO prediction, String key, Integer current) {
+        Object value = prediction == null || prediction.getRiskScores() == null ? null
+            : ((Map<String, ?>) prediction.getRiskScores()).get(key);
+        double score = value instanceof Number number ? number.doubleValue() : (current == null ? 0 : current);
+        return Math.max(0, Math.min(100, score));
+    }
+
+    /**
+     * Pause after a chunk that keeps DB time at most {@code share} of the job's wall time
+     */
+    static long dbPause(long dbNanos, double share) {
+        if (share <= 0 || share >= 1) {
+            return 0;
+        }
+        return (long) (dbNanos * (1 - share) / share);
+    }
+
+    private void pause(long nanos) throws InterruptedException {
+        if (nanos > 0 && !stopRequested.get()) {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        }
+    }
+
+    private String modelVersion(RiskPredictionDTO prediction) {
+        Object version = prediction.getRiskFactors() == null ? null : prediction.getRiskFactors().get("model_version");
+        return truncate(version != null ? version.toString() : mlPredictionService.getCurrentModelVersion());
+    }
+
+    private static String truncate(String version) {
+        return version.length() > MAX_VERSION_LENGTH ? version.substring(0, MAX_VERSION_LENGTH) : version;
+    }
+
+    private String toJson(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> castList(List<?> list) {
+        return (List<T>) list;
+    }
+
+    private long countRemaining(BatchJobExecution execution) {
+        long lastId = execution.getLastProcessedId();
+        if (SUPPLIERS.equals(execution.getPhase())) {
+            return supplierRepository.countByIdGreaterThan(lastId) + shipmentRepository.countByStatusIn(IN_FLIGHT);
+        }
+        return shipmentRepository.countByIdGreaterThanAndStatusIn(lastId, IN_FLIGHT);
+    }
+
+    /**
+     * Remove rows a crashed run inserted for a chunk whose checkpoint it never wrote
+     */
+    private void deleteRowsPastCheckpoint(BatchJobExecution execution) {
+        // In the supplier phase, shipment rows can only come from a switch to shipments not yet checkpointed
+        String entityFilter = SUPPLIERS.equals(execution.getPhase())
+            ? "(shipment_id IS NOT NULL OR supplier_id > ?)" : "shipment_id > ?";
+        int deleted = jdbcTemplate.update("DELETE FROM risk_predictions WHERE model_id = ? AND created_at >= ? AND "
+            + entityFilter, MODEL_ID, Timestamp.valueOf(execution.getStartedAt()), execution.getLastProcessedId());
+        if (deleted > 0) {
+            logger.info("Deleted {} nightly risk predictions written past the checkpoint of job {}",
+                deleted, execution.getId());
+        }
+    }
+
+    /**
+     * The last run if it did not complete, is not being worked on by another instance,
+     * and started recently enough to be worth finishing
+     */
+    private BatchJobExecution findResumableExecution(LocalDateTime now) {
+        return jobExecutionRepository.findTopByJobTypeOrderByStartedAtDesc(JOB_TYPE)
+            // A RUNNING row counts as crashed only once its owner's lease lapsed or its owner restarted
+            .filter(execution -> execution.isResumable() || batchJobLeaseService.isAbandoned(execution, now))
+            .filter(execution -> execution.getStartedAt().isAfter(now.minusHours(resumeMaxAgeHours)))
+            .orElse(null);
+    }
+
+    private static BusinessException runningElsewhere(BatchJobExecution execution) {
+        return new BusinessException(HttpStatus.CONFLICT, "JOB_ALREADY_RUNNING",
+            "Nightly risk scoring job " + execution.getId() + " is running on another instance");
+    }
+
+    private LocalTime parseWindowEnd() {
+        return windowEnd == null || windowEnd.isBlank() ? null : LocalTime.parse(windowEnd.trim());
+    }
+
+    private LocalDateTime nextWindowEnd(LocalDateTime now) {
+        LocalTime end = parseWindowEnd();
+        if (end == null) {
+            return null;
+        }
+        LocalDateTime deadline = LocalDate.from(now).atTime(end);
+        return deadline.isAfter(now) ? deadline : deadline.plusDays(1);
+    }
+
+    private double calculateThroughput() {
+        long elapsedNanos = System.nanoTime() - runStartedNanos;
+        if (elapsedNanos <= 0) {
+            return 0.0;
+        }
+        return processedThisRun.get() / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    private Map<String, Object> buildProgress(BatchJobExecution execution) {
+        Map<String, Object> progress = new HashMap<>();
+        progress.put("jobId", execution.getId());
+        progress.put("jobType", execution.getJobType());
+        progress.put("status", execution.getStatus());
+        progress.put("phase", execution.getPhase());
+        progress.put("totalItems", execution.getTotalItems());
+        progress.put("processedItems", execution.getProcessedItems());
+        progress.put("failedItems", execution.getFailedItems());
+        progress.put("lastProcessedId", execution.getLastProcessedId());
+        progress.put("startedAt", execution.getStartedAt());
+        progress.put("lastCheckpointAt", execution.getLastCheckpointAt());
+        progress.put("completedAt", execution.getCompletedAt());
+
+        long total = execution.getTotalItems() != null ? execution.getTotalItems() : 0;
+        long done = execution.getProcessedItems() + execution.getFailedItems();
+        progress.put("percentComplete", total > 0 ? Math.min(100.0, done * 100.0 / total) : 0.0);
+
+        if (running.get() && execution == currentExecution) {
+            double throughput = calculateThroughput();
+            long elapsedNanos = System.nanoTime() - runStartedNanos;
+            progress.put("itemsPerSecond", Math.round(throughput * 10) / 10.0);
+            if (throughput > 0 && total > done) {
+                long remainingSeconds = (long) ((total - done) / throughput);
+                progress.put("estimatedSecondsRemaining", remainingSeconds);
+                progress.put("estimatedCompletionAt", LocalDateTime.now().plusSeconds(remainingSeconds));
+            }
+            progress.put("elapsedSeconds", Duration.ofNanos(elapsedNanos).toSeconds());
+            progress.put("dbTimeShare", elapsedNanos > 0
+                ? Math.round(dbNanosThisRun.get() * 1000.0 / elapsedNanos) / 1000.0 : 0.0);
+            progress.put("deadline", currentDeadline);
+        }
+        if (execution.getErrorMessage() != null) {
+            progress.put(execution.getStatus() == BatchJobExecution.JobStatus.FAILED ? "error" : "stopReason",
+                execution.getErrorMessage());
+        }
+        return progress;
+    }
+
+    /**
+     * Rows and counts of one scored chunk
+     */
+    private static final class ChunkResult {
+        private final List<RiskPrediction> predictions = new ArrayList<>();
+        private long scored;
+        private long failed;
+    }
+}
@@ -0,0 +1,276 @@
+package com.supplychainrisk.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Logistic regression for the probability that a shipment arrives late, trained one
+ * delivered shipment at a time.
+ *
+ * Features are named strings such as {@code carrier=dhl} or {@code lane=DE:Berlin>US:Chicago}
+ * hashed into a fixed weight vector, so carriers, lanes and their combinations need no
+ * vocabulary and the model never grows. Each example is one AdaGrad step on the log loss
+ * with L2 shrinkage: only the example's few weights are touched, so an update costs
+ * microseconds. The example is scored before it is learned from, which gives an honest
+ * running log loss and accuracy without a holdout set.
+ *
+ * Snapshot layout (big-endian):
+ * <pre>
+ *   header   magic "RSKO", format version, hash bits, payload length, CRC32 of the payload
+ *   payload  u8 examples, u8 late examples, u8 correct, f8 log loss sum,
+ *            f8[2^bits] weights, f8[2^bits] squared gradient sums
+ * </pre>
+ * Methods are synchronized; reads and updates hold the lock for a few array accesses.
+ */
+public final class OnlineDelayModel {
+
+    static final int MAGIC = 0x52534B4F; // "RSKO"
+    static final short FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 15;
+
+    // Predictions are clamped away from 0 and 1 so one surprise cannot produce an infinite loss
+    private static final double EPSILON = 1e-7;
+
+    private final int bits;
+    private final int mask;
+    private final double[] weights;
+    private final double[] squaredGradients;
+    private final double learningRate;
+    private final double l2;
+
+    private long examples;
+    private long lateExamples;
+    private long correct;
+    private double logLossSum;
+
+    public OnlineDelayModel(int bits, double learningRate, double l2) {
+        if (bits < 4 || bits > 24) {
+            throw new IllegalArgumentException("Hash bits must be between 4 and 24: " + bits);
+        }
+        this.bits = bits;
+        this.mask = (1 << bits) - 1;
+        this.weights = new double[1 << bits];
+        this.squaredGradients = new double[1 << bits];
+        this.learningRate = learningRate;
+        this.l2 = l2;
+    }
+
+    /**
+     * Start collecting the features of one shipment
+     */
+    public Features features() {
+        return new Features(mask);
+    }
+
+    /**
+     * Probability that a shipment with these features is late
+     */
+    public synchronized double predict(Features features) {
+        return probability(features);
+    }
+
+    /**
+     * Learn from one delivered shipment; returns the probability predicted before the update
+     */
+    public synchronized double learn(Features features, boolean late) {
+        double p = probability(features);
+        double y = late ? 1 : 0;
+        double error = p - y;
+        for (int i = 0; i < features.size; i++) {
+            int slot = features.slots[i];
+            double gradient = error * features.values[i] + l2 * weights[slot];
+            squaredGradients[slot] += gradient * gradient;
+            weights[slot] -= learningRate * gradient / Math.sqrt(1 + squaredGradients[slot]);
+        }
+        examples++;
+        if (late) {
+            lateExamples++;
+        }
+        if ((p >= 0.5) == late) {
+            correct++;
+        }
+        double clamped = Math.min(1 - EPSILON, Math.max(EPSILON, p));
+        logLossSum -= late ? Math.log(clamped) : Math.log(1 - clamped);
+        return p;
+    }
+
+    private double probability(Features features) {
+        double z = 0;
+        for (int i = 0; i < features.size; i++) {
+            z += weights[features.slots[i]] * features.values[i];
+        }
+        return 1 / (1 + Math.exp(-z));
+    }
+
+    public int getBits() {
+        return bits;
+    }
+
+    public synchronized long getExamples() {
+        return examples;
+    }
+
+    public synchronized long getLateExamples() {
+        return lateExamples;
+    }
+
+    /**
+     * Share of examples whose late/on-time outcome was predicted before learning from them, or NaN
+     */
+    public synchronized double getProgressiveAccuracy() {
+        return examples == 0 ? Double.NaN : (double) correct / examples;
+    }
+
+    /**
+     * Mean log loss of the predictions made before learning from each example, or NaN
+     */
+    public synchronized double getProgressiveLogLoss() {
+        return examples == 0 ? Double.NaN : logLossSum / examples;
+    }
+
+    /**
+     * Read and validate a snapshot
+     */
+    public static OnlineDelayModel open(Path path, double learningRate, double l2) throws IOException {
+        return decode(Files.readAllBytes(path), path.toString(), learningRate, l2);
+    }
+
+    static OnlineDelayModel decode(byte[] bytes, String source, double learningRate, double l2) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (bytes.length < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not an online delay model snapshot: " + source);
+        }
+        if (buffer.getShort(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported online delay model format " + buffer.getShort(4) + ": " + source);
+        }
+        int bits = buffer.get(6);
+        int payloadLength = buffer.getInt(7);
+        if (payloadLength != bytes.length - HEADER_BYTES) {
+            throw new IOException("Truncated online delay model (" + bytes.length + " of "
+                + ((long) HEADER_BYTES + payloadLength) + " bytes): " + source);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, HEADER_BYTES, payloadLength);
+        if ((int) crc.getValue() != buffer.getInt(11)) {
+            throw new IOException("Online delay model checksum mismatch: " + source);
+        }
+        OnlineDelayModel model;
+        try {
+            model = new OnlineDelayModel(bits, learningRate, l2);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage() + ": " + source, e);
+        }
+        if (payloadLength != 32 + 16 * model.weights.length) {
+            throw new IOException("Online delay model payload does not match " + bits + " hash bits: " + source);
+        }
+        buffer.position(HEADER_BYTES);
+        model.examples = buffer.getLong();
+        model.lateExamples = buffer.getLong();
+        model.correct = buffer.getLong();
+        model.logLossSum = buffer.getDouble();
+        buffer.asDoubleBuffer().get(model.weights).get(model.squaredGradients);
+        return model;
+    }
+
+    /**
+     * Encode the current state; the lock is held only while the arrays are copied
+     */
+    byte[] toBytes() {
+        double[] weightsCopy;
+        double[] squaredCopy;
+        long examplesCopy;
+        long lateCopy;
+        long correctCopy;
+        double lossCopy;
+        synchronized (this) {
+            weightsCopy = Arrays.copyOf(weights, weights.length);
+            squaredCopy = Arrays.copyOf(squaredGradients, squaredGradients.length);
+            examplesCopy = examples;
+            lateCopy = lateExamples;
+            correctCopy = correct;
+            lossCopy = logLossSum;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(32 + 16 * weightsCopy.length);
+        payload.putLong(examplesCopy).putLong(lateCopy).putLong(correctCopy).putDouble(lossCopy);
+        payload.asDoubleBuffer().put(weightsCopy).put(squaredCopy);
+        byte[] body = payload.array();
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        ByteBuffer file = ByteBuffer.allocate(HEADER_BYTES + body.length);
+        file.putInt(MAGIC).putShort(FORMAT_VERSION).put((byte) bits).putInt(body.length)
+            .putInt((int) crc.getValue()).put(body);
+        return file.array();
+    }
+
+    /**
+     * Write a snapshot next to the target and atomically rename it into place
+     */
+    public void write(Path target) throws IOException {
+        byte[] bytes = toBytes();
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, bytes);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Hashed features of one shipment. Not thread-safe; build one per shipment.
+     */
+    public static final class Features {
+        private final int mask;
+        private int[] slots = new int[16];
+        private double[] values = new double[16];
+        private int size;
+
+        private Features(int mask) {
+            this.mask = mask;
+        }
+
+        /**
+         * Indicator feature, e.g. {@code carrier=dhl}
+         */
+        public Features add(String name) {
+            return add(name, 1);
+        }
+
+        /**
+         * Numeric feature; NaN values are left out
+         */
+        public Features add(String name, double value) {
+            if (Double.isNaN(value) || value == 0) {
+                return this;
+            }
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            slots[size] = slot(name, mask);
+            values[size] = value;
+            size++;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Weight slot of a feature name; String.hashCode is fixed by the language, so slots
+     * stay valid across restarts and snapshots
+     */
+    static int slot(String name, int mask) {
+        int h = name.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
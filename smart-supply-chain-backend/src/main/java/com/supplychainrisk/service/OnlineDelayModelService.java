@@ -0,0 +1,288 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.entity.Shipment;
+import com.supplychainrisk.exception.BusinessException;
+import com.supplychainrisk.repository.ShipmentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Learns shipment delay risk per lane and carrier from delivery outcomes as they happen.
+ *
+ * {@link ShipmentOutcomeEntityListener} hands over each shipment that becomes DELIVERED once
+ * its transaction commits; the outcome is one update of an {@link OnlineDelayModel}, with no
+ * batch retraining. The model is snapshotted to {@code ml.online-delay.snapshot-path}
+ * periodically and on shutdown, and the snapshot is loaded when the service starts, so only
+ * deliveries since the last snapshot are lost on a crash.
+ *
+ * Features are known before delivery: carrier, city and country lanes, their carrier
+ * combinations, shipment type, service level, planned transit time and weight. The label is
+ * the shipment's on-time flag, or its actual against its estimated delivery date.
+ */
+@Service
+public class OnlineDelayModelService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OnlineDelayModelService.class);
+
+    private static final String EXAMPLES_METRIC = "ml.online-delay.examples";
+
+    @Autowired
+    private ShipmentRepository shipmentRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ml.online-delay.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ml.online-delay.snapshot-path:}")
+    private String snapshotPath;
+
+    @Value("${ml.online-delay.hash-bits:16}")
+    private int hashBits;
+
+    @Value("${ml.online-delay.learning-rate:0.1}")
+    private double learningRate;
+
+    @Value("${ml.online-delay.l2:0.000001}")
+    private double l2;
+
+    // Deliveries this many hours after the estimate still count as on time
+    @Value("${ml.online-delay.grace-hours:0}")
+    private long graceHours;
+
+    private volatile OnlineDelayModel model;
+    private volatile String source = "new";
+    private volatile long snapshotExamples;
+    private volatile LocalDateTime snapshotAt;
+    private Timer updateTimer;
+
+    @PostConstruct
+    public void initialize() {
+        updateTimer = Timer.builder("ml.online-delay.update")
+            .description("Time to learn from one delivered shipment")
+            .register(meterRegistry);
+        model = new OnlineDelayModel(hashBits, learningRate, l2);
+        if (snapshotPath == null || snapshotPath.isBlank()) {
+            return;
+        }
+        Path path = Paths.get(snapshotPath);
+        if (!Files.exists(path)) {
+            return;
+        }
+        try {
+            OnlineDelayModel loaded = OnlineDelayModel.open(path, learningRate, l2);
+            if (loaded.getBits() != hashBits) {
+                logger.warn("Online delay model snapshot {} uses {} hash bits, configured {}; starting a new model",
+                    path, loaded.getBits(), hashBits);
+                return;
+            }
+            model = loaded;
+            source = path.toString();
+            snapshotExamples = loaded.getExamples();
+            logger.info("Loaded online delay model {} ({} examples)", path, loaded.getExamples());
+        } catch (IOException e) {
+            logger.error("Could not load online delay model snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Write a snapshot when the model has learned since the last one
+     */
+    @Scheduled(fixedDelayString = "${ml.online-delay.snapshot-interval-ms:300000}",
+               initialDelayString = "${ml.online-delay.snapshot-interval-ms:300000}")
+    public void scheduledSnapshot() {
+        if (model.getExamples() != snapshotExamples) {
+            trySnapshot();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduledSnapshot();
+    }
+
+    /**
+     * Write a snapshot now
+     */
+    public Map<String, Object> snapshot() {
+        if (snapshotPath == null || snapshotPath.isBlank()) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "ONLINE_DELAY_SNAPSHOT_NOT_CONFIGURED",
+                "Set ml.online-delay.snapshot-path to snapshot the online delay model");
+        }
+        if (!trySnapshot()) {
+            throw new BusinessException(HttpStatus.INTERNAL_SERVER_ERROR, "ONLINE_DELAY_SNAPSHOT_FAILED",
+                "Could not write the online delay model snapshot to " + snapshotPath);
+        }
+        return getStatus();
+    }
+
+    private synchronized boolean trySnapshot() {
+        if (snapshotPath == null || snapshotPath.isBlank()) {
+            return false;
+        }
+        OnlineDelayModel current = model;
+        long examples = current.getExamples();
+        try {
+            current.write(Paths.get(snapshotPath));
+            snapshotExamples = examples;
+            snapshotAt = LocalDateTime.now();
+            logger.debug("Snapshotted online delay model to {} ({} examples)", snapshotPath, examples);
+            return true;
+        } catch (IOException e) {
+            logger.error("Could not snapshot online delay model to {}: {}", snapshotPath, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Features and label of a delivered shipment, read while the entity is at hand;
+     * null if the service is disabled or the outcome is unknown
+     */
+    public Outcome capture(Shipment shipment) {
+        if (!enabled) {
+            return null;
+        }
+        Boolean late = late(shipment, graceHours);
+        if (late == null) {
+            meterRegistry.counter(EXAMPLES_METRIC, "outcome", "unlabeled").increment();
+            return null;
+        }
+        return new Outcome(features(model, shipment), late);
+    }
+
+    /**
+     * Learn from a captured outcome
+     */
+    public void learn(Outcome outcome) {
+        long start = System.nanoTime();
+        model.learn(outcome.features, outcome.late);
+        updateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        meterRegistry.counter(EXAMPLES_METRIC, "outcome", outcome.late ? "late" : "on_time").increment();
+    }
+
+    /**
+     * Probability that a shipment is delivered late
+     */
+    public double predictLateProbability(Shipment shipment) {
+        OnlineDelayModel current = model;
+        return current.predict(features(current, shipment));
+    }
+
+    public Map<String, Object> predict(Long shipmentId) {
+        Shipment shipment = shipmentRepository.findById(shipmentId)
+            .orElseThrow(() -> new BusinessException(HttpStatus.NOT_FOUND, "SHIPMENT_NOT_FOUND",
+                "Shipment not found with id: " + shipmentId));
+        Map<String, Object> prediction = new LinkedHashMap<>();
+        prediction.put("shipmentId", shipmentId);
+        prediction.put("carrier", shipment.getCarrierName());
+        prediction.put("lane", lane(shipment.getOriginCountry(), shipment.getOriginCity(),
+            shipment.getDestinationCountry(), shipment.getDestinationCity()));
+        prediction.put("lateProbability", BigDecimal.valueOf(predictLateProbability(shipment))
+            .setScale(4, RoundingMode.HALF_UP));
+        prediction.put("trainedOnExamples", model.getExamples());
+        return prediction;
+    }
+
+    public Map<String, Object> getStatus() {
+        OnlineDelayModel current = model;
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("source", source);
+        status.put("hashBits", current.getBits());
+        status.put("examples", current.getExamples());
+        status.put("lateExamples", current.getLateExamples());
+        double accuracy = current.getProgressiveAccuracy();
+        double logLoss = current.getProgressiveLogLoss();
+        status.put("progressiveAccuracy", Double.isNaN(accuracy) ? null : accuracy);
+        status.put("progressiveLogLoss", Double.isNaN(logLoss) ? null : logLoss);
+        status.put("meanUpdateMicros", updateTimer.count() == 0 ? null
+            : updateTimer.mean(TimeUnit.NANOSECONDS) / 1000);
+        status.put("snapshotPath", snapshotPath);
+        status.put("snapshotExamples", snapshotExamples);
+        status.put("snapshotAt", snapshotAt);
+        return status;
+    }
+
+    /**
+     * Whether a delivered shipment was late: its on-time flag if set, else actual vs. estimated
+     * delivery with the grace period; null if neither is known
+     */
+    static Boolean late(Shipment shipment, long graceHours) {
+        if (shipment.getOnTimePerformance() != null) {
+            return !shipment.getOnTimePerformance();
+        }
+        if (shipment.getActualDeliveryDate() == null || shipment.getEstimatedDeliveryDate() == null) {
+            return null;
+        }
+        return shipment.getActualDeliveryDate().isAfter(shipment.getEstimatedDeliveryDate().plusHours(graceHours));
+    }
+
+    static OnlineDelayModel.Features features(OnlineDelayModel model, Shipment shipment) {
+        String carrier = key(shipment.getCarrierName());
+        String lane = lane(shipment.getOriginCountry(), shipment.getOriginCity(),
+            shipment.getDestinationCountry(), shipment.getDestinationCity());
+        String route = key(shipment.getOriginCountry()) + ">" + key(shipment.getDestinationCountry());
+        OnlineDelayModel.Features features = model.features()
+            .add("bias")
+            .add("carrier=" + carrier)
+            .add("lane=" + lane)
+            .add("route=" + route)
+            .add("carrier_lane=" + carrier + "|" + lane)
+            .add("carrier_route=" + carrier + "|" + route)
+            .add("type=" + (shipment.getShipmentType() == null ? "?" : shipment.getShipmentType().name()))
+            .add("service=" + key(shipment.getServiceLevel()));
+        if (shipment.getShipDate() != null && shipment.getEstimatedDeliveryDate() != null) {
+            double plannedDays = Duration.between(shipment.getShipDate(), shipment.getEstimatedDeliveryDate())
+                .toHours() / 24.0;
+            features.add("log_planned_transit_days", Math.log1p(Math.max(0, plannedDays)));
+        }
+        if (shipment.getWeightKg() != null) {
+            features.add("log_weight_kg", Math.log1p(Math.max(0, shipment.getWeightKg().doubleValue())));
+        }
+        return features;
+    }
+
+    static String lane(String originCountry, String originCity, String destinationCountry, String destinationCity) {
+        return key(originCountry) + ":" + key(originCity) + ">" + key(destinationCountry) + ":" + key(destinationCity);
+    }
+
+    private static String key(String value) {
+        return value == null || value.isBlank() ? "?" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A delivered shipment's features and whether it was late
+     */
+    public static final class Outcome {
+        private final OnlineDelayModel.Features features;
+        private final boolean late;
+
+        private Outcome(OnlineDelayModel.Features features, boolean late) {
+            this.features = features;
+            this.late = late;
+        }
+    }
+}
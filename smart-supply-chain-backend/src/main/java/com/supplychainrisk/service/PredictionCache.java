@@ -0,0 +1,253 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.dto.RiskPredictionDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Reuses ML risk predictions while a supplier's inputs are unchanged.
+ *
+ * Entries are keyed by supplier ID, a SHA-256 hash of the model version, feature
+ * profile and real-time inputs sent to the ML service, and the horizon in days,
+ * so a changed profile or model never matches an older prediction. Entries live in a bounded
+ * LRU map until their TTL expires or the supplier is invalidated, which
+ * {@link SupplierService} does on update and delete and which also happens when
+ * risk scores are recalculated. A prediction computed from a profile read before
+ * an update can still be stored after the invalidation, but only under the old
+ * hash, where it is never served for the new profile.
+ *
+ * Served predictions are copies carrying their age in {@code cacheAgeSeconds}.
+ */
+@Service
+public class PredictionCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PredictionCache.class);
+
+    private static final String METRIC = "ml.prediction-cache.requests";
+
+    // Set per call by the caller, so it would make every hash unique
+    private static final String TIMESTAMP = "timestamp";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ml.prediction-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ml.prediction-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${ml.prediction-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    private LongSupplier clock = System::nanoTime;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<Long, Set<String>> keysBySupplier = new HashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("ml.prediction-cache.entries", this, PredictionCache::size)
+            .description("Cached ML risk predictions")
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Hash of the model version and inputs a prediction depends on, in the canonical
+     * encoding of {@link AnalyticsResultCache#fingerprint}; map order does not matter
+     */
+    public static String featureHash(String modelVersion, Map<String, Object> supplierProfile,
+                                     Map<String, Object> realTimeData) {
+        Map<String, Object> inputs = realTimeData == null ? new HashMap<>() : new HashMap<>(realTimeData);
+        inputs.remove(TIMESTAMP);
+        StringBuilder canonical = new StringBuilder(512);
+        AnalyticsResultCache.field(canonical, "modelVersion", modelVersion);
+        AnalyticsResultCache.field(canonical, "supplierProfile", supplierProfile);
+        AnalyticsResultCache.field(canonical, "realTimeData", inputs);
+        return AnalyticsResultCache.sha256(canonical);
+    }
+
+    /**
+     * A copy of the cached prediction with its age set, or null
+     */
+    public RiskPredictionDTO get(Long supplierId, String featureHash, int horizonDays) {
+        if (!enabled || supplierId == null) {
+            return null;
+        }
+        String key = key(supplierId, featureHash, horizonDays);
+        long now = clock.getAsLong();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && now - entry.storedAt >= TimeUnit.SECONDS.toNanos(ttlSeconds)) {
+                remove(key);
+                record(expired, "expired");
+                return null;
+            }
+        }
+        if (entry == null) {
+            record(misses, "miss");
+            return null;
+        }
+        record(hits, "hit");
+        RiskPredictionDTO copy = copy(entry.prediction);
+        copy.setCacheAgeSeconds(TimeUnit.NANOSECONDS.toSeconds(now - entry.storedAt));
+        return copy;
+    }
+
+    public void put(Long supplierId, String featureHash, int horizonDays, RiskPredictionDTO prediction) {
+        if (!enabled || supplierId == null || prediction == null) {
+            return;
+        }
+        String key = key(supplierId, featureHash, horizonDays);
+        Entry entry = new Entry(supplierId, copy(prediction), clock.getAsLong());
+        synchronized (entries) {
+            entries.put(key, entry);
+            keysBySupplier.computeIfAbsent(supplierId, id -> new HashSet<>()).add(key);
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while (entries.size() > maxEntries && eldest.hasNext()) {
+                Map.Entry<String, Entry> evicted = eldest.next();
+                eldest.remove();
+                unindex(evicted.getValue().supplierId, evicted.getKey());
+            }
+        }
+    }
+
+    /**
+     * Drop every cached prediction of a supplier
+     */
+    public void invalidate(Long supplierId) {
+        if (supplierId == null) {
+            return;
+        }
+        int removed = 0;
+        synchronized (entries) {
+            Set<String> keys = keysBySupplier.remove(supplierId);
+            if (keys != null) {
+                for (String key : keys) {
+                    entries.remove(key);
+                }
+                removed = keys.size();
+            }
+        }
+        if (removed > 0) {
+            invalidations.incrementAndGet();
+            meterRegistry.counter("ml.prediction-cache.invalidations").increment();
+            logger.debug("Invalidated {} cached predictions for supplier {}", removed, supplierId);
+        }
+    }
+
+    /**
+     * Recalculated risk scores are prediction inputs (bulk and audit-date rescoring included)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleRiskScoresChanged(RiskAssessmentService.SupplierRiskScoresChangedEvent event) {
+        invalidate(event.getSupplierId());
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            keysBySupplier.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        long lookups = hits.get() + misses.get() + expired.get();
+        stats.put("enabled", enabled);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("expired", expired.get());
+        stats.put("invalidations", invalidations.get());
+        stats.put("hitRatio", lookups > 0 ? (double) hits.get() / lookups : 0.0);
+        stats.put("entries", size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("ttlSeconds", ttlSeconds);
+        return stats;
+    }
+
+    private void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            unindex(entry.supplierId, key);
+        }
+    }
+
+    private void unindex(Long supplierId, String key) {
+        Set<String> keys = keysBySupplier.get(supplierId);
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            keysBySupplier.remove(supplierId);
+        }
+    }
+
+    private void record(AtomicLong counter, String outcome) {
+        counter.incrementAndGet();
+        meterRegistry.counter(METRIC, "outcome", outcome).increment();
+    }
+
+    private static String key(Long supplierId, String featureHash, int horizonDays) {
+        return supplierId + ":" + horizonDays + ":" + featureHash;
+    }
+
+    /**
+     * Callers may modify what they get back, so the cache neither shares nor hands out its own instance
+     */
+    private static RiskPredictionDTO copy(RiskPredictionDTO source) {
+        RiskPredictionDTO copy = new RiskPredictionDTO();
+        copy.setSupplierId(source.getSupplierId());
+        copy.setRiskScores(source.getRiskScores() == null ? null : new HashMap<>(source.getRiskScores()));
+        copy.setRiskFactors(source.getRiskFactors() == null ? null : new HashMap<>(source.getRiskFactors()));
+        copy.setOverallRiskTrend(source.getOverallRiskTrend());
+        copy.setRiskAlerts(source.getRiskAlerts() == null ? null : new ArrayList<>(source.getRiskAlerts()));
+        copy.setConfidence(source.getConfidence());
+        copy.setPredictedAt(source.getPredictedAt());
+        copy.setTimeHorizonDays(source.getTimeHorizonDays());
+        return copy;
+    }
+
+    private static final class Entry {
+        private final Long supplierId;
+        private final RiskPredictionDTO prediction;
+        private final long storedAt;
+
+        private Entry(Long supplierId, RiskPredictionDTO prediction, long storedAt) {
+            this.supplierId = supplierId;
+            this.prediction = prediction;
+            this.storedAt = storedAt;
+        }
+    }
+}
@@ -28,6 +28,9 @@ public class RecommendationEngine {
     @Autowired
     private RiskAssessmentService riskAssessmentService;
     
+    @Autowired
+    private SupplierFeatureSnapshot supplierFeatureSnapshot;
+    
     /**
      * Recommend alternative suppliers with advanced scoring algorithms
      */
@@ -137,9 +140,22 @@ public class RecommendationEngine {
     // Helper methods for supplier recommendation
     
     private List<Supplier> findSimilarSuppliers(Supplier currentSupplier, RecommendationCriteria criteria) {
-        List<Supplier> allSuppliers = supplierRepository.findAll();
+        List<Supplier> candidates;
+        if (supplierFeatureSnapshot.isLoaded()) {
+            // Narrow candidates on the in-memory snapshot, then load only those rows
+            List<Long> candidateIds = supplierFeatureSnapshot.findSimilarActiveSupplierIds(
+                currentSupplier.getId(), currentSupplier.getIndustry(), currentSupplier.getBusinessType(),
+                criteria.getPreferredCountries(), criteria.getExcludedCountries(), criteria.getMinQualityThreshold());
+            if (candidateIds.isEmpty()) {
+                return new ArrayList<>();
+            }
+            candidates = supplierRepository.findAllById(candidateIds);
+        } else {
+            // Snapshot still loading (or its load failed): scan the table as before
+            candidates = supplierRepository.findAll();
+        }
         
-        return allSuppliers.stream()
+        return candidates.stream()
             .filter(s -> !s.getId().equals(currentSupplier.getId()))
             .filter(s -> s.getStatus() == Supplier.SupplierStatus.ACTIVE)
             .filter(s -> matchesBasicCriteria(s, criteria))
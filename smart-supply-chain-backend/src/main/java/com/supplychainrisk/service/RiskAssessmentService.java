@@ -5,275 +5,76 @@ import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class RiskAssessmentService {
     
-    // Risk weight factors (totaling 100%)
-    private static final double FINANCIAL_WEIGHT = 0.25;
-    private static final double OPERATIONAL_WEIGHT = 0.30;
-    private static final double COMPLIANCE_WEIGHT = 0.25;
-    private static final double GEOGRAPHIC_WEIGHT = 0.20;
+    // Audit age/due thresholds (days) used by the compliance score
+    public static final int RECENT_AUDIT_DAYS = 365;
+    public static final int AGED_AUDIT_DAYS = 730;
+    public static final int AUDIT_DUE_SOON_DAYS = 30;
     
     // High-risk countries (simplified list)
-    private static final Set<String> HIGH_RISK_COUNTRIES = Set.of(
+    static final Set<String> HIGH_RISK_COUNTRIES = Set.of(
         "Afghanistan", "Iran", "North Korea", "Syria", "Yemen", "Somalia", "Libya"
     );
     
     // Medium-risk countries
-    private static final Set<String> MEDIUM_RISK_COUNTRIES = Set.of(
+    static final Set<String> MEDIUM_RISK_COUNTRIES = Set.of(
         "Venezuela", "Belarus", "Myanmar", "Russia", "China", "Pakistan"
     );
     
+    // Low-risk countries (US, EU, developed nations), matched case-insensitively
+    static final Set<String> LOW_RISK_COUNTRIES = Set.of(
+        "united states", "usa", "us", "canada", "germany", "france",
+        "united kingdom", "uk", "japan", "australia", "netherlands",
+        "switzerland", "sweden", "norway", "denmark"
+    );
+    
+    // Version recorded for scores produced by the built-in model before any versioned model is loaded
+    public static final int BUILT_IN_MODEL_VERSION = 0;
+    
+    // Active versioned model; swapped atomically by RiskModelService on hot reload
+    private final AtomicReference<ActiveRiskModel> activeModel = new AtomicReference<>(
+        new ActiveRiskModel(BUILT_IN_MODEL_VERSION, CompiledRiskScorer.builder().build()));
+    
     /**
-     * Calculate all risk scores for a supplier
+     * Risk sub-scores that can be recalculated independently
      */
-    public void calculateRiskScores(Supplier supplier) {
-        int financialRisk = calculateFinancialRiskScore(supplier);
-        int operationalRisk = calculateOperationalRiskScore(supplier);
-        int complianceRisk = calculateComplianceRiskScore(supplier);
-        int geographicRisk = calculateGeographicRiskScore(supplier);
-        
-        supplier.setFinancialRiskScore(financialRisk);
-        supplier.setOperationalRiskScore(operationalRisk);
-        supplier.setComplianceRiskScore(complianceRisk);
-        supplier.setGeographicRiskScore(geographicRisk);
-        
-        // Calculate overall risk score as weighted average
-        double overallRisk = (financialRisk * FINANCIAL_WEIGHT) +
-                           (operationalRisk * OPERATIONAL_WEIGHT) +
-                           (complianceRisk * COMPLIANCE_WEIGHT) +
-                           (geographicRisk * GEOGRAPHIC_WEIGHT);
-        
-        supplier.setOverallRiskScore((int) Math.round(overallRisk));
+    public enum RiskComponent {
+        FINANCIAL, OPERATIONAL, COMPLIANCE, GEOGRAPHIC
     }
     
     /**
-     * Calculate financial risk score (0-100, higher is riskier)
+     * Calculate all risk scores for a supplier
      */
-    private int calculateFinancialRiskScore(Supplier supplier) {
-        int score = 0;
-        
-        // Credit rating assessment
-        String creditRating = supplier.getCreditRating();
-        if (creditRating != null) {
-            switch (creditRating.toUpperCase()) {
-                case "AAA", "AA+", "AA", "AA-" -> score += 5;  // Excellent
-                case "A+", "A", "A-" -> score += 15;          // Good
-                case "BBB+", "BBB", "BBB-" -> score += 25;    // Fair
-                case "BB+", "BB", "BB-" -> score += 40;       // Speculative
-                case "B+", "B", "B-" -> score += 60;          // Highly speculative
-                default -> score += 80;                       // Default/Unknown
-            }
-        } else {
-            score += 50; // No credit rating available
-        }
-        
-        // Annual revenue assessment (stability indicator)
-        BigDecimal revenue = supplier.getAnnualRevenue();
-        if (revenue != null) {
-            if (revenue.compareTo(BigDecimal.valueOf(1000000000)) >= 0) { // >= $1B
-                score += 5;  // Very stable
-            } else if (revenue.compareTo(BigDecimal.valueOf(100000000)) >= 0) { // >= $100M
-                score += 10; // Stable
-            } else if (revenue.compareTo(BigDecimal.valueOf(10000000)) >= 0) { // >= $10M
-                score += 20; // Moderate
-            } else if (revenue.compareTo(BigDecimal.valueOf(1000000)) >= 0) { // >= $1M
-                score += 30; // Small but viable
-            } else {
-                score += 40; // Very small/risky
-            }
-        } else {
-            score += 30; // Unknown revenue
-        }
-        
-        // Years in business (experience/stability)
-        Integer yearsInBusiness = supplier.getYearsInBusiness();
-        if (yearsInBusiness != null) {
-            if (yearsInBusiness >= 20) {
-                score += 5;  // Very established
-            } else if (yearsInBusiness >= 10) {
-                score += 10; // Established
-            } else if (yearsInBusiness >= 5) {
-                score += 20; // Moderately established
-            } else if (yearsInBusiness >= 2) {
-                score += 30; // New but operational
-            } else {
-                score += 40; // Very new/risky
-            }
-        } else {
-            score += 25; // Unknown
-        }
-        
-        return Math.min(100, score);
+    public void calculateRiskScores(Supplier supplier) {
+        recalculateRiskScores(supplier, EnumSet.allOf(RiskComponent.class));
     }
     
     /**
-     * Calculate operational risk score (0-100, higher is riskier)
+     * Recalculate only the given sub-scores with the active risk model, then the weighted overall score
      */
-    private int calculateOperationalRiskScore(Supplier supplier) {
-        int score = 0;
-        
-        // On-time delivery performance
-        BigDecimal deliveryRate = supplier.getOnTimeDeliveryRate();
-        if (deliveryRate != null) {
-            if (deliveryRate.compareTo(BigDecimal.valueOf(95)) >= 0) {
-                score += 5;  // Excellent
-            } else if (deliveryRate.compareTo(BigDecimal.valueOf(90)) >= 0) {
-                score += 15; // Good
-            } else if (deliveryRate.compareTo(BigDecimal.valueOf(80)) >= 0) {
-                score += 30; // Fair
-            } else if (deliveryRate.compareTo(BigDecimal.valueOf(70)) >= 0) {
-                score += 50; // Poor
-            } else {
-                score += 70; // Very poor
-            }
-        } else {
-            score += 40; // No data
-        }
-        
-        // Quality rating
-        BigDecimal qualityRating = supplier.getQualityRating();
-        if (qualityRating != null) {
-            if (qualityRating.compareTo(BigDecimal.valueOf(9)) >= 0) {
-                score += 5;  // Excellent
-            } else if (qualityRating.compareTo(BigDecimal.valueOf(8)) >= 0) {
-                score += 15; // Good
-            } else if (qualityRating.compareTo(BigDecimal.valueOf(7)) >= 0) {
-                score += 25; // Fair
-            } else if (qualityRating.compareTo(BigDecimal.valueOf(6)) >= 0) {
-                score += 40; // Poor
-            } else {
-                score += 60; // Very poor
-            }
-        } else {
-            score += 30; // No data
-        }
-        
-        // Employee count (capacity indicator)
-        Integer employeeCount = supplier.getEmployeeCount();
-        if (employeeCount != null) {
-            if (employeeCount >= 1000) {
-                score += 5;  // Large capacity
-            } else if (employeeCount >= 100) {
-                score += 10; // Medium capacity
-            } else if (employeeCount >= 50) {
-                score += 20; // Small but adequate
-            } else if (employeeCount >= 10) {
-                score += 30; // Very small
-            } else {
-                score += 40; // Micro/inadequate
-            }
-        } else {
-            score += 25; // Unknown
-        }
-        
-        return Math.min(100, score);
+    public void recalculateRiskScores(Supplier supplier, Set<RiskComponent> components) {
+        ActiveRiskModel model = activeModel.get();
+        model.getScorer().score(supplier, components, CompiledRiskScorer.today());
+        supplier.setRiskModelVersion(model.getVersion());
     }
     
     /**
-     * Calculate compliance risk score (0-100, higher is riskier)
+     * Active model version and evaluator, read together so a batch never mixes versions
      */
-    private int calculateComplianceRiskScore(Supplier supplier) {
-        int score = 0;
-        
-        // ISO certifications
-        List<String> isoCertifications = supplier.getIsoCertifications();
-        if (isoCertifications != null && !isoCertifications.isEmpty()) {
-            int certCount = isoCertifications.size();
-            if (certCount >= 5) {
-                score += 5;  // Excellent compliance
-            } else if (certCount >= 3) {
-                score += 15; // Good compliance
-            } else if (certCount >= 1) {
-                score += 25; // Basic compliance
-            }
-        } else {
-            score += 40; // No ISO certifications
-        }
-        
-        // Compliance certifications
-        List<String> complianceCerts = supplier.getComplianceCertifications();
-        if (complianceCerts != null && !complianceCerts.isEmpty()) {
-            int certCount = complianceCerts.size();
-            if (certCount >= 3) {
-                score += 10; // Strong compliance
-            } else if (certCount >= 1) {
-                score += 20; // Basic compliance
-            }
-        } else {
-            score += 30; // No compliance certifications
-        }
-        
-        // Audit status
-        LocalDate lastAudit = supplier.getLastAuditDate();
-        LocalDate nextAudit = supplier.getNextAuditDueDate();
-        
-        if (lastAudit != null) {
-            long daysSinceAudit = ChronoUnit.DAYS.between(lastAudit, LocalDate.now());
-            if (daysSinceAudit <= 365) {
-                score += 5;  // Recent audit
-            } else if (daysSinceAudit <= 730) {
-                score += 15; // Moderately recent
-            } else {
-                score += 30; // Old audit
-            }
-        } else {
-            score += 40; // No audit history
-        }
-        
-        if (nextAudit != null) {
-            long daysToAudit = ChronoUnit.DAYS.between(LocalDate.now(), nextAudit);
-            if (daysToAudit < 0) {
-                score += 30; // Overdue audit
-            } else if (daysToAudit <= 30) {
-                score += 10; // Due soon
-            } else {
-                score += 5;  // Scheduled appropriately
-            }
-        } else {
-            score += 20; // No audit scheduled
-        }
-        
-        return Math.min(100, score);
+    public ActiveRiskModel getActiveModel() {
+        return activeModel.get();
     }
     
     /**
-     * Calculate geographic risk score (0-100, higher is riskier)
+     * Atomically replace the active model; returns the model it replaced
      */
-    private int calculateGeographicRiskScore(Supplier supplier) {
-        int score = 0;
-        String country = supplier.getCountry();
-        
-        if (country != null) {
-            String normalizedCountry = country.trim();
-            
-            if (HIGH_RISK_COUNTRIES.contains(normalizedCountry)) {
-                score += 80; // Very high risk
-            } else if (MEDIUM_RISK_COUNTRIES.contains(normalizedCountry)) {
-                score += 50; // Medium risk
-            } else {
-                // Low risk countries (US, EU, developed nations)
-                switch (normalizedCountry.toLowerCase()) {
-                    case "united states", "usa", "us", "canada", "germany", "france", 
-                         "united kingdom", "uk", "japan", "australia", "netherlands", 
-                         "switzerland", "sweden", "norway", "denmark" -> score += 10;
-                    default -> score += 25; // Other countries - moderate risk
-                }
-            }
-        } else {
-            score += 50; // Unknown location
-        }
-        
-        // Additional geographic factors could be added here:
-        // - Natural disaster risk
-        // - Political stability
-        // - Economic indicators
-        // - Trade restrictions
-        
-        return Math.min(100, score);
+    public ActiveRiskModel activateModel(int version, CompiledRiskScorer scorer) {
+        return activeModel.getAndSet(new ActiveRiskModel(version, scorer));
     }
     
     /**
@@ -343,4 +144,111 @@ public class RiskAssessmentService {
         
         return recommendations;
     }
-}
\ No newline at end of file
+    
+    /**
+     * Score-relevant inputs of a supplier, captured before an edit so that only
+     * the sub-scores whose inputs actually changed get recalculated
+     */
+    public static final class RiskInputSnapshot {
+        private final String creditRating;
+        private final BigDecimal annualRevenue;
+        private final Integer yearsInBusiness;
+        private final BigDecimal onTimeDeliveryRate;
+        private final BigDecimal qualityRating;
+        private final Integer employeeCount;
+        private final int isoCertificationCount;
+        private final int complianceCertificationCount;
+        private final LocalDate lastAuditDate;
+        private final LocalDate nextAuditDueDate;
+        private final String country;
+        
+        private RiskInputSnapshot(Supplier supplier) {
+            this.creditRating = supplier.getCreditRating() != null ? supplier.getCreditRating().toUpperCase() : null;
+            this.annualRevenue = supplier.getAnnualRevenue();
+            this.yearsInBusiness = supplier.getYearsInBusiness();
+            this.onTimeDeliveryRate = supplier.getOnTimeDeliveryRate();
+            this.qualityRating = supplier.getQualityRating();
+            this.employeeCount = supplier.getEmployeeCount();
+            // Only the number of certifications feeds the compliance score
+            this.isoCertificationCount = supplier.getIsoCertifications() != null ? supplier.getIsoCertifications().size() : 0;
+            this.complianceCertificationCount = supplier.getComplianceCertifications() != null
+                ? supplier.getComplianceCertifications().size() : 0;
+            this.lastAuditDate = supplier.getLastAuditDate();
+            this.nextAuditDueDate = supplier.getNextAuditDueDate();
+            this.country = supplier.getCountry() != null ? supplier.getCountry().trim() : null;
+        }
+        
+        public static RiskInputSnapshot of(Supplier supplier) {
+            return new RiskInputSnapshot(supplier);
+        }
+        
+        /**
+         * Sub-scores whose inputs differ between this snapshot and a later one
+         */
+        public Set<RiskComponent> changedComponents(RiskInputSnapshot after) {
+            Set<RiskComponent> changed = EnumSet.noneOf(RiskComponent.class);
+            if (!Objects.equals(creditRating, after.creditRating)
+                    || !sameAmount(annualRevenue, after.annualRevenue)
+                    || !Objects.equals(yearsInBusiness, after.yearsInBusiness)) {
+                changed.add(RiskComponent.FINANCIAL);
+            }
+            if (!sameAmount(onTimeDeliveryRate, after.onTimeDeliveryRate)
+                    || !sameAmount(qualityRating, after.qualityRating)
+                    || !Objects.equals(employeeCount, after.employeeCount)) {
+                changed.add(RiskComponent.OPERATIONAL);
+            }
+            if (isoCertificationCount != after.isoCertificationCount
+                    || complianceCertificationCount != after.complianceCertificationCount
+                    || !Objects.equals(lastAuditDate, after.lastAuditDate)
+                    || !Objects.equals(nextAuditDueDate, after.nextAuditDueDate)) {
+                changed.add(RiskComponent.COMPLIANCE);
+            }
+            if (!Objects.equals(country, after.country)) {
+                changed.add(RiskComponent.GEOGRAPHIC);
+            }
+            return changed;
+        }
+        
+        private static boolean sameAmount(BigDecimal a, BigDecimal b) {
+            return a == null ? b == null : b != null && a.compareTo(b) == 0;
+        }
+    }
+    
+    /**
+     * Published after a supplier's risk scores were recalculated and saved
+     */
+    public static class SupplierRiskScoresChangedEvent {
+        private final Supplier supplier;
+        private final Set<RiskComponent> recalculatedComponents;
+        private final Integer previousOverallRiskScore;
+        
+        public SupplierRiskScoresChangedEvent(Supplier supplier, Set<RiskComponent> recalculatedComponents,
+                                              Integer previousOverallRiskScore) {
+            this.supplier = supplier;
+            this.recalculatedComponents = recalculatedComponents;
+            this.previousOverallRiskScore = previousOverallRiskScore;
+        }
+        
+        // Getters
+        public Supplier getSupplier() { return supplier; }
+        public Long getSupplierId() { return supplier.getId(); }
+        public Set<RiskComponent> getRecalculatedComponents() { return recalculatedComponents; }
+        public Integer getPreviousOverallRiskScore() { return previousOverallRiskScore; }
+    }
+    
+    /**
+     * Immutable pairing of a risk model version with its compiled evaluator
+     */
+    public static final class ActiveRiskModel {
+        private final int version;
+        private final CompiledRiskScorer scorer;
+        
+        public ActiveRiskModel(int version, CompiledRiskScorer scorer) {
+            this.version = version;
+            this.scorer = scorer;
+        }
+        
+        public int getVersion() { return version; }
+        public CompiledRiskScorer getScorer() { return scorer; }
+    }
+}
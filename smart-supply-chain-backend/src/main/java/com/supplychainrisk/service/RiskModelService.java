@@ -0,0 +1,717 @@
+package com.supplychainrisk.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.supplychainrisk.dto.RiskModelDefinition;
+import com.supplychainrisk.entity.RiskModelVersion;
+import com.supplychainrisk.exception.BusinessException;
+import com.supplychainrisk.repository.RiskModelVersionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Versioned, hot-reloadable risk model.
+ *
+ * Model definitions are stored as immutable versions in {@code risk_model_versions}
+ * and can be published through the API or picked up from a JSON file
+ * ({@code risk.model.file}). Activating a version compiles it into a
+ * {@link CompiledRiskScorer}, swaps it atomically into {@link RiskAssessmentService},
+ * and rescores only the suppliers whose scores the diff between the old and new
+ * version can change. The rescore job slot is reserved before the swap, and an
+ * activation whose rescore cannot start is rolled back, so the active model and
+ * the stored scores never drift apart. Other instances pick up the active
+ * version by polling.
+ */
+@Service
+public class RiskModelService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RiskModelService.class);
+
+    public static final String SOURCE_BUILT_IN = "BUILT_IN";
+    public static final String SOURCE_API = "API";
+    public static final String SOURCE_FILE = "FILE";
+
+    // Tolerance for weights summing to 1
+    private static final double WEIGHT_SUM_TOLERANCE = 0.001;
+
+    @Autowired
+    private RiskModelVersionRepository versionRepository;
+
+    @Autowired
+    private RiskAssessmentService riskAssessmentService;
+
+    @Autowired
+    private RiskRecalculationJobService recalculationJobService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private GeographicRiskDatasetService geographicRiskDatasetService;
+
+    @Value("${risk.model.file:}")
+    private String modelFile;
+
+    @Value("${risk.model.rescore-on-activation:true}")
+    private boolean rescoreOnActivation;
+
+    private volatile RiskModelDefinition activeDefinition = defaultDefinition();
+    private volatile long modelFileLastModified;
+
+    /**
+     * Load the active version, seeding version 1 from the built-in model on first start
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            Optional<RiskModelVersion> active = versionRepository.findTopByActiveTrueOrderByActivatedAtDesc();
+            if (active.isPresent()) {
+                install(active.get());
+            } else {
+                RiskModelVersion seeded = publish(defaultDefinition(), "Built-in risk model", SOURCE_BUILT_IN, null, false);
+                activateVersion(seeded, null, null);
+            }
+            checkModelFile();
+        } catch (Exception e) {
+            logger.error("Failed to load the risk model; scoring with the built-in model", e);
+        }
+    }
+
+    /**
+     * Pick up versions activated on other instances and changes to the model file
+     */
+    @Scheduled(fixedDelayString = "${risk.model.refresh-interval-ms:60000}",
+               initialDelayString = "${risk.model.refresh-interval-ms:60000}")
+    public void refresh() {
+        try {
+            versionRepository.findTopByActiveTrueOrderByActivatedAtDesc()
+                .filter(version -> version.getVersion() != riskAssessmentService.getActiveModel().getVersion())
+                .ifPresent(this::install);
+            checkModelFile();
+        } catch (Exception e) {
+            logger.error("Risk model refresh failed", e);
+        }
+    }
+
+    /**
+     * Store a new model version. Sections missing from the definition are inherited from
+     * the active version. Publishing a definition identical to the active one is a no-op.
+     */
+    public RiskModelVersion publish(RiskModelDefinition definition, String description, String source,
+                                    Long userId, boolean activate) {
+        RiskRecalculationJobService.RescoreReservation reservation =
+            activate && rescoreOnActivation ? reserveRescore() : null;
+        try {
+            return publish(definition, description, source, userId, activate, reservation);
+        } finally {
+            if (reservation != null) {
+                reservation.release();
+            }
+        }
+    }
+
+    private RiskModelVersion publish(RiskModelDefinition definition, String description, String source,
+                                     Long userId, boolean activate,
+                                     RiskRecalculationJobService.RescoreReservation reservation) {
+        RiskModelDefinition merged = normalize(merge(activeDefinition, definition));
+        compile(merged); // validate before storing
+
+        String json = toJson(merged);
+        String hash = sha256(json);
+        Optional<RiskModelVersion> active = versionRepository.findTopByActiveTrueOrderByActivatedAtDesc();
+        if (active.isPresent() && hash.equals(active.get().getDefinitionHash())) {
+            logger.debug("Risk model definition unchanged; version {} stays active", active.get().getVersion());
+            return active.get();
+        }
+
+        int nextVersion = versionRepository.findTopByOrderByVersionDesc()
+            .map(version -> version.getVersion() + 1)
+            .orElse(1);
+        RiskModelVersion version = versionRepository.save(
+            new RiskModelVersion(nextVersion, json, hash, source, description, userId));
+        logger.info("Published risk model version {} ({})", nextVersion, source);
+
+        if (activate) {
+            activateVersion(version, userId, reservation);
+        }
+        return version;
+    }
+
+    /**
+     * Activate a stored version and rescore the suppliers its diff affects
+     */
+    public Map<String, Object> activate(int versionNumber, Long userId) {
+        RiskModelVersion version = versionRepository.findByVersion(versionNumber)
+            .orElseThrow(() -> new BusinessException(HttpStatus.NOT_FOUND, "RISK_MODEL_NOT_FOUND",
+                "Risk model version " + versionNumber + " not found"));
+        RiskRecalculationJobService.RescoreReservation reservation = rescoreOnActivation ? reserveRescore() : null;
+        try {
+            return activateVersion(version, userId, reservation);
+        } finally {
+            if (reservation != null) {
+                reservation.release();
+            }
+        }
+    }
+
+    public Map<String, Object> getActiveModel() {
+        int activeVersion = riskAssessmentService.getActiveModel().getVersion();
+        Map<String, Object> result = new HashMap<>();
+        result.put("version", activeVersion);
+        result.put("definition", activeDefinition);
+        versionRepository.findByVersion(activeVersion).ifPresent(version -> {
+            result.put("activatedAt", version.getActivatedAt());
+            result.put("source", version.getSource());
+            result.put("description", version.getDescription());
+        });
+        return result;
+    }
+
+    public List<Map<String, Object>> listVersions() {
+        List<Map<String, Object>> versions = new ArrayList<>();
+        for (RiskModelVersion version : versionRepository.findAllByOrderByVersionDesc()) {
+            Map<String, Object> summary = new HashMap<>();
+            summary.put("version", version.getVersion());
+            summary.put("active", version.getActive());
+            summary.put("source", version.getSource());
+            summary.put("description", version.getDescription());
+            summary.put("createdBy", version.getCreatedBy());
+            summary.put("createdAt", version.getCreatedAt());
+            summary.put("activatedAt", version.getActivatedAt());
+            versions.add(summary);
+        }
+        return versions;
+    }
+
+    public RiskModelDefinition getDefinition(int versionNumber) {
+        return versionRepository.findByVersion(versionNumber)
+            .map(version -> fromJson(version.getDefinition()))
+            .orElseThrow(() -> new BusinessException(HttpStatus.NOT_FOUND, "RISK_MODEL_NOT_FOUND",
+                "Risk model version " + versionNumber + " not found"));
+    }
+
+    public RiskModelDiff diffVersions(int fromVersion, int toVersion) {
+        return diff(getDefinition(fromVersion), getDefinition(toVersion));
+    }
+
+    private RiskRecalculationJobService.RescoreReservation reserveRescore() {
+        try {
+            return recalculationJobService.reserveModelRescore();
+        } catch (BusinessException e) {
+            throw new BusinessException(HttpStatus.CONFLICT, "JOB_ALREADY_RUNNING",
+                "Wait for the running risk recalculation to finish before activating a model");
+        }
+    }
+
+    /**
+     * Activate a version; with a reservation, its rescore starts in the reserved job slot
+     */
+    private Map<String, Object> activateVersion(RiskModelVersion version, Long userId,
+                                                RiskRecalculationJobService.RescoreReservation reservation) {
+        RiskModelDefinition definition = fromJson(version.getDefinition());
+        CompiledRiskScorer scorer = compile(definition, geographicRiskDatasetService);
+
+        markActive(version);
+
+        RiskModelDefinition previousDefinition = activeDefinition;
+        RiskAssessmentService.ActiveRiskModel previous = riskAssessmentService.activateModel(version.getVersion(), scorer);
+        activeDefinition = definition;
+
+        RiskModelDiff diff = diff(previousDefinition, definition);
+        logger.info("Activated risk model version {} (was {}): {}", version.getVersion(), previous.getVersion(),
+            diff.toMap());
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("version", version.getVersion());
+        result.put("previousVersion", previous.getVersion());
+        result.put("diff", diff.toMap());
+        if (reservation != null && !diff.isEmpty()) {
+            try {
+                result.put("rescore", reservation.start(diff.getComponents(), diff.getAffectedCountries(), userId));
+            } catch (RuntimeException e) {
+                logger.error("Rescore for risk model version {} could not start; restoring version {}",
+                    version.getVersion(), previous.getVersion(), e);
+                versionRepository.findByVersion(previous.getVersion()).ifPresent(this::markActive);
+                riskAssessmentService.activateModel(previous.getVersion(), previous.getScorer());
+                activeDefinition = previousDefinition;
+                throw e;
+            }
+        }
+        return result;
+    }
+
+    private void markActive(RiskModelVersion version) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            versionRepository.deactivateAllExcept(version.getVersion());
+            version.setActive(true);
+            version.setActivatedAt(LocalDateTime.now());
+            versionRepository.save(version);
+        });
+    }
+
+    /**
+     * Swap in a version activated elsewhere; its rescore ran on the activating instance
+     */
+    private void install(RiskModelVersion version) {
+        RiskModelDefinition definition = fromJson(version.getDefinition());
+        riskAssessmentService.activateModel(version.getVersion(), compile(definition, geographicRiskDatasetService));
+        activeDefinition = definition;
+        logger.info("Loaded risk model version {}", version.getVersion());
+    }
+
+    private void checkModelFile() {
+        if (modelFile == null || modelFile.isBlank()) {
+            return;
+        }
+        Path path = Paths.get(modelFile);
+        try {
+            if (!Files.exists(path)) {
+                return;
+            }
+            long lastModified = Files.getLastModifiedTime(path).toMillis();
+            if (lastModified == modelFileLastModified) {
+                return;
+            }
+            RiskModelDefinition definition = objectMapper.readValue(
+                Files.readString(path, StandardCharsets.UTF_8), RiskModelDefinition.class);
+            publish(definition, "Loaded from " + path.getFileName(), SOURCE_FILE, null, true);
+            modelFileLastModified = lastModified;
+        } catch (IOException e) {
+            logger.error("Could not read risk model file {}", path, e);
+        } catch (BusinessException e) {
+            if (e.getStatus() == HttpStatus.CONFLICT) {
+                // Nothing was stored; the file stamp stays unchanged so the next poll retries
+                logger.info("Deferred risk model file {} until the running recalculation finishes", path);
+                return;
+            }
+            logger.error("Rejected risk model file {}: {}", path, e.getMessage());
+            // Do not retry the same broken file on every poll
+            try {
+                modelFileLastModified = Files.getLastModifiedTime(path).toMillis();
+            } catch (IOException ignored) {
+                // retried on the next poll
+            }
+        }
+    }
+
+    private String toJson(RiskModelDefinition definition) {
+        try {
+            return objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                .writeValueAsString(definition);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize risk model definition", e);
+        }
+    }
+
+    private RiskModelDefinition fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, RiskModelDefinition.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored risk model definition is not valid JSON", e);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Take each section from the update, or from the base where the update omits it
+     */
+    static RiskModelDefinition merge(RiskModelDefinition base, RiskModelDefinition update) {
+        RiskModelDefinition merged = new RiskModelDefinition();
+        merged.setWeights(update.getWeights() != null ? update.getWeights() : base.getWeights());
+        merged.setCreditRatings(update.getCreditRatings() != null ? update.getCreditRatings() : base.getCreditRatings());
+        merged.setAnnualRevenue(update.getAnnualRevenue() != null ? update.getAnnualRevenue() : base.getAnnualRevenue());
+        merged.setYearsInBusiness(update.getYearsInBusiness() != null ? update.getYearsInBusiness() : base.getYearsInBusiness());
+        merged.setOnTimeDeliveryRate(update.getOnTimeDeliveryRate() != null
+            ? update.getOnTimeDeliveryRate() : base.getOnTimeDeliveryRate());
+        merged.setQualityRating(update.getQualityRating() != null ? update.getQualityRating() : base.getQualityRating());
+        merged.setEmployeeCount(update.getEmployeeCount() != null ? update.getEmployeeCount() : base.getEmployeeCount());
+        merged.setIsoCertifications(update.getIsoCertifications() != null
+            ? update.getIsoCertifications() : base.getIsoCertifications());
+        merged.setComplianceCertifications(update.getComplianceCertifications() != null
+            ? update.getComplianceCertifications() : base.getComplianceCertifications());
+        merged.setAudits(update.getAudits() != null ? update.getAudits() : base.getAudits());
+        merged.setCountryTiers(update.getCountryTiers() != null ? update.getCountryTiers() : base.getCountryTiers());
+        return merged;
+    }
+
+    /**
+     * Canonical form: sorted, trimmed country sets and upper-cased, sorted credit ratings
+     */
+    static RiskModelDefinition normalize(RiskModelDefinition definition) {
+        RiskModelDefinition.CreditRatings ratings = definition.getCreditRatings();
+        if (ratings != null && ratings.getPoints() != null) {
+            Map<String, Integer> points = new TreeMap<>();
+            ratings.getPoints().forEach((rating, value) -> points.put(rating.trim().toUpperCase(Locale.ROOT), value));
+            RiskModelDefinition.CreditRatings normalized = new RiskModelDefinition.CreditRatings();
+            normalized.setPoints(points);
+            normalized.setUnknownPoints(ratings.getUnknownPoints());
+            normalized.setMissingPoints(ratings.getMissingPoints());
+            definition.setCreditRatings(normalized);
+        }
+        RiskModelDefinition.CountryTiers tiers = definition.getCountryTiers();
+        if (tiers != null) {
+            RiskModelDefinition.CountryTiers normalized = new RiskModelDefinition.CountryTiers();
+            normalized.setHigh(trimmed(tiers.getHigh()));
+            normalized.setHighPoints(tiers.getHighPoints());
+            normalized.setMedium(trimmed(tiers.getMedium()));
+            normalized.setMediumPoints(tiers.getMediumPoints());
+            normalized.setLow(trimmed(tiers.getLow()));
+            normalized.setLowPoints(tiers.getLowPoints());
+            normalized.setDefaultPoints(tiers.getDefaultPoints());
+            normalized.setMissingPoints(tiers.getMissingPoints());
+            definition.setCountryTiers(normalized);
+        }
+        return definition;
+    }
+
+    private static Set<String> trimmed(Set<String> countries) {
+        if (countries == null) {
+            return null;
+        }
+        Set<String> trimmed = new TreeSet<>();
+        for (String country : countries) {
+            trimmed.add(country.trim());
+        }
+        return trimmed;
+    }
+
+    /**
+     * Compile a definition into an immutable evaluator, rejecting incomplete or inconsistent models
+     */
+    static CompiledRiskScorer compile(RiskModelDefinition definition) {
+        return compile(definition, null);
+    }
+
+    /**
+     * Compile a definition, consulting the geographic dataset before the definition's country tiers
+     */
+    static CompiledRiskScorer compile(RiskModelDefinition definition, CompiledRiskScorer.GeographicOverlay overlay) {
+        try {
+            RiskModelDefinition.Weights weights = require(definition.getWeights(), "weights");
+            double financial = require(weights.getFinancial(), "weights.financial");
+            double operational = require(weights.getOperational(), "weights.operational");
+            double compliance = require(weights.getCompliance(), "weights.compliance");
+            double geographic = require(weights.getGeographic(), "weights.geographic");
+            if (financial < 0 || operational < 0 || compliance < 0 || geographic < 0
+                    || Math.abs(financial + operational + compliance + geographic - 1.0) > WEIGHT_SUM_TOLERANCE) {
+                throw new IllegalArgumentException("weights must be non-negative and sum to 1");
+            }
+
+            RiskModelDefinition.CreditRatings ratings = require(definition.getCreditRatings(), "creditRatings");
+            RiskModelDefinition.Audits audits = require(definition.getAudits(), "audits");
+            RiskModelDefinition.CountryTiers tiers = require(definition.getCountryTiers(), "countryTiers");
+
+            return CompiledRiskScorer.builder()
+                .weights(financial, operational, compliance, geographic)
+                .creditRatings(require(ratings.getPoints(), "creditRatings.points"),
+                    require(ratings.getUnknownPoints(), "creditRatings.unknownPoints"),
+                    require(ratings.getMissingPoints(), "creditRatings.missingPoints"))
+                .revenueBands(longCutoffs(definition.getAnnualRevenue(), "annualRevenue"),
+                    points(definition.getAnnualRevenue(), "annualRevenue"),
+                    missingPoints(definition.getAnnualRevenue(), "annualRevenue"))
+                .yearsInBusinessBands(intCutoffs(definition.getYearsInBusiness(), "yearsInBusiness"),
+                    points(definition.getYearsInBusiness(), "yearsInBusiness"),
+                    missingPoints(definition.getYearsInBusiness(), "yearsInBusiness"))
+                .onTimeDeliveryBands(doubleCutoffs(definition.getOnTimeDeliveryRate(), "onTimeDeliveryRate"),
+                    points(definition.getOnTimeDeliveryRate(), "onTimeDeliveryRate"),
+                    missingPoints(definition.getOnTimeDeliveryRate(), "onTimeDeliveryRate"))
+                .qualityBands(doubleCutoffs(definition.getQualityRating(), "qualityRating"),
+                    points(definition.getQualityRating(), "qualityRating"),
+                    missingPoints(definition.getQualityRating(), "qualityRating"))
+                .employeeBands(intCutoffs(definition.getEmployeeCount(), "employeeCount"),
+                    points(definition.getEmployeeCount(), "employeeCount"),
+                    missingPoints(definition.getEmployeeCount(), "employeeCount"))
+                .isoCertificationBands(intCutoffs(definition.getIsoCertifications(), "isoCertifications"),
+                    points(definition.getIsoCertifications(), "isoCertifications"))
+                .complianceCertificationBands(intCutoffs(definition.getComplianceCertifications(), "complianceCertifications"),
+                    points(definition.getComplianceCertifications(), "complianceCertifications"))
+                .lastAudit(require(audits.getRecentDays(), "audits.recentDays"),
+                    require(audits.getAgedDays(), "audits.agedDays"),
+                    fixedPoints(audits.getLastAuditPoints(), 4, "audits.lastAuditPoints"))
+                .nextAudit(require(audits.getDueSoonDays(), "audits.dueSoonDays"),
+                    fixedPoints(audits.getNextAuditPoints(), 4, "audits.nextAuditPoints"))
+                .countryTiers(require(tiers.getHigh(), "countryTiers.high"),
+                    require(tiers.getHighPoints(), "countryTiers.highPoints"),
+                    require(tiers.getMedium(), "countryTiers.medium"),
+                    require(tiers.getMediumPoints(), "countryTiers.mediumPoints"),
+                    require(tiers.getLow(), "countryTiers.low"),
+                    require(tiers.getLowPoints(), "countryTiers.lowPoints"),
+                    require(tiers.getDefaultPoints(), "countryTiers.defaultPoints"),
+                    require(tiers.getMissingPoints(), "countryTiers.missingPoints"))
+                .geographicOverlay(overlay)
+                .build();
+        } catch (IllegalArgumentException | ArithmeticException | NullPointerException e) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "INVALID_RISK_MODEL",
+                "Invalid risk model definition: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Which components, and for geographic changes which countries, a model change affects
+     */
+    static RiskModelDiff diff(RiskModelDefinition from, RiskModelDefinition to) {
+        Set<RiskAssessmentService.RiskComponent> components = EnumSet.noneOf(RiskAssessmentService.RiskComponent.class);
+        if (!Objects.equals(from.getCreditRatings(), to.getCreditRatings())
+                || !Objects.equals(from.getAnnualRevenue(), to.getAnnualRevenue())
+                || !Objects.equals(from.getYearsInBusiness(), to.getYearsInBusiness())) {
+            components.add(RiskAssessmentService.RiskComponent.FINANCIAL);
+        }
+        if (!Objects.equals(from.getOnTimeDeliveryRate(), to.getOnTimeDeliveryRate())
+                || !Objects.equals(from.getQualityRating(), to.getQualityRating())
+                || !Objects.equals(from.getEmployeeCount(), to.getEmployeeCount())) {
+            components.add(RiskAssessmentService.RiskComponent.OPERATIONAL);
+        }
+        if (!Objects.equals(from.getIsoCertifications(), to.getIsoCertifications())
+                || !Objects.equals(from.getComplianceCertifications(), to.getComplianceCertifications())
+                || !Objects.equals(from.getAudits(), to.getAudits())) {
+            components.add(RiskAssessmentService.RiskComponent.COMPLIANCE);
+        }
+        Set<String> countries = null;
+        if (!Objects.equals(from.getCountryTiers(), to.getCountryTiers())) {
+            components.add(RiskAssessmentService.RiskComponent.GEOGRAPHIC);
+            countries = affectedCountries(from.getCountryTiers(), to.getCountryTiers());
+        }
+        boolean weightsChanged = !Objects.equals(from.getWeights(), to.getWeights());
+
+        // Country targeting only helps when nothing else forces a full scan
+        boolean geographicOnly = !weightsChanged && components.equals(EnumSet.of(RiskAssessmentService.RiskComponent.GEOGRAPHIC));
+        return new RiskModelDiff(components, weightsChanged, geographicOnly ? countries : null);
+    }
+
+    /**
+     * Countries (lower-cased) whose tier or tier points differ; null when every supplier is affected
+     */
+    private static Set<String> affectedCountries(RiskModelDefinition.CountryTiers from, RiskModelDefinition.CountryTiers to) {
+        if (from == null || to == null
+                || !Objects.equals(from.getDefaultPoints(), to.getDefaultPoints())
+                || !Objects.equals(from.getMissingPoints(), to.getMissingPoints())) {
+            return null;
+        }
+        Set<String> affected = new HashSet<>();
+        addTierChanges(affected, from.getHigh(), from.getHighPoints(), to.getHigh(), to.getHighPoints());
+        addTierChanges(affected, from.getMedium(), from.getMediumPoints(), to.getMedium(), to.getMediumPoints());
+        addTierChanges(affected, from.getLow(), from.getLowPoints(), to.getLow(), to.getLowPoints());
+        return affected;
+    }
+
+    private static void addTierChanges(Set<String> affected, Set<String> fromCountries, Integer fromPoints,
+                                       Set<String> toCountries, Integer toPoints) {
+        Set<String> before = fromCountries != null ? fromCountries : Set.of();
+        Set<String> after = toCountries != null ? toCountries : Set.of();
+        boolean pointsChanged = !Objects.equals(fromPoints, toPoints);
+        for (String country : before) {
+            if (pointsChanged || !after.contains(country)) {
+                affected.add(country.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        for (String country : after) {
+            if (pointsChanged || !before.contains(country)) {
+                affected.add(country.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+    }
+
+    private static <T> T require(T value, String name) {
+        if (value == null) {
+            throw new IllegalArgumentException(name + " is required");
+        }
+        return value;
+    }
+
+    private static List<Double> cutoffs(RiskModelDefinition.Bands bands, String name) {
+        List<Double> cutoffs = require(require(bands, name).getCutoffs(), name + ".cutoffs");
+        for (int i = 0; i < cutoffs.size(); i++) {
+            require(cutoffs.get(i), name + ".cutoffs[" + i + "]");
+            if (i > 0 && cutoffs.get(i) >= cutoffs.get(i - 1)) {
+                throw new IllegalArgumentException(name + ".cutoffs must be strictly descending");
+            }
+        }
+        return cutoffs;
+    }
+
+    private static double[] doubleCutoffs(RiskModelDefinition.Bands bands, String name) {
+        List<Double> cutoffs = cutoffs(bands, name);
+        double[] values = new double[cutoffs.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = cutoffs.get(i);
+        }
+        return values;
+    }
+
+    private static long[] longCutoffs(RiskModelDefinition.Bands bands, String name) {
+        List<Double> cutoffs = cutoffs(bands, name);
+        long[] values = new long[cutoffs.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = wholeNumber(cutoffs.get(i), name);
+        }
+        return values;
+    }
+
+    private static int[] intCutoffs(RiskModelDefinition.Bands bands, String name) {
+        List<Double> cutoffs = cutoffs(bands, name);
+        int[] values = new int[cutoffs.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.toIntExact(wholeNumber(cutoffs.get(i), name));
+        }
+        return values;
+    }
+
+    private static long wholeNumber(double value, String name) {
+        if (value != Math.rint(value) || Math.abs(value) > 1e15) {
+            throw new IllegalArgumentException(name + ".cutoffs must be whole numbers");
+        }
+        return (long) value;
+    }
+
+    private static int[] points(RiskModelDefinition.Bands bands, String name) {
+        List<Integer> points = require(require(bands, name).getPoints(), name + ".points");
+        int[] values = new int[points.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = require(points.get(i), name + ".points[" + i + "]");
+        }
+        return values;
+    }
+
+    private static int missingPoints(RiskModelDefinition.Bands bands, String name) {
+        return require(require(bands, name).getMissingPoints(), name + ".missingPoints");
+    }
+
+    private static int[] fixedPoints(List<Integer> points, int expected, String name) {
+        if (require(points, name).size() != expected) {
+            throw new IllegalArgumentException(name + " must have " + expected + " entries");
+        }
+        int[] values = new int[expected];
+        for (int i = 0; i < expected; i++) {
+            values[i] = require(points.get(i), name + "[" + i + "]");
+        }
+        return values;
+    }
+
+    /**
+     * The built-in model as a definition; identical to the CompiledRiskScorer.Builder defaults
+     */
+    static RiskModelDefinition defaultDefinition() {
+        RiskModelDefinition definition = new RiskModelDefinition();
+
+        RiskModelDefinition.Weights weights = new RiskModelDefinition.Weights();
+        weights.setFinancial(0.25);
+        weights.setOperational(0.30);
+        weights.setCompliance(0.25);
+        weights.setGeographic(0.20);
+        definition.setWeights(weights);
+
+        RiskModelDefinition.CreditRatings ratings = new RiskModelDefinition.CreditRatings();
+        Map<String, Integer> ratingPoints = new TreeMap<>();
+        for (String rating : new String[] {"AAA", "AA+", "AA", "AA-"}) ratingPoints.put(rating, 5);
+        for (String rating : new String[] {"A+", "A", "A-"}) ratingPoints.put(rating, 15);
+        for (String rating : new String[] {"BBB+", "BBB", "BBB-"}) ratingPoints.put(rating, 25);
+        for (String rating : new String[] {"BB+", "BB", "BB-"}) ratingPoints.put(rating, 40);
+        for (String rating : new String[] {"B+", "B", "B-"}) ratingPoints.put(rating, 60);
+        ratings.setPoints(ratingPoints);
+        ratings.setUnknownPoints(80);
+        ratings.setMissingPoints(50);
+        definition.setCreditRatings(ratings);
+
+        definition.setAnnualRevenue(bands(List.of(1_000_000_000.0, 100_000_000.0, 10_000_000.0, 1_000_000.0),
+            List.of(5, 10, 20, 30, 40), 30));
+        definition.setYearsInBusiness(bands(List.of(20.0, 10.0, 5.0, 2.0), List.of(5, 10, 20, 30, 40), 25));
+        definition.setOnTimeDeliveryRate(bands(List.of(95.0, 90.0, 80.0, 70.0), List.of(5, 15, 30, 50, 70), 40));
+        definition.setQualityRating(bands(List.of(9.0, 8.0, 7.0, 6.0), List.of(5, 15, 25, 40, 60), 30));
+        definition.setEmployeeCount(bands(List.of(1000.0, 100.0, 50.0, 10.0), List.of(5, 10, 20, 30, 40), 25));
+        definition.setIsoCertifications(bands(List.of(5.0, 3.0, 1.0), List.of(5, 15, 25, 40), null));
+        definition.setComplianceCertifications(bands(List.of(3.0, 1.0), List.of(10, 20, 30), null));
+
+        RiskModelDefinition.Audits audits = new RiskModelDefinition.Audits();
+        audits.setRecentDays(RiskAssessmentService.RECENT_AUDIT_DAYS);
+        audits.setAgedDays(RiskAssessmentService.AGED_AUDIT_DAYS);
+        audits.setLastAuditPoints(List.of(5, 15, 30, 40));
+        audits.setDueSoonDays(RiskAssessmentService.AUDIT_DUE_SOON_DAYS);
+        audits.setNextAuditPoints(List.of(30, 10, 5, 20));
+        definition.setAudits(audits);
+
+        RiskModelDefinition.CountryTiers tiers = new RiskModelDefinition.CountryTiers();
+        tiers.setHigh(new TreeSet<>(RiskAssessmentService.HIGH_RISK_COUNTRIES));
+        tiers.setHighPoints(80);
+        tiers.setMedium(new TreeSet<>(RiskAssessmentService.MEDIUM_RISK_COUNTRIES));
+        tiers.setMediumPoints(50);
+        tiers.setLow(new TreeSet<>(RiskAssessmentService.LOW_RISK_COUNTRIES));
+        tiers.setLowPoints(10);
+        tiers.setDefaultPoints(25);
+        tiers.setMissingPoints(50);
+        definition.setCountryTiers(tiers);
+        return definition;
+    }
+
+    private static RiskModelDefinition.Bands bands(List<Double> cutoffs, List<Integer> points, Integer missingPoints) {
+        RiskModelDefinition.Bands bands = new RiskModelDefinition.Bands();
+        bands.setCutoffs(cutoffs);
+        bands.setPoints(points);
+        bands.setMissingPoints(missingPoints);
+        return bands;
+    }
+
+    /**
+     * Scope of a rescore implied by a model change
+     */
+    public static class RiskModelDiff {
+        private final Set<RiskAssessmentService.RiskComponent> components;
+        private final boolean weightsChanged;
+        private final Set<String> affectedCountries;
+
+        public RiskModelDiff(Set<RiskAssessmentService.RiskComponent> components, boolean weightsChanged,
+                             Set<String> affectedCountries) {
+            this.components = components;
+            this.weightsChanged = weightsChanged;
+            this.affectedCountries = affectedCountries;
+        }
+
+        public boolean isEmpty() {
+            return components.isEmpty() && !weightsChanged;
+        }
+
+        // Getters
+        public Set<RiskAssessmentService.RiskComponent> getComponents() { return components; }
+        public boolean isWeightsChanged() { return weightsChanged; }
+        // Null when every supplier must be rescored
+        public Set<String> getAffectedCountries() { return affectedCountries; }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("components", components);
+            map.put("weightsChanged", weightsChanged);
+            map.put("affectedCountries", affectedCountries != null ? new TreeSet<>(affectedCountries) : "ALL");
+            return map;
+        }
+    }
+}
@@ -0,0 +1,522 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.entity.BatchJobExecution;
+import com.supplychainrisk.entity.Supplier;
+import com.supplychainrisk.exception.BusinessException;
+import com.supplychainrisk.repository.BatchJobExecutionRepository;
+import com.supplychainrisk.repository.SupplierRepository;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk risk recalculation across the whole supplier base.
+ *
+ * Suppliers are read in keyset pages, scored on a dedicated fork-join pool and
+ * written back with JDBC batch updates. Each page commits on its own and
+ * advances a persisted checkpoint, so a failed, stopped or crashed run can resume.
+ * A run holds a {@link BatchJobLeaseService lease} on its execution row; a RUNNING
+ * row counts as crashed only once that lease has lapsed or its owner restarted.
+ * The same machinery runs targeted rescoring after a risk model version change,
+ * limited to the affected components and, when possible, countries.
+ */
+@Service
+public class RiskRecalculationJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RiskRecalculationJobService.class);
+
+    public static final String JOB_TYPE = "RISK_RECALCULATION";
+    public static final String MODEL_RESCORE_JOB_TYPE = "RISK_MODEL_RESCORE";
+
+    private static final String UPDATE_RISK_SCORES_SQL =
+        "UPDATE suppliers SET overall_risk_score = ?, financial_risk_score = ?, " +
+        "operational_risk_score = ?, compliance_risk_score = ?, geographic_risk_score = ?, " +
+        "risk_model_version = ?, risk_last_updated = ? WHERE id = ?";
+
+    private static final Set<RiskAssessmentService.RiskComponent> ALL_COMPONENTS =
+        EnumSet.allOf(RiskAssessmentService.RiskComponent.class);
+
+    // Below this many suppliers a fork-join task scores its slice directly
+    private static final int SCORING_SPLIT_THRESHOLD = 64;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Autowired
+    private BatchJobExecutionRepository jobExecutionRepository;
+
+    @Autowired
+    private BatchJobLeaseService batchJobLeaseService;
+
+    @Autowired
+    private RiskAssessmentService riskAssessmentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    @Qualifier("riskRecalculationExecutor")
+    private Executor jobExecutor;
+
+    @Value("${risk.recalculation.page-size:1000}")
+    private int pageSize;
+
+    @Value("${risk.recalculation.parallelism:0}")
+    private int parallelism;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicBoolean stopRequested = new AtomicBoolean(false);
+    private final AtomicLong processedThisRun = new AtomicLong();
+
+    private volatile BatchJobExecution currentExecution;
+    private volatile long runStartedNanos;
+
+    /**
+     * Start a new recalculation, or resume the last failed, stopped or crashed one from its checkpoint
+     */
+    public Map<String, Object> startRecalculation(boolean resume, Long userId) {
+        return start(JOB_TYPE, resume, new RescoreScope(ALL_COMPONENTS, null), userId);
+    }
+
+    /**
+     * Rescore only what a risk model change affects: the given components, and only
+     * suppliers in the given countries (lower-cased, trimmed) when that set is not null.
+     * Not resumable; a failed run is recovered with a full recalculation.
+     */
+    public Map<String, Object> startModelRescore(Set<RiskAssessmentService.RiskComponent> components,
+                                                 Set<String> countries, Long userId) {
+        return start(MODEL_RESCORE_JOB_TYPE, false, new RescoreScope(components, countries), userId);
+    }
+
+    /**
+     * Claim the job slot for a model rescore before the model is swapped, so no other
+     * job can start between the swap and its rescore. The caller either starts the
+     * reservation or releases it.
+     */
+    public RescoreReservation reserveModelRescore() {
+        claim();
+        return new RescoreReservation();
+    }
+
+    private Map<String, Object> start(String jobType, boolean resume, RescoreScope scope, Long userId) {
+        claim();
+        return launch(jobType, resume, scope, userId);
+    }
+
+    private void claim() {
+        if (!running.compareAndSet(false, true)) {
+            throw new BusinessException(HttpStatus.CONFLICT, "JOB_ALREADY_RUNNING",
+                "A risk recalculation job is already running");
+        }
+    }
+
+    /**
+     * Start a run in the claimed slot; the slot is freed if the run cannot start
+     */
+    private Map<String, Object> launch(String jobType, boolean resume, RescoreScope scope, Long userId) {
+        try {
+            BatchJobExecution execution = resume ? findResumableExecution() : null;
+            if (execution == null) {
+                execution = new BatchJobExecution(jobType, pageSize, userId);
+                execution.setTotalItems(scope.countries != null
+                    ? supplierRepository.countByNormalizedCountryIn(scope.countries) : supplierRepository.count());
+                batchJobLeaseService.acquire(execution);
+            } else {
+                logger.info("Resuming risk recalculation job {} after supplier id {}",
+                    execution.getId(), execution.getLastProcessedId());
+                execution.setErrorMessage(null);
+                execution.setTotalItems(execution.getProcessedItems() + execution.getFailedItems()
+                    + supplierRepository.countByIdGreaterThan(execution.getLastProcessedId()));
+            }
+            execution.setStatus(BatchJobExecution.JobStatus.RUNNING);
+            execution = jobExecutionRepository.save(execution);
+
+            currentExecution = execution;
+            stopRequested.set(false);
+            processedThisRun.set(0);
+            runStartedNanos = System.nanoTime();
+
+            final BatchJobExecution jobExecution = execution;
+            jobExecutor.execute(() -> runJob(jobExecution, scope));
+            return buildProgress(execution);
+
+        } catch (TaskRejectedException e) {
+            running.set(false);
+            throw new BusinessException(HttpStatus.CONFLICT, "JOB_ALREADY_RUNNING",
+                "A risk recalculation job is already running");
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    /**
+     * Ask the running job to stop after the current page; it can be resumed later
+     */
+    public Map<String, Object> requestStop() {
+        if (!running.get()) {
+            throw new BusinessException(HttpStatus.CONFLICT, "JOB_NOT_RUNNING",
+                "No risk recalculation job is running");
+        }
+        stopRequested.set(true);
+        return buildProgress(currentExecution);
+    }
+
+    /**
+     * Progress of the running job, or of the last recalculation or model rescore if none is running
+     */
+    public Map<String, Object> getProgress() {
+        BatchJobExecution execution = running.get() ? currentExecution
+            : jobExecutionRepository.findTopByJobTypeInOrderByStartedAtDesc(List.of(JOB_TYPE, MODEL_RESCORE_JOB_TYPE))
+                .orElse(null);
+        if (execution == null) {
+            return Map.of("jobType", JOB_TYPE, "status", "NEVER_RUN");
+        }
+        return buildProgress(execution);
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    private void runJob(BatchJobExecution execution, RescoreScope scope) {
+        ForkJoinPool scoringPool = new ForkJoinPool(resolveParallelism());
+        TransactionTemplate readTemplate = new TransactionTemplate(transactionManager);
+        readTemplate.setReadOnly(true);
+        TransactionTemplate writeTemplate = new TransactionTemplate(transactionManager);
+
+        logger.info("Risk recalculation job {} ({}) started: {} suppliers, components {}, page size {}, parallelism {}",
+            execution.getId(), execution.getJobType(), execution.getTotalItems(), scope.components,
+            pageSize, scoringPool.getParallelism());
+
+        try {
+            while (!stopRequested.get()) {
+                long lastId = execution.getLastProcessedId();
+                List<Supplier> page = readTemplate.execute(status -> loadPage(lastId, scope));
+                if (page == null || page.isEmpty()) {
+                    break;
+                }
+
+                Map<Supplier, Integer> previousOverallScores = new IdentityHashMap<>(page.size() * 2);
+                for (Supplier supplier : page) {
+                    previousOverallScores.put(supplier, supplier.getOverallRiskScore());
+                }
+                // One model version per page, recorded with every score it produced
+                RiskAssessmentService.ActiveRiskModel model = riskAssessmentService.getActiveModel();
+                List<Supplier> scored = scorePage(scoringPool, page, model, scope.components);
+                LocalDateTime now = LocalDateTime.now();
+
+                // One short transaction per page: batch write plus checkpoint advance
+                writeTemplate.executeWithoutResult(status -> {
+                    writeScores(scored, now);
+                    execution.setLastProcessedId(page.get(page.size() - 1).getId());
+                    execution.setProcessedItems(execution.getProcessedItems() + scored.size());
+                    execution.setFailedItems(execution.getFailedItems() + (page.size() - scored.size()));
+                    execution.setLastCheckpointAt(now);
+                    batchJobLeaseService.renew(execution);
+                    jobExecutionRepository.save(execution);
+                });
+                processedThisRun.addAndGet(page.size());
+
+                // Let in-memory views (feature snapshot) pick up the JDBC-written scores
+                for (Supplier supplier : scored) {
+                    supplier.setRiskLastUpdated(now);
+                    eventPublisher.publishEvent(new RiskAssessmentService.SupplierRiskScoresChangedEvent(
+                        supplier, scope.components, previousOverallScores.get(supplier)));
+                }
+
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Risk recalculation checkpoint at supplier id {} ({}/{})",
+                        execution.getLastProcessedId(), execution.getProcessedItems(), execution.getTotalItems());
+                }
+            }
+
+            execution.setStatus(stopRequested.get()
+                ? BatchJobExecution.JobStatus.STOPPED : BatchJobExecution.JobStatus.COMPLETED);
+            execution.setCompletedAt(LocalDateTime.now());
+            jobExecutionRepository.save(execution);
+
+            logger.info("Risk recalculation job {} {}: {} processed, {} failed, {} suppliers/sec",
+                execution.getId(), execution.getStatus(), execution.getProcessedItems(),
+                execution.getFailedItems(), String.format("%.1f", calculateThroughput()));
+
+        } catch (BatchJobLeaseService.LeaseLostException e) {
+            // The instance that took over now owns the row and its status
+            logger.warn("Risk recalculation job {} stopped after supplier id {}: {}",
+                execution.getId(), execution.getLastProcessedId(), e.getMessage());
+        } catch (Exception e) {
+            logger.error("Risk recalculation job {} failed after supplier id {}",
+                execution.getId(), execution.getLastProcessedId(), e);
+            execution.setStatus(BatchJobExecution.JobStatus.FAILED);
+            execution.setErrorMessage(e.getMessage());
+            try {
+                jobExecutionRepository.save(execution);
+            } catch (Exception saveError) {
+                logger.error("Could not record failure of risk recalculation job {}", execution.getId(), saveError);
+            }
+        } finally {
+            scoringPool.shutdown();
+            evictSupplierCache();
+            running.set(false);
+        }
+    }
+
+    /**
+     * Load the next keyset page with the collections the scorer needs already initialized
+     */
+    private List<Supplier> loadPage(long lastId, RescoreScope scope) {
+        List<Supplier> page = scope.countries != null
+            ? supplierRepository.findNextPageAfterIdInCountries(lastId, scope.countries, PageRequest.of(0, pageSize))
+            : supplierRepository.findNextPageAfterId(lastId, PageRequest.of(0, pageSize));
+        for (Supplier supplier : page) {
+            Hibernate.initialize(supplier.getIsoCertifications());
+            Hibernate.initialize(supplier.getComplianceCertifications());
+        }
+        return page;
+    }
+
+    /**
+     * Score a page on the fork-join pool; suppliers that fail to score are left out
+     */
+    private List<Supplier> scorePage(ForkJoinPool pool, List<Supplier> page,
+                                     RiskAssessmentService.ActiveRiskModel model,
+                                     Set<RiskAssessmentService.RiskComponent> components) {
+        boolean[] failed = new boolean[page.size()];
+        pool.invoke(new ScoringTask(model.getScorer(), components, CompiledRiskScorer.today(),
+            page, failed, 0, page.size()));
+
+        List<Supplier> scored = new ArrayList<>(page.size());
+        for (int i = 0; i < page.size(); i++) {
+            if (!failed[i]) {
+                page.get(i).setRiskModelVersion(model.getVersion());
+                scored.add(page.get(i));
+            }
+        }
+        return scored;
+    }
+
+    private void writeScores(List<Supplier> suppliers, LocalDateTime now) {
+        if (suppliers.isEmpty()) {
+            return;
+        }
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(UPDATE_RISK_SCORES_SQL, suppliers, suppliers.size(), (ps, supplier) -> {
+            ps.setInt(1, supplier.getOverallRiskScore());
+            ps.setInt(2, supplier.getFinancialRiskScore());
+            ps.setInt(3, supplier.getOperationalRiskScore());
+            ps.setInt(4, supplier.getComplianceRiskScore());
+            ps.setInt(5, supplier.getGeographicRiskScore());
+            ps.setInt(6, supplier.getRiskModelVersion());
+            ps.setTimestamp(7, timestamp);
+            ps.setLong(8, supplier.getId());
+        });
+    }
+
+    /**
+     * The last execution if it can be picked up again, taken over by this instance
+     */
+    private BatchJobExecution findResumableExecution() {
+        BatchJobExecution execution = jobExecutionRepository.findTopByJobTypeOrderByStartedAtDesc(JOB_TYPE)
+            .orElse(null);
+        if (execution == null) {
+            return null;
+        }
+        // A RUNNING row with a live lease is being worked on by another instance
+        boolean crashed = batchJobLeaseService.isAbandoned(execution, LocalDateTime.now());
+        if (execution.getStatus() == BatchJobExecution.JobStatus.RUNNING && !crashed) {
+            throw runningElsewhere(execution);
+        }
+        if (!execution.isResumable() && !crashed) {
+            return null;
+        }
+        if (!batchJobLeaseService.takeOver(execution)) {
+            throw runningElsewhere(execution);
+        }
+        return execution;
+    }
+
+    private static BusinessException runningElsewhere(BatchJobExecution execution) {
+        return new BusinessException(HttpStatus.CONFLICT, "JOB_ALREADY_RUNNING",
+            "Risk recalculation job " + execution.getId() + " is running on another instance");
+    }
+
+    private int resolveParallelism() {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    private double calculateThroughput() {
+        long elapsedNanos = System.nanoTime() - runStartedNanos;
+        if (elapsedNanos <= 0) {
+            return 0.0;
+        }
+        return processedThisRun.get() / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    private Map<String, Object> buildProgress(BatchJobExecution execution) {
+        Map<String, Object> progress = new HashMap<>();
+        progress.put("jobId", execution.getId());
+        progress.put("jobType", execution.getJobType());
+        progress.put("status", execution.getStatus());
+        progress.put("totalSuppliers", execution.getTotalItems());
+        progress.put("processedSuppliers", execution.getProcessedItems());
+        progress.put("failedSuppliers", execution.getFailedItems());
+        progress.put("lastProcessedId", execution.getLastProcessedId());
+        progress.put("startedAt", execution.getStartedAt());
+        progress.put("lastCheckpointAt", execution.getLastCheckpointAt());
+        progress.put("completedAt", execution.getCompletedAt());
+
+        long total = execution.getTotalItems() != null ? execution.getTotalItems() : 0;
+        long done = execution.getProcessedItems() + execution.getFailedItems();
+        progress.put("percentComplete", total > 0 ? Math.min(100.0, done * 100.0 / total) : 0.0);
+
+        if (running.get() && execution == currentExecution) {
+            double throughput = calculateThroughput();
+            progress.put("suppliersPerSecond", Math.round(throughput * 10) / 10.0);
+            if (throughput > 0 && total > done) {
+                progress.put("estimatedSecondsRemaining", (long) ((total - done) / throughput));
+            }
+            progress.put("elapsedSeconds", Duration.ofNanos(System.nanoTime() - runStartedNanos).toSeconds());
+        }
+        if (execution.getErrorMessage() != null) {
+            progress.put("error", execution.getErrorMessage());
+        }
+        return progress;
+    }
+
+    private void evictSupplierCache() {
+        Cache cache = cacheManager.getCache("suppliers");
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * A claimed job slot waiting for the rescore of a model being activated
+     */
+    public final class RescoreReservation {
+        private final AtomicBoolean open = new AtomicBoolean(true);
+
+        private RescoreReservation() {
+        }
+
+        /**
+         * Start the model rescore in the reserved slot
+         */
+        public Map<String, Object> start(Set<RiskAssessmentService.RiskComponent> components,
+                                         Set<String> countries, Long userId) {
+            if (!open.compareAndSet(true, false)) {
+                throw new IllegalStateException("Rescore reservation already used or released");
+            }
+            return launch(MODEL_RESCORE_JOB_TYPE, false, new RescoreScope(components, countries), userId);
+        }
+
+        /**
+         * Free the slot if the rescore was not started; a no-op afterwards
+         */
+        public void release() {
+            if (open.compareAndSet(true, false)) {
+                running.set(false);
+            }
+        }
+    }
+
+    /**
+     * Components to rescore and optional country filter of a run
+     */
+    private static final class RescoreScope {
+        private final Set<RiskAssessmentService.RiskComponent> components;
+        private final Set<String> countries;
+
+        RescoreScope(Set<RiskAssessmentService.RiskComponent> components, Set<String> countries) {
+            // No components means only the overall score is recomputed (weights-only change)
+            this.components = components.isEmpty()
+                ? EnumSet.noneOf(RiskAssessmentService.RiskComponent.class) : EnumSet.copyOf(components);
+            this.countries = countries != null ? Set.copyOf(countries) : null;
+        }
+    }
+
+    /**
+     * Splits a page into halves until small enough to score sequentially
+     */
+    private static class ScoringTask extends RecursiveAction {
+        private final CompiledRiskScorer scorer;
+        private final Set<RiskAssessmentService.RiskComponent> components;
+        private final long todayEpochDay;
+        private final List<Supplier> suppliers;
+        private final boolean[] failed;
+        private final int from;
+        private final int to;
+
+        ScoringTask(CompiledRiskScorer scorer, Set<RiskAssessmentService.RiskComponent> components,
+                    long todayEpochDay, List<Supplier> suppliers, boolean[] failed, int from, int to) {
+            this.scorer = scorer;
+            this.components = components;
+            this.todayEpochDay = todayEpochDay;
+            this.suppliers = suppliers;
+            this.failed = failed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SCORING_SPLIT_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    try {
+                        if (components.size() == ALL_COMPONENTS.size()) {
+                            scorer.score(suppliers.get(i), todayEpochDay);
+                        } else {
+                            scorer.score(suppliers.get(i), components, todayEpochDay);
+                        }
+                    } catch (Exception e) {
+                        failed[i] = true;
+                        logger.warn("Skipping supplier {} in risk recalculation: {}",
+                            suppliers.get(i).getId(), e.getMessage());
+                    }
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ScoringTask(scorer, components, todayEpochDay, suppliers, failed, from, mid),
+                      new ScoringTask(scorer, components, todayEpochDay, suppliers, failed, mid, to));
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.supplychainrisk.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IntSummaryStatistics;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.function.IntFunction;
+
+/**
+ * Immutable copy of a risk score distribution: one bin per integer score 0-100
+ * plus the number of suppliers without a score.
+ *
+ * Taken from the histograms {@link SupplierFeatureSnapshot} maintains on every
+ * score write, so counts, percentiles and threshold queries cost O(101)
+ * regardless of the number of suppliers.
+ */
+public final class RiskScoreHistogram {
+
+    public static final int MAX_SCORE = 100;
+
+    /**
+     * Score column a histogram is kept for
+     */
+    public enum Dimension { OVERALL, FINANCIAL, OPERATIONAL, COMPLIANCE, GEOGRAPHIC }
+
+    private static final double[] REPORTED_PERCENTILES = {50, 75, 90, 95, 99};
+
+    private final long[] counts;
+    private final long unscored;
+    private final long scored;
+
+    RiskScoreHistogram(long[] counts, long unscored) {
+        if (counts.length != MAX_SCORE + 1) {
+            throw new IllegalArgumentException("Expected " + (MAX_SCORE + 1) + " bins");
+        }
+        this.counts = counts;
+        this.unscored = unscored;
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        this.scored = total;
+    }
+
+    static RiskScoreHistogram empty() {
+        return new RiskScoreHistogram(new long[MAX_SCORE + 1], 0);
+    }
+
+    /**
+     * Bin index for a stored score; scores outside 0-100 are clamped
+     */
+    static int bin(int score) {
+        return Math.max(0, Math.min(MAX_SCORE, score));
+    }
+
+    public long getCount(int score) {
+        return score >= 0 && score <= MAX_SCORE ? counts[score] : 0;
+    }
+
+    public long getScored() { return scored; }
+    public long getUnscored() { return unscored; }
+    public long getTotal() { return scored + unscored; }
+
+    /**
+     * Suppliers whose score is strictly above the threshold
+     */
+    public long countAbove(int threshold) {
+        long count = 0;
+        for (int score = Math.max(0, threshold + 1); score <= MAX_SCORE; score++) {
+            count += counts[score];
+        }
+        return count;
+    }
+
+    /**
+     * Nearest-rank percentile (0 < percentile <= 100) of the scored suppliers
+     */
+    public OptionalInt percentile(double percentile) {
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be in (0, 100]: " + percentile);
+        }
+        if (scored == 0) {
+            return OptionalInt.empty();
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * scored));
+        long cumulative = 0;
+        for (int score = 0; score <= MAX_SCORE; score++) {
+            cumulative += counts[score];
+            if (cumulative >= rank) {
+                return OptionalInt.of(score);
+            }
+        }
+        return OptionalInt.of(MAX_SCORE);
+    }
+
+    public IntSummaryStatistics statistics() {
+        long sum = 0;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int score = 0; score <= MAX_SCORE; score++) {
+            if (counts[score] > 0) {
+                sum += counts[score] * score;
+                min = Math.min(min, score);
+                max = score;
+            }
+        }
+        return scored > 0 ? new IntSummaryStatistics(scored, min, max, sum) : new IntSummaryStatistics();
+    }
+
+    public OptionalDouble mean() {
+        return scored > 0 ? OptionalDouble.of((double) statistics().getSum() / scored) : OptionalDouble.empty();
+    }
+
+    /**
+     * Group the scored bins by a classification of the score, e.g. a risk level description
+     */
+    public <K> Map<K, Long> countBy(IntFunction<K> classifier) {
+        Map<K, Long> result = new HashMap<>();
+        for (int score = 0; score <= MAX_SCORE; score++) {
+            if (counts[score] > 0) {
+                result.merge(classifier.apply(score), counts[score], Long::sum);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Summary for API responses: counts, mean, standard percentiles and the bins themselves
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("scored", scored);
+        result.put("unscored", unscored);
+        OptionalDouble mean = mean();
+        result.put("mean", mean.isPresent() ? mean.getAsDouble() : null);
+        Map<String, Integer> percentiles = new LinkedHashMap<>();
+        for (double p : REPORTED_PERCENTILES) {
+            OptionalInt value = percentile(p);
+            percentiles.put("p" + (int) p, value.isPresent() ? value.getAsInt() : null);
+        }
+        result.put("percentiles", percentiles);
+        List<Long> bins = new ArrayList<>(counts.length);
+        for (long count : counts) {
+            bins.add(count);
+        }
+        result.put("bins", bins);
+        return result;
+    }
+}
@@ -0,0 +1,290 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.dto.ScenarioAnalysisRequest;
+import com.supplychainrisk.exception.BusinessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Monte Carlo scenario analysis over the active supplier portfolio.
+ *
+ * Each supplier's simulation inputs come from one grouped query: risk sub-scores
+ * from the supplier row, and shipment rate, landed cost, late rate and mean
+ * lateness from its shipments of the last 90 days. The baseline and the stress
+ * scenario run with the same seed, so they share random draws and their
+ * difference reflects the shock rather than sampling noise.
+ */
+@Service
+public class ScenarioAnalysisService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScenarioAnalysisService.class);
+
+    private static final int LOOKBACK_DAYS = 90;
+    private static final int TOP_CONTRIBUTORS = 5;
+
+    // Stress applied when the request does not specify it
+    private static final double DEFAULT_DISRUPTION_MULTIPLIER = 2.0;
+    private static final double DEFAULT_DELAY_MULTIPLIER = 1.5;
+    private static final double DEFAULT_COST_SHOCK_PERCENT = 10.0;
+
+    // Used for suppliers without delivered shipments in the lookback window
+    private static final double DEFAULT_LATE_RATE = 0.1;
+    private static final double DEFAULT_DELAY_HOURS = 24.0;
+
+    private static final String PORTFOLIO_SQL =
+        "SELECT sup.id, sup.name, sup.overall_risk_score, sup.operational_risk_score, sup.financial_risk_score, " +
+        "sup.on_time_delivery_rate, COUNT(s.id), AVG(COALESCE(s.total_cost, s.shipping_cost)), " +
+        "AVG(CASE WHEN s.actual_delivery_date > s.estimated_delivery_date THEN 1.0 ELSE 0.0 END) " +
+        "FILTER (WHERE s.actual_delivery_date IS NOT NULL AND s.estimated_delivery_date IS NOT NULL), " +
+        "AVG(EXTRACT(EPOCH FROM (s.actual_delivery_date - s.estimated_delivery_date)) / 3600.0) " +
+        "FILTER (WHERE s.actual_delivery_date > s.estimated_delivery_date) " +
+        "FROM suppliers sup LEFT JOIN shipments s ON s.supplier_id = sup.id AND s.created_at >= ? " +
+        "WHERE sup.status = 'ACTIVE'";
+    private static final String PORTFOLIO_GROUP_SQL =
+        " GROUP BY sup.id, sup.name, sup.overall_risk_score, sup.operational_risk_score, " +
+        "sup.financial_risk_score, sup.on_time_delivery_rate ORDER BY sup.id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${analytics.scenario.max-trials:100000}")
+    private int maxTrials;
+
+    @Value("${analytics.scenario.min-trials:2000}")
+    private int minTrials;
+
+    @Value("${analytics.scenario.batch-size:500}")
+    private int batchSize;
+
+    @Value("${analytics.scenario.round-batches:16}")
+    private int roundBatches;
+
+    @Value("${analytics.scenario.relative-tolerance:0.01}")
+    private double relativeTolerance;
+
+    @Value("${analytics.scenario.default-seed:17}")
+    private long defaultSeed;
+
+    @Value("${analytics.scenario.max-horizon-days:365}")
+    private int maxHorizonDays;
+
+    public Map<String, Object> analyze(ScenarioAnalysisRequest request) {
+        int horizonDays = request.getHorizonDays() != null ? request.getHorizonDays() : 90;
+        double disruptionMultiplier = valueOrDefault(request.getDisruptionMultiplier(), DEFAULT_DISRUPTION_MULTIPLIER);
+        double delayMultiplier = valueOrDefault(request.getDelayMultiplier(), DEFAULT_DELAY_MULTIPLIER);
+        double costShockPercent = valueOrDefault(request.getCostShockPercent(), DEFAULT_COST_SHOCK_PERCENT);
+        int trials = request.getMaxTrials() != null ? request.getMaxTrials() : maxTrials;
+        validate(horizonDays, disruptionMultiplier, delayMultiplier, costShockPercent, trials);
+
+        long seed = request.getSeed() != null ? request.getSeed() : defaultSeed;
+        MonteCarloSimulator.Settings settings = MonteCarloSimulator.Settings.builder()
+            .seed(seed)
+            .horizonDays(horizonDays)
+            .maxTrials(trials)
+            .minTrials(Math.min(minTrials, trials))
+            .batchSize(batchSize)
+            .roundBatches(roundBatches)
+            .relativeTolerance(valueOrDefault(request.getRelativeTolerance(), relativeTolerance))
+            .build();
+
+        List<SupplierInput> suppliers = loadPortfolio(request.getSupplierIds());
+        MonteCarloSimulator.Portfolio portfolio = new MonteCarloSimulator.Portfolio(suppliers.size());
+        for (SupplierInput supplier : suppliers) {
+            portfolio.add(supplier.disruptionRisk, supplier.operationalRisk, supplier.financialRisk,
+                supplier.lateRate, supplier.meanDelayHours, supplier.shipmentsPerDay, supplier.costPerShipment);
+        }
+
+        MonteCarloSimulator.Shock stress = new MonteCarloSimulator.Shock(
+            disruptionMultiplier, delayMultiplier, costShockPercent / 100.0);
+        MonteCarloSimulator.Result baseline = MonteCarloSimulator.run(portfolio, MonteCarloSimulator.Shock.BASELINE,
+            settings);
+        MonteCarloSimulator.Result stressed = MonteCarloSimulator.run(portfolio, stress, settings);
+        logger.info("Scenario '{}' simulated over {} suppliers: {} + {} trials in {} ms",
+            request.getScenarioName(), suppliers.size(), baseline.getTrials(), stressed.getTrials(),
+            baseline.getElapsedMs() + stressed.getElapsedMs());
+
+        Map<String, Object> analysis = new HashMap<>();
+        analysis.put("scenarioName", request.getScenarioName());
+        analysis.put("analysisDate", LocalDateTime.now());
+        analysis.put("horizonDays", horizonDays);
+        analysis.put("suppliers", suppliers.size());
+
+        Map<String, Object> shock = new HashMap<>();
+        shock.put("disruptionMultiplier", disruptionMultiplier);
+        shock.put("delayMultiplier", delayMultiplier);
+        shock.put("costShockPercent", costShockPercent);
+        analysis.put("shock", shock);
+
+        analysis.put("baseline", toMap(baseline));
+        analysis.put("stressTest", toMap(stressed));
+
+        Map<String, Object> impact = new HashMap<>();
+        impact.put("expectedCostIncrease", stressed.getCostImpact().getMean() - baseline.getCostImpact().getMean());
+        impact.put("p90CostIncrease", stressed.getCostImpact().getP90() - baseline.getCostImpact().getP90());
+        impact.put("expectedDelayIncreaseHours",
+            stressed.getDelayImpactHours().getMean() - baseline.getDelayImpactHours().getMean());
+        impact.put("p90DelayIncreaseHours",
+            stressed.getDelayImpactHours().getP90() - baseline.getDelayImpactHours().getP90());
+        analysis.put("impact", impact);
+
+        List<Map<String, Object>> contributors = topContributors(suppliers, stressed);
+        analysis.put("topContributors", contributors);
+        analysis.put("recommendations", recommendations(baseline, stressed, contributors));
+
+        Map<String, Object> simulation = new HashMap<>();
+        simulation.put("seed", seed);
+        simulation.put("maxTrials", trials);
+        simulation.put("relativeTolerance", settings.getRelativeTolerance());
+        simulation.put("parallelism", ForkJoinPool.getCommonPoolParallelism());
+        simulation.put("elapsedMs", baseline.getElapsedMs() + stressed.getElapsedMs());
+        simulation.put("trialsPerSecond", (baseline.getTrialsPerSecond() + stressed.getTrialsPerSecond()) / 2);
+        analysis.put("simulation", simulation);
+        return analysis;
+    }
+
+    private void validate(int horizonDays, double disruptionMultiplier, double delayMultiplier,
+                          double costShockPercent, int trials) {
+        if (horizonDays < 1 || horizonDays > maxHorizonDays) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "INVALID_SCENARIO",
+                "Horizon must be between 1 and " + maxHorizonDays + " days");
+        }
+        if (disruptionMultiplier < 0 || delayMultiplier < 0 || costShockPercent <= -100) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "INVALID_SCENARIO",
+                "Multipliers must be non-negative and the cost shock above -100%");
+        }
+        if (trials < 1 || trials > maxTrials) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "INVALID_SCENARIO",
+                "Trials must be between 1 and " + maxTrials);
+        }
+    }
+
+    private List<SupplierInput> loadPortfolio(List<Long> supplierIds) {
+        List<Object> args = new ArrayList<>();
+        args.add(Timestamp.valueOf(LocalDateTime.now().minusDays(LOOKBACK_DAYS)));
+        String sql = PORTFOLIO_SQL;
+        if (supplierIds != null && !supplierIds.isEmpty()) {
+            Set<Long> distinct = new LinkedHashSet<>(supplierIds);
+            distinct.remove(null);
+            sql += " AND sup.id IN (" + String.join(", ", Collections.nCopies(distinct.size(), "?")) + ")";
+            args.addAll(distinct);
+        }
+
+        return jdbcTemplate.query(sql + PORTFOLIO_GROUP_SQL, (rs, rowNum) -> {
+            SupplierInput input = new SupplierInput();
+            input.id = rs.getLong(1);
+            input.name = rs.getString(2);
+            input.disruptionRisk = rs.getDouble(3);
+            input.operationalRisk = rs.getDouble(4);
+            input.financialRisk = rs.getDouble(5);
+            double onTimeRate = rs.getDouble(6);
+            boolean hasOnTimeRate = !rs.wasNull() && onTimeRate > 0;
+            input.shipmentsPerDay = rs.getLong(7) / (double) LOOKBACK_DAYS;
+            input.costPerShipment = rs.getDouble(8);
+            double lateRate = rs.getDouble(9);
+            if (!rs.wasNull()) {
+                input.lateRate = lateRate;
+            } else {
+                input.lateRate = hasOnTimeRate ? Math.max(0, 1 - onTimeRate / 100.0) : DEFAULT_LATE_RATE;
+            }
+            double meanDelayHours = rs.getDouble(10);
+            input.meanDelayHours = rs.wasNull() ? DEFAULT_DELAY_HOURS : meanDelayHours;
+            return input;
+        }, args.toArray());
+    }
+
+    private static Map<String, Object> toMap(MonteCarloSimulator.Result result) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("costImpact", toMap(result.getCostImpact()));
+        map.put("delayImpactHours", toMap(result.getDelayImpactHours()));
+        map.put("disruptionProbability", result.getDisruptionProbability());
+        map.put("expectedDisruptions", result.getExpectedDisruptions());
+        map.put("trials", result.getTrials());
+        map.put("converged", result.isConverged());
+        return map;
+    }
+
+    private static Map<String, Object> toMap(MonteCarloSimulator.Distribution distribution) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("mean", distribution.getMean());
+        map.put("standardDeviation", distribution.getStandardDeviation());
+        map.put("confidenceInterval95", distribution.getConfidenceHalfWidth());
+        map.put("p50", distribution.getP50());
+        map.put("p90", distribution.getP90());
+        map.put("p99", distribution.getP99());
+        map.put("min", distribution.getMin());
+        map.put("max", distribution.getMax());
+        return map;
+    }
+
+    private static List<Map<String, Object>> topContributors(List<SupplierInput> suppliers,
+                                                             MonteCarloSimulator.Result result) {
+        Integer[] order = new Integer[suppliers.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(i -> -result.getSupplierCostImpact(i)));
+
+        List<Map<String, Object>> contributors = new ArrayList<>();
+        for (int k = 0; k < Math.min(TOP_CONTRIBUTORS, order.length); k++) {
+            int i = order[k];
+            Map<String, Object> contributor = new HashMap<>();
+            contributor.put("supplierId", suppliers.get(i).id);
+            contributor.put("supplierName", suppliers.get(i).name);
+            contributor.put("expectedCostImpact", result.getSupplierCostImpact(i));
+            contributor.put("expectedDelayHours", result.getSupplierDelayHours(i));
+            contributors.add(contributor);
+        }
+        return contributors;
+    }
+
+    private static List<String> recommendations(MonteCarloSimulator.Result baseline,
+                                                MonteCarloSimulator.Result stressed,
+                                                List<Map<String, Object>> contributors) {
+        List<String> recommendations = new ArrayList<>();
+        if (stressed.getDisruptionProbability() >= 0.5) {
+            recommendations.add(String.format("Diversify supplier base: at least one supplier disruption occurs in "
+                + "%.0f%% of stressed trials", stressed.getDisruptionProbability() * 100));
+        }
+        double baselineDelay = baseline.getDelayImpactHours().getP90();
+        double stressedDelay = stressed.getDelayImpactHours().getP90();
+        if (stressedDelay > 0 && stressedDelay >= 1.5 * baselineDelay) {
+            recommendations.add(String.format("Increase inventory buffer to absorb a P90 delay of %.0f shipment-hours "
+                + "(%.0f at baseline)", stressedDelay, baselineDelay));
+        }
+        double p90Cost = stressed.getCostImpact().getP90();
+        if (p90Cost > 0) {
+            recommendations.add(String.format("Hold a cost contingency of %.2f to cover the P90 cost impact", p90Cost));
+        }
+        if (!contributors.isEmpty() && (Double) contributors.get(0).get("expectedCostImpact") > 0) {
+            recommendations.add("Implement enhanced monitoring for " + contributors.get(0).get("supplierName")
+                + ", the largest contributor to stressed cost impact");
+        }
+        return recommendations;
+    }
+
+    private static double valueOrDefault(Double value, double defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+    private static final class SupplierInput {
+        private long id;
+        private String name;
+        private double disruptionRisk;
+        private double operationalRisk;
+        private double financialRisk;
+        private double lateRate;
+        private double meanDelayHours;
+        private double shipmentsPerDay;
+        private double costPerShipment;
+    }
+}
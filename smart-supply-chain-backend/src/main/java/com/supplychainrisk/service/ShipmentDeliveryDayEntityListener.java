@@ -0,0 +1,69 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.entity.Shipment;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * JPA entity listener that tells {@link CorrelationAnalysisService} which delivery days
+ * a shipment has left.
+ *
+ * A shipment leaves a day when its actual delivery date moves to another day, is
+ * cleared, or the shipment is deleted. The shipment's current day is found from its
+ * updated_at, but the day it left is only known here. Days are reported after the
+ * surrounding transaction commits, so a refresh that reads them sees the new rows.
+ */
+@Component
+public class ShipmentDeliveryDayEntityListener {
+
+    // Lazy: Hibernate instantiates listeners while the EntityManagerFactory is still being built
+    @Autowired
+    @Lazy
+    private CorrelationAnalysisService correlationAnalysisService;
+
+    @PostLoad
+    public void onShipmentLoaded(Shipment shipment) {
+        shipment.setPersistedActualDeliveryDate(shipment.getActualDeliveryDate());
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onShipmentSaved(Shipment shipment) {
+        LocalDateTime previous = shipment.getPersistedActualDeliveryDate();
+        LocalDateTime current = shipment.getActualDeliveryDate();
+        shipment.setPersistedActualDeliveryDate(current);
+        if (previous != null && (current == null || !previous.toLocalDate().equals(current.toLocalDate()))) {
+            vacated(previous.toLocalDate());
+        }
+    }
+
+    @PostRemove
+    public void onShipmentRemoved(Shipment shipment) {
+        if (shipment.getPersistedActualDeliveryDate() != null) {
+            vacated(shipment.getPersistedActualDeliveryDate().toLocalDate());
+        }
+    }
+
+    private void vacated(LocalDate day) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            correlationAnalysisService.deliveryDayVacated(day);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                correlationAnalysisService.deliveryDayVacated(day);
+            }
+        });
+    }
+}
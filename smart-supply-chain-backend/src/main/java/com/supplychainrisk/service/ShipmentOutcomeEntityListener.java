@@ -0,0 +1,61 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.entity.Shipment;
+import com.supplychainrisk.entity.Shipment.ShipmentStatus;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that feeds delivery outcomes to {@link OnlineDelayModelService}.
+ *
+ * A shipment is learned from once, when it is first written with status DELIVERED. The
+ * outcome is captured when Hibernate flushes the entity and learned only after the
+ * surrounding transaction commits, so rolled-back deliveries never reach the model.
+ */
+@Component
+public class ShipmentOutcomeEntityListener {
+
+    // Lazy: Hibernate instantiates listeners while the EntityManagerFactory is still being built
+    @Autowired
+    @Lazy
+    private OnlineDelayModelService onlineDelayModelService;
+
+    @PostLoad
+    public void onShipmentLoaded(Shipment shipment) {
+        shipment.setPersistedStatus(shipment.getStatus());
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onShipmentSaved(Shipment shipment) {
+        boolean delivered = shipment.getStatus() == ShipmentStatus.DELIVERED
+            && shipment.getPersistedStatus() != ShipmentStatus.DELIVERED;
+        shipment.setPersistedStatus(shipment.getStatus());
+        if (!delivered) {
+            return;
+        }
+        OnlineDelayModelService.Outcome outcome = onlineDelayModelService.capture(shipment);
+        if (outcome != null) {
+            afterCommit(() -> onlineDelayModelService.learn(outcome));
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
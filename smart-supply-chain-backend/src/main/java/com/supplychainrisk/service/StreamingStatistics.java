@@ -0,0 +1,220 @@
+package com.supplychainrisk.service;
+
+import java.util.OptionalDouble;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+/**
+ * Single-pass, mergeable statistics over an ordered series of optional values.
+ *
+ * Every observation advances the series position, including missing ones, so
+ * one pass yields count, null count, Welford mean and variance, min/max,
+ * the least-squares slope of value against position, and the mean change
+ * between adjacent observations that both have a value.
+ *
+ * Partitions of a series can be accumulated independently and then combined
+ * in order with {@link #combine}, which gives the same results as a single
+ * sequential pass up to floating point rounding. Instances are not thread-safe.
+ */
+public final class StreamingStatistics {
+
+    private long observations;
+    private long count;
+    private double mean;
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    // Position (x) moments for the regression slope
+    private double meanPosition;
+    private double m2Position;
+    private double coMoment;
+
+    // Adjacent-observation changes; first/last track the ends of the series
+    private double stepSum;
+    private long steps;
+    private boolean firstPresent;
+    private double first;
+    private boolean lastPresent;
+    private double last;
+
+    public void accept(double value) {
+        if (observations == 0) {
+            firstPresent = true;
+            first = value;
+        }
+        if (lastPresent) {
+            stepSum += value - last;
+            steps++;
+        }
+
+        double position = observations++;
+        count++;
+        double delta = value - mean;
+        double deltaPosition = position - meanPosition;
+        mean += delta / count;
+        meanPosition += deltaPosition / count;
+        m2 += delta * (value - mean);
+        m2Position += deltaPosition * (position - meanPosition);
+        coMoment += deltaPosition * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+
+        lastPresent = true;
+        last = value;
+    }
+
+    public void acceptNull() {
+        observations++;
+        lastPresent = false;
+    }
+
+    /**
+     * Accept a value, treating null as a missing observation
+     */
+    public void accept(Number value) {
+        if (value != null) {
+            accept(value.doubleValue());
+        } else {
+            acceptNull();
+        }
+    }
+
+    /**
+     * Append a partition that directly follows this one in the series
+     */
+    public StreamingStatistics combine(StreamingStatistics other) {
+        if (other.observations == 0) {
+            return this;
+        }
+        if (observations == 0) {
+            copyFrom(other);
+            return this;
+        }
+
+        if (lastPresent && other.firstPresent) {
+            stepSum += other.first - last;
+            steps++;
+        }
+        stepSum += other.stepSum;
+        steps += other.steps;
+        lastPresent = other.lastPresent;
+        last = other.last;
+
+        if (other.count > 0) {
+            long combined = count + other.count;
+            double weight = (double) count * other.count / combined;
+            double delta = other.mean - mean;
+            double deltaPosition = (other.meanPosition + observations) - meanPosition;
+            m2 += other.m2 + delta * delta * weight;
+            m2Position += other.m2Position + deltaPosition * deltaPosition * weight;
+            coMoment += other.coMoment + deltaPosition * delta * weight;
+            mean += delta * other.count / combined;
+            meanPosition += deltaPosition * other.count / combined;
+            count = combined;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+        observations += other.observations;
+        return this;
+    }
+
+    public StreamingStatistics copy() {
+        StreamingStatistics copy = new StreamingStatistics();
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    private void copyFrom(StreamingStatistics other) {
+        observations = other.observations;
+        count = other.count;
+        mean = other.mean;
+        m2 = other.m2;
+        min = other.min;
+        max = other.max;
+        meanPosition = other.meanPosition;
+        m2Position = other.m2Position;
+        coMoment = other.coMoment;
+        stepSum = other.stepSum;
+        steps = other.steps;
+        firstPresent = other.firstPresent;
+        first = other.first;
+        lastPresent = other.lastPresent;
+        last = other.last;
+    }
+
+    /**
+     * Ordered collector; safe for parallel streams because partitions are combined in encounter order
+     */
+    public static <T> Collector<T, StreamingStatistics, StreamingStatistics> collector(
+            Function<? super T, ? extends Number> extractor) {
+        return Collector.of(StreamingStatistics::new,
+            (statistics, element) -> statistics.accept(extractor.apply(element)),
+            StreamingStatistics::combine);
+    }
+
+    /**
+     * Observations seen, including missing values
+     */
+    public long getObservations() { return observations; }
+    public long getCount() { return count; }
+    public long getNullCount() { return observations - count; }
+
+    /**
+     * Mean of the present values; 0 when there are none
+     */
+    public double getMean() { return mean; }
+
+    public OptionalDouble getMin() {
+        return count > 0 ? OptionalDouble.of(min) : OptionalDouble.empty();
+    }
+
+    public OptionalDouble getMax() {
+        return count > 0 ? OptionalDouble.of(max) : OptionalDouble.empty();
+    }
+
+    /**
+     * Sum of squared deviations from the mean of the present values
+     */
+    public double getSumOfSquaredDeviations() { return m2; }
+
+    public double getPopulationVariance() {
+        return count > 0 ? m2 / count : 0.0;
+    }
+
+    public double getSampleVariance() {
+        return count > 1 ? m2 / (count - 1) : 0.0;
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getPopulationVariance());
+    }
+
+    /**
+     * Least-squares slope of value per position; empty with fewer than two values
+     */
+    public OptionalDouble getSlope() {
+        return count > 1 && m2Position > 0 ? OptionalDouble.of(coMoment / m2Position) : OptionalDouble.empty();
+    }
+
+    /**
+     * Mean change between adjacent observations that both have a value
+     */
+    public OptionalDouble getMeanStepChange() {
+        return steps > 0 ? OptionalDouble.of(stepSum / steps) : OptionalDouble.empty();
+    }
+
+    /**
+     * Value of the first observation; empty when it was missing
+     */
+    public OptionalDouble getFirst() {
+        return firstPresent ? OptionalDouble.of(first) : OptionalDouble.empty();
+    }
+
+    /**
+     * Value of the last observation; empty when it was missing
+     */
+    public OptionalDouble getLast() {
+        return lastPresent ? OptionalDouble.of(last) : OptionalDouble.empty();
+    }
+}
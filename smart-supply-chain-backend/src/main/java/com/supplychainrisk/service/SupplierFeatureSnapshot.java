@@ -0,0 +1,770 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.entity.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * In-memory structure-of-arrays view of the numeric and categorical supplier
+ * fields used by dashboards and analytics scans.
+ *
+ * Loaded once with a plain JDBC projection (no entity hydration) and kept in
+ * sync by {@link SupplierSnapshotEntityListener} for ORM writes and by
+ * {@link RiskAssessmentService.SupplierRiskScoresChangedEvent} for JDBC batch
+ * writes. Aggregations scan primitive arrays under a read lock instead of
+ * calling {@code supplierRepository.findAll()}.
+ *
+ * Risk score histograms (0-100 bins per score dimension, overall and per status,
+ * tier and country) are adjusted on every row write, so distribution, percentile
+ * and threshold queries cost O(101) regardless of the number of suppliers.
+ */
+@Component
+public class SupplierFeatureSnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(SupplierFeatureSnapshot.class);
+
+    static final int NULL_INT = Integer.MIN_VALUE;
+    static final byte NULL_CODE = -1;
+
+    private static final String LOAD_SQL =
+        "SELECT id, overall_risk_score, financial_risk_score, operational_risk_score, " +
+        "compliance_risk_score, geographic_risk_score, risk_score_double, risk_level, " +
+        "on_time_delivery_rate, quality_rating, status, tier, country, industry, business_type " +
+        "FROM suppliers";
+
+    private static final Supplier.SupplierStatus[] STATUSES = Supplier.SupplierStatus.values();
+    private static final Supplier.SupplierTier[] TIERS = Supplier.SupplierTier.values();
+    private static final Supplier.RiskLevel[] RISK_LEVELS = Supplier.RiskLevel.values();
+    private static final RiskScoreHistogram.Dimension[] DIMENSIONS = RiskScoreHistogram.Dimension.values();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${supplier.snapshot.fetch-size:2000}")
+    private int fetchSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Dictionaries are append-only and shared across reloads so codes stay stable
+    private final StringDictionary countries = new StringDictionary();
+    private final StringDictionary industries = new StringDictionary();
+    private final StringDictionary businessTypes = new StringDictionary();
+
+    private Columns columns = new Columns(16);
+    private volatile boolean loaded;
+
+    // Writes that arrive while a reload is reading the table; replayed after the swap
+    private List<Row> reloadJournal;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        refresh();
+    }
+
+    /**
+     * Periodic full resync to heal any drift from writes that bypass the listeners
+     */
+    @Scheduled(cron = "${supplier.snapshot.refresh-cron:0 30 3 * * *}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    /**
+     * Rebuild the snapshot from the suppliers table without blocking readers during the scan
+     */
+    public void refresh() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            reloadJournal = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Columns fresh = new Columns(Math.max(16, size()));
+        try {
+            TransactionTemplate readTemplate = new TransactionTemplate(transactionManager);
+            readTemplate.setReadOnly(true);
+            readTemplate.executeWithoutResult(status -> {
+                // Own template so the fetch size does not leak into the shared one
+                JdbcTemplate streamingTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+                streamingTemplate.setFetchSize(fetchSize);
+                streamingTemplate.query(LOAD_SQL, rs -> {
+                    fresh.upsert(readRow(rs));
+                });
+            });
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                reloadJournal = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.error("Failed to load supplier feature snapshot", e);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Row row : reloadJournal) {
+                if (row.deleted) {
+                    fresh.remove(row.id);
+                } else {
+                    fresh.upsert(row);
+                }
+            }
+            reloadJournal = null;
+            columns = fresh;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Supplier feature snapshot loaded: {} suppliers in {} ms", fresh.size,
+            System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Keep risk columns in sync with JDBC batch rescoring (bulk job, audit-date rescoring)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleRiskScoresChanged(RiskAssessmentService.SupplierRiskScoresChangedEvent event) {
+        upsert(event.getSupplier());
+    }
+
+    public void upsert(Supplier supplier) {
+        if (supplier.getId() == null) {
+            return;
+        }
+        apply(capture(supplier));
+    }
+
+    /**
+     * Copy a supplier's projected fields so they can be applied later (e.g. after commit)
+     */
+    Row capture(Supplier supplier) {
+        return Row.of(supplier, this);
+    }
+
+    public void remove(Long supplierId) {
+        if (supplierId == null) {
+            return;
+        }
+        apply(Row.deleted(supplierId));
+    }
+
+    void apply(Row row) {
+        lock.writeLock().lock();
+        try {
+            if (row.deleted) {
+                columns.remove(row.id);
+            } else {
+                columns.upsert(row);
+            }
+            if (reloadJournal != null) {
+                reloadJournal.add(row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return columns.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Count, sum, min and max of the non-null overall risk scores
+     */
+    public IntSummaryStatistics overallRiskScoreStats() {
+        return riskScoreHistogram(RiskScoreHistogram.Dimension.OVERALL).statistics();
+    }
+
+    /**
+     * Average of max(0, 100 - overall risk score) over suppliers with a score
+     */
+    public OptionalDouble averageOverallRiskHeadroom() {
+        OptionalDouble mean = riskScoreHistogram(RiskScoreHistogram.Dimension.OVERALL).mean();
+        return mean.isPresent() ? OptionalDouble.of(RiskScoreHistogram.MAX_SCORE - mean.getAsDouble()) : mean;
+    }
+
+    /**
+     * Number of suppliers whose overall risk score is strictly above the threshold
+     */
+    public long countOverallRiskAbove(int threshold) {
+        return riskScoreHistogram(RiskScoreHistogram.Dimension.OVERALL).countAbove(threshold);
+    }
+
+    /**
+     * Group suppliers by a classification of their overall risk score (null when unscored)
+     */
+    public <K> Map<K, Long> countByOverallRiskScore(Function<Integer, K> classifier) {
+        RiskScoreHistogram histogram = riskScoreHistogram(RiskScoreHistogram.Dimension.OVERALL);
+        Map<K, Long> counts = histogram.countBy(classifier::apply);
+        if (histogram.getUnscored() > 0) {
+            counts.merge(classifier.apply(null), histogram.getUnscored(), Long::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Distribution of one score dimension over all suppliers
+     */
+    public RiskScoreHistogram riskScoreHistogram(RiskScoreHistogram.Dimension dimension) {
+        lock.readLock().lock();
+        try {
+            return ScoreHistograms.toHistogram(columns.histograms.all, dimension);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public RiskScoreHistogram riskScoreHistogram(RiskScoreHistogram.Dimension dimension,
+                                                 Supplier.SupplierStatus status) {
+        lock.readLock().lock();
+        try {
+            return ScoreHistograms.toHistogram(columns.histograms.byStatus[status.ordinal()], dimension);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public RiskScoreHistogram riskScoreHistogram(RiskScoreHistogram.Dimension dimension,
+                                                 Supplier.SupplierTier tier) {
+        lock.readLock().lock();
+        try {
+            return ScoreHistograms.toHistogram(columns.histograms.byTier[tier.ordinal()], dimension);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public RiskScoreHistogram riskScoreHistogramForCountry(RiskScoreHistogram.Dimension dimension, String country) {
+        int code = countries.codeOf(country);
+        lock.readLock().lock();
+        try {
+            return ScoreHistograms.toHistogram(columns.histograms.countryBins(code), dimension);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Distribution of one score dimension for each status with at least one supplier
+     */
+    public Map<String, RiskScoreHistogram> riskScoreHistogramsByStatus(RiskScoreHistogram.Dimension dimension) {
+        Map<String, RiskScoreHistogram> result = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            for (Supplier.SupplierStatus status : STATUSES) {
+                putIfNotEmpty(result, status.toString(),
+                    ScoreHistograms.toHistogram(columns.histograms.byStatus[status.ordinal()], dimension));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    public Map<String, RiskScoreHistogram> riskScoreHistogramsByTier(RiskScoreHistogram.Dimension dimension) {
+        Map<String, RiskScoreHistogram> result = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            for (Supplier.SupplierTier tier : TIERS) {
+                putIfNotEmpty(result, tier.toString(),
+                    ScoreHistograms.toHistogram(columns.histograms.byTier[tier.ordinal()], dimension));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    public Map<String, RiskScoreHistogram> riskScoreHistogramsByCountry(RiskScoreHistogram.Dimension dimension) {
+        Map<String, RiskScoreHistogram> result = new TreeMap<>();
+        lock.readLock().lock();
+        try {
+            int[][] byCountry = columns.histograms.byCountry;
+            for (int code = 0; code < byCountry.length; code++) {
+                if (byCountry[code] != null) {
+                    putIfNotEmpty(result, countries.valueOf(code), ScoreHistograms.toHistogram(byCountry[code], dimension));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    private static void putIfNotEmpty(Map<String, RiskScoreHistogram> result, String key, RiskScoreHistogram histogram) {
+        if (histogram.getTotal() > 0) {
+            result.put(key, histogram);
+        }
+    }
+
+    /**
+     * Supplier count per risk level name, with "UNKNOWN" for suppliers without a level
+     */
+    public Map<String, Long> countByRiskLevel() {
+        long[] counts = new long[RISK_LEVELS.length + 1];
+        lock.readLock().lock();
+        try {
+            byte[] levels = columns.riskLevel;
+            for (int i = 0, n = columns.size; i < n; i++) {
+                counts[levels[i] == NULL_CODE ? RISK_LEVELS.length : levels[i]]++;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<String, Long> result = new HashMap<>();
+        for (int i = 0; i < RISK_LEVELS.length; i++) {
+            if (counts[i] > 0) {
+                result.put(RISK_LEVELS[i].toString(), counts[i]);
+            }
+        }
+        if (counts[RISK_LEVELS.length] > 0) {
+            result.put("UNKNOWN", counts[RISK_LEVELS.length]);
+        }
+        return result;
+    }
+
+    /**
+     * Average of the non-null {@code riskScore} (double) column
+     */
+    public OptionalDouble averageRiskScore() {
+        return averageOf(Column.RISK_SCORE);
+    }
+
+    public OptionalDouble averageOnTimeDeliveryRate() {
+        return averageOf(Column.ON_TIME_DELIVERY);
+    }
+
+    public OptionalDouble averageQualityRating() {
+        return averageOf(Column.QUALITY);
+    }
+
+    /**
+     * Ids of active suppliers sharing the industry or business type of a reference supplier
+     * and matching the country and minimum quality filters. Callers re-check the exact
+     * criteria on the loaded entities.
+     */
+    public List<Long> findSimilarActiveSupplierIds(Long excludeId, String industry, String businessType,
+                                                   Collection<String> preferredCountries,
+                                                   Collection<String> excludedCountries,
+                                                   BigDecimal minQuality) {
+        int industryCode = industry != null ? industries.codeOf(industry) : NULL_INT;
+        int businessTypeCode = businessType != null ? businessTypes.codeOf(businessType) : NULL_INT;
+        Set<Integer> preferredCodes = countryCodes(preferredCountries);
+        Set<Integer> excludedCodes = countryCodes(excludedCountries);
+        double minQualityValue = minQuality != null ? minQuality.doubleValue() : Double.NaN;
+        byte activeCode = (byte) Supplier.SupplierStatus.ACTIVE.ordinal();
+        long excluded = excludeId != null ? excludeId : Long.MIN_VALUE;
+
+        List<Long> ids = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Columns c = columns;
+            for (int i = 0, n = c.size; i < n; i++) {
+                if (c.status[i] != activeCode || c.ids[i] == excluded) {
+                    continue;
+                }
+                if (c.industry[i] != industryCode && c.businessType[i] != businessTypeCode) {
+                    continue;
+                }
+                if (preferredCodes != null && !preferredCodes.contains(c.country[i])) {
+                    continue;
+                }
+                if (excludedCodes != null && excludedCodes.contains(c.country[i])) {
+                    continue;
+                }
+                if (minQuality != null && (Double.isNaN(c.quality[i]) || c.quality[i] < minQualityValue)) {
+                    continue;
+                }
+                ids.add(c.ids[i]);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ids;
+    }
+
+    private Set<Integer> countryCodes(Collection<String> names) {
+        if (names == null || names.isEmpty()) {
+            return null;
+        }
+        Set<Integer> codes = new HashSet<>();
+        for (String name : names) {
+            codes.add(name != null ? countries.codeOf(name) : NULL_INT);
+        }
+        return codes;
+    }
+
+    private enum Column { RISK_SCORE, ON_TIME_DELIVERY, QUALITY }
+
+    private OptionalDouble averageOf(Column column) {
+        lock.readLock().lock();
+        try {
+            double[] values = switch (column) {
+                case RISK_SCORE -> columns.riskScore;
+                case ON_TIME_DELIVERY -> columns.onTimeDelivery;
+                case QUALITY -> columns.quality;
+            };
+            double sum = 0;
+            long count = 0;
+            for (int i = 0, n = columns.size; i < n; i++) {
+                if (!Double.isNaN(values[i])) {
+                    sum += values[i];
+                    count++;
+                }
+            }
+            return count > 0 ? OptionalDouble.of(sum / count) : OptionalDouble.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Row readRow(ResultSet rs) throws SQLException {
+        Row row = new Row(rs.getLong("id"), false);
+        row.overallRisk = intOrNull(rs, "overall_risk_score");
+        row.financialRisk = intOrNull(rs, "financial_risk_score");
+        row.operationalRisk = intOrNull(rs, "operational_risk_score");
+        row.complianceRisk = intOrNull(rs, "compliance_risk_score");
+        row.geographicRisk = intOrNull(rs, "geographic_risk_score");
+        row.riskScore = doubleOrNaN(rs, "risk_score_double");
+        row.onTimeDelivery = doubleOrNaN(rs, "on_time_delivery_rate");
+        row.quality = doubleOrNaN(rs, "quality_rating");
+        row.riskLevel = enumCode(rs.getString("risk_level"), RISK_LEVELS);
+        row.status = enumCode(rs.getString("status"), STATUSES);
+        row.tier = enumCode(rs.getString("tier"), TIERS);
+        row.country = encode(countries, rs.getString("country"));
+        row.industry = encode(industries, rs.getString("industry"));
+        row.businessType = encode(businessTypes, rs.getString("business_type"));
+        return row;
+    }
+
+    private static int intOrNull(ResultSet rs, String column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? NULL_INT : value;
+    }
+
+    private static double doubleOrNaN(ResultSet rs, String column) throws SQLException {
+        double value = rs.getDouble(column);
+        return rs.wasNull() ? Double.NaN : value;
+    }
+
+    private static <E extends Enum<E>> byte enumCode(String name, E[] values) {
+        if (name != null) {
+            for (E value : values) {
+                if (value.name().equals(name)) {
+                    return (byte) value.ordinal();
+                }
+            }
+        }
+        return NULL_CODE;
+    }
+
+    private static int encode(StringDictionary dictionary, String value) {
+        return value != null ? dictionary.encode(value) : NULL_INT;
+    }
+
+    /**
+     * One supplier's projected fields, or a deletion marker
+     */
+    static final class Row {
+        final long id;
+        final boolean deleted;
+        int overallRisk = NULL_INT;
+        int financialRisk = NULL_INT;
+        int operationalRisk = NULL_INT;
+        int complianceRisk = NULL_INT;
+        int geographicRisk = NULL_INT;
+        double riskScore = Double.NaN;
+        double onTimeDelivery = Double.NaN;
+        double quality = Double.NaN;
+        byte riskLevel = NULL_CODE;
+        byte status = NULL_CODE;
+        byte tier = NULL_CODE;
+        int country = NULL_INT;
+        int industry = NULL_INT;
+        int businessType = NULL_INT;
+
+        private Row(long id, boolean deleted) {
+            this.id = id;
+            this.deleted = deleted;
+        }
+
+        static Row deleted(long id) {
+            return new Row(id, true);
+        }
+
+        static Row of(Supplier supplier, SupplierFeatureSnapshot snapshot) {
+            Row row = new Row(supplier.getId(), false);
+            row.overallRisk = intOrNull(supplier.getOverallRiskScore());
+            row.financialRisk = intOrNull(supplier.getFinancialRiskScore());
+            row.operationalRisk = intOrNull(supplier.getOperationalRiskScore());
+            row.complianceRisk = intOrNull(supplier.getComplianceRiskScore());
+            row.geographicRisk = intOrNull(supplier.getGeographicRiskScore());
+            row.riskScore = supplier.getRiskScore() != null ? supplier.getRiskScore() : Double.NaN;
+            row.onTimeDelivery = supplier.getOnTimeDeliveryRate() != null
+                ? supplier.getOnTimeDeliveryRate().doubleValue() : Double.NaN;
+            row.quality = supplier.getQualityRating() != null ? supplier.getQualityRating().doubleValue() : Double.NaN;
+            row.riskLevel = supplier.getRiskLevel() != null ? (byte) supplier.getRiskLevel().ordinal() : NULL_CODE;
+            row.status = supplier.getStatus() != null ? (byte) supplier.getStatus().ordinal() : NULL_CODE;
+            row.tier = supplier.getTier() != null ? (byte) supplier.getTier().ordinal() : NULL_CODE;
+            row.country = encode(snapshot.countries, supplier.getCountry());
+            row.industry = encode(snapshot.industries, supplier.getIndustry());
+            row.businessType = encode(snapshot.businessTypes, supplier.getBusinessType());
+            return row;
+        }
+
+        private static int intOrNull(Integer value) {
+            return value != null ? value : NULL_INT;
+        }
+    }
+
+    /**
+     * Dense primitive columns; row order is arbitrary and removals swap in the last row
+     */
+    private static final class Columns {
+        int size;
+        long[] ids;
+        int[] overallRisk;
+        int[] financialRisk;
+        int[] operationalRisk;
+        int[] complianceRisk;
+        int[] geographicRisk;
+        double[] riskScore;
+        double[] onTimeDelivery;
+        double[] quality;
+        byte[] riskLevel;
+        byte[] status;
+        byte[] tier;
+        int[] country;
+        int[] industry;
+        int[] businessType;
+        final Map<Long, Integer> rowById;
+        final ScoreHistograms histograms = new ScoreHistograms();
+
+        Columns(int capacity) {
+            ids = new long[capacity];
+            overallRisk = new int[capacity];
+            financialRisk = new int[capacity];
+            operationalRisk = new int[capacity];
+            complianceRisk = new int[capacity];
+            geographicRisk = new int[capacity];
+            riskScore = new double[capacity];
+            onTimeDelivery = new double[capacity];
+            quality = new double[capacity];
+            riskLevel = new byte[capacity];
+            status = new byte[capacity];
+            tier = new byte[capacity];
+            country = new int[capacity];
+            industry = new int[capacity];
+            businessType = new int[capacity];
+            rowById = new HashMap<>(capacity * 2);
+        }
+
+        void upsert(Row row) {
+            Integer index = rowById.get(row.id);
+            int i;
+            if (index != null) {
+                i = index;
+                histograms.add(this, i, -1);
+            } else {
+                ensureCapacity(size + 1);
+                i = size++;
+                rowById.put(row.id, i);
+            }
+            ids[i] = row.id;
+            overallRisk[i] = row.overallRisk;
+            financialRisk[i] = row.financialRisk;
+            operationalRisk[i] = row.operationalRisk;
+            complianceRisk[i] = row.complianceRisk;
+            geographicRisk[i] = row.geographicRisk;
+            riskScore[i] = row.riskScore;
+            onTimeDelivery[i] = row.onTimeDelivery;
+            quality[i] = row.quality;
+            riskLevel[i] = row.riskLevel;
+            status[i] = row.status;
+            tier[i] = row.tier;
+            country[i] = row.country;
+            industry[i] = row.industry;
+            businessType[i] = row.businessType;
+            histograms.add(this, i, 1);
+        }
+
+        void remove(long id) {
+            Integer index = rowById.remove(id);
+            if (index == null) {
+                return;
+            }
+            int i = index;
+            histograms.add(this, i, -1);
+            int last = --size;
+            if (i != last) {
+                ids[i] = ids[last];
+                overallRisk[i] = overallRisk[last];
+                financialRisk[i] = financialRisk[last];
+                operationalRisk[i] = operationalRisk[last];
+                complianceRisk[i] = complianceRisk[last];
+                geographicRisk[i] = geographicRisk[last];
+                riskScore[i] = riskScore[last];
+                onTimeDelivery[i] = onTimeDelivery[last];
+                quality[i] = quality[last];
+                riskLevel[i] = riskLevel[last];
+                status[i] = status[last];
+                tier[i] = tier[last];
+                country[i] = country[last];
+                industry[i] = industry[last];
+                businessType[i] = businessType[last];
+                rowById.put(ids[i], i);
+            }
+        }
+
+        private void ensureCapacity(int required) {
+            if (required <= ids.length) {
+                return;
+            }
+            int capacity = Math.max(required, ids.length + (ids.length >> 1));
+            ids = Arrays.copyOf(ids, capacity);
+            overallRisk = Arrays.copyOf(overallRisk, capacity);
+            financialRisk = Arrays.copyOf(financialRisk, capacity);
+            operationalRisk = Arrays.copyOf(operationalRisk, capacity);
+            complianceRisk = Arrays.copyOf(complianceRisk, capacity);
+            geographicRisk = Arrays.copyOf(geographicRisk, capacity);
+            riskScore = Arrays.copyOf(riskScore, capacity);
+            onTimeDelivery = Arrays.copyOf(onTimeDelivery, capacity);
+            quality = Arrays.copyOf(quality, capacity);
+            riskLevel = Arrays.copyOf(riskLevel, capacity);
+            status = Arrays.copyOf(status, capacity);
+            tier = Arrays.copyOf(tier, capacity);
+            country = Arrays.copyOf(country, capacity);
+            industry = Arrays.copyOf(industry, capacity);
+            businessType = Arrays.copyOf(businessType, capacity);
+        }
+    }
+
+    /**
+     * Score counts per dimension, overall and per status, tier and country, kept in step with the columns
+     */
+    private static final class ScoreHistograms {
+        // 101 score bins plus one for unscored, per dimension
+        static final int SLOTS = RiskScoreHistogram.MAX_SCORE + 2;
+        static final int WIDTH = DIMENSIONS.length * SLOTS;
+
+        final int[] all = new int[WIDTH];
+        final int[][] byStatus = new int[STATUSES.length][WIDTH];
+        final int[][] byTier = new int[TIERS.length][WIDTH];
+        // Indexed by country dictionary code, allocated on first use
+        int[][] byCountry = new int[16][];
+
+        /**
+         * Add (delta 1) or retract (delta -1) the scores of row i
+         */
+        void add(Columns c, int i, int delta) {
+            int[] status = c.status[i] != NULL_CODE ? byStatus[c.status[i]] : null;
+            int[] tier = c.tier[i] != NULL_CODE ? byTier[c.tier[i]] : null;
+            int[] country = null;
+            if (c.country[i] >= 0) {
+                if (c.country[i] >= byCountry.length) {
+                    byCountry = Arrays.copyOf(byCountry, Math.max(c.country[i] + 1, byCountry.length * 2));
+                }
+                if (byCountry[c.country[i]] == null) {
+                    byCountry[c.country[i]] = new int[WIDTH];
+                }
+                country = byCountry[c.country[i]];
+            }
+            addScore(0, c.overallRisk[i], delta, status, tier, country);
+            addScore(1, c.financialRisk[i], delta, status, tier, country);
+            addScore(2, c.operationalRisk[i], delta, status, tier, country);
+            addScore(3, c.complianceRisk[i], delta, status, tier, country);
+            addScore(4, c.geographicRisk[i], delta, status, tier, country);
+        }
+
+        private void addScore(int dimension, int score, int delta, int[] status, int[] tier, int[] country) {
+            int slot = dimension * SLOTS + (score == NULL_INT ? SLOTS - 1 : RiskScoreHistogram.bin(score));
+            all[slot] += delta;
+            if (status != null) {
+                status[slot] += delta;
+            }
+            if (tier != null) {
+                tier[slot] += delta;
+            }
+            if (country != null) {
+                country[slot] += delta;
+            }
+        }
+
+        int[] countryBins(int code) {
+            return code >= 0 && code < byCountry.length ? byCountry[code] : null;
+        }
+
+        static RiskScoreHistogram toHistogram(int[] bins, RiskScoreHistogram.Dimension dimension) {
+            if (bins == null) {
+                return RiskScoreHistogram.empty();
+            }
+            int base = dimension.ordinal() * SLOTS;
+            long[] counts = new long[RiskScoreHistogram.MAX_SCORE + 1];
+            for (int score = 0; score < counts.length; score++) {
+                counts[score] = bins[base + score];
+            }
+            return new RiskScoreHistogram(counts, bins[base + SLOTS - 1]);
+        }
+    }
+
+    /**
+     * Append-only string to int code dictionary
+     */
+    private static final class StringDictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        synchronized int encode(String value) {
+            return codes.computeIfAbsent(value, key -> {
+                values.add(key);
+                return values.size() - 1;
+            });
+        }
+
+        synchronized String valueOf(int code) {
+            return values.get(code);
+        }
+
+        /**
+         * Code of a known value, or a code no row can have
+         */
+        synchronized int codeOf(String value) {
+            Integer code = codes.get(value);
+            return code != null ? code : -2;
+        }
+    }
+}
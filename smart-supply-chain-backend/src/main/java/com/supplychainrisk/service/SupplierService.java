@@ -12,6 +12,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -44,6 +45,12 @@ public class SupplierService {
     @Autowired
     private RiskAssessmentService riskAssessmentService;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private PredictionCache predictionCache;
+    
     /**
      * Get all suppliers with pagination and sorting
      */
@@ -109,6 +116,9 @@ public class SupplierService {
         supplier = supplierRepository.save(supplier);
         logger.info("Successfully created supplier with ID: {}", supplier.getId());
         
+        eventPublisher.publishEvent(new RiskAssessmentService.SupplierRiskScoresChangedEvent(
+            supplier, EnumSet.allOf(RiskAssessmentService.RiskComponent.class), null));
+        
         return convertToDTO(supplier);
     }
     
@@ -130,6 +140,11 @@ public class SupplierService {
             }
         }
         
+        // Capture risk inputs so only sub-scores with changed inputs are recalculated
+        RiskAssessmentService.RiskInputSnapshot riskInputsBefore =
+            RiskAssessmentService.RiskInputSnapshot.of(existingSupplier);
+        Integer previousOverallRiskScore = existingSupplier.getOverallRiskScore();
+        
         // Update fields
         updateSupplierFields(existingSupplier, supplierDTO);
         
@@ -139,13 +154,49 @@ public class SupplierService {
         existingSupplier.setUpdatedBy(user);
         existingSupplier.setUpdatedAt(LocalDateTime.now());
         
-        // Recalculate risk scores
-        riskAssessmentService.calculateRiskScores(existingSupplier);
+        // Recalculate only the affected risk scores
+        Set<RiskAssessmentService.RiskComponent> dirtyComponents =
+            riskInputsBefore.changedComponents(RiskAssessmentService.RiskInputSnapshot.of(existingSupplier));
+        if (!dirtyComponents.isEmpty() && !Objects.equals(existingSupplier.getRiskModelVersion(),
+                riskAssessmentService.getActiveModel().getVersion())) {
+            // Never mix sub-scores from an older risk model version with new ones
+            dirtyComponents = EnumSet.allOf(RiskAssessmentService.RiskComponent.class);
+        }
+        if (!dirtyComponents.isEmpty()) {
+            logger.debug("Recalculating {} risk for supplier {}", dirtyComponents, id);
+            riskAssessmentService.recalculateRiskScores(existingSupplier, dirtyComponents);
+            existingSupplier.setRiskLastUpdated(LocalDateTime.now());
+        }
         
         existingSupplier = supplierRepository.save(existingSupplier);
+        // Any profile field may be an ML input, not only the risk inputs
+        predictionCache.invalidate(id);
+        
+        if (!dirtyComponents.isEmpty()) {
+            eventPublisher.publishEvent(new RiskAssessmentService.SupplierRiskScoresChangedEvent(
+                existingSupplier, dirtyComponents, previousOverallRiskScore));
+        }
         return convertToDTO(existingSupplier);
     }
     
+    /**
+     * Force a full risk recalculation for a supplier, regardless of which inputs changed
+     */
+    @CacheEvict(value = "suppliers", allEntries = true)
+    public SupplierDTO recalculateRiskScores(Long id) {
+        Supplier supplier = supplierRepository.findById(id)
+            .orElseThrow(() -> new BusinessException("Supplier not found with id: " + id));
+        
+        Integer previousOverallRiskScore = supplier.getOverallRiskScore();
+        riskAssessmentService.calculateRiskScores(supplier);
+        supplier.setRiskLastUpdated(LocalDateTime.now());
+        supplier = supplierRepository.save(supplier);
+        
+        eventPublisher.publishEvent(new RiskAssessmentService.SupplierRiskScoresChangedEvent(
+            supplier, EnumSet.allOf(RiskAssessmentService.RiskComponent.class), previousOverallRiskScore));
+        return convertToDTO(supplier);
+    }
+    
     /**
      * Delete supplier
      */
@@ -154,6 +205,7 @@ public class SupplierService {
             throw new RuntimeException("Supplier not found with id: " + id);
         }
         supplierRepository.deleteById(id);
+        predictionCache.invalidate(id);
     }
     
     /**
@@ -333,6 +385,7 @@ public class SupplierService {
         dto.setOperationalRiskScore(supplier.getOperationalRiskScore());
         dto.setComplianceRiskScore(supplier.getComplianceRiskScore());
         dto.setGeographicRiskScore(supplier.getGeographicRiskScore());
+        dto.setRiskModelVersion(supplier.getRiskModelVersion());
         
         // Performance KPIs
         dto.setOnTimeDeliveryRate(supplier.getOnTimeDeliveryRate());
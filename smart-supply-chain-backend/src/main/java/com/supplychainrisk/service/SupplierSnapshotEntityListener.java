@@ -0,0 +1,58 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.entity.Supplier;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that mirrors supplier writes into {@link SupplierFeatureSnapshot}.
+ *
+ * Field values are captured when Hibernate flushes the entity and applied only after
+ * the surrounding transaction commits, so rolled-back writes never reach the snapshot.
+ */
+@Component
+public class SupplierSnapshotEntityListener {
+
+    // Lazy: Hibernate instantiates listeners while the EntityManagerFactory is still being built
+    @Autowired
+    @Lazy
+    private SupplierFeatureSnapshot supplierFeatureSnapshot;
+
+    @PostPersist
+    @PostUpdate
+    public void onSupplierSaved(Supplier supplier) {
+        if (supplier.getId() == null) {
+            return;
+        }
+        SupplierFeatureSnapshot.Row row = supplierFeatureSnapshot.capture(supplier);
+        afterCommit(() -> supplierFeatureSnapshot.apply(row));
+    }
+
+    @PostRemove
+    public void onSupplierRemoved(Supplier supplier) {
+        if (supplier.getId() == null) {
+            return;
+        }
+        Long id = supplier.getId();
+        afterCommit(() -> supplierFeatureSnapshot.remove(id));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
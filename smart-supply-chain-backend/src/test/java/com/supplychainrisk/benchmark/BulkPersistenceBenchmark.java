@@ -0,0 +1,143 @@
+package com.supplychainrisk.benchmark;
+
+import com.supplychainrisk.entity.RiskPrediction;
+import com.supplychainrisk.service.BulkPersistenceService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second inserted into risk_predictions: one INSERT per row with the
+ * generated id read back (what IDENTITY forces on saveAll) vs the bulk path
+ * with pooled ids, JDBC batches and chunked commits.
+ *
+ * Needs a PostgreSQL database with the application schema; rows written are
+ * tagged with their own model id and deleted after each iteration.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.supplychainrisk.benchmark.BulkPersistenceBenchmark
+ *   -Dbenchmark.jdbc.url=jdbc:postgresql://localhost:5432/smart_supply_chain
+ *   -Dbenchmark.jdbc.user=postgres -Dbenchmark.jdbc.password=...
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BulkPersistenceBenchmark {
+
+    private static final int ROWS = 5000;
+    private static final String MODEL_ID = "bulk_write_benchmark";
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private BulkPersistenceService bulkPersistenceService;
+
+    @Setup
+    public void setUp() {
+        String url = System.getProperty("benchmark.jdbc.url",
+            "jdbc:postgresql://localhost:5432/smart_supply_chain");
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            url + (url.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true",
+            System.getProperty("benchmark.jdbc.user", "postgres"),
+            System.getProperty("benchmark.jdbc.password", ""));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        bulkPersistenceService = new BulkPersistenceService();
+        ReflectionTestUtils.setField(bulkPersistenceService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(bulkPersistenceService, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(bulkPersistenceService, "chunkSize", 1000);
+        ReflectionTestUtils.setField(bulkPersistenceService, "batchSize", 500);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteRows() {
+        jdbcTemplate.update("DELETE FROM risk_predictions WHERE model_id = ?", MODEL_ID);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int rowByRowIdentity() {
+        List<RiskPrediction> predictions = predictions();
+        return transactionTemplate.execute(status -> {
+            int inserted = 0;
+            for (RiskPrediction prediction : predictions) {
+                GeneratedKeyHolder keys = new GeneratedKeyHolder();
+                jdbcTemplate.update(connection -> {
+                    PreparedStatement ps = connection.prepareStatement(
+                        "INSERT INTO risk_predictions (risk_type, risk_probability, predicted_risk_level, confidence, "
+                            + "prediction_date, model_id, model_version, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                        Statement.RETURN_GENERATED_KEYS);
+                    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                    ps.setString(1, prediction.getRiskType().name());
+                    ps.setBigDecimal(2, prediction.getRiskProbability());
+                    ps.setString(3, prediction.getPredictedRiskLevel().name());
+                    ps.setBigDecimal(4, prediction.getConfidence());
+                    ps.setTimestamp(5, now);
+                    ps.setString(6, prediction.getModelId());
+                    ps.setString(7, prediction.getModelVersion());
+                    ps.setTimestamp(8, now);
+                    return ps;
+                }, keys);
+                inserted++;
+            }
+            return inserted;
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int bulkPooledBatches() {
+        return bulkPersistenceService.saveRiskPredictions(predictions()).size();
+    }
+
+    private static List<RiskPrediction> predictions() {
+        Random random = new Random(14);
+        List<RiskPrediction> predictions = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            double probability = random.nextInt(10000) / 100.0;
+            predictions.add(RiskPrediction.builder()
+                .riskType(RiskPrediction.RiskType.DELAY_PREDICTION)
+                .riskProbability(BigDecimal.valueOf(probability))
+                .predictedRiskLevel(RiskPrediction.RiskLevel.fromScore(probability))
+                .confidence(BigDecimal.valueOf(85.0))
+                .modelId(MODEL_ID)
+                .modelVersion("1.0")
+                .build());
+        }
+        return predictions;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(BulkPersistenceBenchmark.class.getSimpleName())
+            .jvmArgsAppend(
+                "-Dbenchmark.jdbc.url=" + System.getProperty("benchmark.jdbc.url",
+                    "jdbc:postgresql://localhost:5432/smart_supply_chain"),
+                "-Dbenchmark.jdbc.user=" + System.getProperty("benchmark.jdbc.user", "postgres"),
+                "-Dbenchmark.jdbc.password=" + System.getProperty("benchmark.jdbc.password", ""))
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,138 @@
+package com.supplychainrisk.benchmark;
+
+import com.supplychainrisk.entity.Supplier;
+import com.supplychainrisk.service.FallbackModelService;
+import com.supplychainrisk.service.FallbackRiskModel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fallback model latency for one supplier (feature extraction plus scoring)
+ * and per row over a batch of pre-extracted feature rows.
+ *
+ * "builtin" is the shipped linear baseline; "gbt" is a synthetic ensemble of
+ * 4 targets x 100 trees of depth 6, read back from a model file so the
+ * decoded layout is what gets measured.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.supplychainrisk.benchmark.FallbackModelBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FallbackModelBenchmark {
+
+    private static final int BATCH = 10_000;
+    private static final int TREES_PER_TARGET = 100;
+    private static final int DEPTH = 6;
+
+    @Param({"builtin", "gbt"})
+    private String model;
+
+    private FallbackRiskModel fallbackModel;
+    private Supplier supplier;
+    private double[] features;
+    private double[] output;
+    private double[] batchFeatures;
+    private double[] batchOutput;
+
+    @Setup
+    public void setUp() throws IOException {
+        fallbackModel = "gbt".equals(model) ? syntheticEnsemble() : FallbackModelService.builtInModel();
+        int width = FallbackModelService.FEATURES.size();
+        int targets = fallbackModel.getTargetNames().size();
+
+        Random random = new Random(5);
+        supplier = supplier(random);
+        features = new double[width];
+        output = new double[targets];
+        batchFeatures = new double[BATCH * width];
+        batchOutput = new double[BATCH * targets];
+        double[] row = new double[width];
+        for (int i = 0; i < BATCH; i++) {
+            FallbackModelService.extract(supplier(random), 30, row);
+            System.arraycopy(row, 0, batchFeatures, i * width, width);
+        }
+    }
+
+    @Benchmark
+    public double singleSupplier() {
+        FallbackModelService.extract(supplier, 30, features);
+        fallbackModel.score(features, output);
+        return output[0];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public double batchPerRow() {
+        fallbackModel.scoreAll(batchFeatures, BATCH, batchOutput);
+        return batchOutput[batchOutput.length - 1];
+    }
+
+    private static FallbackRiskModel syntheticEnsemble() throws IOException {
+        Random random = new Random(13);
+        List<String> names = FallbackModelService.FEATURES;
+        FallbackRiskModel.Writer writer = FallbackRiskModel.writer(names);
+        for (String target : List.of("predicted_overall", "predicted_financial", "predicted_operational",
+                "elevated_risk_probability")) {
+            FallbackRiskModel.Writer.Target builder = writer.target(target,
+                target.startsWith("elevated") ? FallbackRiskModel.Link.LOGISTIC : FallbackRiskModel.Link.IDENTITY,
+                1, 50, new double[names.size()]);
+            for (int t = 0; t < TREES_PER_TARGET; t++) {
+                FallbackRiskModel.Writer.Tree tree = builder.tree();
+                int internal = (1 << DEPTH) - 1;
+                for (int node = 0; node < internal; node++) {
+                    tree.split(random.nextInt(names.size() - 1), 20 + random.nextDouble() * 60,
+                        2 * node + 1, 2 * node + 2, random.nextBoolean());
+                }
+                for (int leaf = 0; leaf < internal + 1; leaf++) {
+                    tree.leaf(random.nextGaussian() * 0.5);
+                }
+            }
+        }
+        Path file = Files.createTempFile("fallback-benchmark", ".bin");
+        try {
+            writer.write(file);
+            return FallbackRiskModel.open(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static Supplier supplier(Random random) {
+        Supplier supplier = new Supplier();
+        supplier.setOverallRiskScore(random.nextInt(101));
+        supplier.setFinancialRiskScore(random.nextInt(101));
+        supplier.setOperationalRiskScore(random.nextInt(101));
+        supplier.setComplianceRiskScore(random.nextInt(101));
+        supplier.setGeographicRiskScore(random.nextInt(101));
+        supplier.setOnTimeDeliveryRate(BigDecimal.valueOf(6000 + random.nextInt(4001), 2));
+        supplier.setQualityRating(BigDecimal.valueOf(500 + random.nextInt(501), 2));
+        supplier.setYearsInBusiness(random.nextInt(40));
+        supplier.setEmployeeCount(random.nextInt(5000));
+        supplier.setAnnualRevenue(BigDecimal.valueOf(random.nextInt(2_000_000_000), 2).movePointRight(2));
+        supplier.setIsoCertifications(List.of("ISO 9001", "ISO 14001").subList(0, random.nextInt(3)));
+        return supplier;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(FallbackModelBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,129 @@
+package com.supplychainrisk.benchmark;
+
+import com.supplychainrisk.service.FeatureFrame;
+import com.supplychainrisk.service.StreamingStatistics;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Map-scanning vs columnar feature statistics for one prediction request.
+ *
+ * The map path repeats the per-statistic stream scans MLPredictionService used
+ * before feature frames; the frame path builds the frame once and reads its columns.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.supplychainrisk.benchmark.FeatureFrameBenchmark
+ * Add -prof gc through the JMH options to compare allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FeatureFrameBenchmark {
+
+    private static final String[] FEATURES = {"risk_score", "performance_score", "delivery_rate"};
+
+    @Param({"1000", "200000"})
+    private int dataPoints;
+
+    private List<Map<String, Object>> historicalData;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(3);
+        historicalData = new ArrayList<>(dataPoints);
+        for (int i = 0; i < dataPoints; i++) {
+            Map<String, Object> record = new HashMap<>();
+            record.put("supplier_id", (long) i);
+            record.put("risk_score", random.nextInt(10) == 0 ? null : random.nextInt(101));
+            record.put("financial_risk", random.nextInt(101));
+            record.put("delivery_rate", BigDecimal.valueOf(6000 + random.nextInt(4001), 2));
+            record.put("quality_rating", BigDecimal.valueOf(500 + random.nextInt(501), 2));
+            record.put("country", "Country-" + random.nextInt(20));
+            historicalData.add(record);
+        }
+    }
+
+    @Benchmark
+    public double mapPath() {
+        double checksum = 0;
+        checksum += trend(historicalData, "risk_score");
+        checksum += trend(historicalData, "performance_score");
+        checksum += average(historicalData, "delivery_rate");
+        checksum += completeness(historicalData);
+        checksum += average(historicalData, "risk_score");
+        checksum += historicalData.stream().map(d -> d.get("risk_score")).filter(v -> v instanceof Number)
+            .map(v -> ((Number) v).doubleValue()).max(Double::compareTo).orElse(0.0);
+        checksum += historicalData.stream().map(d -> d.get("risk_score")).filter(v -> v instanceof Number)
+            .map(v -> ((Number) v).doubleValue()).min(Double::compareTo).orElse(0.0);
+        double avg = average(historicalData, "risk_score");
+        checksum += Math.sqrt(historicalData.stream().map(d -> d.get("risk_score")).filter(v -> v instanceof Number)
+            .map(v -> Math.pow(((Number) v).doubleValue() - avg, 2)).reduce(0.0, Double::sum) / historicalData.size());
+        return checksum;
+    }
+
+    @Benchmark
+    public double framePath() {
+        FeatureFrame frame = FeatureFrame.of(historicalData, FEATURES);
+        StreamingStatistics risk = frame.column("risk_score").statistics();
+        double checksum = 0;
+        checksum += risk.getMeanStepChange().orElse(0);
+        checksum += frame.column("performance_score").statistics().getMeanStepChange().orElse(0);
+        checksum += frame.column("delivery_rate").statistics().getMean();
+        checksum += (double) frame.getNonNullValues() / (frame.getRows() * 5L) * 100;
+        checksum += risk.getMean();
+        checksum += risk.getMax().orElse(0.0);
+        checksum += risk.getMin().orElse(0.0);
+        checksum += Math.sqrt(risk.getSumOfSquaredDeviations() / risk.getObservations());
+        return checksum;
+    }
+
+    private static double trend(List<Map<String, Object>> data, String field) {
+        double sum = 0;
+        int count = 0;
+        for (int i = 1; i < data.size(); i++) {
+            Object current = data.get(i).get(field);
+            Object previous = data.get(i - 1).get(field);
+            if (current instanceof Number && previous instanceof Number) {
+                sum += ((Number) current).doubleValue() - ((Number) previous).doubleValue();
+                count++;
+            }
+        }
+        return count > 0 ? sum / count : 0;
+    }
+
+    private static double average(List<Map<String, Object>> data, String field) {
+        return data.stream().map(d -> d.get(field)).filter(v -> v instanceof Number)
+            .map(v -> ((Number) v).doubleValue())
+            .collect(Collectors.averagingDouble(Double::doubleValue));
+    }
+
+    private static double completeness(List<Map<String, Object>> data) {
+        int completeFields = 0;
+        for (Map<String, Object> record : data) {
+            completeFields += record.values().stream().map(v -> v != null ? 1 : 0).reduce(0, Integer::sum);
+        }
+        return (double) completeFields / (data.size() * 5) * 100;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(FeatureFrameBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
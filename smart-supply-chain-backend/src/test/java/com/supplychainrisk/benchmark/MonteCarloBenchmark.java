@@ -0,0 +1,75 @@
+package com.supplychainrisk.benchmark;
+
+import com.supplychainrisk.service.MonteCarloSimulator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scenario simulation throughput in trials per second for a 200-supplier
+ * portfolio, with the batches run in a pool of 1, 2, 4 or 8 threads.
+ *
+ * Early stopping is disabled so every invocation runs the same number of
+ * trials; divide the score by the thread count for trials/sec per core.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.supplychainrisk.benchmark.MonteCarloBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MonteCarloBenchmark {
+
+    private static final int SUPPLIERS = 200;
+    private static final int TRIALS = 16_000;
+
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    private ForkJoinPool pool;
+    private MonteCarloSimulator.Portfolio portfolio;
+    private MonteCarloSimulator.Shock shock;
+    private MonteCarloSimulator.Settings settings;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(17);
+        portfolio = new MonteCarloSimulator.Portfolio(SUPPLIERS);
+        for (int i = 0; i < SUPPLIERS; i++) {
+            portfolio.add(random.nextInt(101), random.nextInt(101), random.nextInt(101), random.nextDouble() * 0.3,
+                6 + random.nextDouble() * 48, random.nextDouble() * 5, 200 + random.nextInt(10_000));
+        }
+        shock = new MonteCarloSimulator.Shock(2.0, 1.5, 0.1);
+        settings = MonteCarloSimulator.Settings.builder()
+            .maxTrials(TRIALS).batchSize(500).roundBatches(32).relativeTolerance(0).build();
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRIALS)
+    public double simulate() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> MonteCarloSimulator.run(portfolio, shock, settings)).get().getCostImpact().getP90();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(MonteCarloBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,103 @@
+package com.supplychainrisk.benchmark;
+
+import com.supplychainrisk.entity.Supplier;
+import com.supplychainrisk.service.CompiledRiskScorer;
+import com.supplychainrisk.service.ReferenceRiskScorer;
+import com.supplychainrisk.service.RiskAssessmentService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reference vs compiled risk scoring over a batch of suppliers.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.supplychainrisk.benchmark.RiskScoringBenchmark
+ * Add -prof gc through the JMH options to compare allocation rates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RiskScoringBenchmark {
+
+    private static final String[] CREDIT_RATINGS = {"AAA", "AA", "A+", "A", "BBB", "BB-", "B", "CCC", null};
+    private static final String[] COUNTRIES = {"USA", "Germany", "China", "India", "Brazil", "Iran", "Japan", null};
+
+    private static final Set<RiskAssessmentService.RiskComponent> ALL_COMPONENTS =
+        EnumSet.allOf(RiskAssessmentService.RiskComponent.class);
+
+    @Param({"10000"})
+    private int batchSize;
+
+    private ReferenceRiskScorer referenceScorer;
+    private CompiledRiskScorer compiledScorer;
+    private List<Supplier> suppliers;
+
+    @Setup
+    public void setUp() {
+        referenceScorer = new ReferenceRiskScorer();
+        compiledScorer = CompiledRiskScorer.builder().build();
+
+        Random random = new Random(7);
+        suppliers = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            Supplier supplier = new Supplier();
+            supplier.setCreditRating(CREDIT_RATINGS[random.nextInt(CREDIT_RATINGS.length)]);
+            supplier.setAnnualRevenue(BigDecimal.valueOf(random.nextInt(2_000_000_000), 2).movePointRight(2));
+            supplier.setYearsInBusiness(random.nextInt(40));
+            supplier.setOnTimeDeliveryRate(BigDecimal.valueOf(6000 + random.nextInt(4001), 2));
+            supplier.setQualityRating(BigDecimal.valueOf(500 + random.nextInt(501), 2));
+            supplier.setEmployeeCount(random.nextInt(5000));
+            supplier.setIsoCertifications(List.of("ISO 9001", "ISO 14001").subList(0, random.nextInt(3)));
+            supplier.setComplianceCertifications(List.of("SOC 2", "GDPR", "REACH").subList(0, random.nextInt(4)));
+            supplier.setLastAuditDate(LocalDate.now().minusDays(random.nextInt(1000)));
+            supplier.setNextAuditDueDate(LocalDate.now().plusDays(random.nextInt(200) - 30));
+            supplier.setCountry(COUNTRIES[random.nextInt(COUNTRIES.length)]);
+            suppliers.add(supplier);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(10000)
+    public int referencePath() {
+        int checksum = 0;
+        for (Supplier supplier : suppliers) {
+            referenceScorer.calculateRiskScores(supplier, ALL_COMPONENTS);
+            checksum += supplier.getOverallRiskScore();
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(10000)
+    public int compiledPath() {
+        long today = CompiledRiskScorer.today();
+        int checksum = 0;
+        for (Supplier supplier : suppliers) {
+            compiledScorer.score(supplier, today);
+            checksum += supplier.getOverallRiskScore();
+        }
+        return checksum;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(RiskScoringBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
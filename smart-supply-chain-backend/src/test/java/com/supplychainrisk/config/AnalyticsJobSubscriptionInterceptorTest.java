@@ -0,0 +1,96 @@
+package com.supplychainrisk.config;
+
+import com.supplychainrisk.entity.User;
+import com.supplychainrisk.service.AnalyticsJobService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AnalyticsJobSubscriptionInterceptorTest {
+
+    @Mock
+    private AnalyticsJobService analyticsJobService;
+
+    @Mock
+    private MessageChannel channel;
+
+    private AnalyticsJobSubscriptionInterceptor interceptor;
+
+    @BeforeEach
+    public void setUp() {
+        interceptor = new AnalyticsJobSubscriptionInterceptor(analyticsJobService);
+    }
+
+    @Test
+    public void testSubscriptionToAnotherUsersJobIsDenied() {
+        // Given - job-1 was submitted by someone else
+        when(analyticsJobService.isVisible("job-1", 2L, false)).thenReturn(false);
+        Message<byte[]> subscribe = subscribe(AnalyticsJobService.TOPIC_PREFIX + "job-1", user(2L, "SUPPLY_MANAGER"));
+
+        // When / Then
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(subscribe, channel));
+    }
+
+    @Test
+    public void testSubmitterMayFollowTheirJob() {
+        // Given
+        when(analyticsJobService.isVisible("job-1", 1L, false)).thenReturn(true);
+        Message<byte[]> subscribe = subscribe(AnalyticsJobService.TOPIC_PREFIX + "job-1", user(1L, "SUPPLY_MANAGER"));
+
+        // When / Then
+        assertSame(subscribe, interceptor.preSend(subscribe, channel));
+    }
+
+    @Test
+    public void testPatternSubscriptionsAreDenied() {
+        // Given - patterns the simple broker would match against every job topic
+        for (String destination : List.of("/topic/analytics/jobs/**", "/topic/**", "/topic/analytics/*/job-1")) {
+            Message<byte[]> subscribe = subscribe(destination, user(1L, "ADMIN"));
+
+            // When / Then
+            assertThrows(AccessDeniedException.class, () -> interceptor.preSend(subscribe, channel));
+        }
+        verify(analyticsJobService, never()).isVisible(anyString(), any(), anyBoolean());
+    }
+
+    @Test
+    public void testOtherTopicsAreNotChecked() {
+        Message<byte[]> subscribe = subscribe("/topic/risk-updates", null);
+
+        assertSame(subscribe, interceptor.preSend(subscribe, channel));
+        verifyNoInteractions(analyticsJobService);
+    }
+
+    private static Message<byte[]> subscribe(String destination, UsernamePasswordAuthenticationToken user) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setDestination(destination);
+        accessor.setSubscriptionId("sub-0");
+        accessor.setUser(user);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static UsernamePasswordAuthenticationToken user(long id, String role) {
+        User user = new User();
+        user.setId(id);
+        return new UsernamePasswordAuthenticationToken(user, null, List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+    }
+}
@@ -0,0 +1,194 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.dto.AnalyticsRequest;
+import com.supplychainrisk.entity.AnalyticsResult;
+import com.supplychainrisk.exception.BusinessException;
+import com.supplychainrisk.exception.ResourceNotFoundException;
+import com.supplychainrisk.repository.AnalyticsResultRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AnalyticsJobServiceTest {
+
+    @Mock
+    private AnalyticsService analyticsService;
+
+    @Mock
+    private AdvancedAnalyticsService advancedAnalyticsService;
+
+    @Mock
+    private AnalyticsResultRepository analyticsResultRepository;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @InjectMocks
+    private AnalyticsJobService analyticsJobService;
+
+    private ThreadPoolExecutor executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>());
+        ReflectionTestUtils.setField(analyticsJobService, "jobExecutor", executor);
+        ReflectionTestUtils.setField(analyticsJobService, "maxQueued", 3);
+        ReflectionTestUtils.setField(analyticsJobService, "retentionMinutes", 60L);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testJobsRunByPriorityThenSubmissionOrder() throws Exception {
+        // Given - the single worker is busy with a blocking job
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        when(analyticsService.generatePredictiveAnalytics(any(), any())).thenAnswer(invocation -> {
+            AnalyticsRequest request = invocation.getArgument(0);
+            if ("BLOCKER".equals(request.getAnalysisType())) {
+                release.await(5, TimeUnit.SECONDS);
+            }
+            order.add(request.getAnalysisType());
+            return result(order.size());
+        });
+        String blocker = submit("BLOCKER", AnalyticsJobService.Priority.NORMAL);
+        awaitStatus(blocker, AnalyticsJobService.JobStatus.RUNNING);
+
+        // When
+        submit("LOW", AnalyticsJobService.Priority.LOW);
+        submit("NORMAL", AnalyticsJobService.Priority.NORMAL);
+        String last = submit("HIGH", AnalyticsJobService.Priority.HIGH);
+        List<Map<String, Object>> active = analyticsJobService.listActiveJobs(1L, false);
+        release.countDown();
+
+        // Then
+        assertEquals(4, active.size());
+        assertEquals(AnalyticsJobService.JobStatus.RUNNING, active.get(0).get("status"));
+        assertEquals(AnalyticsJobService.Priority.HIGH, active.get(1).get("priority"));
+        awaitStatus(last, AnalyticsJobService.JobStatus.COMPLETED);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(List.of("BLOCKER", "HIGH", "NORMAL", "LOW"), order);
+    }
+
+    @Test
+    public void testQueueDepthIsBoundedAndQueuedJobsCanBeCancelled() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        when(analyticsService.generatePredictiveAnalytics(any(), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return result(1);
+        });
+        String running = submit("RUNNING", AnalyticsJobService.Priority.NORMAL);
+        awaitStatus(running, AnalyticsJobService.JobStatus.RUNNING);
+        String first = submit("Q1", AnalyticsJobService.Priority.NORMAL);
+        submit("Q2", AnalyticsJobService.Priority.NORMAL);
+        submit("Q3", AnalyticsJobService.Priority.NORMAL);
+
+        // When / Then - a fourth waiting job exceeds the limit until one is cancelled
+        BusinessException error = assertThrows(BusinessException.class,
+            () -> submit("Q4", AnalyticsJobService.Priority.HIGH));
+        assertEquals("ANALYTICS_QUEUE_FULL", error.getErrorCode());
+
+        assertEquals(AnalyticsJobService.JobStatus.CANCELLED, analyticsJobService.cancel(first, 1L, false).get("status"));
+        submit("Q4", AnalyticsJobService.Priority.HIGH);
+        assertThrows(BusinessException.class, () -> analyticsJobService.cancel(running, 1L, false));
+        assertEquals(3, analyticsJobService.getQueueStatistics().get("queued"));
+        release.countDown();
+    }
+
+    @Test
+    public void testCompletedJobExposesPersistedResultAndFailuresAreReported() throws Exception {
+        // Given
+        AnalyticsResult saved = result(42);
+        when(advancedAnalyticsService.generateComprehensiveAnalytics(any(), any())).thenAnswer(invocation -> {
+            AnalyticsProgressListener listener = invocation.getArgument(1);
+            listener.onProgress("PREDICTING", 30);
+            return saved;
+        });
+        when(analyticsResultRepository.findById(42L)).thenReturn(Optional.of(saved));
+        when(analyticsService.generatePredictiveAnalytics(any(), any()))
+            .thenThrow(new AnalyticsService.AnalyticsException("Failed to generate predictive analytics",
+                new IllegalStateException("ML service unavailable")));
+
+        // When
+        String completed = analyticsJobService.submit(AnalyticsJobService.JobType.COMPREHENSIVE,
+            request("COMPREHENSIVE"), null, 7L).get("jobId").toString();
+        String failed = submit("PREDICTIVE", AnalyticsJobService.Priority.NORMAL);
+        awaitStatus(completed, AnalyticsJobService.JobStatus.COMPLETED);
+        awaitStatus(failed, AnalyticsJobService.JobStatus.FAILED);
+
+        // Then
+        Map<String, Object> status = analyticsJobService.getStatus(completed, 7L, false);
+        assertEquals(42L, status.get("resultId"));
+        assertEquals(100, status.get("percentComplete"));
+        assertEquals(AnalyticsJobService.Priority.NORMAL, status.get("priority"));
+        assertSame(saved, analyticsJobService.getResult(completed, 7L, false));
+        assertEquals("ML service unavailable", analyticsJobService.getStatus(failed, 1L, false).get("error"));
+        assertThrows(BusinessException.class, () -> analyticsJobService.getResult(failed, 1L, false));
+        assertThrows(BusinessException.class, () -> analyticsJobService.getStatus("unknown", 1L, false));
+        verify(messagingTemplate, atLeastOnce()).convertAndSend(eq(AnalyticsJobService.TOPIC_PREFIX + completed),
+            argThat((Object payload) -> "PREDICTING".equals(((Map<?, ?>) payload).get("stage"))));
+    }
+
+    @Test
+    public void testJobsAreVisibleOnlyToTheirSubmitterAndAdmins() throws Exception {
+        // Given - a completed job submitted by user 1
+        AnalyticsResult saved = result(42);
+        when(analyticsService.generatePredictiveAnalytics(any(), any())).thenReturn(saved);
+        when(analyticsResultRepository.findById(42L)).thenReturn(Optional.of(saved));
+        String jobId = submit("PREDICTIVE", AnalyticsJobService.Priority.NORMAL);
+        awaitStatus(jobId, AnalyticsJobService.JobStatus.COMPLETED);
+
+        // When / Then - another user gets the same answer as for an unknown job
+        assertThrows(ResourceNotFoundException.class, () -> analyticsJobService.getStatus(jobId, 2L, false));
+        assertThrows(ResourceNotFoundException.class, () -> analyticsJobService.getResult(jobId, 2L, false));
+        assertThrows(ResourceNotFoundException.class, () -> analyticsJobService.cancel(jobId, 2L, false));
+        assertThrows(ResourceNotFoundException.class, () -> analyticsJobService.getResult(jobId, null, false));
+        assertSame(saved, analyticsJobService.getResult(jobId, 1L, false));
+        assertSame(saved, analyticsJobService.getResult(jobId, 2L, true));
+    }
+
+    private String submit(String analysisType, AnalyticsJobService.Priority priority) {
+        return analyticsJobService.submit(AnalyticsJobService.JobType.PREDICTIVE, request(analysisType),
+            priority, 1L).get("jobId").toString();
+    }
+
+    private void awaitStatus(String jobId, AnalyticsJobService.JobStatus status) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (analyticsJobService.getStatus(jobId, null, true).get("status") != status) {
+            assertTrue(System.nanoTime() < deadline, "Job " + jobId + " never reached " + status);
+            Thread.sleep(5);
+        }
+    }
+
+    private static AnalyticsRequest request(String analysisType) {
+        AnalyticsRequest request = new AnalyticsRequest();
+        request.setAnalysisType(analysisType);
+        return request;
+    }
+
+    private static AnalyticsResult result(long id) {
+        AnalyticsResult result = new AnalyticsResult();
+        result.setId(id);
+        return result;
+    }
+}
@@ -0,0 +1,142 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.entity.AnalyticsPerformanceRollup;
+import com.supplychainrisk.entity.AnalyticsResult;
+import com.supplychainrisk.repository.AnalyticsPerformanceRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AnalyticsPerformanceRollupServiceTest {
+
+    @Mock
+    private AnalyticsPerformanceRollupRepository rollupRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private AnalyticsPerformanceRollupService rollupService;
+
+    @Test
+    public void testRecordAddsResultsToTheirHourlyRow() {
+        // Given - two results in the same hour, type and version, one in the next hour
+        LocalDateTime hour = LocalDateTime.of(2024, 3, 1, 10, 0);
+        List<AnalyticsResult> results = List.of(
+            result(hour.plusMinutes(5), "SHORT_TERM_FORECAST", "v2", 80L, 90.0),
+            result(hour.plusMinutes(50), "SHORT_TERM_FORECAST", "v2", 1200L, 70.0),
+            result(hour.plusHours(1), "SHORT_TERM_FORECAST", null, null, null));
+
+        // When
+        rollupService.record(results);
+
+        // Then - one upsert per hour/type/version with summed deltas, in a single transaction
+        verify(rollupRepository).upsert(hour, "SHORT_TERM_FORECAST", "v2", 2L,
+            2L, 1280L, 80.0 * 80 + 1200.0 * 1200, 1200L, 1L, 0L, 0L, 1L, 0L, 0L,
+            2L, 160.0, 0L, 0.0);
+        verify(rollupRepository).upsert(hour.plusHours(1), "SHORT_TERM_FORECAST", "", 1L,
+            0L, 0L, 0.0, 0L, 0L, 0L, 0L, 0L, 0L, 0L,
+            0L, 0.0, 0L, 0.0);
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    public void testPerformanceMetricsAreReadFromRollups() {
+        // Given - three hours of rollups, the middle one empty
+        ReflectionTestUtils.setField(rollupService, "backfillDays", 30);
+        LocalDateTime since = LocalDateTime.now().minusHours(2);
+        LocalDateTime first = since.truncatedTo(ChronoUnit.HOURS);
+        when(rollupRepository.findByBucketStartGreaterThanEqualOrderByBucketStartAsc(first)).thenReturn(List.of(
+            rollup(first, "REAL_TIME_RISK", "v1", 2, 200, 150, 80.0),
+            rollup(first, "LONG_TERM_FORECAST", "", 1, 400, 400, 60.0),
+            rollup(first.plusHours(2), "REAL_TIME_RISK", "v1", 3, 900, 600, 210.0)));
+        LocalDateTime accuracyWindowStart = LocalDateTime.now().minusDays(30).truncatedTo(ChronoUnit.HOURS);
+        when(rollupRepository.sumAccuracyByModelVersion(eq(Set.of("v1")), any(LocalDateTime.class)))
+            .thenReturn(Collections.singletonList(new Object[] {"v1", 171.0, 2L}));
+
+        // When
+        Map<String, Object> metrics = rollupService.getPerformanceMetrics(since);
+
+        // Then
+        assertEquals(6L, metrics.get("totalAnalytics"));
+        assertEquals(1500.0 / 6, (Double) metrics.get("averageProcessingTime"), 1e-9);
+        assertEquals(600L, metrics.get("maxProcessingTime"));
+        assertEquals(350.0 / 6, (Double) metrics.get("averageConfidence"), 1e-9);
+        assertEquals(Map.of("REAL_TIME_RISK", 5L, "LONG_TERM_FORECAST", 1L), metrics.get("analyticsBreakdown"));
+        assertEquals(Map.of("v1", 5L), metrics.get("modelVersionBreakdown"));
+        assertEquals(Map.of("v1_accuracy", 85.5), metrics.get("modelPerformance"));
+        assertEquals(30, metrics.get("modelAccuracyWindowDays"));
+        ArgumentCaptor<LocalDateTime> windowStart = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(rollupRepository).sumAccuracyByModelVersion(eq(Set.of("v1")), windowStart.capture());
+        assertFalse(windowStart.getValue().isBefore(accuracyWindowStart));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Long> histogram = (Map<String, Long>) metrics.get("processingTimeHistogram");
+        assertEquals(6L, histogram.values().stream().mapToLong(Long::longValue).sum());
+
+        // Hourly means: 600/3 = 200 in the first hour, 900/3 = 300 two hours later
+        @SuppressWarnings("unchecked")
+        Map<String, Object> trends = (Map<String, Object>) metrics.get("performanceTrends");
+        assertEquals(100.0, (Double) trends.get("processing_time_trend"), 1e-9);
+        assertEquals(50.0, (Double) trends.get("processing_time_slope"), 1e-9);
+    }
+
+    @Test
+    public void testLatencyBuckets() {
+        assertEquals(0, AnalyticsPerformanceRollupService.latencyBucket(99));
+        assertEquals(1, AnalyticsPerformanceRollupService.latencyBucket(100));
+        assertEquals(4, AnalyticsPerformanceRollupService.latencyBucket(29_999));
+        assertEquals(5, AnalyticsPerformanceRollupService.latencyBucket(30_000));
+    }
+
+    private AnalyticsResult result(LocalDateTime createdAt, String type, String version,
+                                   Long processingTimeMs, Double confidence) {
+        AnalyticsResult result = new AnalyticsResult();
+        result.setCreatedAt(createdAt);
+        result.setAnalysisType(type);
+        result.setModelVersion(version);
+        result.setProcessingTimeMs(processingTimeMs);
+        result.setConfidenceScore(confidence != null ? BigDecimal.valueOf(confidence) : null);
+        return result;
+    }
+
+    // Every result reports processing time and confidence, all in the <500ms bucket except the max
+    private AnalyticsPerformanceRollup rollup(LocalDateTime bucket, String type, String version, long count,
+                                              long processingTimeSum, long processingTimeMax, double confidenceSum) {
+        AnalyticsPerformanceRollup rollup = new AnalyticsPerformanceRollup();
+        rollup.setBucketStart(bucket);
+        rollup.setAnalysisType(type);
+        rollup.setModelVersion(version);
+        rollup.setResultCount(count);
+        rollup.setProcessingTimeCount(count);
+        rollup.setProcessingTimeSum(processingTimeSum);
+        rollup.setProcessingTimeSumSquares((double) processingTimeSum * processingTimeSum / count);
+        rollup.setProcessingTimeMax(processingTimeMax);
+        rollup.setLatencyUnder100Ms(0L);
+        rollup.setLatencyUnder500Ms(count - 1);
+        rollup.setLatencyUnder1S(1L);
+        rollup.setLatencyUnder5S(0L);
+        rollup.setLatencyUnder30S(0L);
+        rollup.setLatencyOver30S(0L);
+        rollup.setConfidenceCount(count);
+        rollup.setConfidenceSum(confidenceSum);
+        rollup.setAccuracyCount(0L);
+        rollup.setAccuracySum(0.0);
+        return rollup;
+    }
+}
@@ -0,0 +1,253 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.dto.AnalyticsRequest;
+import com.supplychainrisk.entity.AnalyticsResult;
+import com.supplychainrisk.repository.AnalyticsResultRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AnalyticsResultCacheTest {
+
+    @Mock
+    private AnalyticsResultRepository analyticsResultRepository;
+
+    @InjectMocks
+    private AnalyticsResultCache analyticsResultCache;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(analyticsResultCache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(analyticsResultCache, "enabled", true);
+        ReflectionTestUtils.setField(analyticsResultCache, "maxEntries", 10);
+        ReflectionTestUtils.setField(analyticsResultCache, "waitTimeoutMs", 5000L);
+    }
+
+    @Test
+    public void testFingerprintIgnoresMapOrderButNotListOrderOrValueTypes() {
+        // Given - the same filters inserted in different orders, and null vs empty collections
+        Map<String, Object> filters = new LinkedHashMap<>();
+        filters.put("region", "EU");
+        filters.put("minScore", 40);
+        Map<String, Object> reordered = new LinkedHashMap<>();
+        reordered.put("minScore", 40);
+        reordered.put("region", "EU");
+        Map<String, Object> widened = new LinkedHashMap<>(filters);
+        widened.put("minScore", 40L);
+
+        AnalyticsRequest base = AnalyticsRequest.builder().analysisType("SHORT_TERM_FORECAST")
+            .supplierIds(List.of(1L, 2L)).filters(filters).build();
+
+        // When / Then
+        String fingerprint = AnalyticsResultCache.fingerprint("PREDICTIVE", base);
+        assertEquals(64, fingerprint.length());
+        assertEquals(fingerprint, AnalyticsResultCache.fingerprint("PREDICTIVE", AnalyticsRequest.builder()
+            .analysisType("SHORT_TERM_FORECAST").supplierIds(List.of(1L, 2L)).filters(reordered)
+            .businessContext(Collections.emptyMap()).build()));
+
+        assertNotEquals(fingerprint, AnalyticsResultCache.fingerprint("COMPREHENSIVE", base));
+        assertNotEquals(fingerprint, AnalyticsResultCache.fingerprint("PREDICTIVE", AnalyticsRequest.builder()
+            .analysisType("SHORT_TERM_FORECAST").supplierIds(List.of(2L, 1L)).filters(filters).build()));
+        assertNotEquals(fingerprint, AnalyticsResultCache.fingerprint("PREDICTIVE", AnalyticsRequest.builder()
+            .analysisType("SHORT_TERM_FORECAST").supplierIds(List.of(1L, 2L)).filters(widened).build()));
+    }
+
+    @Test
+    public void testServesFreshResultsAndRecomputesExpiredOnes() {
+        // Given - a stored row that is still valid
+        AnalyticsRequest request = AnalyticsRequest.builder().analysisType("REAL_TIME_RISK").build();
+        AnalyticsResult stored = result(1L, LocalDateTime.now().plusHours(2));
+        when(analyticsResultRepository.findTopByRequestFingerprintAndStatusAndExpiresAtAfterOrderByCreatedAtDesc(
+            anyString(), eq(AnalyticsResult.AnalyticsStatus.ACTIVE), any(LocalDateTime.class)))
+            .thenReturn(Optional.of(stored));
+
+        // When - requested twice
+        AnalyticsResult first = analyticsResultCache.getOrCompute("PREDICTIVE", request,
+            fingerprint -> fail("stored result should be reused"));
+        AnalyticsResult second = analyticsResultCache.getOrCompute("PREDICTIVE", request,
+            fingerprint -> fail("remembered result should be reused"));
+
+        // Then - the database is consulted once, then memory serves it
+        assertSame(stored, first);
+        assertSame(stored, second);
+        verify(analyticsResultRepository, times(1))
+            .findTopByRequestFingerprintAndStatusAndExpiresAtAfterOrderByCreatedAtDesc(any(), any(), any());
+
+        // Given - the remembered result has since expired
+        stored.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        when(analyticsResultRepository.findTopByRequestFingerprintAndStatusAndExpiresAtAfterOrderByCreatedAtDesc(
+            anyString(), any(), any())).thenReturn(Optional.empty());
+        AnalyticsResult fresh = result(2L, LocalDateTime.now().plusDays(1));
+
+        // When
+        AnalyticsResult third = analyticsResultCache.getOrCompute("PREDICTIVE", request, fingerprint -> {
+            fresh.setRequestFingerprint(fingerprint);
+            return fresh;
+        });
+
+        // Then - recomputed, and the older row is superseded
+        assertSame(fresh, third);
+        verify(analyticsResultRepository).updateStatusForFingerprintExcept(fresh.getRequestFingerprint(), 2L,
+            AnalyticsResult.AnalyticsStatus.ACTIVE, AnalyticsResult.AnalyticsStatus.SUPERSEDED);
+        assertEquals(1L, analyticsResultCache.getStatistics().get("computed"));
+    }
+
+    @Test
+    public void testConcurrentIdenticalRequestsComputeOnce() throws Exception {
+        // Given - a slow computation and several callers with the same request
+        AnalyticsRequest request = AnalyticsRequest.builder().analysisType("LONG_TERM_FORECAST")
+            .supplierIds(List.of(7L)).build();
+        when(analyticsResultRepository.findTopByRequestFingerprintAndStatusAndExpiresAtAfterOrderByCreatedAtDesc(
+            anyString(), any(), any())).thenReturn(Optional.empty());
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 4;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+
+        try {
+            // When
+            List<Future<AnalyticsResult>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(pool.submit(() -> analyticsResultCache.getOrCompute("PREDICTIVE", request, fingerprint -> {
+                    computations.incrementAndGet();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return result(3L, LocalDateTime.now().plusDays(30));
+                })));
+            }
+            while ((long) analyticsResultCache.getStatistics().get("coalesced") < callers - 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            // Then - every caller gets the single computed result
+            AnalyticsResult expected = futures.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<AnalyticsResult> future : futures) {
+                assertSame(expected, future.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, computations.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testWaiterComputesOnItsOwnWhenTheSharedComputationIsSlow() throws Exception {
+        // Given - a computation that does not finish within the wait timeout
+        ReflectionTestUtils.setField(analyticsResultCache, "waitTimeoutMs", 50L);
+        AnalyticsRequest request = AnalyticsRequest.builder().analysisType("SHORT_TERM_FORECAST").build();
+        when(analyticsResultRepository.findTopByRequestFingerprintAndStatusAndExpiresAtAfterOrderByCreatedAtDesc(
+            anyString(), any(), any())).thenReturn(Optional.empty());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<AnalyticsResult> slow = pool.submit(() -> analyticsResultCache.getOrCompute("PREDICTIVE", request,
+                fingerprint -> {
+                    started.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return result(4L, LocalDateTime.now().plusDays(7));
+                }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // When
+            AnalyticsResult own = analyticsResultCache.getOrCompute("PREDICTIVE", request,
+                fingerprint -> result(5L, LocalDateTime.now().plusDays(7)));
+
+            // Then - the waiter gave up and computed its own result
+            assertEquals(5L, own.getId());
+            release.countDown();
+            assertEquals(4L, slow.get(5, TimeUnit.SECONDS).getId());
+            assertEquals(2L, analyticsResultCache.getStatistics().get("computed"));
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testComputedResultIsPublishedOnlyAfterCommit() {
+        // Given
+        AnalyticsRequest request = AnalyticsRequest.builder().analysisType("LONG_TERM_FORECAST").build();
+        when(analyticsResultRepository.findTopByRequestFingerprintAndStatusAndExpiresAtAfterOrderByCreatedAtDesc(
+            anyString(), any(), any())).thenReturn(Optional.empty());
+        TransactionSynchronizationManager.initSynchronization();
+
+        try {
+            // When - computed inside a transaction that has not committed yet
+            AnalyticsResult result = analyticsResultCache.getOrCompute("PREDICTIVE", request,
+                fingerprint -> result(6L, LocalDateTime.now().plusDays(30)));
+
+            // Then - neither remembered nor released to waiters until the commit
+            assertEquals(6L, result.getId());
+            assertEquals(0, analyticsResultCache.getStatistics().get("entries"));
+            assertEquals(1, analyticsResultCache.getStatistics().get("inFlight"));
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+            assertEquals(1, analyticsResultCache.getStatistics().get("entries"));
+            assertEquals(0, analyticsResultCache.getStatistics().get("inFlight"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testRolledBackResultIsNotRemembered() {
+        // Given
+        AnalyticsRequest request = AnalyticsRequest.builder().analysisType("LONG_TERM_FORECAST").build();
+        when(analyticsResultRepository.findTopByRequestFingerprintAndStatusAndExpiresAtAfterOrderByCreatedAtDesc(
+            anyString(), any(), any())).thenReturn(Optional.empty());
+        TransactionSynchronizationManager.initSynchronization();
+
+        try {
+            // When
+            analyticsResultCache.getOrCompute("PREDICTIVE", request,
+                fingerprint -> result(7L, LocalDateTime.now().plusDays(30)));
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+
+            // Then
+            assertEquals(0, analyticsResultCache.getStatistics().get("entries"));
+            assertEquals(0, analyticsResultCache.getStatistics().get("inFlight"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private AnalyticsResult result(Long id, LocalDateTime expiresAt) {
+        AnalyticsResult result = new AnalyticsResult();
+        result.setId(id);
+        result.setStatus(AnalyticsResult.AnalyticsStatus.ACTIVE);
+        result.setExpiresAt(expiresAt);
+        return result;
+    }
+}
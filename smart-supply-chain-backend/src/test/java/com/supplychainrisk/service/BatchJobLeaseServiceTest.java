@@ -0,0 +1,70 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.entity.BatchJobExecution;
+import com.supplychainrisk.repository.BatchJobExecutionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BatchJobLeaseServiceTest {
+
+    @Mock
+    private BatchJobExecutionRepository jobExecutionRepository;
+
+    @InjectMocks
+    private BatchJobLeaseService batchJobLeaseService;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(batchJobLeaseService, "instanceId", "node-a");
+        ReflectionTestUtils.setField(batchJobLeaseService, "leaseSeconds", 300L);
+    }
+
+    @Test
+    public void testRunningRowIsAbandonedOnlyOnceItsLeaseLapsesOrItsOwnerRestarted() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        BatchJobExecution execution = new BatchJobExecution(RiskRecalculationJobService.JOB_TYPE, 100, 1L);
+        execution.setOwnerId("node-b");
+
+        // When / Then - another instance still renewing its lease
+        execution.setLeaseExpiresAt(now.plusMinutes(2));
+        assertFalse(batchJobLeaseService.isAbandoned(execution, now));
+
+        // When / Then - that instance stopped renewing
+        execution.setLeaseExpiresAt(now.minusSeconds(1));
+        assertTrue(batchJobLeaseService.isAbandoned(execution, now));
+
+        // When / Then - this instance's own row from before a restart
+        execution.setOwnerId("node-a");
+        execution.setLeaseExpiresAt(now.plusMinutes(2));
+        assertTrue(batchJobLeaseService.isAbandoned(execution, now));
+
+        // When / Then - finished runs are never abandoned
+        execution.setStatus(BatchJobExecution.JobStatus.STOPPED);
+        assertFalse(batchJobLeaseService.isAbandoned(execution, now));
+    }
+
+    @Test
+    public void testRenewFailsOnceAnotherInstanceTookOver() {
+        // Given
+        BatchJobExecution execution = new BatchJobExecution(RiskRecalculationJobService.JOB_TYPE, 100, 1L);
+        execution.setId(5L);
+        when(jobExecutionRepository.renewLease(eq(5L), eq("node-a"), any(LocalDateTime.class))).thenReturn(0);
+
+        // When / Then
+        assertThrows(BatchJobLeaseService.LeaseLostException.class, () -> batchJobLeaseService.renew(execution));
+    }
+}
@@ -0,0 +1,106 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.entity.RiskPrediction;
+import com.supplychainrisk.entity.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BulkPersistenceServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private BulkPersistenceService bulkPersistenceService;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(bulkPersistenceService, "chunkSize", 2);
+        ReflectionTestUtils.setField(bulkPersistenceService, "batchSize", 500);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testWritesChunksWithReservedIdsInSeparateTransactions() throws Exception {
+        // Given - five predictions and a sequence handing out ids from 100
+        List<RiskPrediction> predictions = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Supplier supplier = new Supplier();
+            supplier.setId(10L + i);
+            predictions.add(RiskPrediction.builder()
+                .riskType(RiskPrediction.RiskType.SUPPLY_DISRUPTION)
+                .supplier(supplier)
+                .riskProbability(BigDecimal.valueOf(40 + i))
+                .build());
+        }
+        when(jdbcTemplate.queryForObject(contains("pg_get_serial_sequence"), eq(String.class), eq("risk_predictions")))
+            .thenReturn("public.risk_predictions_id_seq");
+        AtomicLong nextId = new AtomicLong(100);
+        when(jdbcTemplate.queryForList(contains("nextval"), eq(Long.class), eq("public.risk_predictions_id_seq"), anyInt()))
+            .thenAnswer(invocation -> LongStream.range(0, (int) invocation.getArgument(3))
+                .map(i -> nextId.getAndIncrement()).boxed().collect(Collectors.toList()));
+
+        // When
+        List<RiskPrediction> saved = bulkPersistenceService.saveRiskPredictions(predictions);
+
+        // Then - three chunks, each committed on its own, ids assigned in order
+        assertEquals(List.of(100L, 101L, 102L, 103L, 104L),
+            saved.stream().map(RiskPrediction::getId).collect(Collectors.toList()));
+        assertTrue(saved.stream().allMatch(p -> p.getCreatedAt() != null && p.getPredictionDate() != null));
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(3)).commit(any());
+        verify(jdbcTemplate, times(1))
+            .queryForObject(contains("pg_get_serial_sequence"), eq(String.class), eq("risk_predictions"));
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Collection<RiskPrediction>> chunks = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<ParameterizedPreparedStatementSetter<RiskPrediction>> setter =
+            ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+        verify(jdbcTemplate, times(3)).batchUpdate(sql.capture(), chunks.capture(), eq(500), setter.capture());
+        assertTrue(sql.getValue().startsWith("INSERT INTO risk_predictions (id, risk_type,"));
+        assertEquals(List.of(2, 2, 1), chunks.getAllValues().stream().map(Collection::size).collect(Collectors.toList()));
+
+        // And - the id goes first, enums as names, associations as foreign keys
+        PreparedStatement ps = mock(PreparedStatement.class);
+        setter.getValue().setValues(ps, saved.get(4));
+        verify(ps).setObject(1, 104L);
+        verify(ps).setObject(2, "SUPPLY_DISRUPTION");
+        verify(ps).setObject(17, 14L);
+    }
+
+    @Test
+    public void testEmptyInputTouchesNothing() {
+        // When
+        List<RiskPrediction> saved = bulkPersistenceService.saveRiskPredictions(new ArrayList<>());
+
+        // Then
+        assertTrue(saved.isEmpty());
+        verifyNoInteractions(jdbcTemplate, transactionManager);
+    }
+}
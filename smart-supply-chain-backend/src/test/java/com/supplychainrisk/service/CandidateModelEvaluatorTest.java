@@ -0,0 +1,147 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.dto.RiskPredictionDTO;
+import com.supplychainrisk.entity.MLModelMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CandidateModelEvaluatorTest {
+
+    private CandidateModelEvaluator evaluator;
+    private SimpleMeterRegistry meterRegistry;
+    private ThreadPoolExecutor shadowExecutor;
+    private final List<MLModelMetrics> saved = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        evaluator = new CandidateModelEvaluator();
+        meterRegistry = new SimpleMeterRegistry();
+        shadowExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        ReflectionTestUtils.setField(evaluator, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(evaluator, "shadowExecutor", shadowExecutor);
+        ReflectionTestUtils.setField(evaluator, "bulkPersistenceService", new BulkPersistenceService() {
+            @Override
+            public List<MLModelMetrics> saveModelMetrics(List<MLModelMetrics> metrics) {
+                saved.addAll(metrics);
+                return metrics;
+            }
+        });
+        ReflectionTestUtils.setField(evaluator, "currentVersion", "v1.0.0");
+        ReflectionTestUtils.setField(evaluator, "candidateVersion", "v1.1.0");
+        ReflectionTestUtils.setField(evaluator, "shadowFraction", 1.0);
+        ReflectionTestUtils.setField(evaluator, "canaryPercent", 10);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        shadowExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testCanaryBucketsAreStickyAndProportional() {
+        // When
+        int canaries = 0;
+        long canarySupplier = 0;
+        for (long supplierId = 1; supplierId <= 10_000; supplierId++) {
+            if (evaluator.servesCanary(supplierId)) {
+                canaries++;
+                canarySupplier = supplierId;
+                assertEquals("v1.1.0", evaluator.versionFor(supplierId));
+            }
+            assertEquals(evaluator.servesCanary(supplierId), evaluator.servesCanary(supplierId));
+        }
+
+        // Then - about 10% of suppliers, and none once the candidate is removed
+        assertTrue(canaries > 800 && canaries < 1200, "canaries: " + canaries);
+        ReflectionTestUtils.setField(evaluator, "candidateVersion", "");
+        assertFalse(evaluator.servesCanary(canarySupplier));
+        assertEquals("v1.0.0", evaluator.versionFor(canarySupplier));
+    }
+
+    @Test
+    public void testShadowWorkIsShedWhenTheQueueIsFull() throws Exception {
+        // Given - the only worker is blocked and the one queue slot gets taken
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(2);
+        RiskPredictionDTO primary = prediction(40);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            evaluator.shadow(primary, TimeUnit.MILLISECONDS.toNanos(20), () -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                finished.countDown();
+                return prediction(45);
+            });
+        }
+        release.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+
+        // Then - the caller never waited; three submissions were dropped
+        assertEquals(2.0, meterRegistry.get("ml.shadow.requests").tag("outcome", "submitted").counter().count());
+        assertEquals(3.0, meterRegistry.get("ml.shadow.requests").tag("outcome", "shed").counter().count());
+        Map<?, ?> window = (Map<?, ?>) evaluator.getStatus().get("window");
+        assertEquals(3L, window.get("shadowShed"));
+    }
+
+    @Test
+    public void testFlushWritesPairedComparisonAsModelMetrics() throws Exception {
+        // Given - one pair that agrees on the risk band and one that does not
+        shadowExecutor.setMaximumPoolSize(3);
+        shadowExecutor.setCorePoolSize(3);
+        evaluator.shadow(prediction(40), TimeUnit.MILLISECONDS.toNanos(20), () -> prediction(50));
+        evaluator.shadow(prediction(68), TimeUnit.MILLISECONDS.toNanos(20), () -> prediction(78));
+        evaluator.shadow(prediction(68), TimeUnit.MILLISECONDS.toNanos(20), () -> {
+            throw new MLPredictionService.MLServiceException("candidate unavailable");
+        });
+        evaluator.recordCanary(TimeUnit.MILLISECONDS.toNanos(30), true);
+        evaluator.recordCanary(TimeUnit.MILLISECONDS.toNanos(30), false);
+        shadowExecutor.shutdown();
+        assertTrue(shadowExecutor.awaitTermination(5, TimeUnit.SECONDS));
+
+        // When
+        evaluator.flush();
+
+        // Then - shadow candidate, shadow baseline and canary rows in one write
+        assertEquals(3, saved.size());
+        MLModelMetrics shadow = saved.get(0);
+        assertEquals("v1.1.0", shadow.getModelVersion());
+        assertEquals(0, new BigDecimal("0.5").compareTo(shadow.getAccuracy()));
+        assertEquals(0, new BigDecimal("10").compareTo(shadow.getModelDriftScore()));
+        assertEquals("v1.0.0", saved.get(1).getModelVersion());
+        assertEquals(20L, saved.get(1).getAverageLatencyMs());
+        MLModelMetrics canary = saved.get(2);
+        assertEquals("v1.1.0", canary.getModelVersion());
+        assertEquals(30L, canary.getAverageLatencyMs());
+        assertEquals(0, new BigDecimal("0.5").compareTo(canary.getAccuracy()));
+        assertEquals(1.0, meterRegistry.get("ml.shadow.requests").tag("outcome", "error").counter().count());
+
+        // And the next window starts empty
+        saved.clear();
+        evaluator.flush();
+        assertTrue(saved.isEmpty());
+    }
+
+    private static RiskPredictionDTO prediction(int predictedOverall) {
+        RiskPredictionDTO prediction = new RiskPredictionDTO();
+        prediction.setRiskScores(Map.of("predicted_overall", BigDecimal.valueOf(predictedOverall)));
+        return prediction;
+    }
+}
@@ -0,0 +1,104 @@
+package com.supplychainrisk.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    public void testOpensOnceFailureRateReachesThresholdOverMinimumCalls() {
+        // Given
+        CircuitBreaker breaker = breaker();
+
+        // When - three failures are below the minimum number of calls
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure(breaker.tryAcquire());
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        boolean opened = breaker.onFailure(breaker.tryAcquire());
+
+        // Then
+        assertTrue(opened);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+    }
+
+    @Test
+    public void testOldOutcomesLeaveTheWindow() {
+        // Given - a window of 4 filled with failures interleaved with successes
+        CircuitBreaker breaker = new CircuitBreaker(4, 4, 0.75, Duration.ofSeconds(10), 1, now::get);
+        breaker.onFailure(breaker.tryAcquire());
+        breaker.onFailure(breaker.tryAcquire());
+        breaker.onSuccess(breaker.tryAcquire());
+        breaker.onSuccess(breaker.tryAcquire());
+
+        // When - two more successes push both failures out
+        breaker.onSuccess(breaker.tryAcquire());
+        breaker.onSuccess(breaker.tryAcquire());
+
+        // Then
+        assertEquals(0.0, breaker.getFailureRate());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void testHalfOpenClosesAfterSuccessfulTrialsAndReopensOnFailure() {
+        // Given
+        CircuitBreaker breaker = breaker();
+        tripOpen(breaker);
+
+        // When - the open duration passes
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        long first = breaker.tryAcquire();
+        long second = breaker.tryAcquire();
+
+        // Then - only two trial calls are let through
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+        breaker.onSuccess(first);
+        breaker.onSuccess(second);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0.0, breaker.getFailureRate());
+
+        // And a failed trial opens it again
+        tripOpen(breaker);
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertTrue(breaker.onFailure(breaker.tryAcquire()));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void testPermitsFromAnEarlierStateAreIgnored() {
+        // Given - a call that started while the breaker was closed
+        CircuitBreaker breaker = breaker();
+        long stale = breaker.tryAcquire();
+        tripOpen(breaker);
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        long trial = breaker.tryAcquire();
+
+        // When - the old call finishes during the half-open trial
+        breaker.onFailure(stale);
+
+        // Then
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onSuccess(trial);
+        breaker.onSuccess(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    private CircuitBreaker breaker() {
+        return new CircuitBreaker(10, 4, 0.5, Duration.ofSeconds(10), 2, now::get);
+    }
+
+    private static void tripOpen(CircuitBreaker breaker) {
+        while (breaker.getState() != CircuitBreaker.State.OPEN) {
+            breaker.onFailure(breaker.tryAcquire());
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.entity.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompiledRiskScorerTest {
+
+    private static final String[] CREDIT_RATINGS = {
+        "AAA", "aa+", "AA", "AA-", "A+", "a", "A-", "BBB+", "bbb", "BBB-", "BB+", "BB", "bb-",
+        "B+", "B", "B-", "CCC", "D", "", "NR", "AAAA", "Aa"
+    };
+
+    private static final String[] COUNTRIES = {
+        "Germany", "germany", " USA ", "United States", "UNITED KINGDOM", "uk", "Japan", "Iran",
+        "  Syria", "North Korea", "china", "China", "Russia", "Brazil", "India", "Mexico",
+        "Norway\t", "DENMARK", "Türkiye", "Österreich", "", "   "
+    };
+
+    private static final Set<RiskAssessmentService.RiskComponent> ALL_COMPONENTS =
+        EnumSet.allOf(RiskAssessmentService.RiskComponent.class);
+
+    private ReferenceRiskScorer referenceScorer;
+    private CompiledRiskScorer compiledScorer;
+    private Random random;
+
+    @BeforeEach
+    public void setUp() {
+        referenceScorer = new ReferenceRiskScorer();
+        compiledScorer = CompiledRiskScorer.builder().build();
+        random = new Random(42);
+    }
+
+    @Test
+    public void testCompiledScoresMatchReferencePath() {
+        // Given
+        long today = CompiledRiskScorer.today();
+
+        for (int i = 0; i < 20_000; i++) {
+            Supplier reference = randomSupplier();
+            Supplier compiled = copyRiskInputs(reference);
+
+            // When
+            referenceScorer.calculateRiskScores(reference, ALL_COMPONENTS);
+            compiledScorer.score(compiled, today);
+
+            // Then
+            assertEquals(reference.getFinancialRiskScore(), compiled.getFinancialRiskScore());
+            assertEquals(reference.getOperationalRiskScore(), compiled.getOperationalRiskScore());
+            assertEquals(reference.getComplianceRiskScore(), compiled.getComplianceRiskScore());
+            assertEquals(reference.getGeographicRiskScore(), compiled.getGeographicRiskScore());
+            assertEquals(reference.getOverallRiskScore(), compiled.getOverallRiskScore());
+        }
+    }
+
+    @Test
+    public void testBandBoundariesMatchReferencePath() {
+        // Given - values sitting exactly on and just below each cutoff
+        BigDecimal[] revenues = {
+            new BigDecimal("1000000000.00"), new BigDecimal("999999999.99"), new BigDecimal("100000000"),
+            new BigDecimal("10000000.00"), new BigDecimal("1000000.00"), new BigDecimal("999999.99"), BigDecimal.ZERO
+        };
+        BigDecimal[] deliveryRates = {
+            new BigDecimal("95.00"), new BigDecimal("94.99"), new BigDecimal("90"), new BigDecimal("80.0"),
+            new BigDecimal("70.00"), new BigDecimal("69.99")
+        };
+        long today = CompiledRiskScorer.today();
+        LocalDate now = LocalDate.ofEpochDay(today);
+
+        for (BigDecimal revenue : revenues) {
+            for (BigDecimal deliveryRate : deliveryRates) {
+                for (int auditOffset : new int[] {-731, -730, -366, -365, -1, 0, 1, 30, 31}) {
+                    Supplier reference = randomSupplier();
+                    reference.setAnnualRevenue(revenue);
+                    reference.setOnTimeDeliveryRate(deliveryRate);
+                    reference.setLastAuditDate(now.plusDays(auditOffset));
+                    reference.setNextAuditDueDate(now.plusDays(auditOffset));
+                    Supplier compiled = copyRiskInputs(reference);
+
+                    // When
+                    referenceScorer.calculateRiskScores(reference, ALL_COMPONENTS);
+                    compiledScorer.score(compiled, today);
+
+                    // Then
+                    assertEquals(reference.getFinancialRiskScore(), compiled.getFinancialRiskScore());
+                    assertEquals(reference.getOperationalRiskScore(), compiled.getOperationalRiskScore());
+                    assertEquals(reference.getComplianceRiskScore(), compiled.getComplianceRiskScore());
+                    assertEquals(reference.getOverallRiskScore(), compiled.getOverallRiskScore());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPartialScoringMatchesReferencePath() {
+        // Given
+        Supplier reference = randomSupplier();
+        referenceScorer.calculateRiskScores(reference, ALL_COMPONENTS);
+        reference.setCreditRating("B-");
+        Supplier compiled = copyRiskInputs(reference);
+        compiled.setFinancialRiskScore(reference.getFinancialRiskScore());
+        compiled.setOperationalRiskScore(reference.getOperationalRiskScore());
+        compiled.setComplianceRiskScore(reference.getComplianceRiskScore());
+        compiled.setGeographicRiskScore(reference.getGeographicRiskScore());
+        Set<RiskAssessmentService.RiskComponent> financialOnly = EnumSet.of(RiskAssessmentService.RiskComponent.FINANCIAL);
+
+        // When
+        referenceScorer.calculateRiskScores(reference, financialOnly);
+        compiledScorer.score(compiled, financialOnly, CompiledRiskScorer.today());
+
+        // Then
+        assertEquals(reference.getFinancialRiskScore(), compiled.getFinancialRiskScore());
+        assertEquals(reference.getOverallRiskScore(), compiled.getOverallRiskScore());
+    }
+
+    @Test
+    public void testRejectsCreditRatingKeysThatCannotBePacked() {
+        // Given
+        CompiledRiskScorer.Builder builder = CompiledRiskScorer.builder()
+            .creditRatings(Map.of("INVESTMENT", 10), 80, 50);
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, builder::build);
+    }
+
+    private Supplier randomSupplier() {
+        Supplier supplier = new Supplier();
+        supplier.setCreditRating(pickOrNull(CREDIT_RATINGS));
+        supplier.setAnnualRevenue(random.nextInt(8) == 0 ? null
+            : BigDecimal.valueOf(Math.abs(random.nextLong()) % 5_000_000_000_00L, 2));
+        supplier.setYearsInBusiness(random.nextInt(8) == 0 ? null : random.nextInt(40));
+        supplier.setOnTimeDeliveryRate(random.nextInt(8) == 0 ? null : BigDecimal.valueOf(random.nextInt(10001), 2));
+        supplier.setQualityRating(random.nextInt(8) == 0 ? null : BigDecimal.valueOf(random.nextInt(1001), 2));
+        supplier.setEmployeeCount(random.nextInt(8) == 0 ? null : random.nextInt(5000));
+        supplier.setIsoCertifications(randomCertifications(7));
+        supplier.setComplianceCertifications(randomCertifications(5));
+        supplier.setLastAuditDate(random.nextInt(6) == 0 ? null : LocalDate.now().minusDays(random.nextInt(1200)));
+        supplier.setNextAuditDueDate(random.nextInt(6) == 0 ? null : LocalDate.now().plusDays(random.nextInt(200) - 60));
+        supplier.setCountry(pickOrNull(COUNTRIES));
+        return supplier;
+    }
+
+    private List<String> randomCertifications(int max) {
+        if (random.nextInt(6) == 0) {
+            return null;
+        }
+        List<String> certifications = new ArrayList<>();
+        int count = random.nextInt(max + 1);
+        for (int i = 0; i < count; i++) {
+            certifications.add("CERT-" + i);
+        }
+        return certifications;
+    }
+
+    private String pickOrNull(String[] values) {
+        return random.nextInt(10) == 0 ? null : values[random.nextInt(values.length)];
+    }
+
+    private Supplier copyRiskInputs(Supplier source) {
+        Supplier copy = new Supplier();
+        copy.setCreditRating(source.getCreditRating());
+        copy.setAnnualRevenue(source.getAnnualRevenue());
+        copy.setYearsInBusiness(source.getYearsInBusiness());
+        copy.setOnTimeDeliveryRate(source.getOnTimeDeliveryRate());
+        copy.setQualityRating(source.getQualityRating());
+        copy.setEmployeeCount(source.getEmployeeCount());
+        copy.setIsoCertifications(source.getIsoCertifications());
+        copy.setComplianceCertifications(source.getComplianceCertifications());
+        copy.setLastAuditDate(source.getLastAuditDate());
+        copy.setNextAuditDueDate(source.getNextAuditDueDate());
+        copy.setCountry(source.getCountry());
+        return copy;
+    }
+}
@@ -0,0 +1,167 @@
+package com.supplychainrisk.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CorrelationMatrixTest {
+
+    @Test
+    public void testPearsonMatchesPairwiseCompleteScan() {
+        // Given - more metrics than one block and more rows than the parallel threshold, some sparse
+        Random random = new Random(16);
+        int metrics = 11;
+        int rows = 10_000;
+        double[][] columns = randomColumns(random, metrics, rows);
+
+        // When
+        CorrelationMatrix matrix = CorrelationMatrix.of(columns, rows);
+
+        // Then
+        for (int i = 0; i < metrics; i++) {
+            for (int j = 0; j < metrics; j++) {
+                assertEquals(naivePearson(columns[i], columns[j], rows), matrix.pearson(i, j), 1e-9);
+                assertEquals(naiveCount(columns[i], columns[j], rows), matrix.pairCount(i, j));
+            }
+        }
+        assertEquals(1.0, matrix.pearson(3, 3), 1e-12);
+    }
+
+    @Test
+    public void testMergedDaySumsMatchRebuild() {
+        // Given - per-day sums over row ranges, one day later replaced by revised rows
+        Random random = new Random(12);
+        int metrics = 9;
+        double[][] all = randomColumns(random, metrics, 6000);
+        double[][] revised = randomColumns(random, metrics, 6000);
+        int[] dayEnds = {1000, 2500, 4000, 6000};
+        CorrelationMatrix shifted = CorrelationMatrix.empty(all, 6000);
+        CorrelationMatrix[] days = new CorrelationMatrix[dayEnds.length];
+        int from = 0;
+        for (int d = 0; d < dayEnds.length; d++) {
+            days[d] = shifted.emptyCopy();
+            days[d].add(all, from, dayEnds[d]);
+            from = dayEnds[d];
+        }
+
+        // When - the oldest day leaves and the second day's rows are read again
+        days[1] = shifted.emptyCopy();
+        days[1].add(revised, 1000, 2500);
+        CorrelationMatrix merged = shifted.emptyCopy();
+        for (int d = 1; d < days.length; d++) {
+            merged.add(days[d]);
+        }
+
+        // Then
+        for (int m = 0; m < metrics; m++) {
+            System.arraycopy(revised[m], 1000, all[m], 1000, 1500);
+        }
+        CorrelationMatrix rebuilt = CorrelationMatrix.of(slice(all, 1000, 6000), 5000);
+        for (int i = 0; i < metrics; i++) {
+            for (int j = 0; j < metrics; j++) {
+                assertEquals(rebuilt.pairCount(i, j), merged.pairCount(i, j));
+                assertEquals(rebuilt.pearson(i, j), merged.pearson(i, j), 1e-9);
+            }
+        }
+        assertThrows(IllegalArgumentException.class,
+            () -> merged.add(CorrelationMatrix.of(slice(all, 0, 100), 100)));
+    }
+
+    @Test
+    public void testRanksAverageTiesAndSkipMissingValues() {
+        // Given
+        double[][] columns = {{30, Double.NaN, 10, 20, 20, 50}};
+
+        // When
+        CorrelationMatrix.rankInPlace(columns, 6);
+
+        // Then
+        assertArrayEquals(new double[] {4, Double.NaN, 1, 2.5, 2.5, 5}, columns[0], 1e-12);
+    }
+
+    @Test
+    public void testSpearmanIsOneForMonotonicRelation() {
+        // Given - y = x^3 is monotonic but far from linear
+        int rows = 200;
+        double[][] columns = new double[2][rows];
+        for (int row = 0; row < rows; row++) {
+            columns[0][row] = row - 100;
+            columns[1][row] = Math.pow(row - 100, 3);
+        }
+
+        // When
+        double pearson = CorrelationMatrix.of(columns, rows).pearson(0, 1);
+        CorrelationMatrix.rankInPlace(columns, rows);
+        double spearman = CorrelationMatrix.of(columns, rows).pearson(0, 1);
+
+        // Then
+        assertTrue(pearson < 0.95);
+        assertEquals(1.0, spearman, 1e-12);
+    }
+
+    @Test
+    public void testConstantColumnHasNoCorrelation() {
+        double[][] columns = {{1, 2, 3, 4}, {5, 5, 5, 5}};
+        assertTrue(Double.isNaN(CorrelationMatrix.of(columns, 4).pearson(0, 1)));
+    }
+
+    private static double[][] randomColumns(Random random, int metrics, int rows) {
+        double[][] columns = new double[metrics][rows];
+        for (int row = 0; row < rows; row++) {
+            double base = random.nextGaussian();
+            for (int m = 0; m < metrics; m++) {
+                // Odd metrics are sparse; all are offset far from zero to exercise the shift
+                if (m % 2 == 1 && random.nextInt(5) == 0) {
+                    columns[m][row] = Double.NaN;
+                } else {
+                    columns[m][row] = 1_000 * m + base * (m + 1) + random.nextGaussian() * m;
+                }
+            }
+        }
+        return columns;
+    }
+
+    private static double[][] slice(double[][] columns, int from, int to) {
+        double[][] slice = new double[columns.length][];
+        for (int m = 0; m < columns.length; m++) {
+            slice[m] = Arrays.copyOfRange(columns[m], from, to);
+        }
+        return slice;
+    }
+
+    private static long naiveCount(double[] x, double[] y, int rows) {
+        long n = 0;
+        for (int row = 0; row < rows; row++) {
+            if (!Double.isNaN(x[row]) && !Double.isNaN(y[row])) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    private static double naivePearson(double[] x, double[] y, int rows) {
+        double meanX = 0, meanY = 0;
+        long n = 0;
+        for (int row = 0; row < rows; row++) {
+            if (!Double.isNaN(x[row]) && !Double.isNaN(y[row])) {
+                meanX += x[row];
+                meanY += y[row];
+                n++;
+            }
+        }
+        meanX /= n;
+        meanY /= n;
+        double covariance = 0, varianceX = 0, varianceY = 0;
+        for (int row = 0; row < rows; row++) {
+            if (!Double.isNaN(x[row]) && !Double.isNaN(y[row])) {
+                covariance += (x[row] - meanX) * (y[row] - meanY);
+                varianceX += (x[row] - meanX) * (x[row] - meanX);
+                varianceY += (y[row] - meanY) * (y[row] - meanY);
+            }
+        }
+        return covariance / Math.sqrt(varianceX * varianceY);
+    }
+}
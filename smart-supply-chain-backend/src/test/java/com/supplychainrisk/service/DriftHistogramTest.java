@@ -0,0 +1,120 @@
+package com.supplychainrisk.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DriftHistogramTest {
+
+    @Test
+    public void testBinningClampsOutOfRangeValuesAndCountsMissingOnes() {
+        DriftHistogram histogram = new DriftHistogram(0, 100, 10);
+
+        assertEquals(0, histogram.bin(-5));
+        assertEquals(0, histogram.bin(9.99));
+        assertEquals(1, histogram.bin(10));
+        assertEquals(9, histogram.bin(100));
+        assertEquals(9, histogram.bin(250));
+        assertEquals(10, histogram.bin(Double.NaN));
+
+        histogram.record(55);
+        histogram.record(Double.NaN);
+        long[] window = histogram.drain();
+        assertEquals(1, window[5]);
+        assertEquals(1, window[10]);
+        assertEquals(0, DriftHistogram.total(histogram.drain(), 11));
+    }
+
+    @Test
+    public void testIdenticalDistributionsDoNotDrift() {
+        long[] reference = {10, 20, 30, 40, 0};
+        long[] window = {5, 10, 15, 20, 0};
+
+        assertEquals(0.0, DriftHistogram.psi(reference, window), 1e-12);
+        assertEquals(0.0, DriftHistogram.ks(reference, window), 1e-12);
+    }
+
+    @Test
+    public void testPsiAndKsMatchHandComputedValues() {
+        // Given - proportions 0.5/0.5 against 0.25/0.75
+        long[] reference = {50, 50, 0};
+        long[] window = {25, 75, 0};
+
+        // When / Then
+        double expectedPsi = (0.25 - 0.5) * Math.log(0.25 / 0.5) + (0.75 - 0.5) * Math.log(0.75 / 0.5);
+        assertEquals(expectedPsi, DriftHistogram.psi(reference, window), 1e-12);
+        assertEquals(0.25, DriftHistogram.ks(reference, window), 1e-12);
+    }
+
+    @Test
+    public void testMissingValuesCountForPsiButNotKs() {
+        long[] reference = {50, 50, 0};
+        long[] window = {25, 25, 50};
+
+        assertTrue(DriftHistogram.psi(reference, window) > 0.2);
+        assertEquals(0.0, DriftHistogram.ks(reference, window), 1e-12);
+    }
+
+    @Test
+    public void testShiftedDistributionIsDetected() {
+        // Given - normal scores around 40, then around 55
+        DriftHistogram histogram = new DriftHistogram(0, 100, 20);
+        Random random = new Random(3);
+        for (int i = 0; i < 5000; i++) {
+            histogram.record(40 + random.nextGaussian() * 10);
+        }
+        long[] reference = histogram.drain();
+        for (int i = 0; i < 1000; i++) {
+            histogram.record(40 + random.nextGaussian() * 10);
+        }
+        long[] stable = histogram.drain();
+        for (int i = 0; i < 1000; i++) {
+            histogram.record(55 + random.nextGaussian() * 10);
+        }
+        long[] shifted = histogram.drain();
+
+        // When / Then
+        assertTrue(DriftHistogram.psi(reference, stable) < 0.1);
+        assertTrue(DriftHistogram.ks(reference, stable) < 0.1);
+        assertTrue(DriftHistogram.psi(reference, shifted) > 0.2);
+        assertTrue(DriftHistogram.ks(reference, shifted) > 0.4);
+    }
+
+    @Test
+    public void testConcurrentRecordingLosesNoCounts() throws Exception {
+        // Given
+        DriftHistogram histogram = new DriftHistogram(0, 100, 20);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> writers = new ArrayList<>();
+
+        // When - drained while being written
+        for (int t = 0; t < 4; t++) {
+            writers.add(executor.submit(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    histogram.record(i % 100);
+                }
+            }));
+        }
+        long drained = 0;
+        while (!writers.stream().allMatch(Future::isDone)) {
+            drained += DriftHistogram.total(histogram.drain(), 21);
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        drained += DriftHistogram.total(histogram.drain(), 21);
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(200_000L, drained);
+    }
+}
@@ -2,6 +2,7 @@ package com.supplychainrisk.service;
 
 import com.supplychainrisk.dto.*;
 import com.supplychainrisk.entity.Supplier;
+import com.supplychainrisk.exception.BusinessException;
 import com.supplychainrisk.repository.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,6 +10,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
 
 import java.math.BigDecimal;
 import java.util.*;
@@ -41,6 +43,9 @@ public class EnhancedSupplierServiceTest {
     @Mock
     private SupplierIntelligenceService supplierIntelligenceService;
 
+    @Mock
+    private SupplierFeatureSnapshot supplierFeatureSnapshot;
+
     @InjectMocks
     private EnhancedSupplierService enhancedSupplierService;
 
@@ -90,8 +95,15 @@ public class EnhancedSupplierServiceTest {
     @Test
     public void testGetSupplierRiskDistribution() {
         // Given
-        List<Supplier> suppliers = Arrays.asList(testSupplier);
-        when(supplierRepository.findAll()).thenReturn(suppliers);
+        when(supplierFeatureSnapshot.isLoaded()).thenReturn(true);
+        when(supplierFeatureSnapshot.countByRiskLevel()).thenReturn(Map.of("MEDIUM", 1L));
+        when(supplierFeatureSnapshot.size()).thenReturn(1);
+        when(supplierFeatureSnapshot.averageRiskScore()).thenReturn(OptionalDouble.of(45.0));
+        long[] bins = new long[RiskScoreHistogram.MAX_SCORE + 1];
+        bins[45] = 1;
+        when(supplierFeatureSnapshot.riskScoreHistogram(RiskScoreHistogram.Dimension.OVERALL))
+            .thenReturn(new RiskScoreHistogram(bins, 0));
+        when(riskAssessmentService.getRiskLevelDescription(45)).thenReturn("Medium Risk");
 
         // When
         Map<String, Object> result = enhancedSupplierService.getSupplierRiskDistribution();
@@ -102,8 +114,51 @@ public class EnhancedSupplierServiceTest {
         assertTrue(result.containsKey("totalSuppliers"));
         assertTrue(result.containsKey("averageRiskScore"));
         assertEquals(1, result.get("totalSuppliers"));
+        assertEquals(45.0, result.get("averageRiskScore"));
+        assertEquals(Map.of("Medium Risk", 1L), result.get("riskScoreDistribution"));
         
-        verify(supplierRepository).findAll();
+        verify(supplierRepository, never()).findAll();
+    }
+
+    @Test
+    public void testGetSupplierRiskDistributionReadsTableUntilSnapshotLoads() {
+        // Given - the snapshot has not finished its first load
+        when(supplierFeatureSnapshot.isLoaded()).thenReturn(false);
+        when(supplierRepository.findAll()).thenReturn(List.of(testSupplier));
+        when(riskAssessmentService.getRiskLevelDescription(45)).thenReturn("Medium Risk");
+
+        // When
+        Map<String, Object> result = enhancedSupplierService.getSupplierRiskDistribution();
+
+        // Then - the figures come from the table, not the empty snapshot
+        assertEquals(1, result.get("totalSuppliers"));
+        assertEquals(45.0, result.get("averageRiskScore"));
+        assertEquals(Map.of("UNKNOWN", 1L), result.get("riskLevelDistribution"));
+        assertEquals(Map.of("Medium Risk", 1L), result.get("riskScoreDistribution"));
+        verify(supplierFeatureSnapshot, never()).size();
+    }
+
+    @Test
+    public void testGetRiskScoreHistogramIsUnavailableUntilSnapshotLoads() {
+        // Given
+        when(supplierFeatureSnapshot.isLoaded()).thenReturn(false);
+
+        // When
+        BusinessException error = assertThrows(BusinessException.class, () ->
+            enhancedSupplierService.getRiskScoreHistogram(RiskScoreHistogram.Dimension.OVERALL, null, null, null, 70));
+
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, error.getStatus());
+        verify(supplierFeatureSnapshot, never()).riskScoreHistogram(any(RiskScoreHistogram.Dimension.class));
+    }
+
+    @Test
+    public void testGetRiskScoreHistogramRejectsMultipleFilters() {
+        // When / Then
+        assertThrows(BusinessException.class, () ->
+            enhancedSupplierService.getRiskScoreHistogram(RiskScoreHistogram.Dimension.OVERALL,
+                Supplier.SupplierStatus.ACTIVE, Supplier.SupplierTier.PRIMARY, null, 70));
+        verifyNoInteractions(supplierFeatureSnapshot);
     }
 
     @Test
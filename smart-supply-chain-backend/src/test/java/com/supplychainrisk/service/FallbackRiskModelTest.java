@@ -0,0 +1,150 @@
+package com.supplychainrisk.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FallbackRiskModelTest {
+
+    @Test
+    public void testLinearTermsTreesAndLinks() {
+        // Given - z = 1 + 2a, plus a tree on b; the second target is logistic
+        FallbackRiskModel.Writer writer = FallbackRiskModel.writer(List.of("a", "b")).imputation("a", 10);
+        writer.target("score", FallbackRiskModel.Link.IDENTITY, 1, 1, 2, 0)
+            .tree()
+                .split(1, 5, 1, 2, true)
+                .leaf(100)
+                .leaf(-100);
+        writer.target("probability", FallbackRiskModel.Link.LOGISTIC, 1, 0, 0, 0);
+        FallbackRiskModel model = writer.build();
+        double[] out = new double[2];
+
+        // When / Then
+        model.score(new double[] {3, 4}, out);
+        assertEquals(107.0, out[0], 1e-12);
+        assertEquals(0.5, out[1], 1e-12);
+
+        model.score(new double[] {3, 5}, out);
+        assertEquals(-93.0, out[0], 1e-12);
+
+        // Missing a is imputed, missing b goes left
+        model.score(new double[] {Double.NaN, Double.NaN}, out);
+        assertEquals(121.0, out[0], 1e-12);
+    }
+
+    @Test
+    public void testWrittenModelScoresLikeTheOriginal() throws IOException {
+        // Given
+        FallbackRiskModel original = FallbackModelService.builtInModel();
+        Path file = Files.createTempDirectory("fallback-model").resolve("model.bin");
+        FallbackRiskModel.Writer writer = FallbackRiskModel.writer(FallbackModelService.FEATURES).version(42);
+        writer.target("predicted_overall", FallbackRiskModel.Link.IDENTITY, 1, 13.3,
+                new double[FallbackModelService.FEATURES.size()])
+            .weight("overall_risk_score", 0.9)
+            .tree()
+                .split(FallbackModelService.FEATURES.indexOf("on_time_delivery_rate"), 85, 1, 2, false)
+                .leaf(3.0)
+                .leaf(-1.0);
+        writer.write(file);
+
+        // When
+        FallbackRiskModel loaded = FallbackRiskModel.open(file);
+        FallbackRiskModel roundTrip = FallbackRiskModel.decode(
+            FallbackModelService.builtInWriter().toBytes(), "built-in");
+
+        // Then
+        assertEquals(42L, loaded.getVersion());
+        assertEquals(List.of("predicted_overall"), loaded.getTargetNames());
+        double[] row = {80, 50, 50, 50, 50, 70, 6, 5, 5, 15, 1, 1, 30};
+        double[] out = new double[1];
+        loaded.score(row, out);
+        assertEquals(13.3 + 0.9 * 80 + 3.0, out[0], 1e-9);
+
+        double[] expected = new double[original.getTargetNames().size()];
+        double[] actual = new double[expected.length];
+        original.score(row, expected);
+        roundTrip.score(row, actual);
+        assertArrayEquals(expected, actual, 0.0);
+    }
+
+    @Test
+    public void testScoreAllMatchesSingleRows() {
+        // Given
+        FallbackRiskModel model = FallbackModelService.builtInModel();
+        int width = model.getFeatureNames().size();
+        int targets = model.getTargetNames().size();
+        double[][] rows = {
+            {20, 10, 30, 5, 10, 98, 9, 30, 8, 18, 3, 2, 30},
+            {85, 70, 90, 60, 40, 60, 4, 2, 3, 12, 0, 0, 90},
+            {50, Double.NaN, 50, 50, 50, Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN, 0, 0, 7}
+        };
+        double[] flat = new double[rows.length * width];
+        for (int i = 0; i < rows.length; i++) {
+            System.arraycopy(rows[i], 0, flat, i * width, width);
+        }
+
+        // When
+        double[] batch = new double[rows.length * targets];
+        model.scoreAll(flat, rows.length, batch);
+
+        // Then
+        double[] single = new double[targets];
+        for (int i = 0; i < rows.length; i++) {
+            model.score(rows[i], single);
+            for (int t = 0; t < targets; t++) {
+                assertEquals(single[t], batch[i * targets + t], 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testBuiltInModelRanksRiskierSuppliersHigher() {
+        // Given
+        FallbackRiskModel model = FallbackModelService.builtInModel();
+        int overall = model.getTargetNames().indexOf("predicted_overall");
+        int probability = model.getTargetNames().indexOf("elevated_risk_probability");
+        double[] safe = new double[model.getTargetNames().size()];
+        double[] risky = new double[safe.length];
+
+        // When
+        model.score(new double[] {20, 20, 20, 20, 20, 98, 9, 30, 8, 18, 3, 2, 30}, safe);
+        model.score(new double[] {80, 70, 85, 60, 50, 65, 4, 2, 3, 12, 0, 0, 30}, risky);
+
+        // Then
+        assertTrue(risky[overall] > safe[overall]);
+        assertTrue(risky[probability] > safe[probability]);
+        assertTrue(safe[probability] > 0 && risky[probability] < 1);
+        assertTrue(Math.abs(risky[overall] - 80) < 15);
+    }
+
+    @Test
+    public void testCorruptFilesAreRejected() throws IOException {
+        byte[] bytes = FallbackModelService.builtInWriter().toBytes();
+
+        byte[] flipped = bytes.clone();
+        flipped[flipped.length - 3] ^= 0x10;
+        IOException checksum = assertThrows(IOException.class, () -> FallbackRiskModel.decode(flipped, "flipped"));
+        assertTrue(checksum.getMessage().contains("checksum"));
+
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 1);
+        assertThrows(IOException.class, () -> FallbackRiskModel.decode(truncated, "truncated"));
+        assertThrows(IOException.class, () -> FallbackRiskModel.decode(new byte[] {1, 2, 3}, "garbage"));
+    }
+
+    @Test
+    public void testTreesMustPointForward() {
+        FallbackRiskModel.Writer writer = FallbackRiskModel.writer(List.of("a"));
+        writer.target("score", FallbackRiskModel.Link.IDENTITY, 1, 0, 0)
+            .tree()
+                .split(0, 1, 0, 1, false)
+                .leaf(1);
+
+        assertThrows(IllegalArgumentException.class, writer::build);
+    }
+}
@@ -0,0 +1,113 @@
+package com.supplychainrisk.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FeatureFrameTest {
+
+    @Test
+    public void testColumnsMatchMapScan() {
+        // Given - mixed numeric types, nulls, absent keys and non-numeric values across several bitmap words
+        Random random = new Random(5);
+        List<Map<String, Object>> data = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Map<String, Object> record = new HashMap<>();
+            int kind = random.nextInt(6);
+            if (kind == 0) record.put("risk_score", null);
+            else if (kind == 1) record.put("risk_score", "n/a");
+            else if (kind == 2) record.put("risk_score", BigDecimal.valueOf(random.nextInt(10001), 2));
+            else if (kind < 5) record.put("risk_score", random.nextInt(101));
+            record.put("country", random.nextBoolean() ? "Germany" : null);
+            data.add(record);
+        }
+
+        // When
+        FeatureFrame frame = FeatureFrame.of(data, "risk_score", "performance_score");
+        FeatureFrame.Column risk = frame.column("risk_score");
+
+        // Then
+        List<Double> expected = data.stream().map(d -> d.get("risk_score"))
+            .filter(v -> v instanceof Number).map(v -> ((Number) v).doubleValue()).collect(Collectors.toList());
+        assertEquals(300, frame.getRows());
+        assertEquals(data.stream().flatMap(d -> d.values().stream()).filter(Objects::nonNull).count(),
+            frame.getNonNullValues());
+        StreamingStatistics statistics = risk.statistics();
+        assertEquals(expected.size(), risk.count());
+        assertEquals(300, statistics.getObservations());
+        assertEquals(300 - expected.size(), statistics.getNullCount());
+        assertEquals(expected.stream().collect(Collectors.averagingDouble(Double::doubleValue)).doubleValue(),
+            statistics.getMean(), 1e-9);
+        assertEquals(expected.stream().max(Double::compareTo).get().doubleValue(), statistics.getMax().getAsDouble());
+        assertEquals(expected.stream().min(Double::compareTo).get().doubleValue(), statistics.getMin().getAsDouble());
+        double mean = statistics.getMean();
+        assertEquals(expected.stream().map(v -> Math.pow(v - mean, 2)).reduce(0.0, Double::sum),
+            statistics.getSumOfSquaredDeviations(), 1e-6);
+
+        double stepSum = 0;
+        int steps = 0;
+        for (int i = 1; i < data.size(); i++) {
+            Object current = data.get(i).get("risk_score");
+            Object previous = data.get(i - 1).get("risk_score");
+            assertEquals(current instanceof Number, risk.isPresent(i));
+            if (current instanceof Number && previous instanceof Number) {
+                stepSum += ((Number) current).doubleValue() - ((Number) previous).doubleValue();
+                steps++;
+            }
+        }
+        assertEquals(stepSum / steps, statistics.getMeanStepChange().getAsDouble(), 1e-9);
+
+        FeatureFrame.Column performance = frame.column("performance_score");
+        assertEquals(0, performance.count());
+        assertEquals(300, performance.statistics().getNullCount());
+        assertEquals(0.0, performance.statistics().getMean());
+        assertTrue(performance.statistics().getMax().isEmpty());
+        assertTrue(performance.statistics().getMeanStepChange().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> frame.column("delivery_rate"));
+    }
+
+    @Test
+    public void testParallelBuildMatchesSequentialStatistics() {
+        // Given - enough rows to be filled in parallel chunks
+        Random random = new Random(9);
+        List<Map<String, Object>> data = new ArrayList<>();
+        StreamingStatistics sequential = new StreamingStatistics();
+        for (int i = 0; i < 100_000; i++) {
+            Integer score = random.nextInt(8) == 0 ? null : random.nextInt(101);
+            data.add(Collections.singletonMap("risk_score", score));
+            sequential.accept(score);
+        }
+
+        // When
+        FeatureFrame frame = FeatureFrame.of(data, "risk_score");
+        StreamingStatistics statistics = frame.column("risk_score").statistics();
+
+        // Then
+        assertEquals(sequential.getCount(), statistics.getCount());
+        assertEquals(sequential.getCount(), frame.getNonNullValues());
+        assertEquals(sequential.getMean(), statistics.getMean(), 1e-9);
+        assertEquals(sequential.getSumOfSquaredDeviations(), statistics.getSumOfSquaredDeviations(), 1e-3);
+        assertEquals(sequential.getMeanStepChange().getAsDouble(), statistics.getMeanStepChange().getAsDouble(), 1e-9);
+        assertEquals(sequential.getSlope().getAsDouble(), statistics.getSlope().getAsDouble(), 1e-12);
+        for (int row = 0; row < data.size(); row += 997) {
+            Object score = data.get(row).get("risk_score");
+            assertEquals(score != null, frame.column("risk_score").isPresent(row));
+        }
+    }
+
+    @Test
+    public void testEmptyFrame() {
+        // When
+        FeatureFrame frame = FeatureFrame.of(List.of(), "risk_score");
+
+        // Then
+        assertEquals(0, frame.getRows());
+        assertEquals(0, frame.getNonNullValues());
+        assertEquals(0, frame.column("risk_score").count());
+        assertEquals(0, frame.column("risk_score").statistics().getObservations());
+    }
+}
@@ -0,0 +1,89 @@
+package com.supplychainrisk.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class GeographicRiskDatasetServiceTest {
+
+    private static final EnumSet<RiskAssessmentService.RiskComponent> GEOGRAPHIC =
+        EnumSet.of(RiskAssessmentService.RiskComponent.GEOGRAPHIC);
+
+    @Mock
+    private RiskRecalculationJobService recalculationJobService;
+
+    @InjectMocks
+    private GeographicRiskDatasetService geographicRiskDatasetService;
+
+    private Path directory;
+    private Path file;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("geo-risk-service");
+        file = directory.resolve("geo-risk.bin");
+        ReflectionTestUtils.setField(geographicRiskDatasetService, "datasetPath", file.toString());
+        ReflectionTestUtils.setField(geographicRiskDatasetService, "rescoreOnSwap", true);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    public void testFirstDatasetReplacingCountryTiersIsRescored() throws IOException {
+        // Given - nothing loaded at startup, so stored scores come from the country tiers
+        GeographicRiskDataset.writer(List.of()).version(1).add("DE", 12).write(file);
+
+        // When
+        geographicRiskDatasetService.reload();
+
+        // Then
+        verify(recalculationJobService).startModelRescore(GEOGRAPHIC, null, null);
+        assertEquals(false, geographicRiskDatasetService.getStatus().get("rescorePending"));
+    }
+
+    @Test
+    public void testRescoreSkippedForARunningJobIsRetriedOnTheNextPoll() throws IOException {
+        // Given - a new dataset arrives while a recalculation is running
+        when(recalculationJobService.isRunning()).thenReturn(true);
+        GeographicRiskDataset.writer(List.of()).version(1).add("DE", 12).write(file);
+        geographicRiskDatasetService.reload();
+        verify(recalculationJobService, never()).startModelRescore(any(), any(), any());
+        assertEquals(true, geographicRiskDatasetService.getStatus().get("rescorePending"));
+
+        // When - polled while the job runs, then after it has finished
+        geographicRiskDatasetService.refresh();
+        verify(recalculationJobService, never()).startModelRescore(any(), any(), any());
+        when(recalculationJobService.isRunning()).thenReturn(false);
+        geographicRiskDatasetService.refresh();
+        geographicRiskDatasetService.refresh();
+
+        // Then - rescored once
+        verify(recalculationJobService, times(1)).startModelRescore(GEOGRAPHIC, null, null);
+        assertEquals(false, geographicRiskDatasetService.getStatus().get("rescorePending"));
+    }
+}
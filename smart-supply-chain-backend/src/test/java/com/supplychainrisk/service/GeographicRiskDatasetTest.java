@@ -0,0 +1,164 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.entity.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GeographicRiskDatasetTest {
+
+    private Path directory;
+    private Path file;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("geo-risk");
+        file = directory.resolve("geo-risk.bin");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    public void testLookupByCodeAliasAndRegion() throws IOException {
+        // Given
+        GeographicRiskDataset.writer(List.of("natural_disaster", "political_stability", "trade_restrictions"))
+            .version(7)
+            .add("DE", 12, 10, 5, null)
+            .add("US", 20, 35, 15, 10)
+            .add("US-CA", 45, 80, 15, 10)
+            .add("IR", 85, 40, 90, 95)
+            .alias("Germany", "DE")
+            .alias("Deutschland", "DE")
+            .alias("California", "US-CA")
+            .write(file);
+
+        // When
+        GeographicRiskDataset dataset = GeographicRiskDataset.open(file);
+        GeographicRiskDatasetService.LoadedDataset loaded = new GeographicRiskDatasetService.LoadedDataset(dataset);
+
+        // Then
+        assertEquals(7, dataset.getVersion());
+        assertEquals(4, dataset.size());
+        assertEquals(List.of("natural_disaster", "political_stability", "trade_restrictions"), dataset.getFactorNames());
+
+        int germany = dataset.findRow(GeographicRiskDataset.codeKey("de"));
+        assertEquals(12, dataset.score(germany));
+        assertEquals(Map.of("natural_disaster", 10, "political_stability", 5), dataset.factors(germany));
+        assertEquals(-1, dataset.factor(germany, 2));
+        assertEquals(germany, dataset.findRow(GeographicRiskDataset.nameKey(0, "  DEUTSCHLAND ")));
+        assertEquals(-1, dataset.findRow(GeographicRiskDataset.codeKey("FR")));
+
+        // Dataset aliases, JDK country names, alpha-3 codes and region codes/names all resolve
+        assertEquals(12, dataset.score(loaded.findRow("Germany", null)));
+        assertEquals(20, dataset.score(loaded.findRow("United States", "Texas")));
+        assertEquals(45, dataset.score(loaded.findRow("USA", "CA")));
+        assertEquals(45, dataset.score(loaded.findRow("usa", "california")));
+        assertEquals(85, dataset.score(loaded.findRow("IRN", null)));
+        assertEquals("US-CA", GeographicRiskDataset.codeString(dataset.code(loaded.findRow("USA", " ca "))));
+        assertEquals(-1, loaded.findRow("Atlantis", null));
+        assertEquals(-1, loaded.findRow("France", "IDF"));
+    }
+
+    @Test
+    public void testScorerFallsBackToCountryTiersOutsideDataset() throws IOException {
+        // Given
+        GeographicRiskDataset.writer(List.of()).add("DE", 33).add("CN", null).write(file);
+        GeographicRiskDatasetService.LoadedDataset loaded =
+            new GeographicRiskDatasetService.LoadedDataset(GeographicRiskDataset.open(file));
+        CompiledRiskScorer.GeographicOverlay overlay = (country, region) -> {
+            int row = loaded.findRow(country, region);
+            return row < 0 ? -1 : loaded.dataset.score(row);
+        };
+        CompiledRiskScorer tiersOnly = CompiledRiskScorer.builder().build();
+        CompiledRiskScorer withDataset = CompiledRiskScorer.builder().geographicOverlay(overlay).build();
+
+        // When / Then
+        assertEquals(33, withDataset.geographicScore(supplier("Germany")));
+        assertEquals(10, tiersOnly.geographicScore(supplier("Germany")));
+        // A blank dataset score and an uncovered country both use the tiers
+        assertEquals(tiersOnly.geographicScore(supplier("China")), withDataset.geographicScore(supplier("China")));
+        assertEquals(tiersOnly.geographicScore(supplier("Iran")), withDataset.geographicScore(supplier("Iran")));
+        assertEquals(tiersOnly.geographicScore(supplier(null)), withDataset.geographicScore(supplier(null)));
+    }
+
+    @Test
+    public void testLargeDatasetRoundTrip() throws IOException {
+        // Given - 250 countries with 100 regions each
+        GeographicRiskDataset.Writer writer = GeographicRiskDataset.writer(List.of("a", "b"));
+        for (int c = 0; c < 250; c++) {
+            String country = "" + (char) ('A' + c / 26) + (char) ('A' + c % 26);
+            writer.add(country, c % 101, c % 7, null);
+            for (int r = 0; r < 100; r++) {
+                writer.add(country + "-" + r, (c + r) % 101, r % 101, c % 101);
+            }
+        }
+        writer.write(file);
+
+        // When
+        GeographicRiskDataset dataset = GeographicRiskDataset.open(file);
+
+        // Then
+        assertEquals(250 * 101, dataset.size());
+        for (int c = 0; c < 250; c++) {
+            long country = GeographicRiskDataset.codeKey("" + (char) ('A' + c / 26) + (char) ('A' + c % 26));
+            assertEquals(c % 101, dataset.score(dataset.findRow(country)));
+            for (int r = 0; r < 100; r++) {
+                int row = dataset.findRow(GeographicRiskDataset.regionCodeKey(country, Integer.toString(r)));
+                assertEquals((c + r) % 101, dataset.score(row));
+                assertEquals(c % 101, dataset.factor(row, 1));
+                assertEquals(country, GeographicRiskDataset.countryCode(dataset.code(row)));
+            }
+        }
+    }
+
+    @Test
+    public void testRejectsCorruptFilesAndInvalidRows() throws IOException {
+        // Given
+        GeographicRiskDataset.writer(List.of("a")).add("DE", 10, 20).write(file);
+        byte[] bytes = Files.readAllBytes(file);
+        Path flipped = directory.resolve("flipped.bin");
+        bytes[bytes.length - 1] ^= 0x01;
+        Files.write(flipped, bytes);
+        Path truncated = directory.resolve("truncated.bin");
+        Files.write(truncated, Files.readAllBytes(file));
+        try (var channel = Files.newByteChannel(truncated, StandardOpenOption.WRITE)) {
+            channel.truncate(bytes.length - 3);
+        }
+
+        // When / Then
+        assertThrows(IOException.class, () -> GeographicRiskDataset.open(flipped));
+        assertThrows(IOException.class, () -> GeographicRiskDataset.open(truncated));
+        assertThrows(IllegalArgumentException.class,
+            () -> GeographicRiskDataset.writer(List.of("a")).add("DE", 10));
+        assertThrows(IllegalArgumentException.class,
+            () -> GeographicRiskDataset.writer(List.of()).add("DE", 101));
+        assertThrows(IllegalArgumentException.class,
+            () -> GeographicRiskDataset.writer(List.of()).add("DE", 10).add("de", 20));
+        assertThrows(IllegalArgumentException.class,
+            () -> GeographicRiskDataset.writer(List.of()).add("not a code", 10));
+    }
+
+    private Supplier supplier(String country) {
+        Supplier supplier = new Supplier();
+        supplier.setCountry(country);
+        return supplier;
+    }
+}
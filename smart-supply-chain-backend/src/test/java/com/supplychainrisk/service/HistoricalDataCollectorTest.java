@@ -0,0 +1,88 @@
+package com.supplychainrisk.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HistoricalDataCollectorTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Test
+    public void testFiltersMatchInMemoryEqualitySemantics() {
+        // Given
+        Map<String, Object> filters = new LinkedHashMap<>();
+        filters.put("country", "Germany");
+        filters.put("risk_score", 42);
+        filters.put("industry", null);
+        filters.put("delivery_rate", new BigDecimal("95.50"));
+        filters.put("employee_count", 120L);
+
+        // When
+        HistoricalDataCollector.Filter filter = HistoricalDataCollector.Filter.of(filters, NOW);
+
+        // Then - same-typed values become SQL predicates, the rest are checked per row
+        assertFalse(filter.matchesNothing);
+        assertEquals(" AND country = ? AND overall_risk_score = ? AND industry IS NULL", filter.sql);
+        assertEquals(List.of("Germany", 42), filter.args);
+        assertEquals(Set.of(HistoricalDataCollector.Field.DELIVERY_RATE, HistoricalDataCollector.Field.EMPLOYEE_COUNT),
+            filter.residual.keySet());
+
+        HistoricalDataCollector.DataPoint matching = dataPoint(7L, new BigDecimal("95.50"));
+        HistoricalDataCollector.DataPoint otherScale = dataPoint(8L, new BigDecimal("95.5"));
+        assertFalse(filter.test(matching)); // Integer 120 column never equals Long 120
+        filters.remove("employee_count");
+        HistoricalDataCollector.Filter withoutCount = HistoricalDataCollector.Filter.of(filters, NOW);
+        assertTrue(withoutCount.test(matching));
+        assertFalse(withoutCount.test(otherScale));
+    }
+
+    @Test
+    public void testFiltersThatCannotMatchSkipTheQuery() {
+        // When / Then
+        assertTrue(HistoricalDataCollector.Filter.of(Map.of("unknown_key", "x"), NOW).matchesNothing);
+        assertTrue(HistoricalDataCollector.Filter.of(Map.of("supplier_id", 5), NOW).matchesNothing);
+        assertTrue(HistoricalDataCollector.Filter.of(Map.of("timestamp", NOW.minusDays(1)), NOW).matchesNothing);
+        assertFalse(HistoricalDataCollector.Filter.of(Map.of("timestamp", NOW), NOW).matchesNothing);
+        assertFalse(HistoricalDataCollector.Filter.of(Collections.singletonMap("unknown_key", null), NOW).matchesNothing);
+        assertEquals(" AND id = ?", HistoricalDataCollector.Filter.of(Map.of("supplier_id", 5L), NOW).sql);
+        assertEquals("", HistoricalDataCollector.Filter.of(null, NOW).sql);
+    }
+
+    @Test
+    public void testDataPointBehavesLikeTheFullMap() {
+        // Given
+        HistoricalDataCollector.DataPoint point = dataPoint(7L, new BigDecimal("95.50"));
+        Map<String, Object> expected = new HashMap<>(point);
+
+        // When / Then
+        assertEquals(HistoricalDataCollector.Field.values().length, point.size());
+        assertEquals(expected, point);
+        assertEquals(point, expected);
+        assertEquals(expected.hashCode(), point.hashCode());
+        assertEquals(7L, point.get("supplier_id"));
+        assertEquals(NOW, point.get("timestamp"));
+        assertTrue(point.containsKey("industry"));
+        assertNull(point.get("industry"));
+        assertNull(point.get("performance_score"));
+        assertEquals(expected.values().stream().filter(Objects::nonNull).count(),
+            point.values().stream().filter(Objects::nonNull).count());
+        assertThrows(UnsupportedOperationException.class, () -> point.put("country", "France"));
+    }
+
+    private HistoricalDataCollector.DataPoint dataPoint(long id, BigDecimal deliveryRate) {
+        Object[] values = new Object[HistoricalDataCollector.Field.values().length];
+        values[HistoricalDataCollector.Field.SUPPLIER_ID.ordinal()] = id;
+        values[HistoricalDataCollector.Field.TIMESTAMP.ordinal()] = NOW;
+        values[HistoricalDataCollector.Field.RISK_SCORE.ordinal()] = 42;
+        values[HistoricalDataCollector.Field.COUNTRY.ordinal()] = "Germany";
+        values[HistoricalDataCollector.Field.TIER.ordinal()] = "PRIMARY";
+        values[HistoricalDataCollector.Field.DELIVERY_RATE.ordinal()] = deliveryRate;
+        values[HistoricalDataCollector.Field.EMPLOYEE_COUNT.ordinal()] = 120;
+        return new HistoricalDataCollector.DataPoint(values);
+    }
+}
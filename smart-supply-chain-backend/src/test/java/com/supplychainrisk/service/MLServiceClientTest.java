@@ -0,0 +1,167 @@
+package com.supplychainrisk.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MLServiceClientTest {
+
+    private MLServiceStubServer stub;
+    private CloseableHttpClient httpClient;
+    private SimpleMeterRegistry meterRegistry;
+    private MLServiceClient client;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        stub = new MLServiceStubServer();
+        httpClient = HttpClients.custom().disableAutomaticRetries().build();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        if (client != null) {
+            client.close();
+        }
+        httpClient.close();
+        stub.close();
+    }
+
+    @Test
+    public void testSuccessfulCallReturnsDecodedBody() {
+        // Given
+        client = client(MLServiceClient.builder());
+
+        // When
+        Map<String, Object> response = client.post("/predict", Map.of("modelType", "time_series_forecast"));
+
+        // Then
+        assertEquals("stub", response.get("model_version"));
+        assertEquals(1, stub.getRequestCount());
+        assertEquals(1, meterRegistry.get("ml.client.requests").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    public void testDeadlineAbortsSlowCall() {
+        // Given
+        stub.latency(Duration.ofSeconds(5));
+        client = client(MLServiceClient.builder().deadline(Duration.ofMillis(200)));
+
+        // When
+        long start = System.nanoTime();
+        assertThrows(MLPredictionService.MLServiceException.class, () -> client.post("/predict", Map.of()));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        assertTrue(elapsedMs < 2_000, "call took " + elapsedMs + " ms");
+        assertEquals(1, meterRegistry.get("ml.client.requests").tag("outcome", "timeout").timer().count());
+    }
+
+    @Test
+    public void testOpenCircuitShortCircuitsWithoutCallingTheService() {
+        // Given
+        stub.respondWith(503, "{}");
+        client = client(MLServiceClient.builder()
+            .circuitBreaker(new CircuitBreaker(4, 4, 0.5, Duration.ofMinutes(1), 1)));
+
+        // When
+        for (int i = 0; i < 6; i++) {
+            assertThrows(MLPredictionService.MLServiceException.class, () -> client.post("/predict", Map.of()));
+        }
+
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitState());
+        assertEquals(4, stub.getRequestCount());
+        assertEquals(2, meterRegistry.get("ml.client.requests").tag("outcome", "short_circuited").timer().count());
+    }
+
+    @Test
+    public void testClientErrorsDoNotOpenTheCircuit() {
+        // Given
+        stub.respondWith(400, "{\"error\":\"bad request\"}");
+        client = client(MLServiceClient.builder()
+            .circuitBreaker(new CircuitBreaker(4, 4, 0.5, Duration.ofMinutes(1), 1)));
+
+        // When
+        for (int i = 0; i < 6; i++) {
+            assertThrows(MLPredictionService.MLServiceException.class, () -> client.post("/predict", Map.of()));
+        }
+
+        // Then
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState());
+        assertEquals(6, stub.getRequestCount());
+    }
+
+    @Test
+    public void testBulkheadRejectsCallsBeyondTheLimit() throws Exception {
+        // Given - one slot, taken by a slow call
+        stub.latency(Duration.ofMillis(800));
+        client = client(MLServiceClient.builder().maxConcurrentCalls(1).bulkheadWait(Duration.ZERO));
+        CompletableFuture<Map<String, Object>> first = CompletableFuture.supplyAsync(
+            () -> client.post("/predict", Map.of()));
+        while (stub.getRequestCount() == 0) {
+            Thread.sleep(5);
+        }
+
+        // When
+        assertThrows(MLPredictionService.MLServiceException.class, () -> client.post("/predict", Map.of()));
+
+        // Then
+        assertEquals("stub", first.get(5, TimeUnit.SECONDS).get("model_version"));
+        assertEquals(1, stub.getRequestCount());
+        assertEquals(1, meterRegistry.get("ml.client.requests").tag("outcome", "rejected").timer().count());
+    }
+
+    @Test
+    public void testHedgedRequestWinsOverSlowPrimary() {
+        // Given - the first request stalls, any later one answers at once
+        stub.enqueueLatency(Duration.ofSeconds(5));
+        client = client(MLServiceClient.builder()
+            .deadline(Duration.ofSeconds(3))
+            .hedgeDelay(Duration.ofMillis(100)));
+
+        // When
+        long start = System.nanoTime();
+        Map<String, Object> response = client.post("/predict", Map.of());
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        assertEquals("stub", response.get("model_version"));
+        assertTrue(elapsedMs < 2_000, "call took " + elapsedMs + " ms");
+        assertEquals(2, stub.getRequestCount());
+        assertEquals(1.0, meterRegistry.get("ml.client.hedges").tag("outcome", "sent").counter().count());
+        assertEquals(1.0, meterRegistry.get("ml.client.hedges").tag("outcome", "won").counter().count());
+    }
+
+    @Test
+    public void testFastCallsAreNotHedged() {
+        // Given
+        client = client(MLServiceClient.builder().hedgeDelay(Duration.ofMillis(500)));
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            client.post("/predict", Map.of());
+        }
+
+        // Then
+        assertEquals(5, stub.getRequestCount());
+        assertTrue(meterRegistry.find("ml.client.hedges").counters().isEmpty());
+    }
+
+    private MLServiceClient client(MLServiceClient.Builder builder) {
+        return builder.baseUrl(stub.getBaseUrl())
+            .httpClient(httpClient)
+            .meterRegistry(meterRegistry)
+            .build();
+    }
+}
@@ -0,0 +1,144 @@
+package com.supplychainrisk.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the ML service with controllable latency and faults.
+ *
+ * Every path answers with the configured status and JSON body after the
+ * configured latency; latencies queued with {@link #enqueueLatency} are used
+ * first, one per request. A failure rate turns that share of requests into
+ * HTTP 500s.
+ *
+ * Run standalone with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.supplychainrisk.service.MLServiceStubServer
+ *   -Dexec.args="5000 200 0.1"   (port, latency ms, failure rate)
+ */
+public class MLServiceStubServer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MLServiceStubServer.class);
+
+    private static final String DEFAULT_BODY =
+        "{\"predictions\":{\"risk_score\":42.0},\"confidence\":80,\"model_version\":\"stub\"}";
+
+    private final HttpServer server;
+    private final ExecutorService handlers = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "ml-stub");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Queue<Duration> queuedLatencies = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final Random random = new Random(11);
+
+    private volatile Duration latency = Duration.ZERO;
+    private volatile int status = 200;
+    private volatile String body = DEFAULT_BODY;
+    private volatile double failureRate;
+
+    public MLServiceStubServer() throws IOException {
+        this(0);
+    }
+
+    public MLServiceStubServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(handlers);
+        server.start();
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public int getRequestCount() {
+        return requests.get();
+    }
+
+    public MLServiceStubServer latency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    public MLServiceStubServer enqueueLatency(Duration... latencies) {
+        queuedLatencies.addAll(List.of(latencies));
+        return this;
+    }
+
+    public MLServiceStubServer respondWith(int status, String body) {
+        this.status = status;
+        this.body = body;
+        return this;
+    }
+
+    public MLServiceStubServer failureRate(double failureRate) {
+        this.failureRate = failureRate;
+        return this;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        handlers.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (InputStream in = exchange.getRequestBody()) {
+            in.readAllBytes();
+        }
+        Duration delay = queuedLatencies.poll();
+        try {
+            Thread.sleep((delay != null ? delay : latency).toMillis());
+        } catch (InterruptedException e) {
+            exchange.close();
+            return;
+        }
+
+        int code = status;
+        String content = body;
+        synchronized (random) {
+            if (failureRate > 0 && random.nextDouble() < failureRate) {
+                code = 500;
+                content = "{\"error\":\"stub failure\"}";
+            }
+        }
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        try {
+            exchange.sendResponseHeaders(code, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (IOException e) {
+            // Client aborted the exchange
+            exchange.close();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        MLServiceStubServer stub = new MLServiceStubServer(port)
+            .latency(Duration.ofMillis(args.length > 1 ? Long.parseLong(args[1]) : 0))
+            .failureRate(args.length > 2 ? Double.parseDouble(args[2]) : 0);
+        logger.info("ML service stub listening on {}", stub.getBaseUrl());
+        Thread.currentThread().join();
+    }
+}
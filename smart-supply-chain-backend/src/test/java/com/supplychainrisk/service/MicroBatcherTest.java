@@ -0,0 +1,192 @@
+package com.supplychainrisk.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MicroBatcherTest {
+
+    @Test
+    public void testConcurrentCallsShareBatchesAndGetTheirOwnResults() throws Exception {
+        // Given - the first batch is held until every item has been submitted
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        try (MicroBatcher<Integer, Integer> batcher = new MicroBatcher<>("test", 8, Duration.ofMillis(20), 1, 100,
+            items -> {
+                batchSizes.add(items.size());
+                await(release);
+                return items.stream().map(item -> item * 10).toList();
+            })) {
+
+            // When
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                futures.add(batcher.submit(i));
+            }
+            release.countDown();
+
+            // Then
+            for (int i = 0; i < 20; i++) {
+                assertEquals(i * 10, futures.get(i).get(5, TimeUnit.SECONDS).intValue());
+            }
+            assertEquals(20L, batcher.getItems());
+            assertTrue(batcher.getBatches() < 20);
+            for (int size : batchSizes) {
+                assertTrue(size <= 8);
+            }
+        }
+    }
+
+    @Test
+    public void testFullBatchDoesNotWaitForTheTimeout() throws Exception {
+        // Given
+        try (MicroBatcher<Integer, Integer> batcher = new MicroBatcher<>("test", 4, Duration.ofSeconds(30), 1, 100,
+            items -> items)) {
+
+            // When
+            long start = System.nanoTime();
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(batcher.submit(i));
+            }
+            for (CompletableFuture<Integer> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+
+            // Then
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5_000);
+            assertEquals(1L, batcher.getBatches());
+        }
+    }
+
+    @Test
+    public void testLoneItemIsSentAfterTheWaitTime() throws Exception {
+        // Given
+        try (MicroBatcher<String, String> batcher = new MicroBatcher<>("test", 32, Duration.ofMillis(10), 2, 100,
+            items -> items.stream().map(String::toUpperCase).toList())) {
+
+            // When
+            String result = batcher.submit("risk").get(5, TimeUnit.SECONDS);
+
+            // Then
+            assertEquals("RISK", result);
+            assertEquals(1L, batcher.getBatches());
+        }
+    }
+
+    @Test
+    public void testFailuresApplyPerBatchAndPerItem() throws Exception {
+        // Given - odd items have no result; a batch holding 99 fails entirely
+        CountDownLatch release = new CountDownLatch(1);
+        try (MicroBatcher<Integer, Integer> batcher = new MicroBatcher<>("test", 4, Duration.ofMillis(5), 1, 100,
+            items -> {
+                await(release);
+                if (items.contains(99)) {
+                    throw new IllegalStateException("batch rejected");
+                }
+                return items.stream().map(item -> item % 2 == 0 ? item : null).toList();
+            })) {
+
+            // When
+            CompletableFuture<Integer> even = batcher.submit(2);
+            CompletableFuture<Integer> odd = batcher.submit(3);
+            release.countDown();
+            assertEquals(2, even.get(5, TimeUnit.SECONDS).intValue());
+            CompletableFuture<Integer> poisoned = batcher.submit(99);
+
+            // Then
+            assertThrows(ExecutionException.class, () -> odd.get(5, TimeUnit.SECONDS));
+            ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> poisoned.get(5, TimeUnit.SECONDS));
+            assertEquals("batch rejected", failure.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void testFullQueueRejectsAtOnce() throws Exception {
+        // Given - one batch in flight and room for two queued items
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (MicroBatcher<Integer, Integer> batcher = new MicroBatcher<>("test", 1, Duration.ofMillis(1), 1, 2,
+            items -> {
+                started.countDown();
+                await(release);
+                return items;
+            })) {
+            CompletableFuture<Integer> inFlight = batcher.submit(0);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // When
+            CompletableFuture<Integer> first = batcher.submit(1);
+            CompletableFuture<Integer> second = batcher.submit(2);
+            CompletableFuture<Integer> overflow = batcher.submit(3);
+
+            // Then - the overflow fails without waiting, the queued items still run
+            assertTrue(overflow.isCompletedExceptionally());
+            ExecutionException failure = assertThrows(ExecutionException.class, overflow::get);
+            assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+            assertEquals(1L, batcher.getRejected());
+            release.countDown();
+            assertEquals(0, inFlight.get(5, TimeUnit.SECONDS));
+            assertEquals(1, first.get(5, TimeUnit.SECONDS));
+            assertEquals(2, second.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testCancelledItemsAreNotSent() throws Exception {
+        // Given - items queued behind a batch in flight
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> sent = Collections.synchronizedList(new ArrayList<>());
+        try (MicroBatcher<Integer, Integer> batcher = new MicroBatcher<>("test", 4, Duration.ofMillis(1), 1, 100,
+            items -> {
+                sent.addAll(items);
+                started.countDown();
+                await(release);
+                return items;
+            })) {
+            CompletableFuture<Integer> inFlight = batcher.submit(0);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            CompletableFuture<Integer> abandoned = batcher.submit(1);
+            CompletableFuture<Integer> kept = batcher.submit(2);
+
+            // When - the caller of item 1 stops waiting
+            abandoned.cancel(false);
+            release.countDown();
+
+            // Then
+            assertEquals(0, inFlight.get(5, TimeUnit.SECONDS));
+            assertEquals(2, kept.get(5, TimeUnit.SECONDS));
+            assertEquals(List.of(0, 2), sent);
+            assertEquals(1L, batcher.getDropped());
+        }
+    }
+
+    @Test
+    public void testClosedBatcherFailsNewItems() {
+        MicroBatcher<Integer, Integer> batcher = new MicroBatcher<>("test", 4, Duration.ofMillis(5), 1, 100,
+            items -> items);
+        batcher.close();
+
+        assertThrows(ExecutionException.class, () -> batcher.submit(1).get(5, TimeUnit.SECONDS));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
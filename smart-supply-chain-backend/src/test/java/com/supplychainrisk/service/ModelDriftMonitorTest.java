@@ -0,0 +1,203 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.dto.RiskPredictionDTO;
+import com.supplychainrisk.entity.Supplier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ModelDriftMonitorTest {
+
+    private ModelDriftMonitor modelDriftMonitor;
+    private SimpleMeterRegistry meterRegistry;
+    private final Random random = new Random(11);
+
+    @BeforeEach
+    public void setUp() {
+        modelDriftMonitor = new ModelDriftMonitor();
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(modelDriftMonitor, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(modelDriftMonitor, "enabled", true);
+        ReflectionTestUtils.setField(modelDriftMonitor, "bins", 20);
+        ReflectionTestUtils.setField(modelDriftMonitor, "minWindowSamples", 500L);
+        ReflectionTestUtils.setField(modelDriftMonitor, "referenceSize", 1000L);
+        ReflectionTestUtils.setField(modelDriftMonitor, "psiThreshold", 0.2);
+        ReflectionTestUtils.setField(modelDriftMonitor, "ksThreshold", 0.1);
+        ReflectionTestUtils.setField(modelDriftMonitor, "ksCriticalCoefficient", 1.95);
+        ReflectionTestUtils.setField(modelDriftMonitor, "consecutiveWindows", 1);
+        ReflectionTestUtils.setField(modelDriftMonitor, "alertCooldownMinutes", 60L);
+    }
+
+    @Test
+    public void testReferenceIsBuiltBeforeWindowsAreCompared() {
+        // Given - too few predictions for a window
+        record("fallback", "v1", 499, 40, 90);
+
+        // When / Then
+        assertTrue(modelDriftMonitor.evaluate().isEmpty());
+        record("fallback", "v1", 1, 40, 90);
+        assertTrue(modelDriftMonitor.evaluate().isEmpty());
+        record("fallback", "v1", 500, 40, 90);
+        assertTrue(modelDriftMonitor.evaluate().isEmpty());
+
+        Map<?, ?> model = (Map<?, ?>) ((Map<?, ?>) modelDriftMonitor.getStatus().get("models")).get("fallback");
+        assertEquals(true, model.get("baselined"));
+        assertEquals(1000L, model.get("referenceSamples"));
+    }
+
+    @Test
+    public void testStableWindowDoesNotDriftAndShiftedWindowDoes() {
+        // Given
+        record("ml", "v1", 1000, 40, 90);
+        modelDriftMonitor.evaluate();
+
+        // When - a stable window, then one where risk rises and delivery falls
+        record("ml", "v1", 1000, 40, 90);
+        List<ModelDriftMonitor.DriftReport> stable = modelDriftMonitor.evaluate();
+        record("ml", "v1", 1000, 60, 75);
+        List<ModelDriftMonitor.DriftReport> shifted = modelDriftMonitor.evaluate();
+
+        // Then
+        assertEquals(1, stable.size());
+        assertFalse(stable.get(0).isDrifted(), "drifted: " + stable.get(0).getDriftedSignals());
+        assertEquals(1000L, stable.get(0).getWindowSamples());
+
+        ModelDriftMonitor.DriftReport report = shifted.get(0);
+        assertTrue(report.isDrifted());
+        assertTrue(report.isOutputDrifted());
+        assertTrue(report.getDriftedSignals().containsAll(
+            List.of("overall_risk_score", "on_time_delivery_rate", "predicted_overall")));
+        assertFalse(report.getDriftedSignals().contains("quality_rating"));
+        assertEquals(report.getMaxPsi(), modelDriftMonitor.getLatestDriftScore(), 0.0);
+        assertEquals(report.getSignals().get("overall_risk_score").getPsi(),
+            meterRegistry.get("ml.drift.psi").tag("model", "ml").tag("signal", "overall_risk_score")
+                .gauge().value(), 1e-12);
+    }
+
+    @Test
+    public void testStableStreamDoesNotDriftAtShippedDefaults() {
+        // Given - the application.properties settings
+        ReflectionTestUtils.setField(modelDriftMonitor, "minWindowSamples", 1000L);
+        ReflectionTestUtils.setField(modelDriftMonitor, "referenceSize", 2000L);
+        ReflectionTestUtils.setField(modelDriftMonitor, "consecutiveWindows", 2);
+        record("ml", "v1", 2000, 40, 90);
+        modelDriftMonitor.evaluate();
+
+        // When - a day's worth of windows from the reference population
+        for (int window = 0; window < 50; window++) {
+            record("ml", "v1", 1000, 40, 90);
+            List<ModelDriftMonitor.DriftReport> reports = modelDriftMonitor.evaluate();
+
+            // Then
+            assertEquals(1, reports.size());
+            assertFalse(reports.get(0).isDrifted(), "drifted: " + reports.get(0).getDriftedSignals());
+            assertFalse(reports.get(0).isAlert());
+        }
+    }
+
+    @Test
+    public void testSmallWindowsNeedALargerDistance() {
+        // Given
+        record("ml", "v1", 1000, 40, 90);
+        modelDriftMonitor.evaluate();
+        ReflectionTestUtils.setField(modelDriftMonitor, "minWindowSamples", 100L);
+
+        // When
+        record("ml", "v1", 100, 40, 90);
+        ModelDriftMonitor.SignalDrift small = signal(modelDriftMonitor.evaluate(), "overall_risk_score");
+        record("ml", "v1", 1000, 40, 90);
+        ModelDriftMonitor.SignalDrift large = signal(modelDriftMonitor.evaluate(), "overall_risk_score");
+
+        // Then - 1.95 * sqrt(1100 / 100000) for 100 window values against 1000 reference values
+        assertEquals(1.95 * Math.sqrt(1100.0 / 100_000), small.getKsLimit(), 1e-9);
+        assertEquals(0.1, large.getKsLimit(), 0.0);
+        assertTrue(small.getPsiLimit() > large.getPsiLimit());
+        assertTrue(large.getPsiLimit() > 0.2);
+    }
+
+    @Test
+    public void testDriftNeedsConsecutiveWindowsAndAlertsOncePerCooldown() {
+        // Given
+        ReflectionTestUtils.setField(modelDriftMonitor, "consecutiveWindows", 2);
+        record("ml", "v1", 1000, 40, 90);
+        modelDriftMonitor.evaluate();
+
+        // When - three shifted windows in a row
+        record("ml", "v1", 1000, 60, 75);
+        ModelDriftMonitor.DriftReport first = modelDriftMonitor.evaluate().get(0);
+        record("ml", "v1", 1000, 60, 75);
+        ModelDriftMonitor.DriftReport second = modelDriftMonitor.evaluate().get(0);
+        record("ml", "v1", 1000, 60, 75);
+        ModelDriftMonitor.DriftReport third = modelDriftMonitor.evaluate().get(0);
+
+        // Then - the first breach is not drift yet, and the persisting drift alerts once
+        assertFalse(first.isDrifted());
+        assertTrue(second.isDrifted());
+        assertTrue(second.isAlert());
+        assertTrue(third.isDrifted());
+        assertFalse(third.isAlert());
+    }
+
+    @Test
+    public void testNewModelVersionStartsANewReference() {
+        // Given
+        record("ml", "v1", 1000, 40, 90);
+        modelDriftMonitor.evaluate();
+
+        // When - the new version predicts a different population
+        record("ml", "v2", 1000, 60, 75);
+
+        // Then - it becomes the new reference instead of drifting
+        assertTrue(modelDriftMonitor.evaluate().isEmpty());
+        Map<?, ?> model = (Map<?, ?>) ((Map<?, ?>) modelDriftMonitor.getStatus().get("models")).get("ml");
+        assertEquals("v2", model.get("modelVersion"));
+        assertEquals(true, model.get("baselined"));
+    }
+
+    @Test
+    public void testModelsAreTrackedSeparatelyAndRebaselineDiscardsThem() {
+        record("ml", "v1", 1000, 40, 90);
+        record("fallback", "fallback-builtin", 1000, 60, 75);
+        modelDriftMonitor.evaluate();
+        record("ml", "v1", 600, 40, 90);
+        record("fallback", "fallback-builtin", 600, 60, 75);
+
+        List<ModelDriftMonitor.DriftReport> reports = modelDriftMonitor.evaluate();
+        assertEquals(2, reports.size());
+        assertTrue(reports.stream().noneMatch(ModelDriftMonitor.DriftReport::isDrifted));
+
+        modelDriftMonitor.rebaseline();
+        assertTrue(((Map<?, ?>) modelDriftMonitor.getStatus().get("models")).isEmpty());
+        assertEquals(0.0, modelDriftMonitor.getLatestDriftScore());
+    }
+
+    private static ModelDriftMonitor.SignalDrift signal(List<ModelDriftMonitor.DriftReport> reports, String name) {
+        assertEquals(1, reports.size());
+        return reports.get(0).getSignals().get(name);
+    }
+
+    private void record(String model, String version, int count, double meanRisk, double meanDelivery) {
+        for (int i = 0; i < count; i++) {
+            int risk = (int) Math.round(Math.max(0, Math.min(100, meanRisk + random.nextGaussian() * 12)));
+            Supplier supplier = new Supplier();
+            supplier.setOverallRiskScore(risk);
+            supplier.setFinancialRiskScore(40);
+            supplier.setOnTimeDeliveryRate(BigDecimal.valueOf(Math.min(100, meanDelivery + random.nextGaussian() * 5)));
+            supplier.setQualityRating(BigDecimal.valueOf(7 + random.nextGaussian()));
+
+            RiskPredictionDTO prediction = new RiskPredictionDTO();
+            prediction.setRiskScores(Map.of("predicted_overall", BigDecimal.valueOf(risk + 2)));
+            prediction.setOverallRiskTrend(BigDecimal.valueOf(2));
+            prediction.setConfidence(BigDecimal.valueOf(80));
+            modelDriftMonitor.record(model, version, supplier, 30, prediction);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.supplychainrisk.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MonteCarloSimulatorTest {
+
+    @Test
+    public void testSameSeedGivesSameResultOnAnyNumberOfThreads() throws Exception {
+        // Given
+        MonteCarloSimulator.Portfolio portfolio = portfolio();
+        MonteCarloSimulator.Shock shock = new MonteCarloSimulator.Shock(2.0, 1.5, 0.1);
+        MonteCarloSimulator.Settings settings = MonteCarloSimulator.Settings.builder()
+            .seed(42).maxTrials(6_000).batchSize(250).roundBatches(8).relativeTolerance(0).build();
+
+        // When - parallel streams run in the pool that invokes them
+        MonteCarloSimulator.Result single = runIn(new ForkJoinPool(1), portfolio, shock, settings);
+        MonteCarloSimulator.Result four = runIn(new ForkJoinPool(4), portfolio, shock, settings);
+        MonteCarloSimulator.Result sequential = MonteCarloSimulator.run(portfolio, shock,
+            MonteCarloSimulator.Settings.builder().seed(42).maxTrials(6_000).batchSize(250).roundBatches(8)
+                .relativeTolerance(0).parallel(false).build());
+
+        // Then
+        for (MonteCarloSimulator.Result other : new MonteCarloSimulator.Result[] {four, sequential}) {
+            assertEquals(single.getTrials(), other.getTrials());
+            assertEquals(single.getCostImpact().getP50(), other.getCostImpact().getP50());
+            assertEquals(single.getCostImpact().getP99(), other.getCostImpact().getP99());
+            assertEquals(single.getDelayImpactHours().getP90(), other.getDelayImpactHours().getP90());
+            assertEquals(single.getDisruptionProbability(), other.getDisruptionProbability());
+            assertEquals(single.getSupplierCostImpact(1), other.getSupplierCostImpact(1), 1e-6);
+        }
+        assertEquals(6_000, single.getTrials());
+        assertFalse(single.isConverged());
+    }
+
+    @Test
+    public void testStopsEarlyOnceConfidenceIntervalsConverge() {
+        // Given
+        MonteCarloSimulator.Settings settings = MonteCarloSimulator.Settings.builder()
+            .seed(7).maxTrials(200_000).minTrials(1_000).batchSize(500).roundBatches(4).relativeTolerance(0.05).build();
+
+        // When
+        MonteCarloSimulator.Result result = MonteCarloSimulator.run(portfolio(), MonteCarloSimulator.Shock.BASELINE,
+            settings);
+
+        // Then - a whole number of rounds, well short of the cap, with CIs inside the tolerance
+        assertTrue(result.isConverged());
+        assertTrue(result.getTrials() < 200_000);
+        assertEquals(0, result.getTrials() % 2_000);
+        MonteCarloSimulator.Distribution cost = result.getCostImpact();
+        assertTrue(cost.getConfidenceHalfWidth()
+            <= 0.05 * Math.max(Math.abs(cost.getMean()), cost.getStandardDeviation()) + 1e-9);
+    }
+
+    @Test
+    public void testStressShiftsDistributionUpwards() {
+        // Given
+        MonteCarloSimulator.Settings settings = MonteCarloSimulator.Settings.builder()
+            .seed(3).maxTrials(10_000).build();
+
+        // When
+        MonteCarloSimulator.Result baseline = MonteCarloSimulator.run(portfolio(),
+            MonteCarloSimulator.Shock.BASELINE, settings);
+        MonteCarloSimulator.Result stressed = MonteCarloSimulator.run(portfolio(),
+            new MonteCarloSimulator.Shock(3.0, 2.0, 0.15), settings);
+
+        // Then
+        assertTrue(stressed.getCostImpact().getP90() > baseline.getCostImpact().getP90());
+        assertTrue(stressed.getDelayImpactHours().getMean() > baseline.getDelayImpactHours().getMean());
+        assertTrue(stressed.getDisruptionProbability() > baseline.getDisruptionProbability());
+        MonteCarloSimulator.Distribution delay = stressed.getDelayImpactHours();
+        assertTrue(delay.getP50() <= delay.getP90());
+        assertTrue(delay.getP90() <= delay.getP99());
+        assertTrue(delay.getP99() <= delay.getMax());
+    }
+
+    @Test
+    public void testRisklessPortfolioHasNoImpact() {
+        // Given - no disruption risk, no late deliveries and no shipments exposed to price moves
+        MonteCarloSimulator.Portfolio portfolio = new MonteCarloSimulator.Portfolio(1).add(0, 0, 0, 0, 24, 0, 0);
+
+        // When
+        MonteCarloSimulator.Result result = MonteCarloSimulator.run(portfolio, MonteCarloSimulator.Shock.BASELINE,
+            MonteCarloSimulator.Settings.builder().maxTrials(1_000).minTrials(1_000).build());
+
+        // Then
+        assertEquals(0.0, result.getCostImpact().getP99());
+        assertEquals(0.0, result.getDelayImpactHours().getMax());
+        assertEquals(0.0, result.getDisruptionProbability());
+    }
+
+    @Test
+    public void testNearestRankPercentile() {
+        double[] sorted = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+        assertEquals(5.0, MonteCarloSimulator.Distribution.percentile(sorted, 0.5));
+        assertEquals(9.0, MonteCarloSimulator.Distribution.percentile(sorted, 0.9));
+        assertEquals(10.0, MonteCarloSimulator.Distribution.percentile(sorted, 0.99));
+    }
+
+    private static MonteCarloSimulator.Portfolio portfolio() {
+        return new MonteCarloSimulator.Portfolio(3)
+            .add(20, 30, 10, 0.05, 12, 2.0, 1_500)
+            .add(60, 70, 50, 0.20, 36, 0.5, 8_000)
+            .add(40, 20, 80, 0.10, 24, 10.0, 300);
+    }
+
+    private static MonteCarloSimulator.Result runIn(ForkJoinPool pool, MonteCarloSimulator.Portfolio portfolio,
+                                                    MonteCarloSimulator.Shock shock,
+                                                    MonteCarloSimulator.Settings settings) throws Exception {
+        try {
+            return pool.submit(() -> MonteCarloSimulator.run(portfolio, shock, settings)).get();
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
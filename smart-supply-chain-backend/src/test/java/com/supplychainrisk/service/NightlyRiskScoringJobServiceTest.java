@@ -0,0 +1,141 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.dto.RiskPredictionDTO;
+import com.supplychainrisk.entity.RiskPrediction;
+import com.supplychainrisk.entity.Shipment;
+import com.supplychainrisk.entity.Supplier;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NightlyRiskScoringJobServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 1, 2, 0);
+
+    @Test
+    public void testSupplierGetsDelayCostAndDisruptionPredictions() {
+        // Given - ML service scores arrive as plain numbers; financial is missing
+        Supplier supplier = supplier(40, 55, 30);
+        Map<String, Object> scores = new HashMap<>();
+        scores.put("predicted_overall", 82.0);
+        scores.put("predicted_operational", 64);
+        RiskPredictionDTO prediction = prediction(scores);
+
+        // When
+        List<RiskPrediction> rows = NightlyRiskScoringJobService.supplierPredictions(
+            supplier, prediction, 30, NOW, "v2", "{}");
+
+        // Then
+        assertEquals(3, rows.size());
+        RiskPrediction delay = rows.get(0);
+        assertEquals(RiskPrediction.RiskType.DELAY_PREDICTION, delay.getRiskType());
+        assertEquals(0, new BigDecimal("64").compareTo(delay.getRiskProbability()));
+        assertEquals(6, delay.getEstimatedDelayDays());
+        assertEquals(RiskPrediction.RiskLevel.HIGH, delay.getPredictedRiskLevel());
+
+        RiskPrediction cost = rows.get(1);
+        assertEquals(RiskPrediction.RiskType.COST_INCREASE, cost.getRiskType());
+        assertEquals(0, new BigDecimal("55").compareTo(cost.getRiskProbability()), "current score when missing");
+
+        RiskPrediction disruption = rows.get(2);
+        assertEquals(RiskPrediction.RiskType.SUPPLY_DISRUPTION, disruption.getRiskType());
+        assertEquals(RiskPrediction.RiskLevel.CRITICAL, disruption.getPredictedRiskLevel());
+        assertEquals(RiskPrediction.ImpactSeverity.SEVERE, disruption.getImpactSeverity());
+
+        for (RiskPrediction row : rows) {
+            assertSame(supplier, row.getSupplier());
+            assertEquals(NightlyRiskScoringJobService.MODEL_ID, row.getModelId());
+            assertEquals("v2", row.getModelVersion());
+            assertEquals(NOW.plusDays(30), row.getEventPredictedDate());
+            assertEquals(0, new BigDecimal("80").compareTo(row.getConfidence()));
+        }
+    }
+
+    @Test
+    public void testShipmentDelayFollowsSupplierAndShipmentState() {
+        // Given
+        Supplier supplier = supplier(40, 40, 30);
+        RiskPredictionDTO prediction = prediction(Map.of("predicted_operational", 35));
+        Shipment onTrack = shipment(supplier, Shipment.ShipmentStatus.IN_TRANSIT, NOW.plusDays(4));
+        Shipment overdue = shipment(supplier, Shipment.ShipmentStatus.IN_TRANSIT, NOW.minusDays(2));
+        Shipment exception = shipment(supplier, Shipment.ShipmentStatus.EXCEPTION, NOW.plusDays(4));
+
+        // When
+        RiskPrediction onTrackRow = NightlyRiskScoringJobService.shipmentDelayPrediction(
+            onTrack, prediction, 30, NOW, "v2", null);
+        RiskPrediction overdueRow = NightlyRiskScoringJobService.shipmentDelayPrediction(
+            overdue, prediction, 30, NOW, "v2", null);
+        RiskPrediction exceptionRow = NightlyRiskScoringJobService.shipmentDelayPrediction(
+            exception, prediction, 30, NOW, "v2", null);
+
+        // Then - horizon is the time to delivery; overdue and exception shipments are raised
+        assertEquals(0, new BigDecimal("35").compareTo(onTrackRow.getRiskProbability()));
+        assertEquals(4, onTrackRow.getPredictionHorizonDays());
+        assertEquals(3, onTrackRow.getEstimatedDelayDays());
+        assertEquals(NOW.plusDays(7), onTrackRow.getEventPredictedDate());
+        assertSame(onTrack, onTrackRow.getShipment());
+        assertSame(supplier, onTrackRow.getSupplier());
+        assertEquals(0, new BigDecimal("350.00").compareTo(onTrackRow.getEstimatedCostImpact()));
+
+        assertEquals(0, new BigDecimal("90").compareTo(overdueRow.getRiskProbability()));
+        assertEquals(5, overdueRow.getEstimatedDelayDays());
+
+        assertEquals(0, new BigDecimal("75").compareTo(exceptionRow.getRiskProbability()));
+    }
+
+    @Test
+    public void testShipmentWithoutSupplierUsesItsOwnRiskScore() {
+        Shipment shipment = shipment(null, Shipment.ShipmentStatus.PICKED_UP, null);
+        shipment.setRiskScore(20);
+
+        RiskPrediction row = NightlyRiskScoringJobService.shipmentDelayPrediction(
+            shipment, null, 30, NOW, "v1.0.0", null);
+
+        assertEquals(0, new BigDecimal("20").compareTo(row.getRiskProbability()));
+        assertEquals(30, row.getPredictionHorizonDays());
+        assertNull(row.getConfidence());
+        assertNull(row.getSupplier());
+    }
+
+    @Test
+    public void testDbPauseKeepsDbTimeWithinShare() {
+        // 100 ms of DB work at a 25% share needs 300 ms of pause
+        assertEquals(300_000_000L, NightlyRiskScoringJobService.dbPause(100_000_000L, 0.25));
+        assertEquals(100_000_000L, NightlyRiskScoringJobService.dbPause(100_000_000L, 0.5));
+        assertEquals(0L, NightlyRiskScoringJobService.dbPause(100_000_000L, 1.0));
+        assertEquals(0L, NightlyRiskScoringJobService.dbPause(100_000_000L, 0.0));
+    }
+
+    private static Supplier supplier(int overall, int financial, int operational) {
+        Supplier supplier = new Supplier();
+        supplier.setId(7L);
+        supplier.setOverallRiskScore(overall);
+        supplier.setFinancialRiskScore(financial);
+        supplier.setOperationalRiskScore(operational);
+        return supplier;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RiskPredictionDTO prediction(Map<String, ?> scores) {
+        RiskPredictionDTO prediction = new RiskPredictionDTO();
+        // Raw map as the ML service response mapping produces it
+        prediction.setRiskScores((Map<String, BigDecimal>) scores);
+        prediction.setConfidence(BigDecimal.valueOf(80));
+        return prediction;
+    }
+
+    private static Shipment shipment(Supplier supplier, Shipment.ShipmentStatus status, LocalDateTime eta) {
+        Shipment shipment = new Shipment();
+        shipment.setSupplier(supplier);
+        shipment.setStatus(status);
+        shipment.setEstimatedDeliveryDate(eta);
+        shipment.setTotalCost(BigDecimal.valueOf(1000));
+        return shipment;
+    }
+}
@@ -0,0 +1,96 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.entity.Shipment;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OnlineDelayModelTest {
+
+    @Test
+    public void testLearnsCarrierAndLaneEffectsOneExampleAtATime() {
+        // Given - carrier a is late on lane x only, carrier b is always on time
+        OnlineDelayModel model = new OnlineDelayModel(12, 0.1, 1e-6);
+
+        // When
+        for (int i = 0; i < 500; i++) {
+            model.learn(features(model, "a", "x"), true);
+            model.learn(features(model, "a", "y"), false);
+            model.learn(features(model, "b", "x"), false);
+            model.learn(features(model, "b", "y"), false);
+        }
+
+        // Then
+        assertTrue(model.predict(features(model, "a", "x")) > 0.8);
+        assertTrue(model.predict(features(model, "a", "y")) < 0.2);
+        assertTrue(model.predict(features(model, "b", "x")) < 0.2);
+        assertEquals(2000, model.getExamples());
+        assertEquals(500, model.getLateExamples());
+        // Scored before learning, so early mistakes count
+        assertTrue(model.getProgressiveAccuracy() > 0.9 && model.getProgressiveAccuracy() < 1.0);
+        assertTrue(model.getProgressiveLogLoss() < 0.3);
+    }
+
+    @Test
+    public void testSnapshotRestoresTheModel() throws IOException {
+        // Given
+        OnlineDelayModel model = new OnlineDelayModel(10, 0.1, 1e-6);
+        for (int i = 0; i < 50; i++) {
+            model.learn(features(model, "a", "x"), i % 3 == 0);
+        }
+        Path file = Files.createTempDirectory("online-delay").resolve("model.bin");
+        model.write(file);
+
+        // When
+        OnlineDelayModel loaded = OnlineDelayModel.open(file, 0.1, 1e-6);
+
+        // Then
+        assertEquals(10, loaded.getBits());
+        assertEquals(50, loaded.getExamples());
+        assertEquals(17, loaded.getLateExamples());
+        assertEquals(model.getProgressiveLogLoss(), loaded.getProgressiveLogLoss(), 1e-12);
+        assertEquals(model.predict(features(model, "a", "x")), loaded.predict(features(loaded, "a", "x")), 1e-12);
+
+        // And learning continues from the restored state
+        loaded.learn(features(loaded, "a", "x"), true);
+        assertEquals(51, loaded.getExamples());
+
+        // And a damaged snapshot is rejected
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 1;
+        IOException error = assertThrows(IOException.class,
+            () -> OnlineDelayModel.decode(bytes, "damaged", 0.1, 1e-6));
+        assertTrue(error.getMessage().contains("checksum"));
+    }
+
+    @Test
+    public void testDeliveryOutcomeLabels() {
+        LocalDateTime estimated = LocalDateTime.of(2024, 3, 1, 12, 0);
+        Shipment shipment = new Shipment();
+        shipment.setEstimatedDeliveryDate(estimated);
+
+        // No actual delivery date and no on-time flag
+        assertNull(OnlineDelayModelService.late(shipment, 0));
+
+        shipment.setActualDeliveryDate(estimated.plusHours(3));
+        assertEquals(Boolean.TRUE, OnlineDelayModelService.late(shipment, 0));
+        assertEquals(Boolean.FALSE, OnlineDelayModelService.late(shipment, 4));
+
+        // An explicit on-time flag wins over the dates
+        shipment.setOnTimePerformance(true);
+        assertEquals(Boolean.FALSE, OnlineDelayModelService.late(shipment, 0));
+    }
+
+    private static OnlineDelayModel.Features features(OnlineDelayModel model, String carrier, String lane) {
+        return model.features()
+            .add("bias")
+            .add("carrier=" + carrier)
+            .add("lane=" + lane)
+            .add("carrier_lane=" + carrier + "|" + lane);
+    }
+}
@@ -0,0 +1,152 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.dto.RiskPredictionDTO;
+import com.supplychainrisk.entity.Supplier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PredictionCacheTest {
+
+    private PredictionCache predictionCache;
+    private SimpleMeterRegistry meterRegistry;
+    private final AtomicLong now = new AtomicLong();
+
+    @BeforeEach
+    public void setUp() {
+        predictionCache = new PredictionCache();
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(predictionCache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(predictionCache, "enabled", true);
+        ReflectionTestUtils.setField(predictionCache, "maxEntries", 3);
+        ReflectionTestUtils.setField(predictionCache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(predictionCache, "clock", (LongSupplier) now::get);
+        predictionCache.registerMetrics();
+    }
+
+    @Test
+    public void testFeatureHashIgnoresOrderAndTimestampButNotValuesOrModel() {
+        // Given
+        Map<String, Object> profile = new LinkedHashMap<>();
+        profile.put("overall_risk_score", 40);
+        profile.put("country", "DE");
+        Map<String, Object> reordered = new LinkedHashMap<>();
+        reordered.put("country", "DE");
+        reordered.put("overall_risk_score", 40);
+        Map<String, Object> later = new HashMap<>(Map.of("region", "EU", "timestamp", LocalDateTime.now()));
+        Map<String, Object> earlier = new HashMap<>(Map.of("region", "EU",
+            "timestamp", LocalDateTime.now().minusHours(1)));
+
+        // When / Then
+        String hash = PredictionCache.featureHash("v1", profile, later);
+        assertEquals(hash, PredictionCache.featureHash("v1", reordered, earlier));
+        assertNotEquals(hash,
+            PredictionCache.featureHash("v1", Map.of("overall_risk_score", 41, "country", "DE"), later));
+        assertNotEquals(hash, PredictionCache.featureHash("v1", profile, Map.of("region", "APAC")));
+        assertNotEquals(hash, PredictionCache.featureHash("v2", profile, later));
+    }
+
+    @Test
+    public void testHitsReturnCopiesWithTheirAge() {
+        // Given
+        RiskPredictionDTO prediction = prediction(7L, 55);
+        predictionCache.put(7L, "h1", 30, prediction);
+        prediction.getRiskScores().put("predicted_overall", BigDecimal.ONE);
+
+        // When
+        now.addAndGet(TimeUnit.SECONDS.toNanos(12));
+        RiskPredictionDTO first = predictionCache.get(7L, "h1", 30);
+        first.getRiskScores().clear();
+        RiskPredictionDTO second = predictionCache.get(7L, "h1", 30);
+
+        // Then
+        assertEquals(12L, second.getCacheAgeSeconds());
+        assertEquals(BigDecimal.valueOf(55), second.getRiskScores().get("predicted_overall"));
+        assertNull(prediction.getCacheAgeSeconds());
+        assertNull(predictionCache.get(7L, "h1", 90));
+        assertNull(predictionCache.get(7L, "h2", 30));
+        assertEquals(2.0, meterRegistry.counter("ml.prediction-cache.requests", "outcome", "hit").count());
+        assertEquals(2.0, meterRegistry.counter("ml.prediction-cache.requests", "outcome", "miss").count());
+    }
+
+    @Test
+    public void testEntriesExpireAfterTheTtl() {
+        // Given
+        predictionCache.put(7L, "h1", 30, prediction(7L, 55));
+
+        // When
+        now.addAndGet(TimeUnit.SECONDS.toNanos(60));
+
+        // Then
+        assertNull(predictionCache.get(7L, "h1", 30));
+        assertEquals(0, predictionCache.size());
+        assertEquals(1L, predictionCache.getStatistics().get("expired"));
+    }
+
+    @Test
+    public void testInvalidationDropsOnlyThatSupplier() {
+        // Given
+        predictionCache.put(7L, "h1", 30, prediction(7L, 55));
+        predictionCache.put(7L, "h1", 90, prediction(7L, 60));
+        predictionCache.put(8L, "h2", 30, prediction(8L, 20));
+        Supplier supplier = new Supplier();
+        supplier.setId(8L);
+
+        // When
+        predictionCache.invalidate(7L);
+
+        // Then
+        assertNull(predictionCache.get(7L, "h1", 30));
+        assertNull(predictionCache.get(7L, "h1", 90));
+        assertNotNull(predictionCache.get(8L, "h2", 30));
+
+        predictionCache.handleRiskScoresChanged(new RiskAssessmentService.SupplierRiskScoresChangedEvent(
+            supplier, EnumSet.allOf(RiskAssessmentService.RiskComponent.class), 20));
+        assertNull(predictionCache.get(8L, "h2", 30));
+        assertEquals(0, predictionCache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() {
+        // Given
+        predictionCache.put(1L, "h", 30, prediction(1L, 10));
+        predictionCache.put(2L, "h", 30, prediction(2L, 20));
+        predictionCache.put(3L, "h", 30, prediction(3L, 30));
+        predictionCache.get(1L, "h", 30);
+
+        // When
+        predictionCache.put(4L, "h", 30, prediction(4L, 40));
+
+        // Then
+        assertEquals(3, predictionCache.size());
+        assertNull(predictionCache.get(2L, "h", 30));
+        assertNotNull(predictionCache.get(1L, "h", 30));
+        assertEquals(3.0, meterRegistry.get("ml.prediction-cache.entries").gauge().value());
+
+        // An evicted supplier no longer counts against invalidation
+        predictionCache.invalidate(2L);
+        assertEquals(0L, predictionCache.getStatistics().get("invalidations"));
+    }
+
+    private static RiskPredictionDTO prediction(Long supplierId, int overall) {
+        RiskPredictionDTO prediction = new RiskPredictionDTO();
+        prediction.setSupplierId(supplierId);
+        prediction.setRiskScores(new HashMap<>(Map.of("predicted_overall", BigDecimal.valueOf(overall))));
+        prediction.setPredictedAt(LocalDateTime.now());
+        prediction.setTimeHorizonDays(30);
+        return prediction;
+    }
+}
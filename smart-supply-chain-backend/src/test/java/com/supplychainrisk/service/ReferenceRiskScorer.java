@@ -0,0 +1,278 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.entity.Supplier;
+import com.supplychainrisk.service.RiskAssessmentService.RiskComponent;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Hand-written evaluation of the built-in risk model, kept as the reference that
+ * {@link CompiledRiskScorer} is verified and benchmarked against.
+ */
+public class ReferenceRiskScorer {
+    
+    // Built-in model weights (totaling 100%)
+    private static final double FINANCIAL_WEIGHT = 0.25;
+    private static final double OPERATIONAL_WEIGHT = 0.30;
+    private static final double COMPLIANCE_WEIGHT = 0.25;
+    private static final double GEOGRAPHIC_WEIGHT = 0.20;
+    
+    /**
+     * Recalculate the given sub-scores, then the weighted overall score
+     */
+    public void calculateRiskScores(Supplier supplier, Set<RiskComponent> components) {
+        if (components.contains(RiskComponent.FINANCIAL)) {
+            supplier.setFinancialRiskScore(calculateFinancialRiskScore(supplier));
+        }
+        if (components.contains(RiskComponent.OPERATIONAL)) {
+            supplier.setOperationalRiskScore(calculateOperationalRiskScore(supplier));
+        }
+        if (components.contains(RiskComponent.COMPLIANCE)) {
+            supplier.setComplianceRiskScore(calculateComplianceRiskScore(supplier));
+        }
+        if (components.contains(RiskComponent.GEOGRAPHIC)) {
+            supplier.setGeographicRiskScore(calculateGeographicRiskScore(supplier));
+        }
+        
+        // Calculate overall risk score as weighted average
+        double overallRisk = (scoreOrZero(supplier.getFinancialRiskScore()) * FINANCIAL_WEIGHT) +
+                           (scoreOrZero(supplier.getOperationalRiskScore()) * OPERATIONAL_WEIGHT) +
+                           (scoreOrZero(supplier.getComplianceRiskScore()) * COMPLIANCE_WEIGHT) +
+                           (scoreOrZero(supplier.getGeographicRiskScore()) * GEOGRAPHIC_WEIGHT);
+        
+        supplier.setOverallRiskScore((int) Math.round(overallRisk));
+    }
+    
+    private static int scoreOrZero(Integer score) {
+        return score != null ? score : 0;
+    }
+    
+    /**
+     * Calculate financial risk score (0-100, higher is riskier)
+     */
+    private int calculateFinancialRiskScore(Supplier supplier) {
+        int score = 0;
+        
+        // Credit rating assessment
+        String creditRating = supplier.getCreditRating();
+        if (creditRating != null) {
+            switch (creditRating.toUpperCase()) {
+                case "AAA", "AA+", "AA", "AA-" -> score += 5;  // Excellent
+                case "A+", "A", "A-" -> score += 15;          // Good
+                case "BBB+", "BBB", "BBB-" -> score += 25;    // Fair
+                case "BB+", "BB", "BB-" -> score += 40;       // Speculative
+                case "B+", "B", "B-" -> score += 60;          // Highly speculative
+                default -> score += 80;                       // Default/Unknown
+            }
+        } else {
+            score += 50; // No credit rating available
+        }
+        
+        // Annual revenue assessment (stability indicator)
+        BigDecimal revenue = supplier.getAnnualRevenue();
+        if (revenue != null) {
+            if (revenue.compareTo(BigDecimal.valueOf(1000000000)) >= 0) { // >= $1B
+                score += 5;  // Very stable
+            } else if (revenue.compareTo(BigDecimal.valueOf(100000000)) >= 0) { // >= $100M
+                score += 10; // Stable
+            } else if (revenue.compareTo(BigDecimal.valueOf(10000000)) >= 0) { // >= $10M
+                score += 20; // Moderate
+            } else if (revenue.compareTo(BigDecimal.valueOf(1000000)) >= 0) { // >= $1M
+                score += 30; // Small but viable
+            } else {
+                score += 40; // Very small/risky
+            }
+        } else {
+            score += 30; // Unknown revenue
+        }
+        
+        // Years in business (experience/stability)
+        Integer yearsInBusiness = supplier.getYearsInBusiness();
+        if (yearsInBusiness != null) {
+            if (yearsInBusiness >= 20) {
+                score += 5;  // Very established
+            } else if (yearsInBusiness >= 10) {
+                score += 10; // Established
+            } else if (yearsInBusiness >= 5) {
+                score += 20; // Moderately established
+            } else if (yearsInBusiness >= 2) {
+                score += 30; // New but operational
+            } else {
+                score += 40; // Very new/risky
+            }
+        } else {
+            score += 25; // Unknown
+        }
+        
+        return Math.min(100, score);
+    }
+    
+    /**
+     * Calculate operational risk score (0-100, higher is riskier)
+     */
+    private int calculateOperationalRiskScore(Supplier supplier) {
+        int score = 0;
+        
+        // On-time delivery performance
+        BigDecimal deliveryRate = supplier.getOnTimeDeliveryRate();
+        if (deliveryRate != null) {
+            if (deliveryRate.compareTo(BigDecimal.valueOf(95)) >= 0) {
+                score += 5;  // Excellent
+            } else if (deliveryRate.compareTo(BigDecimal.valueOf(90)) >= 0) {
+                score += 15; // Good
+            } else if (deliveryRate.compareTo(BigDecimal.valueOf(80)) >= 0) {
+                score += 30; // Fair
+            } else if (deliveryRate.compareTo(BigDecimal.valueOf(70)) >= 0) {
+                score += 50; // Poor
+            } else {
+                score += 70; // Very poor
+            }
+        } else {
+            score += 40; // No data
+        }
+        
+        // Quality rating
+        BigDecimal qualityRating = supplier.getQualityRating();
+        if (qualityRating != null) {
+            if (qualityRating.compareTo(BigDecimal.valueOf(9)) >= 0) {
+                score += 5;  // Excellent
+            } else if (qualityRating.compareTo(BigDecimal.valueOf(8)) >= 0) {
+                score += 15; // Good
+            } else if (qualityRating.compareTo(BigDecimal.valueOf(7)) >= 0) {
+                score += 25; // Fair
+            } else if (qualityRating.compareTo(BigDecimal.valueOf(6)) >= 0) {
+                score += 40; // Poor
+            } else {
+                score += 60; // Very poor
+            }
+        } else {
+            score += 30; // No data
+        }
+        
+        // Employee count (capacity indicator)
+        Integer employeeCount = supplier.getEmployeeCount();
+        if (employeeCount != null) {
+            if (employeeCount >= 1000) {
+                score += 5;  // Large capacity
+            } else if (employeeCount >= 100) {
+                score += 10; // Medium capacity
+            } else if (employeeCount >= 50) {
+                score += 20; // Small but adequate
+            } else if (employeeCount >= 10) {
+                score += 30; // Very small
+            } else {
+                score += 40; // Micro/inadequate
+            }
+        } else {
+            score += 25; // Unknown
+        }
+        
+        return Math.min(100, score);
+    }
+    
+    /**
+     * Calculate compliance risk score (0-100, higher is riskier)
+     */
+    private int calculateComplianceRiskScore(Supplier supplier) {
+        int score = 0;
+        
+        // ISO certifications
+        List<String> isoCertifications = supplier.getIsoCertifications();
+        if (isoCertifications != null && !isoCertifications.isEmpty()) {
+            int certCount = isoCertifications.size();
+            if (certCount >= 5) {
+                score += 5;  // Excellent compliance
+            } else if (certCount >= 3) {
+                score += 15; // Good compliance
+            } else if (certCount >= 1) {
+                score += 25; // Basic compliance
+            }
+        } else {
+            score += 40; // No ISO certifications
+        }
+        
+        // Compliance certifications
+        List<String> complianceCerts = supplier.getComplianceCertifications();
+        if (complianceCerts != null && !complianceCerts.isEmpty()) {
+            int certCount = complianceCerts.size();
+            if (certCount >= 3) {
+                score += 10; // Strong compliance
+            } else if (certCount >= 1) {
+                score += 20; // Basic compliance
+            }
+        } else {
+            score += 30; // No compliance certifications
+        }
+        
+        // Audit status
+        LocalDate lastAudit = supplier.getLastAuditDate();
+        LocalDate nextAudit = supplier.getNextAuditDueDate();
+        
+        if (lastAudit != null) {
+            long daysSinceAudit = ChronoUnit.DAYS.between(lastAudit, LocalDate.now());
+            if (daysSinceAudit <= RiskAssessmentService.RECENT_AUDIT_DAYS) {
+                score += 5;  // Recent audit
+            } else if (daysSinceAudit <= RiskAssessmentService.AGED_AUDIT_DAYS) {
+                score += 15; // Moderately recent
+            } else {
+                score += 30; // Old audit
+            }
+        } else {
+            score += 40; // No audit history
+        }
+        
+        if (nextAudit != null) {
+            long daysToAudit = ChronoUnit.DAYS.between(LocalDate.now(), nextAudit);
+            if (daysToAudit < 0) {
+                score += 30; // Overdue audit
+            } else if (daysToAudit <= RiskAssessmentService.AUDIT_DUE_SOON_DAYS) {
+                score += 10; // Due soon
+            } else {
+                score += 5;  // Scheduled appropriately
+            }
+        } else {
+            score += 20; // No audit scheduled
+        }
+        
+        return Math.min(100, score);
+    }
+    
+    /**
+     * Calculate geographic risk score (0-100, higher is riskier)
+     */
+    private int calculateGeographicRiskScore(Supplier supplier) {
+        int score = 0;
+        String country = supplier.getCountry();
+        
+        if (country != null) {
+            String normalizedCountry = country.trim();
+            
+            if (RiskAssessmentService.HIGH_RISK_COUNTRIES.contains(normalizedCountry)) {
+                score += 80; // Very high risk
+            } else if (RiskAssessmentService.MEDIUM_RISK_COUNTRIES.contains(normalizedCountry)) {
+                score += 50; // Medium risk
+            } else {
+                // Low risk countries (US, EU, developed nations)
+                if (RiskAssessmentService.LOW_RISK_COUNTRIES.contains(normalizedCountry.toLowerCase())) {
+                    score += 10;
+                } else {
+                    score += 25; // Other countries - moderate risk
+                }
+            }
+        } else {
+            score += 50; // Unknown location
+        }
+        
+        // Additional geographic factors could be added here:
+        // - Natural disaster risk
+        // - Political stability
+        // - Economic indicators
+        // - Trade restrictions
+        
+        return Math.min(100, score);
+    }
+}
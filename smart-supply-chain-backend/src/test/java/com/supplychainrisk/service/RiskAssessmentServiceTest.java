@@ -0,0 +1,127 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.entity.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RiskAssessmentServiceTest {
+
+    private RiskAssessmentService riskAssessmentService;
+
+    private Supplier testSupplier;
+
+    @BeforeEach
+    public void setUp() {
+        riskAssessmentService = new RiskAssessmentService();
+
+        testSupplier = new Supplier();
+        testSupplier.setId(1L);
+        testSupplier.setName("Test Supplier");
+        testSupplier.setSupplierCode("TS001");
+        testSupplier.setCreditRating("A");
+        testSupplier.setAnnualRevenue(BigDecimal.valueOf(250_000_000));
+        testSupplier.setYearsInBusiness(12);
+        testSupplier.setOnTimeDeliveryRate(BigDecimal.valueOf(92.5));
+        testSupplier.setQualityRating(BigDecimal.valueOf(8.5));
+        testSupplier.setEmployeeCount(450);
+        testSupplier.setIsoCertifications(new ArrayList<>(List.of("ISO 9001", "ISO 14001")));
+        testSupplier.setComplianceCertifications(new ArrayList<>(List.of("SOC 2")));
+        testSupplier.setLastAuditDate(LocalDate.now().minusDays(100));
+        testSupplier.setNextAuditDueDate(LocalDate.now().plusDays(200));
+        testSupplier.setCountry("Germany");
+    }
+
+    @Test
+    public void testRecalculateAllComponentsMatchesFullCalculation() {
+        // Given
+        Supplier copy = copyRiskInputs(testSupplier);
+
+        // When
+        riskAssessmentService.calculateRiskScores(testSupplier);
+        riskAssessmentService.recalculateRiskScores(copy, EnumSet.allOf(RiskAssessmentService.RiskComponent.class));
+
+        // Then
+        assertEquals(testSupplier.getFinancialRiskScore(), copy.getFinancialRiskScore());
+        assertEquals(testSupplier.getOperationalRiskScore(), copy.getOperationalRiskScore());
+        assertEquals(testSupplier.getComplianceRiskScore(), copy.getComplianceRiskScore());
+        assertEquals(testSupplier.getGeographicRiskScore(), copy.getGeographicRiskScore());
+        assertEquals(testSupplier.getOverallRiskScore(), copy.getOverallRiskScore());
+    }
+
+    @Test
+    public void testCreditRatingChangeMarksOnlyFinancialDirty() {
+        // Given
+        RiskAssessmentService.RiskInputSnapshot before = RiskAssessmentService.RiskInputSnapshot.of(testSupplier);
+
+        // When
+        testSupplier.setCreditRating("BB");
+        testSupplier.setName("Renamed Supplier");
+        Set<RiskAssessmentService.RiskComponent> dirty =
+            before.changedComponents(RiskAssessmentService.RiskInputSnapshot.of(testSupplier));
+
+        // Then
+        assertEquals(EnumSet.of(RiskAssessmentService.RiskComponent.FINANCIAL), dirty);
+    }
+
+    @Test
+    public void testEquivalentValuesAreNotDirty() {
+        // Given
+        RiskAssessmentService.RiskInputSnapshot before = RiskAssessmentService.RiskInputSnapshot.of(testSupplier);
+
+        // When - same amount with a different scale, same rating in another case, same cert count
+        testSupplier.setOnTimeDeliveryRate(new BigDecimal("92.50"));
+        testSupplier.setCreditRating("a");
+        testSupplier.setIsoCertifications(new ArrayList<>(List.of("ISO 27001", "ISO 45001")));
+        testSupplier.setCountry(" Germany ");
+
+        // Then
+        assertTrue(before.changedComponents(RiskAssessmentService.RiskInputSnapshot.of(testSupplier)).isEmpty());
+    }
+
+    @Test
+    public void testPartialRecalculationKeepsOtherSubScores() {
+        // Given
+        riskAssessmentService.calculateRiskScores(testSupplier);
+        int financial = testSupplier.getFinancialRiskScore();
+        int operational = testSupplier.getOperationalRiskScore();
+        int geographic = testSupplier.getGeographicRiskScore();
+        int overall = testSupplier.getOverallRiskScore();
+
+        // When - audit becomes overdue
+        testSupplier.setNextAuditDueDate(LocalDate.now().minusDays(1));
+        riskAssessmentService.recalculateRiskScores(testSupplier,
+            EnumSet.of(RiskAssessmentService.RiskComponent.COMPLIANCE));
+
+        // Then
+        assertEquals(financial, testSupplier.getFinancialRiskScore());
+        assertEquals(operational, testSupplier.getOperationalRiskScore());
+        assertEquals(geographic, testSupplier.getGeographicRiskScore());
+        assertTrue(testSupplier.getOverallRiskScore() > overall);
+
+        Supplier fullyRecalculated = copyRiskInputs(testSupplier);
+        riskAssessmentService.calculateRiskScores(fullyRecalculated);
+        assertEquals(fullyRecalculated.getOverallRiskScore(), testSupplier.getOverallRiskScore());
+    }
+
+    private Supplier copyRiskInputs(Supplier source) {
+        Supplier copy = new Supplier();
+        copy.setCreditRating(source.getCreditRating());
+        copy.setAnnualRevenue(source.getAnnualRevenue());
+        copy.setYearsInBusiness(source.getYearsInBusiness());
+        copy.setOnTimeDeliveryRate(source.getOnTimeDeliveryRate());
+        copy.setQualityRating(source.getQualityRating());
+        copy.setEmployeeCount(source.getEmployeeCount());
+        copy.setIsoCertifications(source.getIsoCertifications());
+        copy.setComplianceCertifications(source.getComplianceCertifications());
+        copy.setLastAuditDate(source.getLastAuditDate());
+        copy.setNextAuditDueDate(source.getNextAuditDueDate());
+        copy.setCountry(source.getCountry());
+        return copy;
+    }
+}
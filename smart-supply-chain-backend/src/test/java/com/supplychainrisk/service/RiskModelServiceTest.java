@@ -0,0 +1,142 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.dto.RiskModelDefinition;
+import com.supplychainrisk.entity.Supplier;
+import com.supplychainrisk.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RiskModelServiceTest {
+
+    private static final String[] COUNTRIES = {"Germany", "USA", "China", "Iran", "Brazil", "India", "Russia", null};
+
+    @Test
+    public void testDefaultDefinitionCompilesToBuiltInModel() {
+        // Given
+        CompiledRiskScorer builtIn = CompiledRiskScorer.builder().build();
+        CompiledRiskScorer compiled = RiskModelService.compile(RiskModelService.defaultDefinition());
+        Random random = new Random(5);
+        long today = CompiledRiskScorer.today();
+
+        for (int i = 0; i < 2_000; i++) {
+            Supplier expected = randomSupplier(random);
+            Supplier actual = copy(expected);
+
+            // When
+            builtIn.score(expected, today);
+            compiled.score(actual, today);
+
+            // Then
+            assertEquals(expected.getOverallRiskScore(), actual.getOverallRiskScore());
+            assertEquals(expected.getFinancialRiskScore(), actual.getFinancialRiskScore());
+            assertEquals(expected.getComplianceRiskScore(), actual.getComplianceRiskScore());
+            assertEquals(expected.getGeographicRiskScore(), actual.getGeographicRiskScore());
+        }
+    }
+
+    @Test
+    public void testCountryTierChangeTargetsOnlyAffectedCountries() {
+        // Given - Brazil becomes medium risk, Russia moves to high risk
+        RiskModelDefinition before = RiskModelService.defaultDefinition();
+        RiskModelDefinition update = new RiskModelDefinition();
+        RiskModelDefinition.CountryTiers tiers = RiskModelService.defaultDefinition().getCountryTiers();
+        Set<String> high = new TreeSet<>(tiers.getHigh());
+        high.add("Russia");
+        Set<String> medium = new TreeSet<>(tiers.getMedium());
+        medium.remove("Russia");
+        medium.add(" Brazil");
+        tiers.setHigh(high);
+        tiers.setMedium(medium);
+        update.setCountryTiers(tiers);
+
+        // When
+        RiskModelService.RiskModelDiff diff = RiskModelService.diff(before,
+            RiskModelService.normalize(RiskModelService.merge(before, update)));
+
+        // Then
+        assertEquals(EnumSet.of(RiskAssessmentService.RiskComponent.GEOGRAPHIC), diff.getComponents());
+        assertFalse(diff.isWeightsChanged());
+        assertEquals(Set.of("russia", "brazil"), diff.getAffectedCountries());
+    }
+
+    @Test
+    public void testWeightChangeRescoresEverySupplier() {
+        // Given
+        RiskModelDefinition before = RiskModelService.defaultDefinition();
+        RiskModelDefinition update = new RiskModelDefinition();
+        RiskModelDefinition.Weights weights = new RiskModelDefinition.Weights();
+        weights.setFinancial(0.40);
+        weights.setOperational(0.20);
+        weights.setCompliance(0.20);
+        weights.setGeographic(0.20);
+        update.setWeights(weights);
+        update.setCountryTiers(RiskModelService.defaultDefinition().getCountryTiers());
+        update.getCountryTiers().setLowPoints(5);
+
+        // When
+        RiskModelService.RiskModelDiff diff = RiskModelService.diff(before, RiskModelService.merge(before, update));
+        RiskModelService.RiskModelDiff unchanged = RiskModelService.diff(before, RiskModelService.defaultDefinition());
+
+        // Then
+        assertTrue(diff.isWeightsChanged());
+        assertEquals(EnumSet.of(RiskAssessmentService.RiskComponent.GEOGRAPHIC), diff.getComponents());
+        assertNull(diff.getAffectedCountries());
+        assertTrue(unchanged.isEmpty());
+    }
+
+    @Test
+    public void testRejectsInvalidDefinitions() {
+        // Given
+        RiskModelDefinition badWeights = RiskModelService.defaultDefinition();
+        badWeights.getWeights().setGeographic(0.50);
+        RiskModelDefinition ascendingBands = RiskModelService.defaultDefinition();
+        ascendingBands.getYearsInBusiness().setCutoffs(List.of(2.0, 5.0, 10.0, 20.0));
+        RiskModelDefinition missingPoints = RiskModelService.defaultDefinition();
+        missingPoints.getQualityRating().setPoints(List.of(5, 15, 25));
+        RiskModelDefinition missingSection = RiskModelService.defaultDefinition();
+        missingSection.setAudits(null);
+
+        // When / Then
+        assertThrows(BusinessException.class, () -> RiskModelService.compile(badWeights));
+        assertThrows(BusinessException.class, () -> RiskModelService.compile(ascendingBands));
+        assertThrows(BusinessException.class, () -> RiskModelService.compile(missingPoints));
+        assertThrows(BusinessException.class, () -> RiskModelService.compile(missingSection));
+    }
+
+    private Supplier randomSupplier(Random random) {
+        Supplier supplier = new Supplier();
+        supplier.setCreditRating(new String[] {"AAA", "A", "bbb", "B-", "CCC", null}[random.nextInt(6)]);
+        supplier.setAnnualRevenue(BigDecimal.valueOf(Math.abs(random.nextLong()) % 2_000_000_000_00L, 2));
+        supplier.setYearsInBusiness(random.nextInt(30));
+        supplier.setOnTimeDeliveryRate(BigDecimal.valueOf(random.nextInt(10001), 2));
+        supplier.setQualityRating(BigDecimal.valueOf(random.nextInt(1001), 2));
+        supplier.setEmployeeCount(random.nextInt(3000));
+        supplier.setIsoCertifications(List.of("ISO 9001", "ISO 14001", "ISO 27001").subList(0, random.nextInt(4)));
+        supplier.setComplianceCertifications(List.of("SOC 2", "GDPR").subList(0, random.nextInt(3)));
+        supplier.setLastAuditDate(LocalDate.now().minusDays(random.nextInt(1000)));
+        supplier.setNextAuditDueDate(LocalDate.now().plusDays(random.nextInt(120) - 30));
+        supplier.setCountry(COUNTRIES[random.nextInt(COUNTRIES.length)]);
+        return supplier;
+    }
+
+    private Supplier copy(Supplier source) {
+        Supplier copy = new Supplier();
+        copy.setCreditRating(source.getCreditRating());
+        copy.setAnnualRevenue(source.getAnnualRevenue());
+        copy.setYearsInBusiness(source.getYearsInBusiness());
+        copy.setOnTimeDeliveryRate(source.getOnTimeDeliveryRate());
+        copy.setQualityRating(source.getQualityRating());
+        copy.setEmployeeCount(source.getEmployeeCount());
+        copy.setIsoCertifications(source.getIsoCertifications());
+        copy.setComplianceCertifications(source.getComplianceCertifications());
+        copy.setLastAuditDate(source.getLastAuditDate());
+        copy.setNextAuditDueDate(source.getNextAuditDueDate());
+        copy.setCountry(source.getCountry());
+        return copy;
+    }
+}
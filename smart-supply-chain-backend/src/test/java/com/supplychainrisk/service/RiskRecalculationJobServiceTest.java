@@ -0,0 +1,148 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.entity.BatchJobExecution;
+import com.supplychainrisk.exception.BusinessException;
+import com.supplychainrisk.repository.BatchJobExecutionRepository;
+import com.supplychainrisk.repository.SupplierRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RiskRecalculationJobServiceTest {
+
+    @Mock
+    private SupplierRepository supplierRepository;
+
+    @Mock
+    private BatchJobExecutionRepository jobExecutionRepository;
+
+    @Mock
+    private Executor jobExecutor;
+
+    @Mock
+    private BatchJobLeaseService batchJobLeaseService;
+
+    @InjectMocks
+    private RiskRecalculationJobService riskRecalculationJobService;
+
+    @Test
+    public void testResumesRunLeftRunningByACrash() {
+        // Given - the last run never reached a final status and its owner stopped renewing the lease
+        BatchJobExecution crashed = execution(BatchJobExecution.JobStatus.RUNNING);
+        crashed.setLeaseExpiresAt(LocalDateTime.now().minusMinutes(1));
+        when(jobExecutionRepository.findTopByJobTypeOrderByStartedAtDesc(RiskRecalculationJobService.JOB_TYPE))
+            .thenReturn(Optional.of(crashed));
+        when(batchJobLeaseService.isAbandoned(eq(crashed), any(LocalDateTime.class))).thenReturn(true);
+        when(batchJobLeaseService.takeOver(crashed)).thenReturn(true);
+        when(supplierRepository.countByIdGreaterThan(400L)).thenReturn(600L);
+        when(jobExecutionRepository.save(any(BatchJobExecution.class))).thenAnswer(call -> call.getArgument(0));
+
+        // When
+        Map<String, Object> progress = riskRecalculationJobService.startRecalculation(true, 1L);
+
+        // Then - the same execution continues from its checkpoint
+        assertEquals(5L, progress.get("jobId"));
+        assertEquals(400L, progress.get("lastProcessedId"));
+        assertEquals(1000L, progress.get("totalSuppliers"));
+        verify(jobExecutor).execute(any(Runnable.class));
+        verify(supplierRepository, never()).count();
+    }
+
+    @Test
+    public void testRunStillLeasedByAnotherInstanceIsNotResumed() {
+        // Given - another instance is still renewing its lease on the last run
+        BatchJobExecution live = execution(BatchJobExecution.JobStatus.RUNNING);
+        live.setLeaseExpiresAt(LocalDateTime.now().plusMinutes(4));
+        when(jobExecutionRepository.findTopByJobTypeOrderByStartedAtDesc(RiskRecalculationJobService.JOB_TYPE))
+            .thenReturn(Optional.of(live));
+        when(batchJobLeaseService.isAbandoned(eq(live), any(LocalDateTime.class))).thenReturn(false);
+
+        // When / Then
+        BusinessException error = assertThrows(BusinessException.class,
+            () -> riskRecalculationJobService.startRecalculation(true, 1L));
+        assertEquals(HttpStatus.CONFLICT, error.getStatus());
+        verify(batchJobLeaseService, never()).takeOver(any(BatchJobExecution.class));
+        verifyNoInteractions(jobExecutor);
+        assertFalse(riskRecalculationJobService.isRunning());
+    }
+
+    @Test
+    public void testProgressReportsLastModelRescore() {
+        // Given - the most recent job was a model rescore
+        BatchJobExecution rescore = execution(BatchJobExecution.JobStatus.COMPLETED);
+        rescore.setJobType(RiskRecalculationJobService.MODEL_RESCORE_JOB_TYPE);
+        when(jobExecutionRepository.findTopByJobTypeInOrderByStartedAtDesc(List.of(
+            RiskRecalculationJobService.JOB_TYPE, RiskRecalculationJobService.MODEL_RESCORE_JOB_TYPE)))
+            .thenReturn(Optional.of(rescore));
+
+        // When
+        Map<String, Object> progress = riskRecalculationJobService.getProgress();
+
+        // Then
+        assertEquals(RiskRecalculationJobService.MODEL_RESCORE_JOB_TYPE, progress.get("jobType"));
+        assertEquals(5L, progress.get("jobId"));
+    }
+
+    @Test
+    public void testCompletedRunIsNotResumed() {
+        // Given
+        when(jobExecutionRepository.findTopByJobTypeOrderByStartedAtDesc(RiskRecalculationJobService.JOB_TYPE))
+            .thenReturn(Optional.of(execution(BatchJobExecution.JobStatus.COMPLETED)));
+        when(supplierRepository.count()).thenReturn(1000L);
+        when(jobExecutionRepository.save(any(BatchJobExecution.class))).thenAnswer(call -> call.getArgument(0));
+
+        // When
+        Map<String, Object> progress = riskRecalculationJobService.startRecalculation(true, 1L);
+
+        // Then - a new run starts from the beginning
+        assertNull(progress.get("jobId"));
+        assertEquals(0L, progress.get("lastProcessedId"));
+        assertEquals(1000L, progress.get("totalSuppliers"));
+    }
+
+    @Test
+    public void testReservedRescoreSlotBlocksOtherJobsUntilReleased() {
+        // Given - a model activation holds the slot while it swaps the model
+        when(supplierRepository.count()).thenReturn(1000L);
+        when(jobExecutionRepository.save(any(BatchJobExecution.class))).thenAnswer(call -> call.getArgument(0));
+        RiskRecalculationJobService.RescoreReservation reservation = riskRecalculationJobService.reserveModelRescore();
+
+        // When / Then - nothing else can start in between
+        assertThrows(BusinessException.class, () -> riskRecalculationJobService.startRecalculation(false, 1L));
+        assertThrows(BusinessException.class, riskRecalculationJobService::reserveModelRescore);
+        assertTrue(riskRecalculationJobService.isRunning());
+
+        // When / Then - an unused reservation frees the slot
+        reservation.release();
+        assertFalse(riskRecalculationJobService.isRunning());
+        riskRecalculationJobService.reserveModelRescore()
+            .start(EnumSet.of(RiskAssessmentService.RiskComponent.COMPLIANCE), null, 1L);
+        verify(jobExecutor).execute(any(Runnable.class));
+    }
+
+    private static BatchJobExecution execution(BatchJobExecution.JobStatus status) {
+        BatchJobExecution execution = new BatchJobExecution(RiskRecalculationJobService.JOB_TYPE, 100, 1L);
+        execution.setId(5L);
+        execution.setStatus(status);
+        execution.setLastProcessedId(400L);
+        execution.setProcessedItems(395L);
+        execution.setFailedItems(5L);
+        return execution;
+    }
+}
@@ -0,0 +1,69 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.entity.Shipment;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ShipmentDeliveryDayEntityListenerTest {
+
+    @Mock
+    private CorrelationAnalysisService correlationAnalysisService;
+
+    @InjectMocks
+    private ShipmentDeliveryDayEntityListener listener;
+
+    @Test
+    public void testMovedDeliveryReportsTheDayItLeft() {
+        // Given - a shipment loaded as delivered on the 3rd
+        Shipment shipment = new Shipment();
+        shipment.setActualDeliveryDate(LocalDateTime.of(2024, 5, 3, 14, 0));
+        listener.onShipmentLoaded(shipment);
+
+        // When - its delivery date is corrected to the 1st
+        shipment.setActualDeliveryDate(LocalDateTime.of(2024, 5, 1, 9, 30));
+        listener.onShipmentSaved(shipment);
+
+        // Then - the 3rd is read again; the 1st is found through updated_at
+        verify(correlationAnalysisService).deliveryDayVacated(LocalDate.of(2024, 5, 3));
+        verifyNoMoreInteractions(correlationAnalysisService);
+    }
+
+    @Test
+    public void testSameDayCorrectionAndFirstDeliveryReportNothing() {
+        // Given
+        Shipment shipment = new Shipment();
+        listener.onShipmentLoaded(shipment);
+
+        // When - first delivered, then corrected within the same day
+        shipment.setActualDeliveryDate(LocalDateTime.of(2024, 5, 3, 14, 0));
+        listener.onShipmentSaved(shipment);
+        shipment.setActualDeliveryDate(LocalDateTime.of(2024, 5, 3, 8, 0));
+        listener.onShipmentSaved(shipment);
+
+        // Then
+        verifyNoInteractions(correlationAnalysisService);
+    }
+
+    @Test
+    public void testDeletedShipmentReportsItsDay() {
+        // Given
+        Shipment shipment = new Shipment();
+        shipment.setActualDeliveryDate(LocalDateTime.of(2024, 5, 3, 14, 0));
+        listener.onShipmentLoaded(shipment);
+
+        // When
+        listener.onShipmentRemoved(shipment);
+
+        // Then
+        verify(correlationAnalysisService).deliveryDayVacated(LocalDate.of(2024, 5, 3));
+    }
+}
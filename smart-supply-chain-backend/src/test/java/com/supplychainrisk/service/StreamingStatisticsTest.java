@@ -0,0 +1,111 @@
+package com.supplychainrisk.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamingStatisticsTest {
+
+    @Test
+    public void testSinglePassMatchesTwoPassFormulas() {
+        // Given
+        Double[] series = {4.0, null, 7.0, 9.0, null, null, 3.0, 5.0};
+
+        // When
+        StreamingStatistics statistics = new StreamingStatistics();
+        for (Double value : series) {
+            statistics.accept(value);
+        }
+
+        // Then
+        assertEquals(8, statistics.getObservations());
+        assertEquals(5, statistics.getCount());
+        assertEquals(3, statistics.getNullCount());
+        assertEquals(5.6, statistics.getMean(), 1e-12);
+        assertEquals(3.0, statistics.getMin().getAsDouble());
+        assertEquals(9.0, statistics.getMax().getAsDouble());
+        // (4-5.6)^2 + (7-5.6)^2 + (9-5.6)^2 + (3-5.6)^2 + (5-5.6)^2
+        assertEquals(23.2, statistics.getSumOfSquaredDeviations(), 1e-12);
+        assertEquals(23.2 / 5, statistics.getPopulationVariance(), 1e-12);
+        assertEquals(23.2 / 4, statistics.getSampleVariance(), 1e-12);
+        // Adjacent pairs with both values: 7->9 and 3->5
+        assertEquals(2.0, statistics.getMeanStepChange().getAsDouble(), 1e-12);
+        assertEquals(4.0, statistics.getFirst().getAsDouble());
+        assertEquals(5.0, statistics.getLast().getAsDouble());
+
+        // Slope against positions 0, 2, 3, 6, 7
+        double meanX = (0 + 2 + 3 + 6 + 7) / 5.0;
+        double[] x = {0, 2, 3, 6, 7};
+        double[] y = {4, 7, 9, 3, 5};
+        double sxy = 0;
+        double sxx = 0;
+        for (int i = 0; i < x.length; i++) {
+            sxy += (x[i] - meanX) * (y[i] - 5.6);
+            sxx += (x[i] - meanX) * (x[i] - meanX);
+        }
+        assertEquals(sxy / sxx, statistics.getSlope().getAsDouble(), 1e-12);
+    }
+
+    @Test
+    public void testCombinedPartitionsMatchSequentialPass() {
+        // Given
+        Random random = new Random(17);
+        List<Double> series = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            series.add(random.nextInt(6) == 0 ? null : random.nextGaussian() * 15 + 0.01 * i);
+        }
+        StreamingStatistics sequential = new StreamingStatistics();
+        series.forEach(sequential::accept);
+
+        // When - uneven partitions, including empty ones and ones that start or end with a missing value
+        StreamingStatistics combined = new StreamingStatistics();
+        int from = 0;
+        while (from < series.size()) {
+            int to = Math.min(series.size(), from + random.nextInt(300));
+            StreamingStatistics partition = new StreamingStatistics();
+            series.subList(from, to).forEach(partition::accept);
+            combined.combine(partition);
+            from = to;
+        }
+        StreamingStatistics collected = series.parallelStream()
+            .collect(StreamingStatistics.collector(value -> value));
+
+        // Then
+        for (StreamingStatistics statistics : List.of(combined, collected)) {
+            assertEquals(sequential.getObservations(), statistics.getObservations());
+            assertEquals(sequential.getCount(), statistics.getCount());
+            assertEquals(sequential.getMean(), statistics.getMean(), 1e-9);
+            assertEquals(sequential.getSumOfSquaredDeviations(), statistics.getSumOfSquaredDeviations(), 1e-6);
+            assertEquals(sequential.getMin().getAsDouble(), statistics.getMin().getAsDouble());
+            assertEquals(sequential.getMax().getAsDouble(), statistics.getMax().getAsDouble());
+            assertEquals(sequential.getSlope().getAsDouble(), statistics.getSlope().getAsDouble(), 1e-12);
+            assertEquals(sequential.getMeanStepChange().getAsDouble(),
+                statistics.getMeanStepChange().getAsDouble(), 1e-9);
+            assertEquals(sequential.getFirst(), statistics.getFirst());
+            assertEquals(sequential.getLast(), statistics.getLast());
+        }
+    }
+
+    @Test
+    public void testEmptyAndSingleValue() {
+        // Given
+        StreamingStatistics empty = new StreamingStatistics();
+        StreamingStatistics single = new StreamingStatistics();
+        single.accept(42.0);
+
+        // When / Then
+        assertEquals(0.0, empty.getMean());
+        assertTrue(empty.getMin().isEmpty());
+        assertTrue(empty.getSlope().isEmpty());
+        assertTrue(empty.getFirst().isEmpty());
+        assertEquals(0.0, single.getPopulationVariance());
+        assertEquals(0.0, single.getSampleVariance());
+        assertTrue(single.getSlope().isEmpty());
+        assertTrue(single.getMeanStepChange().isEmpty());
+        assertEquals(42.0, empty.combine(single).getMean());
+    }
+}
@@ -0,0 +1,206 @@
+package com.supplychainrisk.service;
+
+import com.supplychainrisk.entity.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SupplierFeatureSnapshotTest {
+
+    private SupplierFeatureSnapshot snapshot;
+
+    @BeforeEach
+    public void setUp() {
+        snapshot = new SupplierFeatureSnapshot();
+    }
+
+    @Test
+    public void testAggregatesMatchEntityScan() {
+        // Given
+        Random random = new Random(11);
+        Map<Long, Supplier> suppliers = new HashMap<>();
+        for (long id = 1; id <= 500; id++) {
+            Supplier supplier = randomSupplier(random, id);
+            suppliers.put(id, supplier);
+            snapshot.upsert(supplier);
+        }
+        // Updates and deletes interleaved with the initial inserts
+        for (long id = 1; id <= 500; id += 7) {
+            Supplier supplier = randomSupplier(random, id);
+            suppliers.put(id, supplier);
+            snapshot.upsert(supplier);
+        }
+        for (long id = 3; id <= 500; id += 11) {
+            suppliers.remove(id);
+            snapshot.remove(id);
+        }
+        Collection<Supplier> expected = suppliers.values();
+
+        // When / Then
+        assertEquals(expected.size(), snapshot.size());
+        assertEquals(expected.stream().filter(s -> s.getOverallRiskScore() != null && s.getOverallRiskScore() > 70).count(),
+            snapshot.countOverallRiskAbove(70));
+        assertEquals(expected.stream().filter(s -> s.getOverallRiskScore() != null)
+                .mapToLong(Supplier::getOverallRiskScore).sum(),
+            snapshot.overallRiskScoreStats().getSum());
+        assertEquals(expected.stream().filter(s -> s.getOverallRiskScore() != null)
+                .mapToDouble(s -> Math.max(0, 100 - s.getOverallRiskScore().doubleValue())).average().orElse(-1),
+            snapshot.averageOverallRiskHeadroom().orElse(-1), 1e-9);
+        assertEquals(expected.stream().filter(s -> s.getRiskScore() != null)
+                .mapToDouble(Supplier::getRiskScore).average().orElse(-1),
+            snapshot.averageRiskScore().orElse(-1), 1e-9);
+
+        Map<String, Long> riskLevels = new HashMap<>();
+        for (Supplier supplier : expected) {
+            riskLevels.merge(supplier.getRiskLevel() != null ? supplier.getRiskLevel().toString() : "UNKNOWN",
+                1L, Long::sum);
+        }
+        assertEquals(riskLevels, snapshot.countByRiskLevel());
+
+        Map<String, Long> bands = new HashMap<>();
+        for (Supplier supplier : expected) {
+            bands.merge(band(supplier.getOverallRiskScore()), 1L, Long::sum);
+        }
+        assertEquals(bands, snapshot.countByOverallRiskScore(SupplierFeatureSnapshotTest::band));
+    }
+
+    @Test
+    public void testFindSimilarActiveSupplierIds() {
+        // Given
+        snapshot.upsert(supplier(1L, "Electronics", "Manufacturer", "Germany", Supplier.SupplierStatus.ACTIVE, "8.00"));
+        snapshot.upsert(supplier(2L, "Electronics", "Distributor", "China", Supplier.SupplierStatus.ACTIVE, "9.00"));
+        snapshot.upsert(supplier(3L, "Textiles", "Manufacturer", "India", Supplier.SupplierStatus.ACTIVE, "7.50"));
+        snapshot.upsert(supplier(4L, "Textiles", "Distributor", "Germany", Supplier.SupplierStatus.ACTIVE, "9.50"));
+        snapshot.upsert(supplier(5L, "Electronics", "Manufacturer", "Germany", Supplier.SupplierStatus.INACTIVE, "9.00"));
+        snapshot.upsert(supplier(6L, "Electronics", "Manufacturer", null, Supplier.SupplierStatus.ACTIVE, null));
+
+        // When
+        List<Long> similar = snapshot.findSimilarActiveSupplierIds(1L, "Electronics", "Manufacturer",
+            null, null, null);
+        List<Long> filtered = snapshot.findSimilarActiveSupplierIds(1L, "Electronics", "Manufacturer",
+            List.of("China", "India"), null, new BigDecimal("8.0"));
+        List<Long> excluded = snapshot.findSimilarActiveSupplierIds(1L, "Electronics", "Manufacturer",
+            null, List.of("China"), null);
+        List<Long> unknownIndustry = snapshot.findSimilarActiveSupplierIds(1L, "Aerospace", "Broker",
+            null, null, null);
+
+        // Then
+        assertEquals(Set.of(2L, 3L, 6L), new HashSet<>(similar));
+        assertEquals(List.of(2L), filtered);
+        assertEquals(Set.of(3L, 6L), new HashSet<>(excluded));
+        assertTrue(unknownIndustry.isEmpty());
+    }
+
+    @Test
+    public void testRemoveKeepsRemainingRowsAddressable() {
+        // Given
+        for (long id = 1; id <= 5; id++) {
+            Supplier supplier = supplier(id, "Electronics", "Manufacturer", "Germany", Supplier.SupplierStatus.ACTIVE, "8.00");
+            supplier.setOverallRiskScore((int) id * 10);
+            snapshot.upsert(supplier);
+        }
+
+        // When - remove a middle row, then update the row that was swapped into its slot
+        snapshot.remove(2L);
+        Supplier moved = supplier(5L, "Electronics", "Manufacturer", "Germany", Supplier.SupplierStatus.ACTIVE, "8.00");
+        moved.setOverallRiskScore(90);
+        snapshot.upsert(moved);
+        snapshot.remove(42L);
+
+        // Then
+        assertEquals(4, snapshot.size());
+        assertEquals(10 + 30 + 40 + 90, snapshot.overallRiskScoreStats().getSum());
+        assertEquals(1, snapshot.countOverallRiskAbove(70));
+    }
+
+    @Test
+    public void testHistogramsTrackWritesPerSegment() {
+        // Given
+        Random random = new Random(23);
+        Map<Long, Supplier> suppliers = new HashMap<>();
+        for (long id = 1; id <= 2_000; id++) {
+            Supplier supplier = randomSupplier(random, id);
+            supplier.setFinancialRiskScore(random.nextInt(10) == 0 ? null : random.nextInt(101));
+            supplier.setTier(random.nextInt(5) == 0 ? null
+                : Supplier.SupplierTier.values()[random.nextInt(Supplier.SupplierTier.values().length)]);
+            suppliers.put(id, supplier);
+            snapshot.upsert(supplier);
+        }
+        // Rescoring moves suppliers between bins; deletes retract them
+        for (long id = 1; id <= 2_000; id += 3) {
+            Supplier supplier = suppliers.get(id);
+            supplier.setFinancialRiskScore(random.nextInt(101));
+            supplier.setCountry("Country-" + random.nextInt(8));
+            snapshot.upsert(supplier);
+        }
+        for (long id = 5; id <= 2_000; id += 13) {
+            suppliers.remove(id);
+            snapshot.remove(id);
+        }
+
+        // When
+        RiskScoreHistogram financial = snapshot.riskScoreHistogram(RiskScoreHistogram.Dimension.FINANCIAL);
+        RiskScoreHistogram activeOverall = snapshot.riskScoreHistogram(RiskScoreHistogram.Dimension.OVERALL,
+            Supplier.SupplierStatus.ACTIVE);
+        RiskScoreHistogram countryOverall = snapshot.riskScoreHistogramForCountry(RiskScoreHistogram.Dimension.OVERALL,
+            "Country-3");
+        Map<String, RiskScoreHistogram> byTier = snapshot.riskScoreHistogramsByTier(RiskScoreHistogram.Dimension.OVERALL);
+
+        // Then
+        List<Integer> financialScores = suppliers.values().stream().map(Supplier::getFinancialRiskScore)
+            .filter(Objects::nonNull).sorted().toList();
+        assertEquals(financialScores.size(), financial.getScored());
+        assertEquals(suppliers.size() - financialScores.size(), financial.getUnscored());
+        for (double p : new double[] {1, 50, 90, 99, 100}) {
+            int rank = (int) Math.ceil(p / 100 * financialScores.size());
+            assertEquals(financialScores.get(rank - 1), financial.percentile(p).getAsInt());
+        }
+        assertEquals(financialScores.stream().filter(score -> score > 70).count(), financial.countAbove(70));
+
+        assertEquals(suppliers.values().stream().filter(s -> s.getStatus() == Supplier.SupplierStatus.ACTIVE
+                && s.getOverallRiskScore() != null && s.getOverallRiskScore() > 70).count(),
+            activeOverall.countAbove(70));
+        assertEquals(suppliers.values().stream().filter(s -> "Country-3".equals(s.getCountry())).count(),
+            countryOverall.getTotal());
+        for (Supplier.SupplierTier tier : Supplier.SupplierTier.values()) {
+            assertEquals(suppliers.values().stream().filter(s -> s.getTier() == tier
+                    && s.getOverallRiskScore() != null).mapToLong(Supplier::getOverallRiskScore).sum(),
+                byTier.get(tier.toString()).statistics().getSum());
+        }
+        assertEquals(0, snapshot.riskScoreHistogramForCountry(RiskScoreHistogram.Dimension.OVERALL, "Atlantis").getTotal());
+    }
+
+    private static String band(Integer score) {
+        if (score == null) return "UNKNOWN";
+        if (score < 30) return "LOW";
+        if (score < 60) return "MEDIUM";
+        return "HIGH";
+    }
+
+    private Supplier randomSupplier(Random random, long id) {
+        Supplier supplier = supplier(id, "Industry-" + random.nextInt(5), "Type-" + random.nextInt(3),
+            "Country-" + random.nextInt(8), Supplier.SupplierStatus.values()[random.nextInt(Supplier.SupplierStatus.values().length)],
+            random.nextInt(10) == 0 ? null : BigDecimal.valueOf(random.nextInt(1001), 2).toPlainString());
+        supplier.setOverallRiskScore(random.nextInt(10) == 0 ? null : random.nextInt(101));
+        supplier.setRiskScore(random.nextInt(10) == 0 ? null : random.nextInt(10001) / 100.0);
+        supplier.setRiskLevel(random.nextInt(10) == 0 ? null
+            : Supplier.RiskLevel.values()[random.nextInt(Supplier.RiskLevel.values().length)]);
+        return supplier;
+    }
+
+    private Supplier supplier(Long id, String industry, String businessType, String country,
+                              Supplier.SupplierStatus status, String qualityRating) {
+        Supplier supplier = new Supplier();
+        supplier.setId(id);
+        supplier.setIndustry(industry);
+        supplier.setBusinessType(businessType);
+        supplier.setCountry(country);
+        supplier.setStatus(status);
+        supplier.setQualityRating(qualityRating != null ? new BigDecimal(qualityRating) : null);
+        return supplier;
+    }
+}